@@ -0,0 +1,20 @@
+package com.ai.config;
+
+import com.ai.dto.EnhancementCompletedEvent;
+import com.ai.dto.EnhancementRequestedEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection a native image cannot derive from the AOT-processed bean definitions: the
+ * pre-enhancement events, which the Kafka JSON serializers bind by class.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                EnhancementRequestedEvent.class, EnhancementCompletedEvent.class);
+    }
+}
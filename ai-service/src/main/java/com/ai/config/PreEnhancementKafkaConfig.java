@@ -0,0 +1,96 @@
+package com.ai.config;
+
+import com.ai.dto.EnhancementCompletedEvent;
+import com.ai.dto.EnhancementRequestedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka wiring for background pre-enhancement. Only active with
+ * {@code ai.pre-enhancement.enabled=true}, so the service still runs without a broker.
+ */
+@EnableKafka
+@Configuration
+@ConditionalOnProperty(name = "ai.pre-enhancement.enabled", havingValue = "true")
+public class PreEnhancementKafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${ai.pre-enhancement.group-id:ai-service-pre-enhancement}")
+    private String groupId;
+
+    @Value("${ai.pre-enhancement.max-poll-records:10}")
+    private int maxPollRecords;
+
+    @Value("${ai.pre-enhancement.concurrency:1}")
+    private int concurrency;
+
+    @Bean
+    public ConsumerFactory<String, EnhancementRequestedEvent> preEnhancementConsumerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Records are paced at ai.pre-enhancement.rate-per-second, so keep each poll small
+        // enough to finish well inside max.poll.interval.ms.
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        DefaultKafkaConsumerFactory<String, EnhancementRequestedEvent> factory = new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new JsonDeserializer<>(EnhancementRequestedEvent.class, false)
+        );
+        // Exposes kafka.consumer.fetch.manager.records.lag.max, i.e. the pre-enhancement backlog
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EnhancementRequestedEvent> preEnhancementListenerContainerFactory(
+            ConsumerFactory<String, EnhancementRequestedEvent> preEnhancementConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, EnhancementRequestedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(preEnhancementConsumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setObservationEnabled(true);
+        return factory;
+    }
+
+    @Bean
+    public ProducerFactory<String, EnhancementCompletedEvent> enhancementResultProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, EnhancementCompletedEvent> enhancementResultKafkaTemplate() {
+        KafkaTemplate<String, EnhancementCompletedEvent> template = new KafkaTemplate<>(enhancementResultProducerFactory());
+        template.setObservationEnabled(true);
+        return template;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ai.config;
+
+import com.ai.semantic.EmbeddingModel;
+import com.ai.semantic.HashingEmbeddingModel;
+import com.ai.semantic.OllamaEmbeddingModel;
+import com.ai.semantic.SemanticCacheProperties;
+import com.ai.semantic.SemanticEnhancementCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(SemanticCacheProperties.class)
+@ConditionalOnProperty(prefix = "ai.semantic-cache", name = "enabled", havingValue = "true")
+public class SemanticCacheConfig {
+
+    @Bean
+    public EmbeddingModel embeddingModel(SemanticCacheProperties properties,
+                                         HttpClient ollamaHttpClient,
+                                         ObjectMapper objectMapper,
+                                         @Value("${ollama.base-url:http://localhost:11434}") String ollamaBaseUrl,
+                                         @Value("${ollama.timeout-seconds:30}") long timeoutSeconds) {
+        if ("ollama".equalsIgnoreCase(properties.getEmbedding())) {
+            return new OllamaEmbeddingModel(ollamaHttpClient, objectMapper.getFactory(), ollamaBaseUrl,
+                    properties.getEmbeddingModel(), properties.getDimensions(), Duration.ofSeconds(timeoutSeconds));
+        }
+        return new HashingEmbeddingModel(properties.getDimensions());
+    }
+
+    @Bean
+    public SemanticEnhancementCache semanticEnhancementCache(EmbeddingModel embeddingModel,
+                                                             SemanticCacheProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        return new SemanticEnhancementCache(embeddingModel, properties, meterRegistry);
+    }
+}
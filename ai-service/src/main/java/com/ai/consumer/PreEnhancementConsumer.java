@@ -0,0 +1,151 @@
+package com.ai.consumer;
+
+import com.ai.dto.EnhancementCompletedEvent;
+import com.ai.dto.EnhancementRequestedEvent;
+import com.ai.dto.OptimizationRequest;
+import com.ai.dto.OptimizationResponse;
+import com.ai.service.AiOptimizationService;
+import com.ai.service.InferenceLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enhances notifications created with pre-enhancement, off the send path. Records are paced to
+ * {@code ai.pre-enhancement.rate-per-second} so a large campaign drains steadily instead of
+ * competing with interactive requests for inference slots; when the {@link InferenceLimiter} is
+ * saturated the consumer waits for the advertised Retry-After and tries again.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.pre-enhancement.enabled", havingValue = "true")
+@Slf4j
+public class PreEnhancementConsumer {
+
+    private final AiOptimizationService optimizationService;
+    private final KafkaTemplate<String, EnhancementCompletedEvent> kafkaTemplate;
+    private final String resultTopic;
+    private final long intervalNanos;
+    private final Timer latencyTimer;
+    private final Counter enhancedCounter;
+    private final Counter failedCounter;
+    private final Counter saturatedCounter;
+    private long nextPermitNanos = System.nanoTime();
+
+    public PreEnhancementConsumer(
+            AiOptimizationService optimizationService,
+            KafkaTemplate<String, EnhancementCompletedEvent> enhancementResultKafkaTemplate,
+            @Value("${ai.pre-enhancement.result-topic:notification.enhancement.completed}") String resultTopic,
+            @Value("${ai.pre-enhancement.rate-per-second:2}") double ratePerSecond,
+            MeterRegistry meterRegistry
+    ) {
+        this.optimizationService = optimizationService;
+        this.kafkaTemplate = enhancementResultKafkaTemplate;
+        this.resultTopic = resultTopic;
+        this.intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+        this.latencyTimer = Timer.builder("ai.pre-enhancement.latency")
+                .description("Time to enhance one pre-enhancement request, excluding pacing")
+                .register(meterRegistry);
+        this.enhancedCounter = Counter.builder("ai.pre-enhancement.processed")
+                .tag("result", "enhanced")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("ai.pre-enhancement.processed")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.saturatedCounter = Counter.builder("ai.pre-enhancement.saturated")
+                .description("Times the consumer backed off because inference was saturated")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            topics = "${ai.pre-enhancement.request-topic:notification.enhancement.requested}",
+            containerFactory = "preEnhancementListenerContainerFactory"
+    )
+    public void consume(@Payload EnhancementRequestedEvent event) throws InterruptedException {
+        log.debug("Pre-enhancing notification ID: {}", event.getNotificationId());
+        pace();
+
+        OptimizationRequest request = OptimizationRequest.builder()
+                .subject(event.getSubject())
+                .message(event.getMessage())
+                .channel(event.getChannel())
+                .messageType(event.getMessageType())
+                .tenantId(event.getTenantId())
+                .build();
+
+        EnhancementCompletedEvent result;
+        long start = System.nanoTime();
+        try {
+            OptimizationResponse response = enhance(request);
+            enhancedCounter.increment();
+            result = EnhancementCompletedEvent.builder()
+                    .notificationId(event.getNotificationId())
+                    .successful(true)
+                    .enhancedSubject(response.getOptimizedSubject())
+                    .enhancedMessage(response.getEnhancedMessage())
+                    .optimizationStrategy(response.getOptimizationStrategy())
+                    .confidenceScore(response.getConfidenceScore())
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        } catch (RuntimeException ex) {
+            log.warn("Pre-enhancement failed for notification ID: {}: {}", event.getNotificationId(), ex.getMessage());
+            failedCounter.increment();
+            result = EnhancementCompletedEvent.builder()
+                    .notificationId(event.getNotificationId())
+                    .successful(false)
+                    .errorMessage(ex.getMessage())
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        } finally {
+            latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        kafkaTemplate.send(resultTopic, event.getNotificationId().toString(), result);
+    }
+
+    private OptimizationResponse enhance(OptimizationRequest request) throws InterruptedException {
+        while (true) {
+            try {
+                return optimizationService.preEnhanceAsync(request).join();
+            } catch (InferenceLimiter.SaturatedException ex) {
+                backOff(ex);
+            } catch (CompletionException ex) {
+                if (!(ex.getCause() instanceof InferenceLimiter.SaturatedException saturated)) {
+                    throw ex;
+                }
+                backOff(saturated);
+            }
+        }
+    }
+
+    private void backOff(InferenceLimiter.SaturatedException ex) throws InterruptedException {
+        saturatedCounter.increment();
+        TimeUnit.SECONDS.sleep(ex.getRetryAfterSeconds());
+    }
+
+    private void pace() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long permit = Math.max(now, nextPermitNanos);
+            nextPermitNanos = permit + intervalNanos;
+            waitNanos = permit - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
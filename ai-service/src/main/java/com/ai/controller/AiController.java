@@ -2,13 +2,19 @@ package com.ai.controller;
 
 import com.ai.dto.OptimizationRequest;
 import com.ai.dto.OptimizationResponse;
+import com.ai.lifecycle.ModelLifecycleManager;
 import com.ai.service.AiOptimizationService;
+import com.ai.service.InferenceLimiter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/ai")
 @RequiredArgsConstructor
@@ -16,17 +22,29 @@ import org.springframework.web.bind.annotation.*;
 public class AiController {
 
     private final AiOptimizationService aiOptimizationService;
+    private final ModelLifecycleManager modelLifecycleManager;
 
     @PostMapping("/optimize")
-    public ResponseEntity<OptimizationResponse> optimizeContent(
+    public CompletableFuture<ResponseEntity<OptimizationResponse>> optimizeContent(
             @Valid @RequestBody OptimizationRequest request) {
         log.info("Received optimization request for channel: {}", request.getChannel());
-        OptimizationResponse response = aiOptimizationService.optimizeContent(request);
-        return ResponseEntity.ok(response);
+        return aiOptimizationService.optimizeContentAsync(request)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler(InferenceLimiter.SaturatedException.class)
+    public ResponseEntity<String> handleSaturated(InferenceLimiter.SaturatedException ex) {
+        log.warn("Rejecting optimization request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
     }
 
     @GetMapping("/health")
     public ResponseEntity<String> health() {
+        if (!modelLifecycleManager.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("AI Service is loading its models");
+        }
         return ResponseEntity.ok("AI Service is running");
     }
 }
@@ -0,0 +1,23 @@
+package com.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnhancementCompletedEvent {
+    private Long notificationId;
+    private boolean successful;
+    private String enhancedSubject;
+    private String enhancedMessage;
+    private String optimizationStrategy;
+    private Double confidenceScore;
+    private String errorMessage;
+    private LocalDateTime timestamp;
+}
@@ -1,5 +1,6 @@
-package com.notification.dto;
+package com.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,11 +12,13 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class NotificationEvent {
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EnhancementRequestedEvent {
     private Long notificationId;
-    private String recipient;
     private String subject;
     private String message;
     private String channel;
+    private String messageType;
+    private String tenantId;
     private LocalDateTime timestamp;
 }
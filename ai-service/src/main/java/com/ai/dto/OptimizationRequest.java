@@ -19,4 +19,11 @@ public class OptimizationRequest {
     private String message;
 
     private String channel;
+
+    private String messageType;
+
+    private String tenantId;
+
+    // The caller stops waiting after this long; the model call gets what is left. Null for no deadline
+    private Long timeoutMs;
 }
@@ -0,0 +1,309 @@
+package com.ai.lifecycle;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the configured Ollama models loaded so no request pays the model-load time. At startup
+ * each model is loaded and warmed with a one-token generation; afterwards every
+ * {@code refresh-interval} the manager asks Ollama which models are loaded ({@code /api/ps}),
+ * renews {@code keep_alive} on the warm ones and reloads any Ollama has unloaded. The service
+ * reports ready ({@link ModelReadinessHealthIndicator}) only while every model is warm.
+ */
+@Component
+@Slf4j
+public class ModelLifecycleManager {
+
+    public enum ModelState {
+        UNLOADED,
+        LOADING,
+        WARM
+    }
+
+    private static final Duration KEEP_FOREVER = Duration.ofDays(36_500);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI generateUri;
+    private final URI psUri;
+    private final boolean enabled;
+    private final String keepAlive;
+    private final String warmupPrompt;
+    private final Duration loadTimeout;
+    private final Duration refreshInterval;
+    private final Duration retryInterval;
+    private final Map<String, ModelStatus> models = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean psUnsupportedLogged;
+
+    public ModelLifecycleManager(HttpClient ollamaHttpClient,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ollama.base-url:http://localhost:11434}") String ollamaBaseUrl,
+                                 @Value("${ollama.lifecycle.enabled:true}") boolean enabled,
+                                 @Value("${ollama.lifecycle.models:${ollama.model:llama2}}") List<String> modelNames,
+                                 @Value("${ollama.keep-alive:30m}") String keepAlive,
+                                 @Value("${ollama.lifecycle.warmup-prompt:Hello}") String warmupPrompt,
+                                 @Value("${ollama.lifecycle.load-timeout:5m}") Duration loadTimeout,
+                                 @Value("${ollama.lifecycle.refresh-interval:5m}") Duration refreshInterval,
+                                 @Value("${ollama.lifecycle.retry-interval:10s}") Duration retryInterval) {
+        this.httpClient = ollamaHttpClient;
+        this.objectMapper = objectMapper;
+        this.generateUri = URI.create(ollamaBaseUrl + "/api/generate");
+        this.psUri = URI.create(ollamaBaseUrl + "/api/ps");
+        this.enabled = enabled;
+        this.keepAlive = keepAlive;
+        this.warmupPrompt = warmupPrompt;
+        this.loadTimeout = loadTimeout;
+        this.refreshInterval = refreshInterval;
+        this.retryInterval = retryInterval;
+        for (String name : modelNames) {
+            if (!name.isBlank()) {
+                models.putIfAbsent(name.trim(), new ModelStatus(name.trim(), meterRegistry));
+            }
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ollama-model-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            scheduler.execute(this::refresh);
+        }
+    }
+
+    /**
+     * @return true once every configured model is loaded and warmed, or when the lifecycle is disabled
+     */
+    public boolean isReady() {
+        if (!enabled) {
+            return true;
+        }
+        for (ModelStatus model : models.values()) {
+            if (model.state != ModelState.WARM) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Collection<ModelStatus> models() {
+        return models.values();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void refresh() {
+        Set<String> loaded = loadedModels();
+        boolean allWarm = true;
+        for (ModelStatus model : models.values()) {
+            try {
+                if (model.state == ModelState.WARM && (loaded == null || loaded.contains(model.key))) {
+                    // Restarts Ollama's keep_alive countdown; the model is resident, so this returns at once
+                    generate(model.name, null);
+                    model.expiresAt = Instant.now().plus(parseKeepAlive());
+                } else {
+                    if (model.state == ModelState.WARM) {
+                        model.unloadCounter.increment();
+                        log.warn("Ollama unloaded model {}; reloading it", model.name);
+                    }
+                    warm(model);
+                }
+                model.lastError = null;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                model.state = ModelState.UNLOADED;
+                model.lastError = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+                allWarm = false;
+                log.warn("Could not load model {}: {}; retrying in {}", model.name, model.lastError, retryInterval);
+            }
+        }
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::refresh, (allWarm ? refreshInterval : retryInterval).toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Load time plus the first generation, which also pays for allocating the context
+    private void warm(ModelStatus model) throws IOException, InterruptedException {
+        model.state = ModelState.LOADING;
+        long startNanos = System.nanoTime();
+        generate(model.name, null);
+        generate(model.name, warmupPrompt);
+        long coldStartNanos = System.nanoTime() - startNanos;
+        model.loadTimer.record(coldStartNanos, TimeUnit.NANOSECONDS);
+        model.coldStartMillis = TimeUnit.NANOSECONDS.toMillis(coldStartNanos);
+        model.warmSince = Instant.now();
+        model.expiresAt = model.warmSince.plus(parseKeepAlive());
+        model.state = ModelState.WARM;
+        log.info("Model {} loaded and warmed in {} ms", model.name, model.coldStartMillis);
+    }
+
+    // Without a prompt Ollama only loads the model and applies keep_alive
+    private void generate(String model, String prompt) throws IOException, InterruptedException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(body, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("model", model);
+            generator.writeStringField("keep_alive", keepAlive);
+            generator.writeBooleanField("stream", false);
+            if (prompt != null) {
+                generator.writeStringField("prompt", prompt);
+                generator.writeObjectFieldStart("options");
+                generator.writeNumberField("num_predict", 1);
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+        HttpRequest request = HttpRequest.newBuilder(generateUri)
+                .timeout(loadTimeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IOException("Ollama returned HTTP " + response.statusCode());
+        }
+    }
+
+    /**
+     * @return the loaded models' names, or null if this Ollama cannot tell (an older release
+     * without {@code /api/ps}, or unreachable), in which case warm models are assumed still loaded
+     */
+    private Set<String> loadedModels() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(psUri).timeout(Duration.ofSeconds(10)).GET().build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 404) {
+                if (!psUnsupportedLogged) {
+                    psUnsupportedLogged = true;
+                    log.info("Ollama has no /api/ps; unloaded models are only noticed when a refresh fails");
+                }
+                return null;
+            }
+            if (response.statusCode() >= 400) {
+                return null;
+            }
+            Set<String> loaded = new HashSet<>();
+            for (JsonNode model : objectMapper.readTree(response.body()).path("models")) {
+                loaded.add(ModelStatus.key(model.path("name").asText()));
+            }
+            return loaded;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception ex) {
+            log.debug("Could not list loaded Ollama models: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    // Ollama durations such as 30m or 1h; a negative one keeps the model loaded indefinitely
+    private Duration parseKeepAlive() {
+        try {
+            Duration duration = Duration.parse("PT" + keepAlive.toUpperCase());
+            return duration.isNegative() ? KEEP_FOREVER : duration;
+        } catch (RuntimeException ex) {
+            return Duration.ZERO;
+        }
+    }
+
+    public static final class ModelStatus {
+        private final String name;
+        // Ollama reports models as name:tag
+        private final String key;
+        private final Timer loadTimer;
+        private final Counter unloadCounter;
+        private volatile ModelState state = ModelState.UNLOADED;
+        private volatile long coldStartMillis = -1;
+        private volatile Instant warmSince;
+        private volatile Instant expiresAt;
+        private volatile String lastError;
+
+        ModelStatus(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.key = key(name);
+            this.loadTimer = Timer.builder("ai.ollama.model.load")
+                    .description("Cold start: loading the model and its first generation")
+                    .tag("model", name)
+                    .register(meterRegistry);
+            this.unloadCounter = Counter.builder("ai.ollama.model.unloads")
+                    .description("Times Ollama unloaded a warm model")
+                    .tag("model", name)
+                    .register(meterRegistry);
+            Gauge.builder("ai.ollama.model.warm", this, status -> status.state == ModelState.WARM ? 1 : 0)
+                    .description("1 while the model is loaded and warmed")
+                    .tag("model", name)
+                    .register(meterRegistry);
+        }
+
+        static String key(String name) {
+            return name.indexOf(':') >= 0 ? name : name + ":latest";
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ModelState getState() {
+            return state;
+        }
+
+        public Map<String, Object> details() {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("state", state);
+            if (coldStartMillis >= 0) {
+                details.put("coldStartMs", coldStartMillis);
+            }
+            if (warmSince != null) {
+                details.put("warmSince", warmSince.toString());
+            }
+            if (expiresAt != null && state == ModelState.WARM) {
+                details.put("keepAliveUntil", expiresAt.toString());
+            }
+            if (lastError != null) {
+                details.put("error", lastError);
+            }
+            return details;
+        }
+    }
+}
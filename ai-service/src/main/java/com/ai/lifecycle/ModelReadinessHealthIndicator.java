@@ -0,0 +1,30 @@
+package com.ai.lifecycle;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code modelReadiness}: OUT_OF_SERVICE until every configured model is warm, and again while
+ * an unloaded model is reloaded. Part of the readiness group, so {@code /actuator/health/readiness}
+ * keeps traffic away from an instance whose first requests would pay the model-load time.
+ */
+@Component
+@RequiredArgsConstructor
+public class ModelReadinessHealthIndicator implements HealthIndicator {
+
+    private final ModelLifecycleManager lifecycleManager;
+
+    @Override
+    public Health health() {
+        if (!lifecycleManager.isEnabled()) {
+            return Health.up().withDetail("lifecycle", "disabled").build();
+        }
+        Health.Builder health = lifecycleManager.isReady() ? Health.up() : Health.outOfService();
+        for (ModelLifecycleManager.ModelStatus model : lifecycleManager.models()) {
+            health.withDetail(model.getName(), model.details());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ai.prompt;
+
+import com.ai.dto.OptimizationRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A prompt compiled once into literal segments and placeholder slots. Rendering walks the
+ * precomputed parts into a single right-sized buffer instead of re-parsing a format string.
+ * Supported placeholders are {@code {channel}}, {@code {messageType}}, {@code {subject}}
+ * and {@code {message}}; any other brace text is kept literally.
+ */
+public final class PromptTemplate {
+
+    private final String id;
+    private final int version;
+    private final String[] literals;
+    private final Placeholder[] slots;
+    private final int literalLength;
+
+    private PromptTemplate(String id, int version, String[] literals, Placeholder[] slots) {
+        this.id = id;
+        this.version = version;
+        this.literals = literals;
+        this.slots = slots;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static PromptTemplate compile(String id, int version, String source) {
+        if (source == null || source.isEmpty()) {
+            throw new IllegalArgumentException("Prompt template '" + id + "' is empty");
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '{') {
+                int close = source.indexOf('}', i + 1);
+                Placeholder placeholder = close > 0 ? Placeholder.of(source.substring(i + 1, close)) : null;
+                if (placeholder != null) {
+                    literals.add(literal.toString());
+                    slots.add(placeholder);
+                    literal.setLength(0);
+                    i = close + 1;
+                    continue;
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        literals.add(literal.toString());
+
+        return new PromptTemplate(id, version,
+                literals.toArray(new String[0]), slots.toArray(new Placeholder[0]));
+    }
+
+    public String render(OptimizationRequest request) {
+        int length = literalLength;
+        for (Placeholder slot : slots) {
+            length += slot.valueLength(request);
+        }
+
+        StringBuilder prompt = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            prompt.append(literals[i]);
+            String value = slots[i].value(request);
+            if (value != null) {
+                prompt.append(value);
+            }
+        }
+        prompt.append(literals[slots.length]);
+
+        return prompt.toString();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    enum Placeholder {
+        CHANNEL("channel"),
+        MESSAGE_TYPE("messageType"),
+        SUBJECT("subject"),
+        MESSAGE("message");
+
+        private final String token;
+
+        Placeholder(String token) {
+            this.token = token;
+        }
+
+        static Placeholder of(String token) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.token.equals(token)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+
+        String value(OptimizationRequest request) {
+            switch (this) {
+                case CHANNEL:
+                    return request.getChannel();
+                case MESSAGE_TYPE:
+                    return request.getMessageType();
+                case SUBJECT:
+                    return request.getSubject();
+                default:
+                    return request.getMessage();
+            }
+        }
+
+        int valueLength(OptimizationRequest request) {
+            String value = value(request);
+            return value != null ? value.length() : 0;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ai.prompt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "ai.prompts")
+public class PromptTemplateProperties {
+
+    private List<Definition> templates = new ArrayList<>();
+
+    @Data
+    public static class Definition {
+        private String id;
+        private int version = 1;
+        private String channel;
+        private String messageType;
+        private String template;
+    }
+}
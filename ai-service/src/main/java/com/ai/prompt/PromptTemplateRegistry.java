@@ -0,0 +1,74 @@
+package com.ai.prompt;
+
+import com.ai.dto.OptimizationRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Holds the compiled prompt templates keyed by channel and message type. Lookup falls back
+ * from (channel, type) to (channel, any) to (any, type) to the default template, and uses
+ * case-insensitive maps so no key is built per request.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(PromptTemplateProperties.class)
+public class PromptTemplateRegistry {
+
+    static final String ANY = "*";
+
+    public static final PromptTemplate DEFAULT_TEMPLATE = PromptTemplate.compile("default", 1,
+            "Enhance this message for channel {channel}:\nSubject: {subject}\nMessage: {message}");
+
+    private final Map<String, Map<String, PromptTemplate>> templates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private PromptTemplate defaultTemplate = DEFAULT_TEMPLATE;
+
+    public PromptTemplateRegistry(PromptTemplateProperties properties) {
+        for (PromptTemplateProperties.Definition definition : properties.getTemplates()) {
+            register(definition);
+        }
+    }
+
+    private void register(PromptTemplateProperties.Definition definition) {
+        PromptTemplate template = PromptTemplate.compile(
+                definition.getId(), definition.getVersion(), definition.getTemplate());
+        String channel = definition.getChannel() != null ? definition.getChannel() : ANY;
+        String messageType = definition.getMessageType() != null ? definition.getMessageType() : ANY;
+
+        if (ANY.equals(channel) && ANY.equals(messageType)) {
+            defaultTemplate = template;
+        } else {
+            templates.computeIfAbsent(channel, key -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+                    .put(messageType, template);
+        }
+
+        log.info("Registered prompt template '{}' v{} for channel={}, messageType={}",
+                template.getId(), template.getVersion(), channel, messageType);
+    }
+
+    public PromptTemplate resolve(String channel, String messageType) {
+        PromptTemplate template = lookup(channel, messageType);
+        if (template == null) {
+            template = lookup(channel, ANY);
+        }
+        if (template == null) {
+            template = lookup(ANY, messageType);
+        }
+        return template != null ? template : defaultTemplate;
+    }
+
+    public String render(OptimizationRequest request) {
+        return resolve(request.getChannel(), request.getMessageType()).render(request);
+    }
+
+    private PromptTemplate lookup(String channel, String messageType) {
+        if (channel == null || messageType == null) {
+            return null;
+        }
+        Map<String, PromptTemplate> byType = templates.get(channel);
+        return byType != null ? byType.get(messageType) : null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ai.semantic;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Produces unit-length embeddings for the semantic cache.
+ */
+public interface EmbeddingModel {
+
+    int dimensions();
+
+    CompletableFuture<float[]> embed(String text);
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return vector;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+}
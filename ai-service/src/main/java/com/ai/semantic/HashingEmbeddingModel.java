@@ -0,0 +1,68 @@
+package com.ai.semantic;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Local, model-free embedding: lower-cased word unigrams and bigrams are hashed into a fixed
+ * number of signed buckets. Good at near-duplicate detection (same wording, different values),
+ * which is what the cache needs, and costs a few microseconds with no network call.
+ */
+public class HashingEmbeddingModel implements EmbeddingModel {
+
+    private final int dimensions;
+
+    public HashingEmbeddingModel(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public CompletableFuture<float[]> embed(String text) {
+        return CompletableFuture.completedFuture(embedNow(text));
+    }
+
+    public float[] embedNow(String text) {
+        float[] vector = new float[dimensions];
+        int previous = 0;
+        boolean hasPrevious = false;
+        int hash = 0;
+        boolean inToken = false;
+
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = 31 * hash + Character.toLowerCase(c);
+                inToken = true;
+            } else if (inToken) {
+                add(vector, mix(hash));
+                if (hasPrevious) {
+                    add(vector, mix(previous * 0x9E3779B1 + hash));
+                }
+                previous = hash;
+                hasPrevious = true;
+                hash = 0;
+                inToken = false;
+            }
+        }
+
+        return EmbeddingModel.normalize(vector);
+    }
+
+    private void add(float[] vector, int hash) {
+        int bucket = (hash >>> 1) % dimensions;
+        vector[bucket] += (hash & 1) == 0 ? 1f : -1f;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
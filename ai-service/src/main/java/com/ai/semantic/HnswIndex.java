@@ -0,0 +1,415 @@
+package com.ai.semantic;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory Hierarchical Navigable Small World graph for approximate nearest-neighbour search
+ * over unit-length vectors (distance = 1 - dot product). Vectors live in one growable float
+ * array and links in per-node int arrays whose first slot holds the neighbour count, so a
+ * search allocates nothing beyond its result array. Inserts take a write lock, searches a
+ * read lock.
+ */
+public class HnswIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Scratch> scratch;
+
+    private float[] vectors;
+    private int[][][] links;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private long linkBytes;
+
+    public HnswIndex(int dimensions, int m, int efConstruction) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.vectors = new float[INITIAL_CAPACITY * dimensions];
+        this.links = new int[INITIAL_CAPACITY][][];
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(m));
+    }
+
+    /**
+     * Adds a unit-length vector and returns its id. Ids are assigned densely from 0.
+     */
+    public int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+
+        lock.writeLock().lock();
+        try {
+            int id = size;
+            ensureCapacity(id + 1);
+            System.arraycopy(vector, 0, vectors, id * dimensions, dimensions);
+
+            int level = randomLevel();
+            int[][] nodeLinks = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                nodeLinks[l] = new int[1 + maxLinks(l)];
+                linkBytes += 16 + 4L * nodeLinks[l].length;
+            }
+            links[id] = nodeLinks;
+            size++;
+
+            if (entryPoint < 0) {
+                entryPoint = id;
+                maxLevel = level;
+                return id;
+            }
+
+            Scratch s = scratch.get();
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedyClosest(vector, current, l);
+            }
+
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                searchLayer(vector, current, efConstruction, l, s);
+                int count = s.drainResultsAscending();
+                current = id(s.ordered[0]);
+                int selected = selectNeighbours(s.ordered, count, s.selected);
+                for (int i = 0; i < selected; i++) {
+                    int neighbour = s.selected[i];
+                    addLink(id, neighbour, l);
+                    addLink(neighbour, id, l);
+                }
+            }
+
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = id;
+            }
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} nearest ids, closest first, as {@code Hit}s with cosine similarity.
+     */
+    public Hit[] search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return new Hit[0];
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedyClosest(query, current, l);
+            }
+
+            Scratch s = scratch.get();
+            searchLayer(query, current, Math.max(ef, k), 0, s);
+            int count = s.drainResultsAscending();
+            Hit[] hits = new Hit[Math.min(k, count)];
+            for (int i = 0; i < hits.length; i++) {
+                hits[i] = new Hit(id(s.ordered[i]), 1 - distance(s.ordered[i]));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap used by vectors and links.
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return 4L * vectors.length + 8L * links.length + linkBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentDistance = distanceTo(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float d = distanceTo(query, neighbours[i]);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbours[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void searchLayer(float[] query, int entry, int ef, int level, Scratch s) {
+        s.begin(size);
+        s.visit(entry);
+        long first = encode(distanceTo(query, entry), entry);
+        s.candidates.push(first);
+        s.results.push(-first);
+
+        while (s.candidates.size() > 0) {
+            long candidate = s.candidates.pop();
+            float furthest = distance(-s.results.peek());
+            if (distance(candidate) > furthest && s.results.size() >= ef) {
+                break;
+            }
+
+            int[] neighbours = links[id(candidate)][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (!s.visit(neighbour)) {
+                    continue;
+                }
+                float d = distanceTo(query, neighbour);
+                if (s.results.size() < ef || d < furthest) {
+                    long encoded = encode(d, neighbour);
+                    s.candidates.push(encoded);
+                    s.results.push(-encoded);
+                    if (s.results.size() > ef) {
+                        s.results.pop();
+                    }
+                    furthest = distance(-s.results.peek());
+                }
+            }
+        }
+    }
+
+    /**
+     * Neighbour selection heuristic from the HNSW paper: walking candidates closest first, keep one
+     * only if it is closer to the new node than to every neighbour already kept. This spreads
+     * links across directions instead of packing them into one cluster.
+     */
+    private int selectNeighbours(long[] ascending, int count, int[] selected) {
+        int kept = 0;
+        for (int i = 0; i < count && kept < m; i++) {
+            int candidate = id(ascending[i]);
+            float toNewNode = distance(ascending[i]);
+            boolean diverse = true;
+            for (int j = 0; j < kept; j++) {
+                if (distanceBetween(candidate * dimensions, selected[j] * dimensions) < toNewNode) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[kept++] = candidate;
+            }
+        }
+        return kept;
+    }
+
+    private void addLink(int from, int to, int level) {
+        int[] neighbours = links[from][level];
+        int count = neighbours[0];
+        if (count < neighbours.length - 1) {
+            neighbours[count + 1] = to;
+            neighbours[0] = count + 1;
+            return;
+        }
+
+        int base = from * dimensions;
+        int furthestSlot = -1;
+        float furthestDistance = distanceBetween(base, to * dimensions);
+        for (int i = 1; i <= count; i++) {
+            float d = distanceBetween(base, neighbours[i] * dimensions);
+            if (d > furthestDistance) {
+                furthestDistance = d;
+                furthestSlot = i;
+            }
+        }
+        if (furthestSlot > 0) {
+            neighbours[furthestSlot] = to;
+        }
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    private int randomLevel() {
+        double r = ThreadLocalRandom.current().nextDouble();
+        return (int) (-Math.log(1 - r) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= links.length) {
+            return;
+        }
+        int capacity = Math.max(required, links.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    private float distanceTo(float[] query, int id) {
+        return Math.max(0f, 1 - dot(query, 0, vectors, id * dimensions));
+    }
+
+    private float distanceBetween(int offsetA, int offsetB) {
+        return Math.max(0f, 1 - dot(vectors, offsetA, vectors, offsetB));
+    }
+
+    // Four independent accumulators break the floating-point dependency chain.
+    private float dot(float[] a, int offsetA, float[] b, int offsetB) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (; i + 3 < dimensions; i += 4) {
+            s0 += a[offsetA + i] * b[offsetB + i];
+            s1 += a[offsetA + i + 1] * b[offsetB + i + 1];
+            s2 += a[offsetA + i + 2] * b[offsetB + i + 2];
+            s3 += a[offsetA + i + 3] * b[offsetB + i + 3];
+        }
+        for (; i < dimensions; i++) {
+            s0 += a[offsetA + i] * b[offsetB + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    // Non-negative floats order the same as their int bits, so (distance, id) packs into a sortable long.
+    private static long encode(float distance, int id) {
+        return ((long) Float.floatToIntBits(distance) << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static float distance(long encoded) {
+        return Float.intBitsToFloat((int) (encoded >>> 32));
+    }
+
+    private static int id(long encoded) {
+        return (int) encoded;
+    }
+
+    public static class Hit {
+        public final int id;
+        public final float similarity;
+
+        public Hit(int id, float similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+    }
+
+    private static final class Scratch {
+        private final LongHeap candidates = new LongHeap();
+        private final LongHeap results = new LongHeap();
+        private int[] visited = new int[INITIAL_CAPACITY];
+        private int stamp;
+        private long[] ordered = new long[64];
+        private final int[] selected;
+
+        Scratch(int m) {
+            selected = new int[m];
+        }
+
+        void begin(int size) {
+            if (visited.length < size) {
+                visited = new int[Math.max(size, visited.length * 2)];
+            }
+            if (++stamp == 0) {
+                Arrays.fill(visited, 0);
+                stamp = 1;
+            }
+            candidates.clear();
+            results.clear();
+        }
+
+        boolean visit(int id) {
+            if (visited[id] == stamp) {
+                return false;
+            }
+            visited[id] = stamp;
+            return true;
+        }
+
+        int drainResultsAscending() {
+            int count = results.size();
+            if (ordered.length < count) {
+                ordered = new long[count];
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                ordered[i] = -results.pop();
+            }
+            return count;
+        }
+    }
+
+    private static final class LongHeap {
+        private long[] heap = new long[64];
+        private int size;
+
+        void push(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+
+        long peek() {
+            return heap[0];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
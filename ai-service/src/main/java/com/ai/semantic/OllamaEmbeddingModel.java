@@ -0,0 +1,104 @@
+package com.ai.semantic;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Embeddings from Ollama's {@code /api/embeddings} endpoint, requested without blocking and
+ * parsed straight into a float array.
+ */
+public class OllamaEmbeddingModel implements EmbeddingModel {
+
+    private final HttpClient httpClient;
+    private final JsonFactory jsonFactory;
+    private final URI embeddingsUri;
+    private final String model;
+    private final int dimensions;
+    private final Duration timeout;
+
+    public OllamaEmbeddingModel(HttpClient httpClient, JsonFactory jsonFactory, String baseUrl,
+                                String model, int dimensions, Duration timeout) {
+        this.httpClient = httpClient;
+        this.jsonFactory = jsonFactory;
+        this.embeddingsUri = URI.create(baseUrl + "/api/embeddings");
+        this.model = model;
+        this.dimensions = dimensions;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public CompletableFuture<float[]> embed(String text) {
+        HttpRequest request = HttpRequest.newBuilder(embeddingsUri)
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(encode(text)))
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() >= 400) {
+                        throw new IllegalStateException("Ollama embeddings returned HTTP " + response.statusCode());
+                    }
+                    return EmbeddingModel.normalize(decode(response.body()));
+                });
+    }
+
+    private byte[] encode(String text) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + text.length());
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("model", model);
+            generator.writeStringField("prompt", text);
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private float[] decode(byte[] body) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            while (parser.nextToken() != null) {
+                if (parser.currentToken() == JsonToken.FIELD_NAME && "embedding".equals(parser.currentName())) {
+                    parser.nextToken();
+                    float[] vector = new float[dimensions];
+                    int i = 0;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        if (i == vector.length) {
+                            vector = Arrays.copyOf(vector, vector.length * 2);
+                        }
+                        vector[i++] = parser.getFloatValue();
+                    }
+                    if (i != dimensions) {
+                        throw new IllegalStateException("Expected " + dimensions + " embedding dimensions, got " + i);
+                    }
+                    return vector;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        throw new IllegalStateException("Ollama embeddings response has no embedding");
+    }
+}
@@ -0,0 +1,124 @@
+package com.ai.semantic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Separates the variable parts of a message (emails, URLs, numbers and capitalized words
+ * inside a sentence, which are usually names) from its template. The template text is what gets
+ * embedded and compared; the values are substituted back into a reused enhancement. Names it
+ * misses, at the start of a sentence or lowercased, stay part of the template.
+ */
+public final class PlaceholderMasker {
+
+    static final String EMBEDDING_MARK = "{var}";
+
+    private static final char SLOT_START = '\uE000';
+    private static final char SLOT_END = '\uE001';
+
+    private static final Pattern VARIABLE = Pattern.compile(
+            "[\\w.+-]+@[\\w-]+(?:\\.[\\w-]+)+"
+                    + "|https?://\\S+"
+                    + "|[#$€£]?\\d+(?:[.,:/-]\\d+)*%?"
+                    + "|(?<=[^.!?\\s] )\\p{Lu}\\p{L}+");
+
+    private PlaceholderMasker() {
+    }
+
+    public static Masked mask(String subject, String message) {
+        List<String> values = new ArrayList<>();
+        StringBuilder template = new StringBuilder(subject.length() + message.length() + 1);
+        appendMasked(subject, template, values);
+        template.append('\n');
+        appendMasked(message, template, values);
+        return new Masked(template.toString(), values);
+    }
+
+    /**
+     * Replaces every value that appears verbatim in the given texts with an indexed slot. Returns
+     * null if any value appears in none of them, since a reworded value could leak into another
+     * recipient's copy.
+     */
+    public static String[] toSlots(List<String> values, String... texts) {
+        Integer[] longestFirst = new Integer[values.size()];
+        for (int i = 0; i < longestFirst.length; i++) {
+            longestFirst[i] = i;
+        }
+        // Longest first so "2024" inside "12024" is not split.
+        Arrays.sort(longestFirst, (a, b) -> values.get(b).length() - values.get(a).length());
+
+        boolean[] seen = new boolean[values.size()];
+        String[] slotted = new String[texts.length];
+        for (int t = 0; t < texts.length; t++) {
+            slotted[t] = toSlots(texts[t], values, longestFirst, seen);
+        }
+
+        for (boolean found : seen) {
+            if (!found) {
+                return null;
+            }
+        }
+        return slotted;
+    }
+
+    private static String toSlots(String text, List<String> values, Integer[] longestFirst, boolean[] seen) {
+        StringBuilder out = new StringBuilder(text.length());
+        int i = 0;
+        outer:
+        while (i < text.length()) {
+            for (Integer index : longestFirst) {
+                String value = values.get(index);
+                if (text.startsWith(value, i)) {
+                    out.append(SLOT_START).append(index.intValue()).append(SLOT_END);
+                    seen[index] = true;
+                    i += value.length();
+                    continue outer;
+                }
+            }
+            out.append(text.charAt(i++));
+        }
+        return out.toString();
+    }
+
+    public static String fromSlots(String text, List<String> values) {
+        StringBuilder out = new StringBuilder(text.length() + 16 * values.size());
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int end = c == SLOT_START ? text.indexOf(SLOT_END, i) : -1;
+            if (end > 0) {
+                int index = Integer.parseInt(text, i + 1, end, 10);
+                out.append(values.get(index));
+                i = end + 1;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    private static void appendMasked(String text, StringBuilder template, List<String> values) {
+        Matcher matcher = VARIABLE.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            template.append(text, last, matcher.start()).append(EMBEDDING_MARK);
+            values.add(matcher.group());
+            last = matcher.end();
+        }
+        template.append(text, last, text.length());
+    }
+
+    public static final class Masked {
+        public final String template;
+        public final List<String> values;
+
+        Masked(String template, List<String> values) {
+            this.template = template;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ai.semantic;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ai.semantic-cache")
+public class SemanticCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * {@code hashing} (local, no model) or {@code ollama}.
+     */
+    private String embedding = "hashing";
+
+    private String embeddingModel = "nomic-embed-text";
+
+    private int dimensions = 256;
+
+    private double similarityThreshold = 0.92;
+
+    private int maxEntries = 100_000;
+
+    private int candidates = 5;
+
+    private Hnsw hnsw = new Hnsw();
+
+    @Data
+    public static class Hnsw {
+        private int m = 16;
+        private int efConstruction = 100;
+        private int efSearch = 64;
+    }
+}
@@ -0,0 +1,177 @@
+package com.ai.semantic;
+
+import com.ai.dto.OptimizationRequest;
+import com.ai.dto.OptimizationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reuses prior LLM enhancements for near-duplicate requests. Requests are reduced to a template
+ * by {@link PlaceholderMasker}, embedded, and looked up in an {@link HnswIndex}; a match above
+ * the similarity threshold with the same channel, message type and exactly the same template is
+ * returned with the new request's values substituted back in. Similarity alone is never enough:
+ * text the masker did not recognise as a value, such as a name starting a sentence, stays in the
+ * template, so another recipient's copy differs there and misses instead of receiving it. When
+ * the index reaches {@code maxEntries} it is replaced by an empty one.
+ */
+@Slf4j
+public class SemanticEnhancementCache {
+
+    private final EmbeddingModel embeddingModel;
+    private final SemanticCacheProperties properties;
+    private final Timer lookupTimer;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter rolloverCounter;
+    private volatile Generation generation;
+
+    public SemanticEnhancementCache(EmbeddingModel embeddingModel,
+                                    SemanticCacheProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel;
+        this.properties = properties;
+        this.generation = newGeneration();
+        this.lookupTimer = Timer.builder("ai.semantic-cache.lookup")
+                .description("Embedding plus nearest-neighbour lookup latency")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.hitCounter = Counter.builder("ai.semantic-cache.requests").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("ai.semantic-cache.requests").tag("result", "miss").register(meterRegistry);
+        this.rolloverCounter = Counter.builder("ai.semantic-cache.rollovers")
+                .description("Times the index was full and replaced by an empty one")
+                .register(meterRegistry);
+        Gauge.builder("ai.semantic-cache.entries", this, cache -> cache.generation.index.size())
+                .register(meterRegistry);
+        Gauge.builder("ai.semantic-cache.memory", this, cache -> cache.generation.index.memoryBytes())
+                .baseUnit("bytes")
+                .description("Approximate heap held by index vectors and links")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Lookup> lookup(OptimizationRequest request) {
+        long start = System.nanoTime();
+        PlaceholderMasker.Masked masked = PlaceholderMasker.mask(request.getSubject(), request.getMessage());
+
+        return embeddingModel.embed(masked.template).thenApply(vector -> {
+            Optional<OptimizationResponse> hit = findMatch(request, masked, vector);
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            (hit.isPresent() ? hitCounter : missCounter).increment();
+            return new Lookup(masked, vector, hit.orElse(null));
+        });
+    }
+
+    public void store(OptimizationRequest request, Lookup lookup, OptimizationResponse response) {
+        if (lookup.vector == null || response.getEnhancedMessage() == null) {
+            return;
+        }
+        String[] slotted = PlaceholderMasker.toSlots(lookup.masked.values,
+                response.getOptimizedSubject(), response.getEnhancedMessage());
+        if (slotted == null) {
+            log.debug("Not caching enhancement: output does not carry every request value verbatim");
+            return;
+        }
+
+        CachedEnhancement entry = new CachedEnhancement(request.getChannel(), request.getMessageType(),
+                lookup.masked.template, slotted[0], slotted[1], response.getConfidenceScore());
+
+        synchronized (this) {
+            Generation current = generation;
+            if (current.index.size() >= properties.getMaxEntries()) {
+                log.info("Semantic cache reached {} entries, starting a new index", properties.getMaxEntries());
+                rolloverCounter.increment();
+                current = newGeneration();
+                generation = current;
+            }
+            int id = current.index.add(lookup.vector);
+            current.entries.set(id, entry);
+        }
+    }
+
+    private Optional<OptimizationResponse> findMatch(OptimizationRequest request,
+                                                     PlaceholderMasker.Masked masked, float[] vector) {
+        Generation current = generation;
+        HnswIndex.Hit[] hits = current.index.search(vector, properties.getCandidates(),
+                properties.getHnsw().getEfSearch());
+
+        for (HnswIndex.Hit hit : hits) {
+            if (hit.similarity < properties.getSimilarityThreshold()) {
+                break;
+            }
+            CachedEnhancement entry = current.entries.get(hit.id);
+            if (entry != null && entry.matches(request, masked.template)) {
+                return Optional.of(OptimizationResponse.builder()
+                        .originalSubject(request.getSubject())
+                        .optimizedSubject(PlaceholderMasker.fromSlots(entry.subject, masked.values))
+                        .originalMessage(request.getMessage())
+                        .enhancedMessage(PlaceholderMasker.fromSlots(entry.message, masked.values))
+                        .optimizationStrategy("Semantic cache reuse")
+                        .confidenceScore(entry.confidence)
+                        .build());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Generation newGeneration() {
+        SemanticCacheProperties.Hnsw hnsw = properties.getHnsw();
+        return new Generation(
+                new HnswIndex(embeddingModel.dimensions(), hnsw.getM(), hnsw.getEfConstruction()),
+                new AtomicReferenceArray<>(properties.getMaxEntries()));
+    }
+
+    public static class Lookup {
+        public final PlaceholderMasker.Masked masked;
+        public final float[] vector;
+        public final OptimizationResponse hit;
+
+        Lookup(PlaceholderMasker.Masked masked, float[] vector, OptimizationResponse hit) {
+            this.masked = masked;
+            this.vector = vector;
+            this.hit = hit;
+        }
+    }
+
+    private static class Generation {
+        private final HnswIndex index;
+        private final AtomicReferenceArray<CachedEnhancement> entries;
+
+        Generation(HnswIndex index, AtomicReferenceArray<CachedEnhancement> entries) {
+            this.index = index;
+            this.entries = entries;
+        }
+    }
+
+    private static class CachedEnhancement {
+        private final String channel;
+        private final String messageType;
+        private final String template;
+        private final String subject;
+        private final String message;
+        private final Double confidence;
+
+        CachedEnhancement(String channel, String messageType, String template,
+                          String subject, String message, Double confidence) {
+            this.channel = channel;
+            this.messageType = messageType;
+            this.template = template;
+            this.subject = subject;
+            this.message = message;
+            this.confidence = confidence;
+        }
+
+        boolean matches(OptimizationRequest request, String requestTemplate) {
+            return template.equals(requestTemplate)
+                    && Objects.equals(channel, request.getChannel())
+                    && Objects.equals(messageType, request.getMessageType());
+        }
+    }
+}
@@ -2,12 +2,22 @@ package com.ai.service;
 
 import com.ai.dto.OptimizationRequest;
 import com.ai.dto.OptimizationResponse;
+import com.ai.prompt.PromptTemplate;
+import com.ai.prompt.PromptTemplateRegistry;
+import com.ai.semantic.SemanticEnhancementCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
-import java.util.List;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -15,74 +25,154 @@ public class AiOptimizationService {
 
     private final Random random = new Random();
     private final OllamaService ollamaService;
-    public AiOptimizationService(OllamaService ollamaService) {
+    private final RuleBasedOptimizer ruleBasedOptimizer;
+    private final EnhancementTierRouter tierRouter;
+    private final PromptTemplateRegistry promptTemplates;
+    private final InferenceLimiter inferenceLimiter;
+    private final SemanticEnhancementCache semanticCache;
+    private final MeterRegistry meterRegistry;
+    private final Map<EnhancementTierRouter.Decision, Counter> routingCounters = new ConcurrentHashMap<>();
+    private final Timer rulesTimer;
+    private final Timer cacheTimer;
+    private final Timer llmTimer;
+    private final Counter llmFallbackCounter;
+    private final Counter expiredCounter;
+
+    public AiOptimizationService(OllamaService ollamaService,
+                                 RuleBasedOptimizer ruleBasedOptimizer,
+                                 EnhancementTierRouter tierRouter,
+                                 PromptTemplateRegistry promptTemplates,
+                                 InferenceLimiter inferenceLimiter,
+                                 ObjectProvider<SemanticEnhancementCache> semanticCache,
+                                 MeterRegistry meterRegistry) {
         this.ollamaService = ollamaService;
+        this.ruleBasedOptimizer = ruleBasedOptimizer;
+        this.tierRouter = tierRouter;
+        this.promptTemplates = promptTemplates;
+        this.inferenceLimiter = inferenceLimiter;
+        this.semanticCache = semanticCache.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        this.rulesTimer = tierTimer(EnhancementTier.RULES);
+        this.cacheTimer = tierTimer(EnhancementTier.CACHE);
+        this.llmTimer = tierTimer(EnhancementTier.LLM);
+        this.llmFallbackCounter = Counter.builder("ai.enhancement.llm.fallbacks")
+                .description("LLM-tier requests that fell back to the rule-based optimizer")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("ai.enhancement.expired")
+                .description("LLM-tier requests whose caller's deadline passed before the model was called")
+                .register(meterRegistry);
     }
 
-    private static final List<String> POWER_WORDS = Arrays.asList(
-            "Exclusive", "Limited", "Urgent", "Important", "New", "Breakthrough",
-            "Amazing", "Instant", "Quick", "Easy", "Free", "Guaranteed"
-    );
+    /**
+     * Non-blocking entry point used by the controller. Rule-tier requests complete immediately;
+     * LLM-tier requests go through the {@link InferenceLimiter}, which throws
+     * {@link InferenceLimiter.SaturatedException} when no slot or queue space is left.
+     */
+    public CompletableFuture<OptimizationResponse> optimizeContentAsync(OptimizationRequest request) {
+        return enhanceAsync(request, tierRouter.route(request));
+    }
+
+    /**
+     * Background enhancement for notifications created with pre-enhancement. Routed without the
+     * interactive LLM budget; callers pace themselves and must handle
+     * {@link InferenceLimiter.SaturatedException}.
+     */
+    public CompletableFuture<OptimizationResponse> preEnhanceAsync(OptimizationRequest request) {
+        return enhanceAsync(request, tierRouter.routePreEnhancement(request));
+    }
+
+    private CompletableFuture<OptimizationResponse> enhanceAsync(OptimizationRequest request,
+                                                                 EnhancementTierRouter.Decision decision) {
+        routingCounters.computeIfAbsent(decision, this::routingCounter).increment();
 
-    private static final List<String> EMOJIS = Arrays.asList(
-            "🚀", "⚡", "✨", "🎯", "💡", "🔥", "⭐", "💎"
-    );
+        long start = System.nanoTime();
+        if (decision.tier == EnhancementTier.RULES) {
+            OptimizationResponse response = ruleBasedOptimizer.optimize(request);
+            rulesTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return CompletableFuture.completedFuture(response);
+        }
+
+        if (semanticCache == null) {
+            return generateWithLlm(request, null, start);
+        }
 
-    public OptimizationResponse optimizeContent(OptimizationRequest request) {
+        return semanticCache.lookup(request)
+                .exceptionally(ex -> {
+                    log.warn("Semantic cache lookup failed, calling the LLM: {}", ex.getMessage());
+                    return null;
+                })
+                .thenCompose(lookup -> {
+                    if (lookup != null && lookup.hit != null) {
+                        cacheTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return CompletableFuture.completedFuture(lookup.hit);
+                    }
+                    return generateWithLlm(request, lookup, start);
+                });
+    }
+
+    private CompletableFuture<OptimizationResponse> generateWithLlm(OptimizationRequest request,
+                                                                    SemanticEnhancementCache.Lookup lookup,
+                                                                    long start) {
+        String prompt = buildPrompt(request);
+        // Counted from arrival, so time spent in the cache lookup and the limiter's queue is spent too
+        long deadlineNanos = request.getTimeoutMs() != null
+                ? start + TimeUnit.MILLISECONDS.toNanos(request.getTimeoutMs())
+                : Long.MAX_VALUE;
+        return inferenceLimiter.submit(() -> {
+                    if (deadlineNanos == Long.MAX_VALUE) {
+                        return ollamaService.generateMessageAsync(prompt);
+                    }
+                    long remainingNanos = deadlineNanos - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        expiredCounter.increment();
+                        return CompletableFuture.completedFuture(new OllamaService.GenerationResult(
+                                false, null, 0L, "Caller's deadline passed before the model was called"));
+                    }
+                    return ollamaService.generateMessageAsync(prompt, Duration.ofNanos(remainingNanos));
+                })
+                .thenApply(result -> {
+                    OptimizationResponse response = toLlmResponse(request, result);
+                    if (lookup != null && result.successful && result.content != null) {
+                        semanticCache.store(request, lookup, response);
+                    }
+                    return response;
+                })
+                .whenComplete((response, ex) -> llmTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private String buildPrompt(OptimizationRequest request) {
         log.info("Optimizing content via Ollama - Subject: {}", request.getSubject());
 
-        try {
-            // Build the AI prompt
-            String prompt = String.format(
-                    "Enhance this message for channel %s:\nSubject: %s\nMessage: %s",
-                    request.getChannel(),
-                    request.getSubject(),
-                    request.getMessage()
-            );
-
-            // Call OllamaService
-            OllamaService.GenerationResult result = ollamaService.generateMessage(prompt);
-
-            // Check if AI succeeded
-            String enhancedMessage;
-            Double confidence;
-            if (result.successful && result.content != null) {
-                enhancedMessage = result.content;
-                confidence = 0.95; // or compute based on your logic
-            } else {
-                log.warn("Ollama failed or returned null. Using fallback.");
-                enhancedMessage = enhanceMessage(request.getMessage(), request.getChannel());
-                confidence = 0.75;
-            }
-
-            return OptimizationResponse.builder()
-                    .originalSubject(request.getSubject())
-                    .optimizedSubject(request.getSubject()) // or parse AI response if needed
-                    .originalMessage(request.getMessage())
-                    .enhancedMessage(enhancedMessage)
-                    .optimizationStrategy("Ollama AI Optimization")
-                    .confidenceScore(confidence)
-                    .build();
-
-        } catch (Exception ex) {
-            log.error("AI enhancement failed, fallback triggered", ex);
-
-            // fallback logic
-            String optimizedSubject = optimizeSubject(request.getSubject(), request.getChannel());
-            String enhancedMessage = enhanceMessage(request.getMessage(), request.getChannel());
-            String strategy = determineStrategy(request.getChannel());
-            Double confidence = 0.75;
-
-            return OptimizationResponse.builder()
-                    .originalSubject(request.getSubject())
-                    .optimizedSubject(optimizedSubject)
-                    .originalMessage(request.getMessage())
-                    .enhancedMessage(enhancedMessage)
-                    .optimizationStrategy(strategy)
-                    .confidenceScore(confidence)
-                    .build();
+        PromptTemplate template = promptTemplates.resolve(request.getChannel(), request.getMessageType());
+        log.debug("Using prompt template '{}' v{}", template.getId(), template.getVersion());
+        return template.render(request);
+    }
+
+    private OptimizationResponse toLlmResponse(OptimizationRequest request, OllamaService.GenerationResult result) {
+        // Check if AI succeeded
+        String enhancedMessage;
+        Double confidence;
+        if (result.successful && result.content != null) {
+            enhancedMessage = result.content;
+            confidence = 0.95; // or compute based on your logic
+        } else {
+            log.warn("Ollama failed or returned null. Using fallback.");
+            llmFallbackCounter.increment();
+            enhancedMessage = ruleBasedOptimizer.enhanceMessage(request.getMessage(), request.getChannel(),
+                    request.getMessageType());
+            confidence = RuleBasedOptimizer.CONFIDENCE;
         }
+
+        return OptimizationResponse.builder()
+                .originalSubject(request.getSubject())
+                .optimizedSubject(request.getSubject()) // or parse AI response if needed
+                .originalMessage(request.getMessage())
+                .enhancedMessage(enhancedMessage)
+                .optimizationStrategy("Ollama AI Optimization")
+                .confidenceScore(confidence)
+                .build();
     }
+
     public OptimizationResponse optimizeContentOld(OptimizationRequest request) {
         log.info("Optimizing content - Subject: {}", request.getSubject());
 
@@ -92,9 +182,11 @@ public class AiOptimizationService {
             Thread.currentThread().interrupt();
         }
 
-        String optimizedSubject = optimizeSubject(request.getSubject(), request.getChannel());
-        String enhancedMessage = enhanceMessage(request.getMessage(), request.getChannel());
-        String strategy = determineStrategy(request.getChannel());
+        String optimizedSubject = ruleBasedOptimizer.optimizeSubject(request.getSubject(), request.getChannel(),
+                request.getMessageType());
+        String enhancedMessage = ruleBasedOptimizer.enhanceMessage(request.getMessage(), request.getChannel(),
+                request.getMessageType());
+        String strategy = ruleBasedOptimizer.determineStrategy();
         Double confidence = 0.75 + (random.nextDouble() * 0.24);
 
         log.info("Optimization complete - Original: '{}', Optimized: '{}'",
@@ -110,46 +202,19 @@ public class AiOptimizationService {
                 .build();
     }
 
-    private String optimizeSubject(String subject, String channel) {
-        String powerWord = POWER_WORDS.get(random.nextInt(POWER_WORDS.size()));
-        String emoji = EMOJIS.get(random.nextInt(EMOJIS.size()));
-
-        if ("EMAIL".equalsIgnoreCase(channel)) {
-            return String.format("%s %s: %s", emoji, powerWord, subject);
-        } else if ("SMS".equalsIgnoreCase(channel)) {
-            return String.format("[%s] %s", powerWord, subject);
-        } else if ("PUSH".equalsIgnoreCase(channel)) {
-            return String.format("%s %s", emoji, subject);
-        }
-
-        return String.format("%s %s", powerWord, subject);
-    }
-
-    private String enhanceMessage(String message, String channel) {
-        if ("EMAIL".equalsIgnoreCase(channel)) {
-            return String.format("%s\n\n✨ This message has been AI-optimized for maximum engagement.", message);
-        } else if ("SMS".equalsIgnoreCase(channel)) {
-            return message.length() > 100
-                    ? message.substring(0, 97) + "..."
-                    : message;
-        } else if ("PUSH".equalsIgnoreCase(channel)) {
-            return message.length() > 150
-                    ? message.substring(0, 147) + "..."
-                    : message;
-        }
-
-        return message;
+    private Timer tierTimer(EnhancementTier tier) {
+        return Timer.builder("ai.enhancement.latency")
+                .description("End-to-end enhancement latency per tier")
+                .tag("tier", tier.tag())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
     }
 
-    private String determineStrategy(String channel) {
-        String[] strategies = {
-                "Power word injection with emoji enhancement",
-                "Urgency-based subject line optimization",
-                "Engagement-driven content restructuring",
-                "Personalization with emotional trigger",
-                "Action-oriented language optimization"
-        };
-
-        return strategies[random.nextInt(strategies.length)];
+    private Counter routingCounter(EnhancementTierRouter.Decision decision) {
+        return Counter.builder("ai.enhancement.requests")
+                .description("Enhancement requests per tier and routing reason")
+                .tag("tier", decision.tier.tag())
+                .tag("reason", decision.reason)
+                .register(meterRegistry);
     }
 }
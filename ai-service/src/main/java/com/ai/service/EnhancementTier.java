@@ -0,0 +1,13 @@
+package com.ai.service;
+
+public enum EnhancementTier {
+    RULES,
+    CACHE,
+    LLM;
+
+    private final String tag = name().toLowerCase();
+
+    public String tag() {
+        return tag;
+    }
+}
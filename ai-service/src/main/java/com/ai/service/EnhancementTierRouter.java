@@ -0,0 +1,140 @@
+package com.ai.service;
+
+import com.ai.dto.OptimizationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Scores each request on channel, message type, length and tenant policy and decides whether
+ * it is worth an LLM call. Anything below the threshold, or over the per-second LLM budget,
+ * is served by {@link RuleBasedOptimizer}. With tiering disabled every request goes to the LLM.
+ */
+@Component
+public class EnhancementTierRouter {
+
+    public static final String REASON_DISABLED = "disabled";
+    public static final String REASON_TENANT_POLICY = "tenant_policy";
+    public static final String REASON_TOO_SHORT = "too_short";
+    public static final String REASON_LOW_SCORE = "low_score";
+    public static final String REASON_BUDGET_EXHAUSTED = "budget_exhausted";
+    public static final String REASON_ELIGIBLE = "eligible";
+    public static final String REASON_PRE_ENHANCEMENT = "pre_enhancement";
+
+    private final boolean enabled;
+    private final int minLlmLength;
+    private final double scoreThreshold;
+    private final Set<String> rulesOnlyTenants;
+    private final LlmBudget llmBudget;
+
+    public EnhancementTierRouter(
+            @Value("${ai.tiering.enabled:true}") boolean enabled,
+            @Value("${ai.tiering.min-llm-length:80}") int minLlmLength,
+            @Value("${ai.tiering.llm-score-threshold:0.5}") double scoreThreshold,
+            @Value("${ai.tiering.llm-budget-per-second:5}") int llmBudgetPerSecond,
+            @Value("${ai.tiering.rules-only-tenants:}") List<String> rulesOnlyTenants
+    ) {
+        this.enabled = enabled;
+        this.minLlmLength = minLlmLength;
+        this.scoreThreshold = scoreThreshold;
+        this.rulesOnlyTenants = new HashSet<>(rulesOnlyTenants);
+        this.llmBudget = new LlmBudget(llmBudgetPerSecond);
+    }
+
+    public Decision route(OptimizationRequest request) {
+        return route(request, true);
+    }
+
+    private Decision route(OptimizationRequest request, boolean budgeted) {
+        if (!enabled) {
+            return Decision.LLM_TIERING_DISABLED;
+        }
+        if (request.getTenantId() != null && rulesOnlyTenants.contains(request.getTenantId())) {
+            return Decision.RULES_TENANT_POLICY;
+        }
+        if (request.getMessage() == null || request.getMessage().length() < minLlmLength) {
+            return Decision.RULES_TOO_SHORT;
+        }
+        if (score(request) < scoreThreshold) {
+            return Decision.RULES_LOW_SCORE;
+        }
+
+        return !budgeted || llmBudget.tryAcquire()
+                ? Decision.LLM_ELIGIBLE
+                : Decision.RULES_BUDGET_EXHAUSTED;
+    }
+
+    /**
+     * Same policy as {@link #route} without the per-second LLM budget: pre-enhancement runs in the
+     * background at its own consumer rate and should not take budget from interactive requests.
+     */
+    public Decision routePreEnhancement(OptimizationRequest request) {
+        Decision decision = route(request, false);
+        return decision == Decision.LLM_ELIGIBLE ? Decision.LLM_PRE_ENHANCEMENT : decision;
+    }
+
+    double score(OptimizationRequest request) {
+        return channelWeight(request.getChannel()) * messageTypeWeight(request.getMessageType());
+    }
+
+    private static double channelWeight(String channel) {
+        if (channel == null) {
+            return 0.5;
+        }
+        switch (channel.toUpperCase(Locale.ROOT)) {
+            case "EMAIL":
+                return 1.0;
+            case "IN_APP":
+            case "WHATSAPP":
+                return 0.6;
+            case "TELEGRAM":
+                return 0.5;
+            case "PUSH":
+                return 0.4;
+            case "SMS":
+                return 0.2;
+            default:
+                return 0.5;
+        }
+    }
+
+    private static double messageTypeWeight(String messageType) {
+        if (messageType == null) {
+            return 0.6;
+        }
+        switch (messageType.toUpperCase(Locale.ROOT)) {
+            case "MARKETING":
+                return 1.0;
+            case "SYSTEM_UPDATE":
+                return 0.5;
+            case "ALERT":
+                return 0.3;
+            case "TRANSACTIONAL":
+                return 0.2;
+            default:
+                return 0.6;
+        }
+    }
+
+    public static class Decision {
+        static final Decision LLM_ELIGIBLE = new Decision(EnhancementTier.LLM, REASON_ELIGIBLE);
+        static final Decision LLM_PRE_ENHANCEMENT = new Decision(EnhancementTier.LLM, REASON_PRE_ENHANCEMENT);
+        static final Decision LLM_TIERING_DISABLED = new Decision(EnhancementTier.LLM, REASON_DISABLED);
+        static final Decision RULES_TENANT_POLICY = new Decision(EnhancementTier.RULES, REASON_TENANT_POLICY);
+        static final Decision RULES_TOO_SHORT = new Decision(EnhancementTier.RULES, REASON_TOO_SHORT);
+        static final Decision RULES_LOW_SCORE = new Decision(EnhancementTier.RULES, REASON_LOW_SCORE);
+        static final Decision RULES_BUDGET_EXHAUSTED = new Decision(EnhancementTier.RULES, REASON_BUDGET_EXHAUSTED);
+
+        public final EnhancementTier tier;
+        public final String reason;
+
+        public Decision(EnhancementTier tier, String reason) {
+            this.tier = tier;
+            this.reason = reason;
+        }
+    }
+}
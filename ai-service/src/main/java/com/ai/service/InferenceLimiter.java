@@ -0,0 +1,142 @@
+package com.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for non-blocking LLM calls. At most {@code maxConcurrent} inferences run at
+ * once and at most {@code maxQueued} wait behind them; anything beyond that is rejected
+ * immediately with a retry hint derived from the observed inference latency.
+ */
+@Component
+public class InferenceLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+    private static final int MAX_RETRY_AFTER_SECONDS = 60;
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final ArrayDeque<PendingCall<?>> queue = new ArrayDeque<>();
+    private final Counter rejectedCounter;
+    private int inFlight;
+    private volatile double averageLatencySeconds = 1.0;
+
+    public InferenceLimiter(
+            @Value("${ai.serving.max-concurrent-inferences:8}") int maxConcurrent,
+            @Value("${ai.serving.max-queued-inferences:64}") int maxQueued,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.rejectedCounter = Counter.builder("ai.inference.rejected")
+                .description("LLM calls rejected because the service was saturated")
+                .register(meterRegistry);
+        Gauge.builder("ai.inference.in-flight", this, InferenceLimiter::inFlight)
+                .description("LLM calls currently running")
+                .register(meterRegistry);
+        Gauge.builder("ai.inference.queued", this, InferenceLimiter::queued)
+                .description("LLM calls waiting for a free inference slot")
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        PendingCall<T> pending = new PendingCall<>(call);
+        synchronized (queue) {
+            if (inFlight >= maxConcurrent) {
+                if (queue.size() >= maxQueued) {
+                    rejectedCounter.increment();
+                    throw new SaturatedException(retryAfterSeconds(queue.size()));
+                }
+                queue.add(pending);
+                return pending.result;
+            }
+            inFlight++;
+        }
+
+        start(pending);
+        return pending.result;
+    }
+
+    private <T> void start(PendingCall<T> pending) {
+        long startTime = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = pending.call.get();
+        } catch (RuntimeException ex) {
+            call = CompletableFuture.failedFuture(ex);
+        }
+
+        call.whenComplete((value, ex) -> {
+            recordLatency(System.nanoTime() - startTime);
+            release();
+            if (ex != null) {
+                pending.result.completeExceptionally(ex);
+            } else {
+                pending.result.complete(value);
+            }
+        });
+    }
+
+    private void release() {
+        PendingCall<?> next;
+        synchronized (queue) {
+            next = queue.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        if (next != null) {
+            start(next);
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        averageLatencySeconds += LATENCY_SMOOTHING * (nanos / 1e9 - averageLatencySeconds);
+    }
+
+    private long retryAfterSeconds(int queued) {
+        double drainSeconds = averageLatencySeconds * (queued + 1) / Math.max(1, maxConcurrent);
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, (long) Math.ceil(drainSeconds)));
+    }
+
+    private double inFlight() {
+        synchronized (queue) {
+            return inFlight;
+        }
+    }
+
+    private double queued() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private static class PendingCall<T> {
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private PendingCall(Supplier<CompletableFuture<T>> call) {
+            this.call = call;
+        }
+    }
+
+    public static class SaturatedException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public SaturatedException(long retryAfterSeconds) {
+            super("AI inference capacity exhausted, retry after " + retryAfterSeconds + "s");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
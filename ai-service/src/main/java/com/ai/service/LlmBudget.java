@@ -0,0 +1,39 @@
+package com.ai.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed one-second window cap on the number of requests allowed to reach the LLM.
+ * A non-positive limit disables the cap.
+ */
+public class LlmBudget {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int permitsPerSecond;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+
+    public LlmBudget(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public boolean tryAcquire() {
+        if (permitsPerSecond <= 0) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+
+        return used.incrementAndGet() <= permitsPerSecond;
+    }
+
+    public int getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ai.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streams Ollama {@code /api/generate} requests and responses through Jackson's generator and
+ * parser, so neither side materializes an intermediate map, JSON string or tree. Field names
+ * are pre-encoded once.
+ */
+public class OllamaCodec {
+
+    private static final SerializableString MODEL = new SerializedString("model");
+    private static final SerializableString PROMPT = new SerializedString("prompt");
+    private static final SerializableString STREAM = new SerializedString("stream");
+    private static final SerializableString TEMPERATURE = new SerializedString("temperature");
+    private static final SerializableString TOP_P = new SerializedString("top_p");
+    private static final SerializableString OPTIONS = new SerializedString("options");
+    private static final SerializableString NUM_PREDICT = new SerializedString("num_predict");
+    private static final SerializableString TOP_K = new SerializedString("top_k");
+    private static final SerializableString KEEP_ALIVE = new SerializedString("keep_alive");
+
+    private static final String RESPONSE_FIELD = "response";
+    private static final int REQUEST_OVERHEAD_BYTES = 192;
+
+    private static final int NUM_PREDICT_VALUE = 512;
+    private static final int TOP_K_VALUE = 40;
+
+    private final JsonFactory jsonFactory;
+    private final SerializableString modelName;
+    private final double temperature;
+    private final double topP;
+    private final SerializableString keepAlive;
+
+    /**
+     * @param keepAlive how long Ollama keeps the model loaded after this request, e.g. {@code 30m};
+     *                  null leaves Ollama's default
+     */
+    public OllamaCodec(JsonFactory jsonFactory, String modelName, double temperature, double topP,
+                       String keepAlive) {
+        this.jsonFactory = jsonFactory;
+        this.modelName = new SerializedString(modelName);
+        this.temperature = temperature;
+        this.topP = topP;
+        this.keepAlive = keepAlive != null ? new SerializedString(keepAlive) : null;
+    }
+
+    public void writeGenerateRequest(OutputStream out, String prompt) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeFieldName(MODEL);
+            generator.writeString(modelName);
+            generator.writeFieldName(PROMPT);
+            generator.writeString(prompt);
+            generator.writeFieldName(STREAM);
+            generator.writeBoolean(false);
+            generator.writeFieldName(TEMPERATURE);
+            generator.writeNumber(temperature);
+            generator.writeFieldName(TOP_P);
+            generator.writeNumber(topP);
+            if (keepAlive != null) {
+                generator.writeFieldName(KEEP_ALIVE);
+                generator.writeString(keepAlive);
+            }
+
+            generator.writeFieldName(OPTIONS);
+            generator.writeStartObject();
+            generator.writeFieldName(NUM_PREDICT);
+            generator.writeNumber(NUM_PREDICT_VALUE);
+            generator.writeFieldName(TOP_K);
+            generator.writeNumber(TOP_K_VALUE);
+            generator.writeFieldName(TOP_P);
+            generator.writeNumber(topP);
+            generator.writeEndObject();
+
+            generator.writeEndObject();
+        }
+    }
+
+    public byte[] encodeGenerateRequest(String prompt) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(REQUEST_OVERHEAD_BYTES + prompt.length());
+        writeGenerateRequest(out, prompt);
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the top-level {@code response} text and stops reading; fields before it (and the
+     * large {@code context} token array after it) are never built. Returns null when absent or empty.
+     */
+    public String readGenerateResponse(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Ollama response is not a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (RESPONSE_FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                    String content = parser.getText();
+                    return content.isEmpty() ? null : content;
+                }
+                parser.skipChildren();
+            }
+
+            return null;
+        }
+    }
+}
@@ -1,136 +1,153 @@
 package com.ai.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class OllamaService {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
     private final String ollamaBaseUrl;
     private final String modelName;
     private final Double temperature;
     private final Double topP;
     private final Integer timeoutSeconds;
+    private final String generateUrl;
+    private final URI generateUri;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    private final OllamaCodec codec;
+    private final ObjectMapper objectMapper;
+    private final Timer successTimer;
+    private final Timer failureTimer;
 
     public OllamaService(
-            RestTemplate restTemplate,
+            HttpClient httpClient,
             ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
             @Value("${ollama.base-url:http://localhost:11434}") String ollamaBaseUrl,
             @Value("${ollama.model:llama2}") String modelName,
             @Value("${ollama.temperature:0.7}") Double temperature,
             @Value("${ollama.top-p:0.9}") Double topP,
-            @Value("${ollama.timeout-seconds:30}") Integer timeoutSeconds
+            @Value("${ollama.timeout-seconds:30}") Integer timeoutSeconds,
+            @Value("${ollama.keep-alive:30m}") String keepAlive
     ) {
-        this.restTemplate = restTemplate;
-        this.objectMapper = objectMapper;
         this.ollamaBaseUrl = ollamaBaseUrl;
         this.modelName = modelName;
         this.temperature = temperature;
         this.topP = topP;
         this.timeoutSeconds = timeoutSeconds;
+        this.generateUrl = ollamaBaseUrl + "/api/generate";
+        this.generateUri = URI.create(generateUrl);
+        this.requestTimeout = Duration.ofSeconds(timeoutSeconds);
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.codec = new OllamaCodec(objectMapper.getFactory(), modelName, temperature, topP, keepAlive);
+        this.successTimer = generateTimer(meterRegistry, "success");
+        this.failureTimer = generateTimer(meterRegistry, "failure");
     }
 
-    public GenerationResult generateMessage(String prompt) {
-        try {
-            long startTime = System.currentTimeMillis();
-
-            Map<String, Object> request = buildRequest(prompt);
-            String response = callOllama(request);
-
-            long duration = System.currentTimeMillis() - startTime;
-            String content = extractContent(response);
-
-            log.info("Ollama generation successful. Duration: {}ms, Model: {}", duration, modelName);
+    /**
+     * Calls {@code /api/generate} without holding a thread while the model is generating. The
+     * returned future always completes normally.
+     */
+    public CompletableFuture<GenerationResult> generateMessageAsync(String prompt) {
+        return generateMessageAsync(prompt, requestTimeout);
+    }
 
-            return new GenerationResult(
-                    true,
-                    content,
-                    duration,
-                    null
-            );
-        } catch (Exception ex) {
-            log.error("Ollama generation failed: {}", ex.getMessage(), ex);
-            return new GenerationResult(
-                    false,
-                    null,
-                    0L,
-                    ex.getMessage()
-            );
+    /**
+     * @param timeout bounds this call, capped at {@code ollama.timeout-seconds}
+     */
+    public CompletableFuture<GenerationResult> generateMessageAsync(String prompt, Duration timeout) {
+        long startTime = System.currentTimeMillis();
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(generateUri)
+                    .timeout(timeout.compareTo(requestTimeout) < 0 ? timeout : requestTimeout)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(codec.encodeGenerateRequest(prompt)))
+                    .build();
+        } catch (IOException ex) {
+            return CompletableFuture.completedFuture(failure(new OllamaException("Error preparing Ollama request", ex)));
         }
-    }
 
-    private Map<String, Object> buildRequest(String prompt) {
-        Map<String, Object> request = new HashMap<>();
-        request.put("model", modelName);
-        request.put("prompt", prompt);
-        request.put("stream", false);
-        request.put("temperature", temperature);
-        request.put("top_p", topP);
-
-        Map<String, Object> options = new HashMap<>();
-        options.put("num_predict", 512);
-        options.put("top_k", 40);
-        options.put("top_p", topP);
-        request.put("options", options);
-
-        return request;
+        log.debug("Calling Ollama API asynchronously: {}", generateUri);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::readContent)
+                .handle((content, ex) -> {
+                    if (ex != null) {
+                        failureTimer.record(System.currentTimeMillis() - startTime, TimeUnit.MILLISECONDS);
+                        return failure(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                    }
+
+                    long duration = System.currentTimeMillis() - startTime;
+                    if (content == null) {
+                        log.warn("Empty response from Ollama");
+                    }
+                    log.info("Ollama generation successful. Duration: {}ms, Model: {}", duration, modelName);
+                    successTimer.record(duration, TimeUnit.MILLISECONDS);
+                    return new GenerationResult(true, content, duration, null);
+                });
     }
 
-    private String callOllama(Map<String, Object> request) {
+    private String readContent(HttpResponse<byte[]> response) {
+        if (response.statusCode() >= 400) {
+            throw new OllamaException("Ollama API returned HTTP " + response.statusCode());
+        }
         try {
-            String url = ollamaBaseUrl + "/api/generate";
-            log.debug("Calling Ollama API: {}", url);
-
-            String jsonRequest = objectMapper.writeValueAsString(request);
-            String response = restTemplate.postForObject(url, jsonRequest, String.class);
-
-            return response;
-        } catch (RestClientException ex) {
-            throw new OllamaException("Failed to call Ollama API", ex);
-        } catch (Exception ex) {
-            throw new OllamaException("Error preparing Ollama request", ex);
+            return codec.readGenerateResponse(new ByteArrayInputStream(response.body()));
+        } catch (IOException ex) {
+            throw new OllamaException("Failed to parse Ollama response", ex);
         }
     }
 
-    private String extractContent(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            String response_text = root.path("response").asText();
-
-            if (response_text.isEmpty()) {
-                log.warn("Empty response from Ollama");
-                return null;
-            }
-
-            return response_text;
-        } catch (Exception ex) {
-            log.error("Failed to parse Ollama response", ex);
-            return null;
-        }
+    private GenerationResult failure(Throwable ex) {
+        log.error("Ollama generation failed: {}", ex.getMessage(), ex);
+        return new GenerationResult(false, null, 0L, ex.getMessage());
     }
 
     public boolean isAvailable() {
         try {
-            String url = ollamaBaseUrl + "/api/tags";
-            JsonNode response = restTemplate.getForObject(url, JsonNode.class);
-            return response != null && response.has("models");
+            HttpRequest request = HttpRequest.newBuilder(URI.create(ollamaBaseUrl + "/api/tags"))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() < 400 && objectMapper.readTree(response.body()).has("models");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception ex) {
             log.warn("Ollama service not available: {}", ex.getMessage());
             return false;
         }
     }
 
+    private Timer generateTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("ai.ollama.generate")
+                .description("Ollama /api/generate call time")
+                .tag("model", modelName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     public static class GenerationResult {
         public final boolean successful;
         public final String content;
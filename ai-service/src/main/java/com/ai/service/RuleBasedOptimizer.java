@@ -0,0 +1,122 @@
+package com.ai.service;
+
+import com.ai.dto.OptimizationRequest;
+import com.ai.dto.OptimizationResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deterministic, allocation-light optimizer used as the cheap enhancement tier and as the
+ * fallback when Ollama is unavailable. All channel prefixes are built once so a call costs
+ * a single string concatenation per field.
+ *
+ * <p>Only MARKETING content gets the power-word subject and the email footer. TRANSACTIONAL and
+ * ALERT content, which the tier router sends here by default, is passed through unchanged; any
+ * other type is only shortened to fit SMS and push.
+ */
+@Component
+public class RuleBasedOptimizer {
+
+    static final double CONFIDENCE = 0.75;
+
+    private static final String[] POWER_WORDS = {
+            "Exclusive", "Limited", "Urgent", "Important", "New", "Breakthrough",
+            "Amazing", "Instant", "Quick", "Easy", "Free", "Guaranteed"
+    };
+
+    private static final String[] EMOJIS = {
+            "🚀", "⚡", "✨", "🎯", "💡", "🔥", "⭐", "💎"
+    };
+
+    private static final String[] STRATEGIES = {
+            "Power word injection with emoji enhancement",
+            "Urgency-based subject line optimization",
+            "Engagement-driven content restructuring",
+            "Personalization with emotional trigger",
+            "Action-oriented language optimization"
+    };
+
+    static final String PASS_THROUGH = "Passed through unchanged";
+
+    private static final String EMAIL_FOOTER = "\n\n✨ This message has been AI-optimized for maximum engagement.";
+
+    private static final String[] EMAIL_PREFIXES = new String[EMOJIS.length * POWER_WORDS.length];
+    private static final String[] SMS_PREFIXES = new String[POWER_WORDS.length];
+    private static final String[] PUSH_PREFIXES = new String[EMOJIS.length];
+    private static final String[] DEFAULT_PREFIXES = new String[POWER_WORDS.length];
+
+    static {
+        for (int e = 0; e < EMOJIS.length; e++) {
+            for (int p = 0; p < POWER_WORDS.length; p++) {
+                EMAIL_PREFIXES[e * POWER_WORDS.length + p] = EMOJIS[e] + " " + POWER_WORDS[p] + ": ";
+            }
+            PUSH_PREFIXES[e] = EMOJIS[e] + " ";
+        }
+        for (int p = 0; p < POWER_WORDS.length; p++) {
+            SMS_PREFIXES[p] = "[" + POWER_WORDS[p] + "] ";
+            DEFAULT_PREFIXES[p] = POWER_WORDS[p] + " ";
+        }
+    }
+
+    public OptimizationResponse optimize(OptimizationRequest request) {
+        return OptimizationResponse.builder()
+                .originalSubject(request.getSubject())
+                .optimizedSubject(optimizeSubject(request.getSubject(), request.getChannel(), request.getMessageType()))
+                .originalMessage(request.getMessage())
+                .enhancedMessage(enhanceMessage(request.getMessage(), request.getChannel(), request.getMessageType()))
+                .optimizationStrategy(isVerbatim(request.getMessageType()) ? PASS_THROUGH : determineStrategy())
+                .confidenceScore(CONFIDENCE)
+                .build();
+    }
+
+    public String optimizeSubject(String subject, String channel, String messageType) {
+        if (subject == null || !isMarketing(messageType)) {
+            return subject;
+        }
+        String[] prefixes;
+        if ("EMAIL".equalsIgnoreCase(channel)) {
+            prefixes = EMAIL_PREFIXES;
+        } else if ("SMS".equalsIgnoreCase(channel)) {
+            prefixes = SMS_PREFIXES;
+        } else if ("PUSH".equalsIgnoreCase(channel)) {
+            prefixes = PUSH_PREFIXES;
+        } else {
+            prefixes = DEFAULT_PREFIXES;
+        }
+
+        return prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)].concat(subject);
+    }
+
+    public String enhanceMessage(String message, String channel, String messageType) {
+        if (message == null || isVerbatim(messageType)) {
+            return message;
+        }
+        if ("EMAIL".equalsIgnoreCase(channel)) {
+            return isMarketing(messageType) ? message.concat(EMAIL_FOOTER) : message;
+        } else if ("SMS".equalsIgnoreCase(channel)) {
+            return message.length() > 100
+                    ? message.substring(0, 97).concat("...")
+                    : message;
+        } else if ("PUSH".equalsIgnoreCase(channel)) {
+            return message.length() > 150
+                    ? message.substring(0, 147).concat("...")
+                    : message;
+        }
+
+        return message;
+    }
+
+    public String determineStrategy() {
+        return STRATEGIES[ThreadLocalRandom.current().nextInt(STRATEGIES.length)];
+    }
+
+    private static boolean isMarketing(String messageType) {
+        return "MARKETING".equalsIgnoreCase(messageType);
+    }
+
+    // Receipts, codes and alerts must arrive as written, neither decorated nor cut short
+    private static boolean isVerbatim(String messageType) {
+        return "TRANSACTIONAL".equalsIgnoreCase(messageType) || "ALERT".equalsIgnoreCase(messageType);
+    }
+}
@@ -0,0 +1,200 @@
+package com.ai.lifecycle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelReadinessHealthIndicatorTest {
+
+    private static final List<String> MODELS = List.of("llama2", "mistral:7b");
+
+    private HttpServer ollama;
+    private SimpleMeterRegistry meterRegistry;
+    private ModelLifecycleManager lifecycleManager;
+    private final AtomicInteger generateCalls = new AtomicInteger();
+    // What the stub Ollama answers
+    private volatile int generateStatus = 200;
+    private volatile CountDownLatch generateGate = new CountDownLatch(0);
+    // Warm-up generations of this model wait for the gate; keep-alive renewals do not
+    private volatile String gatedModel;
+    private volatile List<String> loaded = List.of("llama2:latest", "mistral:7b");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        ollama = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        ollama.createContext("/api/generate", this::generate);
+        ollama.createContext("/api/ps", this::ps);
+        ollama.setExecutor(Executors.newCachedThreadPool());
+        ollama.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        generateGate.countDown();
+        if (lifecycleManager != null) {
+            lifecycleManager.shutdown();
+        }
+        ollama.stop(0);
+    }
+
+    @Test
+    void outOfServiceWhileTheModelsLoadThenUp() throws Exception {
+        gate("llama2");
+        ModelReadinessHealthIndicator indicator = indicator(true, Duration.ofMinutes(5));
+
+        awaitState("llama2", ModelLifecycleManager.ModelState.LOADING);
+        Health loading = indicator.health();
+        assertThat(loading.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(states(loading)).containsEntry("llama2", ModelLifecycleManager.ModelState.LOADING)
+                .containsEntry("mistral:7b", ModelLifecycleManager.ModelState.UNLOADED);
+
+        generateGate.countDown();
+        awaitStatus(indicator, Status.UP);
+        Health ready = indicator.health();
+        assertThat(states(ready)).containsOnly(
+                Map.entry("llama2", ModelLifecycleManager.ModelState.WARM),
+                Map.entry("mistral:7b", ModelLifecycleManager.ModelState.WARM));
+        assertThat(details(ready, "llama2")).containsKeys("coldStartMs", "warmSince", "keepAliveUntil");
+        assertThat(meterRegistry.get("ai.ollama.model.warm").tag("model", "llama2").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void staysOutOfServiceWhileLoadingFailsAndRecoversOnRetry() throws Exception {
+        generateStatus = 500;
+        ModelReadinessHealthIndicator indicator = indicator(true, Duration.ofMinutes(5));
+
+        await(() -> details(indicator.health(), "mistral:7b").containsKey("error"));
+        Health failing = indicator.health();
+        assertThat(failing.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(details(failing, "llama2")).containsEntry("state", ModelLifecycleManager.ModelState.UNLOADED)
+                .containsEntry("error", "Ollama returned HTTP 500");
+
+        generateStatus = 200;
+        awaitStatus(indicator, Status.UP);
+        assertThat(details(indicator.health(), "llama2")).doesNotContainKey("error");
+    }
+
+    @Test
+    void anUnloadedModelTakesTheServiceOutUntilItIsWarmAgain() throws Exception {
+        ModelReadinessHealthIndicator indicator = indicator(true, Duration.ofMillis(50));
+        awaitStatus(indicator, Status.UP);
+
+        gate("mistral:7b");
+        loaded = List.of("llama2:latest");
+        awaitState("mistral:7b", ModelLifecycleManager.ModelState.LOADING);
+        Health reloading = indicator.health();
+        assertThat(reloading.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(states(reloading)).containsEntry("llama2", ModelLifecycleManager.ModelState.WARM);
+
+        loaded = MODELS.stream().map(ModelLifecycleManager.ModelStatus::key).collect(Collectors.toList());
+        generateGate.countDown();
+        awaitStatus(indicator, Status.UP);
+        assertThat(meterRegistry.get("ai.ollama.model.unloads").tag("model", "mistral:7b").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("ai.ollama.model.unloads").tag("model", "llama2").counter().count()).isZero();
+    }
+
+    @Test
+    void upWithoutCallingOllamaWhenTheLifecycleIsDisabled() {
+        generateStatus = 500;
+        ModelReadinessHealthIndicator indicator = indicator(false, Duration.ofMinutes(5));
+
+        Health health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsOnly(Map.entry("lifecycle", "disabled"));
+        assertThat(lifecycleManager.isReady()).isTrue();
+        assertThat(generateCalls.get()).isZero();
+    }
+
+    private ModelReadinessHealthIndicator indicator(boolean enabled, Duration refreshInterval) {
+        lifecycleManager = new ModelLifecycleManager(HttpClient.newHttpClient(), new ObjectMapper(), meterRegistry,
+                "http://localhost:" + ollama.getAddress().getPort(), enabled, MODELS, "30m", "Hello",
+                Duration.ofSeconds(10), refreshInterval, Duration.ofMillis(50));
+        return new ModelReadinessHealthIndicator(lifecycleManager);
+    }
+
+    private void generate(HttpExchange exchange) throws IOException {
+        generateCalls.incrementAndGet();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (gatedModel != null && body.contains("\"model\":\"" + gatedModel + "\"")
+                && body.contains("\"prompt\"")) {
+            try {
+                generateGate.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        respond(exchange, generateStatus, "{\"done\":true}");
+    }
+
+    private void gate(String model) {
+        generateGate = new CountDownLatch(1);
+        gatedModel = model;
+    }
+
+    private void ps(HttpExchange exchange) throws IOException {
+        String models = loaded.stream()
+                .map(name -> "{\"name\":\"" + name + "\"}")
+                .collect(Collectors.joining(","));
+        respond(exchange, 200, "{\"models\":[" + models + "]}");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private void awaitState(String model, ModelLifecycleManager.ModelState state) throws InterruptedException {
+        await(() -> lifecycleManager.models().stream()
+                .anyMatch(status -> status.getName().equals(model) && status.getState() == state));
+    }
+
+    private static void awaitStatus(ModelReadinessHealthIndicator indicator, Status status) throws InterruptedException {
+        await(() -> indicator.health().getStatus().equals(status));
+    }
+
+    private static void await(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.get()) {
+            assertThat(System.nanoTime()).as("condition not met within 10 s").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static Map<String, ModelLifecycleManager.ModelState> states(Health health) {
+        return health.getDetails().keySet().stream()
+                .collect(Collectors.toMap(name -> name,
+                        name -> (ModelLifecycleManager.ModelState) details(health, name).get("state")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> details(Health health, String model) {
+        return (Map<String, Object>) health.getDetails().getOrDefault(model, Map.of());
+    }
+}
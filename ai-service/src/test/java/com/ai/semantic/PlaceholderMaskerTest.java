@@ -0,0 +1,61 @@
+package com.ai.semantic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceholderMaskerTest {
+
+    @Test
+    void masksEmailsUrlsNumbersAndNamesInsideASentence() {
+        PlaceholderMasker.Masked masked = PlaceholderMasker.mask("Order #1234 shipped",
+                "Hi there Mary, track it at https://shop.example/t/1234 or write to help@shop.example.");
+
+        assertThat(masked.values).containsExactly("#1234", "Mary", "https://shop.example/t/1234",
+                "help@shop.example");
+        assertThat(masked.template).isEqualTo("Order {var} shipped\nHi there {var}, track it at {var} or write to {var}.");
+    }
+
+    @Test
+    void aNameStartingASentenceStaysInTheTemplate() {
+        PlaceholderMasker.Masked mary = PlaceholderMasker.mask("Your order", "Mary, thanks for order 1234. Great news!");
+        PlaceholderMasker.Masked john = PlaceholderMasker.mask("Your order", "John, thanks for order 5678. Great news!");
+
+        assertThat(mary.values).containsExactly("1234");
+        assertThat(mary.template).contains("Mary");
+        assertThat(mary.template).isNotEqualTo(john.template);
+    }
+
+    @Test
+    void aLowercaseNameStaysInTheTemplate() {
+        PlaceholderMasker.Masked masked = PlaceholderMasker.mask("Hello", "Welcome back mary, your code is 4321");
+
+        assertThat(masked.values).containsExactly("4321");
+        assertThat(masked.template).contains("mary");
+    }
+
+    @Test
+    void slotsRoundTripWithAnotherRequestsValues() {
+        String[] slotted = PlaceholderMasker.toSlots(List.of("Mary", "1234"),
+                "Mary, order 1234 is here", "Thanks Mary");
+
+        assertThat(slotted).isNotNull();
+        assertThat(slotted[0]).doesNotContain("Mary", "1234");
+        assertThat(PlaceholderMasker.fromSlots(slotted[0], List.of("John", "5678"))).isEqualTo("John, order 5678 is here");
+        assertThat(PlaceholderMasker.fromSlots(slotted[1], List.of("John", "5678"))).isEqualTo("Thanks John");
+    }
+
+    @Test
+    void refusesToSlotWhenAValueWasReworded() {
+        assertThat(PlaceholderMasker.toSlots(List.of("Mary", "1234"), "Dear customer, order 1234 is here")).isNull();
+    }
+
+    @Test
+    void longerValuesAreSlottedFirst() {
+        String[] slotted = PlaceholderMasker.toSlots(List.of("2024", "12024"), "Codes 12024 and 2024");
+
+        assertThat(PlaceholderMasker.fromSlots(slotted[0], List.of("A", "B"))).isEqualTo("Codes B and A");
+    }
+}
@@ -0,0 +1,106 @@
+package com.ai.semantic;
+
+import com.ai.dto.OptimizationRequest;
+import com.ai.dto.OptimizationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticEnhancementCacheTest {
+
+    private static final String BODY = " thanks for shopping with us. We packed everything with care and our courier "
+            + "will bring it to your door within two working days. Order %s is on its way, and you can reply "
+            + "to this message if anything is missing or damaged when it arrives.";
+
+    private HashingEmbeddingModel embeddingModel;
+    private SemanticCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SemanticEnhancementCache cache;
+
+    @BeforeEach
+    void setUp() {
+        embeddingModel = new HashingEmbeddingModel(256);
+        properties = new SemanticCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SemanticEnhancementCache(embeddingModel, properties, meterRegistry);
+    }
+
+    @Test
+    void reusesAnEnhancementWithTheNewRequestsValues() {
+        OptimizationRequest mary = request("Your order", "Hi there Mary, order 1234 has shipped.");
+        store(mary, "Good news about your order", "Great news Mary! Order 1234 is on its way.");
+
+        SemanticEnhancementCache.Lookup lookup = cache.lookup(request("Your order", "Hi there John, order 5678 has shipped."))
+                .join();
+
+        assertThat(lookup.hit).isNotNull();
+        assertThat(lookup.hit.getEnhancedMessage()).isEqualTo("Great news John! Order 5678 is on its way.");
+        assertThat(lookup.hit.getOriginalMessage()).isEqualTo("Hi there John, order 5678 has shipped.");
+        assertThat(meterRegistry.get("ai.semantic-cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void neverReusesAcrossANameStartingTheMessage() {
+        OptimizationRequest mary = request("Your order", "Mary," + BODY.formatted("1234"));
+        OptimizationRequest john = request("Your order", "John," + BODY.formatted("5678"));
+        // Similar enough that the vector search alone would hand Mary's text to John
+        float similarity = dot(embeddingModel.embedNow(PlaceholderMasker.mask(mary.getSubject(), mary.getMessage()).template),
+                embeddingModel.embedNow(PlaceholderMasker.mask(john.getSubject(), john.getMessage()).template));
+        assertThat((double) similarity).isGreaterThanOrEqualTo(properties.getSimilarityThreshold());
+        store(mary, "Your order", "Great news Mary! Order 1234 is on its way.");
+
+        SemanticEnhancementCache.Lookup lookup = cache.lookup(john).join();
+
+        assertThat(lookup.hit).isNull();
+        // Mary's own lookup before storing was the first miss
+        assertThat(meterRegistry.get("ai.semantic-cache.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ai.semantic-cache.entries").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void missesForAnotherChannel() {
+        store(request("Your order", "Hi there Mary, order 1234 has shipped."), "Your order",
+                "Great news Mary! Order 1234 is on its way.");
+        OptimizationRequest sms = request("Your order", "Hi there John, order 5678 has shipped.");
+        sms.setChannel("SMS");
+
+        assertThat(cache.lookup(sms).join().hit).isNull();
+    }
+
+    @Test
+    void doesNotStoreAnEnhancementThatDroppedAValue() {
+        store(request("Your order", "Hi there Mary, order 1234 has shipped."), "Your order",
+                "Great news! Your order is on its way.");
+
+        assertThat(cache.lookup(request("Your order", "Hi there Mary, order 1234 has shipped.")).join().hit).isNull();
+        assertThat(meterRegistry.get("ai.semantic-cache.entries").gauge().value()).isZero();
+    }
+
+    private void store(OptimizationRequest request, String subject, String message) {
+        SemanticEnhancementCache.Lookup lookup = cache.lookup(request).join();
+        cache.store(request, lookup, OptimizationResponse.builder()
+                .optimizedSubject(subject)
+                .enhancedMessage(message)
+                .confidenceScore(0.9)
+                .build());
+    }
+
+    private static OptimizationRequest request(String subject, String message) {
+        return OptimizationRequest.builder()
+                .subject(subject)
+                .message(message)
+                .channel("EMAIL")
+                .messageType("MARKETING")
+                .build();
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ai.service;
+
+import com.ai.dto.OptimizationRequest;
+import com.ai.dto.OptimizationResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleBasedOptimizerTest {
+
+    private static final String SUBJECT = "Your order has shipped";
+    private static final String LONG_MESSAGE = "Order 1042 left our warehouse today and should arrive on Thursday. "
+            + "Track it with code 1Z999AA10123456784 or reply to this message if anything is wrong.";
+
+    private final RuleBasedOptimizer optimizer = new RuleBasedOptimizer();
+    private final EnhancementTierRouter router = new EnhancementTierRouter(true, 80, 0.5, 0, List.of());
+
+    @Test
+    void transactionalAndAlertContentPassesThroughUnchanged() {
+        for (String messageType : List.of("TRANSACTIONAL", "ALERT", "alert")) {
+            for (String channel : List.of("EMAIL", "SMS", "PUSH", "TELEGRAM")) {
+                OptimizationRequest request = request(channel, messageType);
+
+                OptimizationResponse response = optimizer.optimize(request);
+
+                assertThat(response.getOptimizedSubject()).as(channel + " " + messageType).isEqualTo(SUBJECT);
+                assertThat(response.getEnhancedMessage()).as(channel + " " + messageType).isEqualTo(LONG_MESSAGE);
+                assertThat(response.getOptimizationStrategy()).isEqualTo(RuleBasedOptimizer.PASS_THROUGH);
+            }
+        }
+    }
+
+    @Test
+    void theRouterSendsTransactionalEmailToTheRuleTierWhichLeavesItAlone() {
+        OptimizationRequest request = request("EMAIL", "TRANSACTIONAL");
+
+        assertThat(router.route(request).tier).isEqualTo(EnhancementTier.RULES);
+        OptimizationResponse response = optimizer.optimize(request);
+
+        assertThat(response.getOptimizedSubject()).isEqualTo(SUBJECT);
+        assertThat(response.getEnhancedMessage()).doesNotContain("AI-optimized");
+    }
+
+    @Test
+    void marketingEmailGetsThePowerWordSubjectAndTheFooter() {
+        OptimizationResponse response = optimizer.optimize(request("EMAIL", "MARKETING"));
+
+        assertThat(response.getOptimizedSubject()).endsWith(": " + SUBJECT).isNotEqualTo(SUBJECT);
+        assertThat(response.getEnhancedMessage()).startsWith(LONG_MESSAGE)
+                .endsWith("This message has been AI-optimized for maximum engagement.");
+        assertThat(response.getOptimizationStrategy()).isNotEqualTo(RuleBasedOptimizer.PASS_THROUGH);
+    }
+
+    @Test
+    void otherTypesAreOnlyShortenedToFitTheChannel() {
+        OptimizationResponse email = optimizer.optimize(request("EMAIL", "SYSTEM_UPDATE"));
+        OptimizationResponse sms = optimizer.optimize(request("SMS", null));
+
+        assertThat(email.getOptimizedSubject()).isEqualTo(SUBJECT);
+        assertThat(email.getEnhancedMessage()).isEqualTo(LONG_MESSAGE);
+        assertThat(sms.getOptimizedSubject()).isEqualTo(SUBJECT);
+        assertThat(sms.getEnhancedMessage()).hasSize(100).endsWith("...");
+    }
+
+    @Test
+    void nullFieldsStayNull() {
+        assertThat(optimizer.optimizeSubject(null, "EMAIL", "MARKETING")).isNull();
+        assertThat(optimizer.enhanceMessage(null, "EMAIL", "MARKETING")).isNull();
+    }
+
+    private static OptimizationRequest request(String channel, String messageType) {
+        return OptimizationRequest.builder()
+                .subject(SUBJECT)
+                .message(LONG_MESSAGE)
+                .channel(channel)
+                .messageType(messageType)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.ai.benchmark;
+
+import com.ai.semantic.EmbeddingModel;
+import com.ai.semantic.HnswIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert and query cost of the semantic cache's HNSW index at {@code vectors} entries.
+ * Vectors are drawn around {@code vectors / 100} random centroids, which resembles embeddings
+ * of templated campaign messages far better than uniform noise (the worst case for any ANN index).
+ * Building the 1M-vector index takes a few minutes; pass {@code -p vectors=100000} for a quick run.
+ * Heap needed is roughly vectors x (dimensions x 4 + 200) bytes, so run 1M x 256 with -Xmx4g.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class HnswIndexBenchmark {
+
+    private static final int QUERY_POOL = 4096;
+
+    @Param({"1000000"})
+    private int vectors;
+
+    @Param({"256"})
+    private int dimensions;
+
+    @Param({"64"})
+    private int efSearch;
+
+    private HnswIndex index;
+    private float[][] queries;
+    private float[][] inserts;
+    private int next;
+
+    private float[][] centroids;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        SplittableRandom random = new SplittableRandom(42);
+        centroids = new float[Math.max(1, vectors / 100)][];
+        for (int i = 0; i < centroids.length; i++) {
+            centroids[i] = uniformVector(random, 1.0);
+        }
+
+        index = new HnswIndex(dimensions, 16, 100);
+        for (int i = 0; i < vectors; i++) {
+            index.add(clusteredVector(random));
+        }
+        queries = new float[QUERY_POOL][];
+        inserts = new float[QUERY_POOL][];
+        for (int i = 0; i < QUERY_POOL; i++) {
+            queries[i] = clusteredVector(random);
+            inserts[i] = clusteredVector(random);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%nindex size=%d, approx memory=%d MB%n", index.size(), index.memoryBytes() / (1024 * 1024));
+    }
+
+    @Benchmark
+    public HnswIndex.Hit[] query() {
+        return index.search(queries[next++ & (QUERY_POOL - 1)], 5, efSearch);
+    }
+
+    @Benchmark
+    public int insert() {
+        return index.add(inserts[next++ & (QUERY_POOL - 1)]);
+    }
+
+    private float[] clusteredVector(SplittableRandom random) {
+        float[] centroid = centroids[random.nextInt(centroids.length)];
+        float[] vector = uniformVector(random, 0.2);
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] += centroid[i];
+        }
+        return EmbeddingModel.normalize(vector);
+    }
+
+    private float[] uniformVector(SplittableRandom random, double scale) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextDouble(-scale, scale);
+        }
+        return vector;
+    }
+}
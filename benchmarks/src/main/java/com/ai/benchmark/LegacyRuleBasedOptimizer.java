@@ -0,0 +1,66 @@
+package com.ai.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Copy of the original rule-based methods from AiOptimizationService, kept as the comparison
+ * baseline for {@link RuleBasedOptimizerBenchmark}.
+ */
+class LegacyRuleBasedOptimizer {
+
+    private final Random random = new Random();
+
+    private static final List<String> POWER_WORDS = Arrays.asList(
+            "Exclusive", "Limited", "Urgent", "Important", "New", "Breakthrough",
+            "Amazing", "Instant", "Quick", "Easy", "Free", "Guaranteed"
+    );
+
+    private static final List<String> EMOJIS = Arrays.asList(
+            "🚀", "⚡", "✨", "🎯", "💡", "🔥", "⭐", "💎"
+    );
+
+    String optimizeSubject(String subject, String channel) {
+        String powerWord = POWER_WORDS.get(random.nextInt(POWER_WORDS.size()));
+        String emoji = EMOJIS.get(random.nextInt(EMOJIS.size()));
+
+        if ("EMAIL".equalsIgnoreCase(channel)) {
+            return String.format("%s %s: %s", emoji, powerWord, subject);
+        } else if ("SMS".equalsIgnoreCase(channel)) {
+            return String.format("[%s] %s", powerWord, subject);
+        } else if ("PUSH".equalsIgnoreCase(channel)) {
+            return String.format("%s %s", emoji, subject);
+        }
+
+        return String.format("%s %s", powerWord, subject);
+    }
+
+    String enhanceMessage(String message, String channel) {
+        if ("EMAIL".equalsIgnoreCase(channel)) {
+            return String.format("%s\n\n✨ This message has been AI-optimized for maximum engagement.", message);
+        } else if ("SMS".equalsIgnoreCase(channel)) {
+            return message.length() > 100
+                    ? message.substring(0, 97) + "..."
+                    : message;
+        } else if ("PUSH".equalsIgnoreCase(channel)) {
+            return message.length() > 150
+                    ? message.substring(0, 147) + "..."
+                    : message;
+        }
+
+        return message;
+    }
+
+    String determineStrategy(String channel) {
+        String[] strategies = {
+                "Power word injection with emoji enhancement",
+                "Urgency-based subject line optimization",
+                "Engagement-driven content restructuring",
+                "Personalization with emotional trigger",
+                "Action-oriented language optimization"
+        };
+
+        return strategies[random.nextInt(strategies.length)];
+    }
+}
@@ -0,0 +1,136 @@
+package com.ai.benchmark;
+
+import com.ai.dto.OptimizationRequest;
+import com.ai.prompt.PromptTemplate;
+import com.ai.prompt.PromptTemplateRegistry;
+import com.ai.service.OllamaCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU and allocation of the Ollama request/response handling. The legacy methods
+ * reproduce the original path (String.format prompt, two HashMaps, writeValueAsString, the
+ * String-to-bytes copy done by RestTemplate, and a JsonNode tree for the response); the
+ * streaming methods use the compiled prompt template and {@link OllamaCodec}.
+ * Run with {@code -prof gc} for bytes allocated per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OllamaCodecBenchmark {
+
+    private static final String MODEL = "tinyllama";
+    private static final double TEMPERATURE = 0.7;
+    private static final double TOP_P = 0.9;
+
+    private ObjectMapper objectMapper;
+    private OllamaCodec codec;
+    private PromptTemplate template;
+    private OptimizationRequest request;
+    private byte[] responseBytes;
+    private ByteArrayOutputStream requestBody;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        codec = new OllamaCodec(objectMapper.getFactory(), MODEL, TEMPERATURE, TOP_P, null);
+        template = PromptTemplateRegistry.DEFAULT_TEMPLATE;
+        request = OptimizationRequest.builder()
+                .subject("Your order has shipped")
+                .message("Hi Alex, your order #48213 left our warehouse today and should arrive within "
+                        + "3-5 business days. You can follow the delivery from your account page.")
+                .channel("EMAIL")
+                .messageType("TRANSACTIONAL")
+                .build();
+        responseBytes = sampleResponse().getBytes(StandardCharsets.UTF_8);
+        requestBody = new ByteArrayOutputStream(1024);
+    }
+
+    @Benchmark
+    public String legacyRequestResponse() throws IOException {
+        String prompt = String.format(
+                "Enhance this message for channel %s:\nSubject: %s\nMessage: %s",
+                request.getChannel(),
+                request.getSubject(),
+                request.getMessage()
+        );
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", MODEL);
+        body.put("prompt", prompt);
+        body.put("stream", false);
+        body.put("temperature", TEMPERATURE);
+        body.put("top_p", TOP_P);
+        Map<String, Object> options = new HashMap<>();
+        options.put("num_predict", 512);
+        options.put("top_k", 40);
+        options.put("top_p", TOP_P);
+        body.put("options", options);
+
+        requestBody.reset();
+        requestBody.write(objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8));
+
+        String response = new String(responseBytes, StandardCharsets.UTF_8);
+        JsonNode root = objectMapper.readTree(response);
+        return root.path("response").asText();
+    }
+
+    @Benchmark
+    public String streamingRequestResponse() throws IOException {
+        requestBody.reset();
+        codec.writeGenerateRequest(requestBody, template.render(request));
+        return codec.readGenerateResponse(new ByteArrayInputStream(responseBytes));
+    }
+
+    @Benchmark
+    public String legacyPrompt() {
+        return String.format(
+                "Enhance this message for channel %s:\nSubject: %s\nMessage: %s",
+                request.getChannel(),
+                request.getSubject(),
+                request.getMessage()
+        );
+    }
+
+    @Benchmark
+    public String compiledPrompt() {
+        return template.render(request);
+    }
+
+    private static String sampleResponse() {
+        StringBuilder context = new StringBuilder();
+        for (int i = 0; i < 600; i++) {
+            if (i > 0) {
+                context.append(',');
+            }
+            context.append(29871 + i * 7);
+        }
+        return "{\"model\":\"tinyllama\",\"created_at\":\"2024-01-15T10:30:00.000000Z\","
+                + "\"response\":\"Great news, Alex! Your order #48213 is on its way and should arrive "
+                + "within 3-5 business days. Track it anytime from your account page.\","
+                + "\"done\":true,\"context\":[" + context + "],"
+                + "\"total_duration\":5043500667,\"load_duration\":5025959,\"prompt_eval_count\":26,"
+                + "\"prompt_eval_duration\":325953000,\"eval_count\":290,\"eval_duration\":4709213000}";
+    }
+}
@@ -0,0 +1,73 @@
+package com.ai.benchmark;
+
+import com.ai.dto.OptimizationRequest;
+import com.ai.dto.OptimizationResponse;
+import com.ai.service.EnhancementTierRouter;
+import com.ai.service.RuleBasedOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule-based enhancement tier against the original String.format implementation.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleBasedOptimizerBenchmark {
+
+    @Param({"EMAIL", "SMS", "PUSH"})
+    private String channel;
+
+    private RuleBasedOptimizer optimizer;
+    private LegacyRuleBasedOptimizer legacy;
+    private EnhancementTierRouter router;
+    private OptimizationRequest request;
+
+    @Setup
+    public void setUp() {
+        optimizer = new RuleBasedOptimizer();
+        legacy = new LegacyRuleBasedOptimizer();
+        router = new EnhancementTierRouter(true, 80, 0.5, 0, List.of());
+        request = OptimizationRequest.builder()
+                .subject("Your weekly account summary")
+                .message("Hi there, your account had 3 new sign-ins this week and your balance is up 4%. "
+                        + "Review the activity in your dashboard and let us know if anything looks unfamiliar.")
+                .channel(channel)
+                .messageType("MARKETING")
+                .build();
+    }
+
+    @Benchmark
+    public OptimizationResponse ruleBasedOptimize() {
+        return optimizer.optimize(request);
+    }
+
+    @Benchmark
+    public void legacyOptimize(Blackhole blackhole) {
+        blackhole.consume(legacy.optimizeSubject(request.getSubject(), request.getChannel()));
+        blackhole.consume(legacy.enhanceMessage(request.getMessage(), request.getChannel()));
+        blackhole.consume(legacy.determineStrategy(request.getChannel()));
+    }
+
+    @Benchmark
+    public EnhancementTierRouter.Decision route() {
+        return router.route(request);
+    }
+}
@@ -0,0 +1,170 @@
+package com.ai.benchmark;
+
+import com.ai.AiServiceApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots ai-service against an in-process stub Ollama that takes a fixed time per generation,
+ * then keeps {@code concurrency} clients busy for {@code duration} seconds and reports
+ * throughput, latency percentiles, 503 rejections, heap and thread counts.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.ai.benchmark.SlowModelLoadTest \
+ *     concurrency=512 duration=30 modelLatencyMs=2000 maxConcurrent=64 maxQueued=256
+ * </pre>
+ */
+public class SlowModelLoadTest {
+
+    private static final String BODY = "{\"subject\":\"Summer sale\",\"channel\":\"EMAIL\",\"messageType\":\"MARKETING\","
+            + "\"message\":\"Our biggest summer sale starts Friday with discounts across the whole store for members only.\"}";
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = intArg(args, "concurrency", 512);
+        int durationSeconds = intArg(args, "duration", 30);
+        int modelLatencyMs = intArg(args, "modelLatencyMs", 2000);
+        int maxConcurrent = intArg(args, "maxConcurrent", 64);
+        int maxQueued = intArg(args, "maxQueued", 256);
+
+        HttpServer stub = startStubOllama(modelLatencyMs);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AiServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        // JPA is on the benchmark classpath for the other services' sources
+                        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+                        "ollama.base-url=http://127.0.0.1:" + stub.getAddress().getPort(),
+                        "ai.tiering.min-llm-length=0",
+                        "ai.tiering.llm-budget-per-second=0",
+                        "ai.serving.max-concurrent-inferences=" + maxConcurrent,
+                        "ai.serving.max-queued-inferences=" + maxQueued,
+                        "logging.level.root=WARN",
+                        "logging.level.com.ai=WARN")
+                .run();
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(8))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/ai/optimize"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                .build();
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        int peakThreads = 0;
+
+        for (int i = 0; i < concurrency; i++) {
+            fire(client, request, deadline, latencies, rejected, errors, done);
+        }
+        while (done.getCount() > 0) {
+            peakThreads = Math.max(peakThreads, ManagementFactory.getThreadMXBean().getThreadCount());
+            Thread.sleep(250);
+        }
+
+        System.gc();
+        long heapUsedMb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024);
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+
+        System.out.printf("clients=%d modelLatencyMs=%d maxConcurrent=%d maxQueued=%d duration=%ds%n",
+                concurrency, modelLatencyMs, maxConcurrent, maxQueued, durationSeconds);
+        System.out.printf("ok=%d rejected503=%d errors=%d throughput=%.1f req/s%n",
+                sorted.length, rejected.get(), errors.get(), sorted.length / (double) durationSeconds);
+        System.out.printf("latency ms p50=%d p99=%d max=%d%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.length > 0 ? sorted[sorted.length - 1] : 0);
+        System.out.printf("peak JVM threads=%d heap after GC=%dMB%n", peakThreads, heapUsedMb);
+
+        context.close();
+        stub.stop(0);
+        System.exit(0);
+    }
+
+    private static void fire(HttpClient client, HttpRequest request, long deadline,
+                             ConcurrentLinkedQueue<Long> latencies, AtomicLong rejected, AtomicLong errors,
+                             CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        errors.incrementAndGet();
+                    } else if (response.statusCode() == 503) {
+                        rejected.incrementAndGet();
+                        sleepQuietly(response.headers().firstValueAsLong("Retry-After").orElse(1) * 100);
+                    } else if (response.statusCode() == 200) {
+                        latencies.add((System.nanoTime() - start) / 1_000_000);
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                    fire(client, request, deadline, latencies, rejected, errors, done);
+                });
+    }
+
+    private static HttpServer startStubOllama(int latencyMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        byte[] response = ("{\"model\":\"stub\",\"response\":\"Enhanced by stub model\",\"done\":true,"
+                + "\"context\":[1,2,3]}").getBytes(StandardCharsets.UTF_8);
+        server.createContext("/api/generate", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            sleepQuietly(latencyMs);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(name + "="))
+                .map(arg -> Integer.parseInt(arg.substring(name.length() + 1)))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.notification.benchmark;
+
+import com.notification.core.codec.NotificationEventCodec;
+import com.notification.core.event.NotificationEvent;
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.NotificationRepository;
+import com.notification.dto.NotificationRequest;
+import com.notification.dto.NotificationResponse;
+import com.notification.service.KafkaProducerService;
+import com.notification.service.NotificationService;
+import com.notification.service.PreEnhancementService;
+import com.notification.service.TemplateService;
+import com.notification.status.StatusView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NotificationService#createNotification} without I/O: request to entity, entity to
+ * {@link NotificationEvent}, JSON serialization and the {@link KafkaTemplate} send path. The
+ * repository assigns ids in memory and the template writes to a {@link MockProducer}.
+ * Only errors are logged (see logback.xml), so the service's INFO statements cost a level check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+// The Kafka send path takes longer than the other benchmarks to reach steady state
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CreateNotificationBenchmark {
+
+    private NotificationService notificationService;
+    private ReusableMockProducer producer;
+    private NotificationRequest request;
+    private long nextId;
+    private int sends;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationRepository repository = inMemoryRepository();
+
+        producer = new ReusableMockProducer(new NotificationEventCodec.EventSerializer());
+        KafkaTemplate<String, NotificationEvent> kafkaTemplate = new KafkaTemplate<>(() -> producer);
+
+        KafkaProducerService kafkaProducerService = new KafkaProducerService(kafkaTemplate, meterRegistry, 1);
+        PreEnhancementService preEnhancementService = new PreEnhancementService(
+                repository, kafkaProducerService, false, Duration.ofMinutes(10), meterRegistry);
+        notificationService = new NotificationService(
+                // Only the attempts endpoint reads delivery history
+                repository, null, kafkaProducerService, preEnhancementService,
+                // Only templated requests read templates
+                new TemplateService(null),
+                new StatusView(meterRegistry, Duration.ofMinutes(10), 200_000), meterRegistry);
+
+        request = NotificationRequest.builder()
+                .recipient("alex.morgan@example.com")
+                .subject("Your order has shipped")
+                .message("Hi Alex, your order #48213 left our warehouse today and should arrive within "
+                        + "3-5 business days. You can follow the delivery from your account page.")
+                .channel("EMAIL")
+                .build();
+    }
+
+    @Benchmark
+    public NotificationResponse createNotification() {
+        NotificationResponse response = notificationService.createNotification(request);
+        // MockProducer keeps every record it was sent
+        if ((++sends & 4095) == 0) {
+            producer.clear();
+        }
+        return response;
+    }
+
+    private NotificationRepository inMemoryRepository() {
+        return (NotificationRepository) Proxy.newProxyInstance(
+                NotificationRepository.class.getClassLoader(),
+                new Class<?>[]{NotificationRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                            Notification notification = (Notification) args[0];
+                            notification.setId(++nextId);
+                            if (notification.getStatus() == null) {
+                                notification.setStatus(NotificationStatus.PENDING);
+                            }
+                            return notification;
+                        case "countByStatus":
+                            return 0L;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "InMemoryNotificationRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * KafkaTemplate closes non-transactional producers after every send; the real factory hands
+     * out a close-safe wrapper, so closing is a no-op here too.
+     */
+    private static final class ReusableMockProducer extends MockProducer<String, NotificationEvent> {
+
+        ReusableMockProducer(Serializer<NotificationEvent> valueSerializer) {
+            super(true, new StringSerializer(), valueSerializer);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    }
+}
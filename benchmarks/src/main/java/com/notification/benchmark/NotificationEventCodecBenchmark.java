@@ -0,0 +1,91 @@
+package com.notification.benchmark;
+
+import com.notification.core.codec.NotificationEventCodec;
+import com.notification.core.event.NotificationEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code notification.requested} payload as it crosses Kafka. {@code codec*} measure the
+ * {@link NotificationEventCodec} both services are configured with; {@code json*} keep the
+ * Spring {@link JsonSerializer} / {@link JsonDeserializer} pair they used before as a baseline.
+ * Both produce the same bytes, which {@link #setUp} checks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationEventCodecBenchmark {
+
+    private static final String TOPIC = "notification.requested";
+
+    private JsonSerializer<NotificationEvent> jsonSerializer;
+    private JsonDeserializer<NotificationEvent> jsonDeserializer;
+    private NotificationEvent event;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        jsonDeserializer = new JsonDeserializer<>(NotificationEvent.class, false);
+
+        event = NotificationEvent.builder()
+                .notificationId(1_048_576L)
+                .recipient("alex.morgan@example.com")
+                .subject("Your order has shipped")
+                .message("Hi Alex, your order #48213 left our warehouse today and should arrive within "
+                        + "3-5 business days. You can follow the delivery from your account page.")
+                .channel("EMAIL")
+                .timestamp(LocalDateTime.of(2024, 1, 15, 10, 30, 0))
+                .build();
+        payload = jsonSerializer.serialize(TOPIC, event);
+        if (!Arrays.equals(payload, NotificationEventCodec.encode(event))) {
+            throw new IllegalStateException("Codec output differs from JsonSerializer");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return NotificationEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public NotificationEvent codecDecode() {
+        return NotificationEventCodec.decode(payload);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public NotificationEvent jsonDeserialize() {
+        return jsonDeserializer.deserialize(TOPIC, payload);
+    }
+}
@@ -0,0 +1,151 @@
+package com.notification.benchmark;
+
+import com.notification.core.codec.NotificationEventCodec;
+import com.notification.core.event.NotificationEvent;
+import com.notification.core.model.TemplateVariablesConverter;
+import com.notification.core.template.CompiledTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a templated notification in the worker. {@code compiledRender} uses the
+ * {@link CompiledTemplate}s the worker caches; {@code interpretedRender} re-parses the source
+ * for every notification the way campaign rows were rendered before. Run with
+ * {@code -prof gc} to compare allocation per operation.
+ *
+ * <p>{@link #setUp} prints the bytes stored per notification, database row text plus the
+ * {@code notification.requested} payload, for literal content against a template reference with
+ * variables, and checks the codec still writes what {@link JsonSerializer} would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TemplateRenderBenchmark {
+
+    private static final String SUBJECT = "{{first_name}}, your order {{order_id}} has shipped";
+    private static final String MESSAGE = "<p>Hi {{first_name}},</p>"
+            + "<p>Good news: your order <strong>#{{order_id}}</strong> left our {{warehouse}} warehouse on "
+            + "{{ship_date}} and is on its way with {{carrier}}. Most parcels arrive within 3-5 business "
+            + "days; you can follow yours at <a href=\"{{tracking_url}}\">{{tracking_url}}</a>.</p>"
+            + "<p>If anything in the parcel is not right, reply to this email or visit your account page "
+            + "within 30 days and we will arrange a free return or replacement. Items bought with a "
+            + "gift card are refunded to a new card.</p>"
+            + "<p>Thanks for shopping with us,<br>The {{store}} team</p>"
+            + "<p style=\"font-size:12px;color:#666\">You are receiving this email because you placed an "
+            + "order at {{store}}. Manage your notification preferences in your account settings.</p>";
+
+    private CompiledTemplate subject;
+    private CompiledTemplate message;
+    private Map<String, String> variables;
+
+    @Setup
+    public void setUp() {
+        subject = CompiledTemplate.compile(SUBJECT);
+        message = CompiledTemplate.compile(MESSAGE);
+        variables = new LinkedHashMap<>();
+        variables.put("first_name", "Alex");
+        variables.put("order_id", "48213");
+        variables.put("warehouse", "Rotterdam");
+        variables.put("ship_date", "15 January");
+        variables.put("carrier", "DHL Express");
+        variables.put("tracking_url", "https://track.example.com/JD014600006281234567");
+        variables.put("store", "Northwind");
+
+        String renderedSubject = subject.render(variables);
+        String renderedMessage = message.render(variables);
+        if (!renderedSubject.equals(interpret(SUBJECT, variables))
+                || !renderedMessage.equals(interpret(MESSAGE, variables))) {
+            throw new IllegalStateException("Compiled and interpreted rendering differ");
+        }
+
+        NotificationEvent literal = event(renderedSubject, renderedMessage, null, null);
+        NotificationEvent templated = event(null, null, 7L, variables);
+        JsonSerializer<NotificationEvent> jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        byte[] literalEvent = NotificationEventCodec.encode(literal);
+        byte[] templatedEvent = NotificationEventCodec.encode(templated);
+        if (!Arrays.equals(templatedEvent, jsonSerializer.serialize("notification.requested", templated))) {
+            throw new IllegalStateException("Codec output differs from JsonSerializer");
+        }
+        jsonSerializer.close();
+
+        int literalRow = utf8(renderedSubject) + utf8(renderedMessage);
+        int templatedRow = utf8(new TemplateVariablesConverter().convertToDatabaseColumn(variables)) + Long.BYTES;
+        System.out.printf("%nBytes per notification: literal row %d + event %d = %d, templated row %d + event %d = %d%n",
+                literalRow, literalEvent.length, literalRow + literalEvent.length,
+                templatedRow, templatedEvent.length, templatedRow + templatedEvent.length);
+    }
+
+    @Benchmark
+    public void compiledRender(Blackhole blackhole) {
+        blackhole.consume(subject.render(variables));
+        blackhole.consume(message.render(variables));
+    }
+
+    @Benchmark
+    public void interpretedRender(Blackhole blackhole) {
+        blackhole.consume(interpret(SUBJECT, variables));
+        blackhole.consume(interpret(MESSAGE, variables));
+    }
+
+    // The campaign expansion's render before templates were compiled
+    private static String interpret(String template, Map<String, String> values) {
+        int open = template.indexOf("{{");
+        if (open < 0) {
+            return template;
+        }
+        StringBuilder rendered = new StringBuilder(template.length() + 32);
+        int position = 0;
+        while (open >= 0) {
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0) {
+                break;
+            }
+            rendered.append(template, position, open);
+            String key = template.substring(open + 2, close).trim().toLowerCase(Locale.ROOT);
+            rendered.append(values.getOrDefault(key, ""));
+            position = close + 2;
+            open = template.indexOf("{{", position);
+        }
+        return rendered.append(template, position, template.length()).toString();
+    }
+
+    private static NotificationEvent event(String subject, String message, Long templateId,
+                                           Map<String, String> variables) {
+        return NotificationEvent.builder()
+                .notificationId(1_048_576L)
+                .recipient("alex.morgan@example.com")
+                .subject(subject)
+                .message(message)
+                .channel("EMAIL")
+                .timestamp(LocalDateTime.of(2024, 1, 15, 10, 30, 0))
+                .templateId(templateId)
+                .variables(variables)
+                .build();
+    }
+
+    private static int utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,161 @@
+package com.platform.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (run with {@code -prof gc -rf json}) and exits with status 1
+ * when a benchmark got slower than {@code maxTimeRegression} or allocates more than
+ * {@code maxAllocRegression} per operation relative to the baseline. Benchmarks are matched by
+ * name, mode and parameters; ones present in only one file are listed but never fail the run.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.platform.benchmark.BaselineComparison \
+ *     baseline=baseline.json current=current.json maxTimeRegression=0.10 maxAllocRegression=0.05
+ * </pre>
+ */
+public class BaselineComparison {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+    // Allocation differences below this many bytes per op are noise (TLAB sampling, boxing caches)
+    private static final double ALLOC_NOISE_BYTES = 16;
+
+    public static void main(String[] args) throws IOException {
+        String baselinePath = stringArg(args, "baseline", "baseline.json");
+        String currentPath = stringArg(args, "current", "current.json");
+        double maxTimeRegression = Double.parseDouble(stringArg(args, "maxTimeRegression", "0.10"));
+        double maxAllocRegression = Double.parseDouble(stringArg(args, "maxAllocRegression", "0.05"));
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Result> baseline = read(mapper, baselinePath);
+        Map<String, Result> current = read(mapper, currentPath);
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %8s %12s %12s %8s%n",
+                "Benchmark", "Base", "Current", "Time", "Base B/op", "Cur B/op", "Alloc");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14s%n", entry.getKey(), "-", format(now.score, now.unit));
+                continue;
+            }
+
+            double timeChange = relativeChange(before.score, now.score);
+            if (now.higherIsBetter) {
+                timeChange = -timeChange;
+            }
+            boolean slower = timeChange > maxTimeRegression;
+
+            double allocChange = relativeChange(before.allocBytes, now.allocBytes);
+            boolean allocates = before.allocBytes >= 0 && now.allocBytes >= 0
+                    && now.allocBytes - before.allocBytes > ALLOC_NOISE_BYTES
+                    && allocChange > maxAllocRegression;
+
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14s %14s %+7.1f%%%s %12s %12s %+7.1f%%%s%n",
+                    entry.getKey(),
+                    format(before.score, before.unit),
+                    format(now.score, now.unit),
+                    timeChange * 100, slower ? "!" : " ",
+                    bytes(before.allocBytes),
+                    bytes(now.allocBytes),
+                    allocChange * 100, allocates ? "!" : " ");
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-70s %14s %14s%n", name, "(removed)", "-");
+            }
+        }
+
+        System.out.printf("%n%d regression(s) beyond %.0f%% time / %.0f%% allocation%n",
+                regressions, maxTimeRegression * 100, maxAllocRegression * 100);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(ObjectMapper mapper, String path) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : mapper.readTree(new File(path))) {
+            JsonNode primary = run.path("primaryMetric");
+            String mode = run.path("mode").asText();
+            results.put(key(run, mode), new Result(
+                    primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(),
+                    "thrpt".equals(mode),
+                    allocBytes(run.path("secondaryMetrics"))));
+        }
+        return results;
+    }
+
+    private static String key(JsonNode run, String mode) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                .replaceFirst("^com\\.[a-z]+\\.benchmark\\.", ""))
+                .append(" [").append(mode);
+        Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+        while (params.hasNext()) {
+            Map.Entry<String, JsonNode> param = params.next();
+            key.append(", ").append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        return key.append(']').toString();
+    }
+
+    // Older JMH versions prefix secondary metric names with a middle dot
+    private static double allocBytes(JsonNode secondaryMetrics) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = secondaryMetrics.fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().replace("·", "").equals(ALLOC_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return -1;
+    }
+
+    private static double relativeChange(double before, double now) {
+        if (before <= 0) {
+            return 0;
+        }
+        return (now - before) / before;
+    }
+
+    private static String format(double score, String unit) {
+        return String.format("%.3f %s", score, unit);
+    }
+
+    private static String bytes(double value) {
+        return value < 0 ? "-" : String.format("%.0f", value);
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(name + "="))
+                .map(arg -> arg.substring(name.length() + 1))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    private static final class Result {
+        final double score;
+        final String unit;
+        final boolean higherIsBetter;
+        final double allocBytes;
+
+        Result(double score, String unit, boolean higherIsBetter, double allocBytes) {
+            this.score = score;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+            this.allocBytes = allocBytes;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.worker.benchmark;
+
+import com.worker.client.AiRequestHedger;
+import com.worker.client.AiServiceClient;
+import com.worker.dto.AiEnhancementRequest;
+import com.worker.dto.AiEnhancementResponse;
+import com.worker.service.AiEnhancementService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker cost when the AI service is down. {@code fallbackResponse} is the Feign fallback
+ * mapping alone; {@code enhanceWhenClientFails} is {@link AiEnhancementService#enhance} with a
+ * client that throws the same exception as the Feign error decoder, so it includes building the
+ * exception and its stack trace on every call. Its WARN log line is filtered out by logback.xml.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AiFallbackBenchmark {
+
+    private static final String SUBJECT = "Your order has shipped";
+    private static final String MESSAGE = "Hi Alex, your order #48213 left our warehouse today and should arrive "
+            + "within 3-5 business days. You can follow the delivery from your account page.";
+
+    private AiServiceClient failingClient;
+    private AiEnhancementService enhancementService;
+    private AiEnhancementRequest request;
+    private Exception cause;
+
+    @Setup
+    public void setUp() {
+        failingClient = (request, options) -> {
+            throw new RuntimeException("AI Service unavailable: 503");
+        };
+        enhancementService = new AiEnhancementService(failingClient,
+                new StaticListableBeanFactory().getBeanProvider(AiRequestHedger.class));
+        request = new AiEnhancementRequest(SUBJECT, MESSAGE, "EMAIL", null, null, null);
+        cause = new RuntimeException("AI Service unavailable: 503");
+    }
+
+    @Benchmark
+    public AiEnhancementResponse fallbackResponse() {
+        return failingClient.enhanceMessageFallback(request, null, cause);
+    }
+
+    @Benchmark
+    public AiEnhancementService.EnhancementResult enhanceWhenClientFails() {
+        return enhancementService.enhance(SUBJECT, MESSAGE, "EMAIL");
+    }
+}
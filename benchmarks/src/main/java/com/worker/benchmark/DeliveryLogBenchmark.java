@@ -0,0 +1,189 @@
+package com.worker.benchmark;
+
+import com.notification.core.model.Notification;
+import com.notification.core.repository.DeliveryAttemptRepository;
+import com.worker.delivery.DeliveryAttemptLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Notifications per second through the worker's outcome writes, from {@code threads} processing
+ * threads. {@code inPlace} is the previous path, kept here as its two statements: the live
+ * enhancement stored on its own, then a single-row status update, each in its own transaction,
+ * so every notification leaves two row versions of its {@code notifications} row.
+ * {@code appendOnly} is the current one: the outcome and enhancement go through
+ * {@link DeliveryAttemptLog}, which group-commits inserts into {@code delivery_attempts} and
+ * {@code pending_outcomes}; its compaction updates the rows every second, as in the worker, and
+ * once more before the report.
+ *
+ * <p>Each operation takes the next of {@code rows} PENDING notifications, wrapping around. After
+ * the trial the row versions written to {@code notifications} per notification are printed; on
+ * {@code -p database=postgres} also the dead tuples, HOT updates and table sizes from
+ * {@code pg_stat_user_tables}, which is where the bloat shows. For the 10M run:
+ * {@code -p database=postgres -p rows=10000000} with enough iterations to pass every row once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class DeliveryLogBenchmark {
+
+    @Param({"h2"})
+    private String database;
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"2000"})
+    private int messageLength;
+
+    private ConfigurableApplicationContext context;
+    private DeliveryAttemptLog attemptLog;
+    private ScheduledExecutorService compactor;
+    private JdbcTemplate jdbc;
+    private String enhancedMessage;
+    private long firstId;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(StatusWriteBenchmark.PersistenceOnly.class)
+                .properties(datasource())
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.jpa.hibernate.ddl-auto=create")
+                .run();
+        jdbc = context.getBean(JdbcTemplate.class);
+        attemptLog = new DeliveryAttemptLog(jdbc, context.getBean(PlatformTransactionManager.class),
+                context.getBean(DeliveryAttemptRepository.class), new SimpleMeterRegistry(),
+                500, Duration.ofSeconds(30), Duration.ofDays(30));
+        compactor = Executors.newSingleThreadScheduledExecutor();
+        compactor.scheduleWithFixedDelay(attemptLog::compact, 1, 1, TimeUnit.SECONDS);
+
+        String message = "x".repeat(messageLength);
+        enhancedMessage = "y".repeat(messageLength);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{"user" + i + "@example.com", "Subject " + i, message, now});
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbc.batchUpdate("insert into notifications (recipient, subject, message, channel, status, "
+                        + "created_at, retry_count) values (?, ?, ?, 'EMAIL', 'PENDING', ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        firstId = jdbc.queryForObject("select min(id) from notifications", Long.class);
+        if ("postgres".equals(database)) {
+            jdbc.execute("vacuum analyze notifications");
+            jdbc.execute("select pg_stat_reset()");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        compactor.shutdown();
+        compactor.awaitTermination(30, TimeUnit.SECONDS);
+        // Also compacts what is still pending
+        attemptLog.shutdown();
+        report();
+        context.close();
+    }
+
+    @Benchmark
+    public int inPlace() {
+        Notification notification = nextNotification();
+        jdbc.update("update notifications set enhanced_subject = ?, enhanced_message = ?, "
+                        + "updated_at = CURRENT_TIMESTAMP where id = ?", notification.getEnhancedSubject(),
+                notification.getEnhancedMessage(), notification.getId());
+        return jdbc.update("update notifications set status = 'SENT', error_message = null, "
+                + "updated_at = CURRENT_TIMESTAMP where id = ?", notification.getId());
+    }
+
+    @Benchmark
+    public void appendOnly() {
+        attemptLog.record(DeliveryAttemptLog.Attempt.sent(nextNotification(), true));
+    }
+
+    // What the worker holds after a live enhancement and a successful send
+    private Notification nextNotification() {
+        long id = firstId + Math.floorMod(next.getAndIncrement(), rows);
+        return Notification.builder()
+                .id(id)
+                .retryCount(0)
+                .enhancedSubject("Enhanced subject " + id)
+                .enhancedMessage(enhancedMessage)
+                .build();
+    }
+
+    private void report() throws InterruptedException {
+        int processed = next.get();
+        if (processed == 0) {
+            return;
+        }
+        long attempts = jdbc.queryForObject("select count(*) from delivery_attempts", Long.class);
+        System.out.printf("%nnotifications processed: %d, delivery_attempts rows: %d, SENT rows: %d, "
+                        + "pending_outcomes left: %d%n", processed, attempts,
+                jdbc.queryForObject("select count(*) from notifications where status = 'SENT'", Long.class),
+                jdbc.queryForObject("select count(*) from pending_outcomes", Long.class));
+        if (!"postgres".equals(database)) {
+            System.out.println("Row versions and bloat are only reported on -p database=postgres");
+            return;
+        }
+        // Statistics from other backends reach the collector about a second after their commit
+        Thread.sleep(2000);
+        for (String table : List.of("notifications", "delivery_attempts", "pending_outcomes")) {
+            Map<String, Object> stats = jdbc.queryForMap("select n_tup_upd, n_tup_hot_upd, n_dead_tup, "
+                    + "pg_total_relation_size(relid) as total_bytes from pg_stat_user_tables where relname = ?", table);
+            long updates = ((Number) stats.get("n_tup_upd")).longValue();
+            System.out.printf("%s: %.2f row versions per notification (%d updates, %d HOT), %d dead tuples, %d MB%n",
+                    table, (double) updates / processed, updates, ((Number) stats.get("n_tup_hot_upd")).longValue(),
+                    ((Number) stats.get("n_dead_tup")).longValue(),
+                    ((Number) stats.get("total_bytes")).longValue() / (1024 * 1024));
+        }
+    }
+
+    private String[] datasource() {
+        if ("postgres".equals(database)) {
+            return new String[]{
+                    "spring.datasource.url=" + System.getenv().getOrDefault("BENCHMARK_POSTGRES_URL",
+                            "jdbc:postgresql://localhost:5432/notification_db"),
+                    "spring.datasource.username=" + System.getenv().getOrDefault("BENCHMARK_POSTGRES_USER", "postgres"),
+                    "spring.datasource.password=" + System.getenv().getOrDefault("BENCHMARK_POSTGRES_PASSWORD", "postgres"),
+                    "spring.datasource.hikari.maximum-pool-size=16"};
+        }
+        return new String[]{
+                "spring.datasource.url=jdbc:h2:mem:delivery_log;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.datasource.hikari.maximum-pool-size=16"};
+    }
+}
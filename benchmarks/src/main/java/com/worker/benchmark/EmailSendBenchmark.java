@@ -0,0 +1,263 @@
+package com.worker.benchmark;
+
+import com.worker.email.EmailSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The worker's HTML email send. {@code helper*} is the previous path, a {@link MimeMessageHelper}
+ * multipart message built and encoded per recipient; {@code preEncoded*} is {@link EmailSender}
+ * with the body taken from its cache, as for every recipient after the first of a campaign.
+ * {@code *Send} goes through {@link JavaMailSenderImpl} to {@link SmtpSink}, a local SMTP server
+ * that reads and discards each message; {@code *Encode} only writes the message out, without
+ * the connection. Run with {@code -prof gc} to compare allocation per message.
+ *
+ * <p>{@link #setUp} checks that both paths produce the same headers and HTML part.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EmailSendBenchmark {
+
+    private static final String RECIPIENT = "alex.morgan@example.com";
+    private static final String SUBJECT = "Your weekly account summary";
+
+    // Size of the HTML body; enhanced campaign emails are typically a few kilobytes
+    @Param({"4096"})
+    private int bodyLength;
+
+    private SmtpSink sink;
+    private JavaMailSenderImpl mailSender;
+    private EmailSender emailSender;
+    private CapturingSender capture;
+    private EmailSender capturingEmailSender;
+    private Session session;
+    private String html;
+
+    @Setup
+    public void setUp() throws Exception {
+        sink = new SmtpSink();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(sink.port());
+        // Keeps JavaMail from resolving the local host name for EHLO on every connection
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.localhost", "localhost");
+        mailSender.setJavaMailProperties(properties);
+        session = mailSender.getSession();
+        emailSender = new EmailSender(mailSender, new SimpleMeterRegistry(), DataSize.ofMegabytes(64));
+        capture = new CapturingSender(session);
+        capturingEmailSender = new EmailSender(capture, new SimpleMeterRegistry(), DataSize.ofMegabytes(64));
+
+        StringBuilder body = new StringBuilder("<html><body><h1>Your week at a glance</h1>");
+        for (int i = 1; body.length() < bodyLength; i++) {
+            body.append("<p>Item ").append(i).append(": your account had new activity this week, including ")
+                    .append("sign-ins from a new device and an updated billing address. Review it in your ")
+                    .append("dashboard and let us know if anything looks unfamiliar.</p>");
+        }
+        html = body.append("</body></html>").toString();
+
+        MimeMessage helperMessage = parse(encode(helperMessage()));
+        MimeMessage preEncodedMessage = parse(encode(preEncodedMessage()));
+        if (!SUBJECT.equals(preEncodedMessage.getSubject())
+                || !RECIPIENT.equals(preEncodedMessage.getRecipients(Message.RecipientType.TO)[0].toString())
+                || !htmlPart(helperMessage).equals(html) || !htmlPart(preEncodedMessage).equals(html)) {
+            throw new IllegalStateException("Pre-encoded message differs from the MimeMessageHelper one");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.printf("%nSMTP sink received %d messages, %d bytes%n", sink.messages.get(), sink.bytes.get());
+        sink.close();
+    }
+
+    @Benchmark
+    public void helperSend() throws Exception {
+        mailSender.send(helperMessage());
+    }
+
+    @Benchmark
+    public void preEncodedSend() throws Exception {
+        emailSender.send(RECIPIENT, SUBJECT, html);
+    }
+
+    @Benchmark
+    public void helperEncode() throws Exception {
+        helperMessage().writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void preEncodedEncode() throws Exception {
+        preEncodedMessage().writeTo(OutputStream.nullOutputStream());
+    }
+
+    // What NotificationProcessingService.sendEmail built before
+    private MimeMessage helperMessage() throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setTo(RECIPIENT);
+        helper.setSubject(SUBJECT);
+        helper.setText(html, true);
+        message.saveChanges();
+        return message;
+    }
+
+    // EmailSender's message, captured from a sender that keeps it instead of connecting
+    private MimeMessage preEncodedMessage() throws Exception {
+        capturingEmailSender.send(RECIPIENT, SUBJECT, html);
+        MimeMessage message = capture.message;
+        message.saveChanges();
+        return message;
+    }
+
+    private static byte[] encode(MimeMessage message) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        message.writeTo(bytes);
+        return bytes.toByteArray();
+    }
+
+    private MimeMessage parse(byte[] bytes) throws Exception {
+        return new MimeMessage(session, new ByteArrayInputStream(bytes));
+    }
+
+    // multipart/mixed > multipart/related > text/html
+    private static String htmlPart(MimeMessage message) throws Exception {
+        MimeMultipart mixed = (MimeMultipart) message.getContent();
+        MimeMultipart related = (MimeMultipart) mixed.getBodyPart(0).getContent();
+        return (String) related.getBodyPart(0).getContent();
+    }
+
+    private static final class CapturingSender extends JavaMailSenderImpl {
+        private MimeMessage message;
+
+        CapturingSender(Session session) {
+            setSession(session);
+        }
+
+        @Override
+        public void send(MimeMessage mimeMessage) throws MailSendException {
+            this.message = mimeMessage;
+        }
+    }
+
+    /**
+     * Minimal SMTP server: accepts every command and counts what it reads after DATA.
+     */
+    static final class SmtpSink implements AutoCloseable {
+
+        private final ServerSocket server;
+        private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "smtp-sink");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final AtomicLong messages = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+
+        SmtpSink() throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            connections.execute(this::accept);
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    connections.execute(() -> serve(socket));
+                } catch (IOException ex) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                         StandardCharsets.ISO_8859_1), 65536);
+                 Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.ISO_8859_1)) {
+                reply(out, "220 sink ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line;
+                    switch (command) {
+                        case "EHLO", "HELO" -> reply(out, "250 sink");
+                        case "DATA" -> {
+                            reply(out, "354 go ahead");
+                            long length = 0;
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                length += line.length() + 2;
+                            }
+                            bytes.addAndGet(length);
+                            messages.incrementAndGet();
+                            reply(out, "250 queued");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 bye");
+                            return;
+                        }
+                        default -> reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException ex) {
+                // Client went away
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line);
+            out.write("\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+            connections.shutdownNow();
+        }
+    }
+}
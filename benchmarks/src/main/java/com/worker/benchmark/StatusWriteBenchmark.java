@@ -0,0 +1,160 @@
+package com.worker.benchmark;
+
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.DeliveryAttemptRepository;
+import com.notification.core.repository.NotificationRepository;
+import com.worker.delivery.DeliveryAttemptLog;
+import com.worker.delivery.PendingOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Notifications per second through the worker's status writes. {@code entitySave} is the
+ * previous path: one transaction that loads the entity, saves it as PROCESSING and flushes it as
+ * SENT, rewriting every column including the message body. {@code deliveryLog} is the current
+ * one: a read with no surrounding transaction, then the outcome appended through
+ * {@link DeliveryAttemptLog}, whose compaction updates the row later and is not timed here. Runs on in-memory H2 by default; {@code -p database=postgres} uses
+ * {@code BENCHMARK_POSTGRES_URL} (default {@code jdbc:postgresql://localhost:5432/notification_db},
+ * user postgres), whose numbers are the ones worth comparing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class StatusWriteBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    @Param({"h2"})
+    private String database;
+
+    @Param({"2000"})
+    private int messageLength;
+
+    private ConfigurableApplicationContext context;
+    private NotificationRepository repository;
+    private TransactionTemplate transactions;
+    private DeliveryAttemptLog attemptLog;
+    private JdbcTemplate jdbc;
+    private final List<Long> ids = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = {Notification.class, PendingOutcome.class})
+    @EnableJpaRepositories(basePackageClasses = NotificationRepository.class)
+    static class PersistenceOnly {
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(PersistenceOnly.class)
+                .properties(datasource())
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "spring.jpa.properties.hibernate.order_updates=true")
+                .run();
+        repository = context.getBean(NotificationRepository.class);
+        transactions = context.getBean(TransactionTemplate.class);
+        attemptLog = new DeliveryAttemptLog(context.getBean(JdbcTemplate.class),
+                context.getBean(PlatformTransactionManager.class), context.getBean(DeliveryAttemptRepository.class),
+                new SimpleMeterRegistry(), 500, Duration.ofSeconds(30), Duration.ofDays(30));
+
+        jdbc = context.getBean(JdbcTemplate.class);
+        String message = "x".repeat(messageLength);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{"user" + i + "@example.com", "Subject " + i, message, now});
+        }
+        jdbc.batchUpdate("insert into notifications (recipient, subject, message, channel, status, created_at, retry_count) "
+                + "values (?, ?, ?, 'EMAIL', 'PENDING', ?, 0)", rows);
+        ids.addAll(jdbc.queryForList("select id from notifications order by id", Long.class));
+    }
+
+    // A row that is already SENT would make the entity path's flush a no-op
+    @Setup(Level.Iteration)
+    public void resetStatuses() {
+        jdbc.update("update notifications set status = 'PENDING' where status <> 'PENDING'");
+        next.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        attemptLog.shutdown();
+        context.close();
+    }
+
+    @Benchmark
+    public Notification entitySave() {
+        Long id = nextId();
+        return transactions.execute(status -> {
+            Notification notification = repository.findById(id).orElseThrow();
+            notification.setStatus(NotificationStatus.PROCESSING);
+            repository.save(notification);
+            notification.setStatus(NotificationStatus.SENT);
+            notification.setErrorMessage(null);
+            return repository.saveAndFlush(notification);
+        });
+    }
+
+    @Benchmark
+    public void deliveryLog() {
+        Long id = nextId();
+        Notification notification = repository.findById(id).orElseThrow();
+        attemptLog.record(DeliveryAttemptLog.Attempt.sent(notification, false));
+    }
+
+    private String[] datasource() {
+        if ("postgres".equals(database)) {
+            return new String[]{
+                    "spring.datasource.url=" + System.getenv().getOrDefault("BENCHMARK_POSTGRES_URL",
+                            "jdbc:postgresql://localhost:5432/notification_db"),
+                    "spring.datasource.username=" + System.getenv().getOrDefault("BENCHMARK_POSTGRES_USER", "postgres"),
+                    "spring.datasource.password=" + System.getenv().getOrDefault("BENCHMARK_POSTGRES_PASSWORD", "postgres")};
+        }
+        return new String[]{
+                "spring.datasource.url=jdbc:h2:mem:status_write;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"};
+    }
+
+    private Long nextId() {
+        return ids.get(Math.floorMod(next.getAndIncrement(), ids.size()));
+    }
+}
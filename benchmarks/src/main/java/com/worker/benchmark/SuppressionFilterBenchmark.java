@@ -0,0 +1,100 @@
+package com.worker.benchmark;
+
+import com.worker.suppression.BloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suppression lookups in the worker's {@link BloomFilter} filled with {@code entries} addresses
+ * at a 1% target false-positive rate. {@code absentLookup} is the common case, a recipient who
+ * is not suppressed; {@code presentLookup} is a hit that goes on to the table. Random addresses
+ * over a filter much larger than the CPU caches make both mostly cache misses.
+ *
+ * <p>{@link #setUp} prints the filter's size, the time to fill it and the false-positive rate
+ * measured over a million addresses that were never added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SuppressionFilterBenchmark {
+
+    private static final int QUERIES = 1 << 16;
+    private static final int FALSE_POSITIVE_SAMPLE = 1_000_000;
+
+    @Param({"50000000"})
+    private long entries;
+
+    @Param({"HEAP", "DIRECT", "MAPPED"})
+    private BloomFilter.Storage storage;
+
+    private BloomFilter filter;
+    private Path mappedFile;
+    private final String[] absent = new String[QUERIES];
+    private final String[] present = new String[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        mappedFile = Files.createTempFile("suppressions", ".bloom");
+        filter = BloomFilter.create(entries, 0.01, storage, mappedFile);
+
+        long startNanos = System.nanoTime();
+        StringBuilder address = new StringBuilder(32);
+        for (long i = 0; i < entries; i++) {
+            address.setLength(0);
+            filter.put(address.append("user").append(i).append("@example.com"));
+        }
+        long fillMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        int falsePositives = 0;
+        for (int i = 0; i < FALSE_POSITIVE_SAMPLE; i++) {
+            address.setLength(0);
+            if (filter.mightContain(address.append("someone").append(i).append("@example.org"))) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("%n%d entries in %d MB %s, %d hashes, filled in %d ms; false positives %.3f%% "
+                        + "(expected %.3f%%)%n", entries, filter.sizeBytes() >> 20, storage, filter.hashCount(),
+                fillMillis, falsePositives * 100.0 / FALSE_POSITIVE_SAMPLE, filter.falsePositiveRate(entries) * 100);
+
+        long stride = entries / QUERIES;
+        for (int i = 0; i < QUERIES; i++) {
+            absent[i] = "recipient" + i + "@example.net";
+            present[i] = "user" + (i * stride) + "@example.com";
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        filter = null;
+        Files.deleteIfExists(mappedFile);
+    }
+
+    @Benchmark
+    public boolean absentLookup() {
+        return filter.mightContain(absent[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public boolean presentLookup() {
+        return filter.mightContain(present[next++ & (QUERIES - 1)]);
+    }
+}
@@ -0,0 +1,81 @@
+package com.platform.loadtest;
+
+/**
+ * Target request rate over the run. The generator is open-loop: requests are issued on this
+ * schedule whether or not earlier ones have completed, so a slow system sees growing
+ * concurrency instead of quietly receiving less load.
+ */
+public abstract class ArrivalProfile {
+
+    /**
+     * Requests per second at {@code elapsedSeconds} into the run.
+     */
+    public abstract double rateAt(double elapsedSeconds);
+
+    public abstract String describe();
+
+    /**
+     * {@code constant}: {@code rate} throughout.
+     * {@code ramp}: linear from {@code rate} to {@code peakRate} over the run.
+     * {@code spike}: {@code rate}, with {@code peakRate} from {@code spikeAt} for {@code spikeSeconds}.
+     */
+    public static ArrivalProfile from(LoadTestArgs args) {
+        double rate = args.doubleArg("rate", 20);
+        double peakRate = args.doubleArg("peakRate", rate * 5);
+        int duration = args.intArg("duration", 60);
+        String profile = args.stringArg("profile", "constant");
+        switch (profile) {
+            case "constant":
+                return constant(rate);
+            case "ramp":
+                return ramp(rate, peakRate, duration);
+            case "spike":
+                return spike(rate, peakRate, args.intArg("spikeAt", duration / 3), args.intArg("spikeSeconds", 10));
+            default:
+                throw new IllegalArgumentException("Unknown profile '" + profile + "', expected constant, ramp or spike");
+        }
+    }
+
+    static ArrivalProfile constant(double rate) {
+        return new ArrivalProfile() {
+            @Override
+            public double rateAt(double elapsedSeconds) {
+                return rate;
+            }
+
+            @Override
+            public String describe() {
+                return String.format("constant %.1f/s", rate);
+            }
+        };
+    }
+
+    static ArrivalProfile ramp(double from, double to, int durationSeconds) {
+        return new ArrivalProfile() {
+            @Override
+            public double rateAt(double elapsedSeconds) {
+                double progress = Math.min(1, elapsedSeconds / Math.max(1, durationSeconds));
+                return from + (to - from) * progress;
+            }
+
+            @Override
+            public String describe() {
+                return String.format("ramp %.1f/s -> %.1f/s over %ds", from, to, durationSeconds);
+            }
+        };
+    }
+
+    static ArrivalProfile spike(double base, double peak, int spikeAt, int spikeSeconds) {
+        return new ArrivalProfile() {
+            @Override
+            public double rateAt(double elapsedSeconds) {
+                return elapsedSeconds >= spikeAt && elapsedSeconds < spikeAt + spikeSeconds ? peak : base;
+            }
+
+            @Override
+            public String describe() {
+                return String.format("spike %.1f/s with %.1f/s for %ds at %ds", base, peak, spikeSeconds, spikeAt);
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.platform.loadtest;
+
+import java.io.BufferedWriter;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Uploads one campaign of {@code recipients} generated rows to the platform and follows its
+ * expansion, printing progress, notifications created per second and the JVM's heap. The worker's
+ * listeners are stopped so only the expansion runs. Run it at two audience sizes with the same
+ * {@code -Dloadtest.heap}: expansion memory should not grow with the audience.
+ *
+ * <pre>
+ * mvn -B compile exec:exec -Dloadtest.main=com.platform.loadtest.CampaignLoadTest \
+ *     -Dloadtest.args="recipients=1000000"
+ * </pre>
+ *
+ * Takes {@code recipients}, {@code rate} (notifications per second, unlimited by default) and
+ * {@code timeoutSeconds}, plus every {@link Platform} argument.
+ */
+public class CampaignLoadTest {
+
+    private static final Pattern FIELD = Pattern.compile("\"(id|status|expanded|rejected|progressPercent)\":\"?([^,\"}]*)");
+
+    public static void main(String[] rawArgs) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(rawArgs);
+        int recipients = args.intArg("recipients", 100_000);
+        int rate = args.intArg("rate", 0);
+        Path csv = writeRecipients(recipients);
+
+        int exitCode = 0;
+        try (Platform platform = new Platform(args)) {
+            platform.stopWorkerListeners();
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            String boundary = UUID.randomUUID().toString();
+            String campaign = "{\"name\":\"load test\",\"subject\":\"Hello {{name}}\","
+                    + "\"message\":\"Our seasonal sale starts Friday, {{name}}.\",\"channel\":\"EMAIL\","
+                    + "\"priority\":\"LOW\"" + (rate > 0 ? ",\"ratePerSecond\":" + rate : "") + "}";
+            HttpRequest upload = HttpRequest.newBuilder(URI.create(platform.notificationServiceUrl() + "/campaigns"))
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.concat(
+                            HttpRequest.BodyPublishers.ofString("--" + boundary + "\r\n"
+                                    + "Content-Disposition: form-data; name=\"campaign\"\r\n"
+                                    + "Content-Type: application/json\r\n\r\n" + campaign + "\r\n"
+                                    + "--" + boundary + "\r\n"
+                                    + "Content-Disposition: form-data; name=\"recipients\"; filename=\"audience.csv\"\r\n"
+                                    + "Content-Type: text/csv\r\n\r\n"),
+                            HttpRequest.BodyPublishers.ofFile(csv),
+                            HttpRequest.BodyPublishers.ofString("\r\n--" + boundary + "--\r\n")))
+                    .build();
+
+            long start = System.nanoTime();
+            HttpResponse<String> created = client.send(upload, HttpResponse.BodyHandlers.ofString());
+            if (created.statusCode() != 202) {
+                throw new IllegalStateException("Campaign upload failed: " + created.statusCode() + " " + created.body());
+            }
+            String id = field(created.body(), "id");
+            System.out.printf("Campaign %s accepted after %.1fs (%d MB file)%n", id, (System.nanoTime() - start) / 1e9,
+                    Files.size(csv) / (1024 * 1024));
+
+            HttpRequest poll = HttpRequest.newBuilder(
+                    URI.create(platform.notificationServiceUrl() + "/campaigns/" + id)).GET().build();
+            long deadline = System.nanoTime() + Duration.ofSeconds(args.intArg("timeoutSeconds", 600)).toNanos();
+            long peakHeap = 0;
+            long lastPrint = 0;
+            String body;
+            while (true) {
+                body = client.send(poll, HttpResponse.BodyHandlers.ofString()).body();
+                peakHeap = Math.max(peakHeap, usedHeapMb());
+                String status = field(body, "status");
+                if (System.nanoTime() - lastPrint > Duration.ofSeconds(5).toNanos()) {
+                    lastPrint = System.nanoTime();
+                    System.out.printf("  %5.0fs %s expanded=%s progress=%s%% heap=%dMB%n",
+                            (lastPrint - start) / 1e9, status, field(body, "expanded"), field(body, "progressPercent"),
+                            usedHeapMb());
+                }
+                if (!"RUNNING".equals(status) || System.nanoTime() > deadline) {
+                    break;
+                }
+                Thread.sleep(250);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long expanded = Long.parseLong(field(body, "expanded"));
+            System.gc();
+
+            System.out.printf("%nCampaign %s %s: recipients=%d expanded=%d rejected=%s in %.1fs (%.0f/s)%n",
+                    id, field(body, "status"), recipients, expanded, field(body, "rejected"), seconds, expanded / seconds);
+            System.out.printf("Heap: peak sampled %dMB, after GC %dMB, max %dMB%n", peakHeap, usedHeapMb(),
+                    Runtime.getRuntime().maxMemory() / (1024 * 1024));
+            if (!"COMPLETED".equals(field(body, "status"))) {
+                exitCode = 2;
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+        System.exit(exitCode);
+    }
+
+    private static Path writeRecipients(int recipients) throws Exception {
+        Path csv = Files.createTempFile("campaign-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("email,name\n");
+            for (int i = 0; i < recipients; i++) {
+                writer.write("user" + i + "@loadtest.local,User " + i + "\n");
+            }
+        }
+        return csv;
+    }
+
+    private static String field(String json, String name) {
+        Matcher matcher = FIELD.matcher(json);
+        while (matcher.find()) {
+            if (matcher.group(1).equals(name)) {
+                return matcher.group(2);
+            }
+        }
+        return "";
+    }
+
+    private static long usedHeapMb() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024);
+    }
+}
@@ -0,0 +1,51 @@
+package com.platform.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every sample so percentiles are exact. A run of a few hundred thousand requests costs a
+ * few megabytes, which is cheaper to reason about than a histogram's error bounds.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+
+    public synchronized void record(long micros) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = micros;
+    }
+
+    public synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted);
+    }
+
+    public static class Snapshot {
+        public final int count;
+        public final double meanMs;
+        public final double p50Ms;
+        public final double p99Ms;
+        public final double p999Ms;
+        public final double maxMs;
+
+        Snapshot(long[] sorted) {
+            this.count = sorted.length;
+            this.meanMs = sorted.length > 0 ? Arrays.stream(sorted).average().orElse(0) / 1000.0 : 0;
+            this.p50Ms = percentile(sorted, 0.50);
+            this.p99Ms = percentile(sorted, 0.99);
+            this.p999Ms = percentile(sorted, 0.999);
+            this.maxMs = sorted.length > 0 ? sorted[sorted.length - 1] / 1000.0 : 0;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)] / 1000.0;
+        }
+    }
+}
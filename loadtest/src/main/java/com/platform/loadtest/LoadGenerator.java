@@ -0,0 +1,215 @@
+package com.platform.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop client for {@code POST /notifications}. Each request has an intended start time
+ * taken from the {@link ArrivalProfile}, and its latency is measured from that time rather than
+ * from when it was actually sent, so a stalled client or server shows up in the percentiles
+ * instead of silently lowering the offered load (coordinated omission).
+ */
+public class LoadGenerator {
+
+    static final int WINDOW_SECONDS = 5;
+
+    private static final String MESSAGE = "Our biggest seasonal sale starts this Friday with discounts across the whole "
+            + "store, early access for members and free shipping on every order over fifty dollars.";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(4))
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final URI endpoint;
+    private final ArrivalProfile profile;
+    private final int durationSeconds;
+    private final WeightedMix channels;
+    private final WeightedMix priorities;
+    private final WeightedMix tenants;
+    private final double preEnhanceShare;
+    private final double digestShare;
+    private final int recipients;
+    private final int expiresInSeconds;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final Map<Integer, LatencyRecorder> windows = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> offeredPerWindow = new ConcurrentHashMap<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    public LoadGenerator(String baseUrl, ArrivalProfile profile, int durationSeconds, String channelMix,
+                         String priorityMix, String tenantMix, double preEnhanceShare, double digestShare,
+                         int recipients, int expiresInSeconds) {
+        this.endpoint = URI.create(baseUrl + "/notifications");
+        this.profile = profile;
+        this.durationSeconds = durationSeconds;
+        this.preEnhanceShare = preEnhanceShare;
+        this.digestShare = digestShare;
+        this.recipients = recipients;
+        this.expiresInSeconds = expiresInSeconds;
+        this.channels = new WeightedMix(channelMix);
+        this.priorities = priorityMix.isBlank() ? null : new WeightedMix(priorityMix);
+        this.tenants = tenantMix.isBlank() ? null : new WeightedMix(tenantMix);
+    }
+
+    /**
+     * Issues requests on schedule for the configured duration, then waits up to
+     * {@code responseTimeout} for the ones still in flight.
+     */
+    public Result run(Duration responseTimeout) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        double intended = startNanos;
+
+        while (intended < endNanos) {
+            long wait = (long) intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send((long) intended, startNanos);
+
+            double rate = profile.rateAt((intended - startNanos) / 1e9);
+            intended += rate > 0 ? 1e9 / rate : TimeUnit.MILLISECONDS.toNanos(100);
+        }
+        long sendingNanos = System.nanoTime() - startNanos;
+
+        long deadline = System.nanoTime() + responseTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        return new Result(this, sendingNanos / 1e9);
+    }
+
+    private void send(long intendedNanos, long startNanos) {
+        int window = (int) ((intendedNanos - startNanos) / TimeUnit.SECONDS.toNanos(WINDOW_SECONDS));
+        offeredPerWindow.computeIfAbsent(window, key -> new AtomicLong()).incrementAndGet();
+        long id = sent.incrementAndGet();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body(id)))
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, ex) -> {
+                    inFlight.decrementAndGet();
+                    if (ex != null) {
+                        failed.incrementAndGet();
+                        return;
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        rejected.incrementAndGet();
+                        return;
+                    }
+                    accepted.incrementAndGet();
+                    long micros = (System.nanoTime() - intendedNanos) / 1000;
+                    latencies.record(micros);
+                    windows.computeIfAbsent(window, key -> new LatencyRecorder()).record(micros);
+                });
+    }
+
+    private String body(long id) {
+        String channel = channels.pick(random);
+        boolean preEnhance = preEnhanceShare > 0 && random.nextDouble() < preEnhanceShare;
+        String priority = priorities != null ? ",\"priority\":\"" + priorities.pick(random) + "\"" : "";
+        String tenant = tenants != null ? ",\"tenantId\":\"" + tenants.pick(random) + "\"" : "";
+        String digest = digestShare > 0 && random.nextDouble() < digestShare ? ",\"digest\":true" : "";
+        String expiresAt = expiresInSeconds > 0
+                ? ",\"expiresAt\":\"" + Instant.now().plusSeconds(expiresInSeconds) + "\"" : "";
+        long recipient = recipients > 0 ? random.nextInt(recipients) : id;
+        return "{\"recipient\":\"user" + recipient + "@loadtest.local\",\"subject\":\"Seasonal sale #" + id + "\","
+                + "\"message\":\"" + MESSAGE + "\",\"channel\":\"" + channel + "\",\"preEnhance\":" + preEnhance
+                + priority + tenant + digest + expiresAt + "}";
+    }
+
+    // "EMAIL:0.5,SMS:0.3,PUSH:0.2"; a value without a weight counts as 1
+    private static class WeightedMix {
+        private final List<String> values = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+        private double totalWeight;
+
+        WeightedMix(String mix) {
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.split(":");
+                values.add(parts[0].trim().toUpperCase());
+                double weight = parts.length > 1 ? Double.parseDouble(parts[1]) : 1.0;
+                weights.add(weight);
+                totalWeight += weight;
+            }
+        }
+
+        String pick(SplittableRandom random) {
+            double pick = random.nextDouble() * totalWeight;
+            for (int i = 0; i < values.size(); i++) {
+                pick -= weights.get(i);
+                if (pick < 0) {
+                    return values.get(i);
+                }
+            }
+            return values.get(values.size() - 1);
+        }
+    }
+
+    public static class Result {
+        public final long sent;
+        public final long accepted;
+        public final long rejected;
+        public final long failed;
+        public final long unanswered;
+        public final int peakInFlight;
+        public final double sendingSeconds;
+        public final LatencyRecorder.Snapshot latency;
+        public final List<Window> windows = new ArrayList<>();
+
+        Result(LoadGenerator generator, double sendingSeconds) {
+            this.sent = generator.sent.get();
+            this.accepted = generator.accepted.get();
+            this.rejected = generator.rejected.get();
+            this.failed = generator.failed.get();
+            this.unanswered = generator.inFlight.get();
+            this.peakInFlight = generator.peakInFlight.get();
+            this.sendingSeconds = sendingSeconds;
+            this.latency = generator.latencies.snapshot();
+            generator.offeredPerWindow.keySet().stream().sorted().forEach(index -> windows.add(new Window(
+                    index * WINDOW_SECONDS,
+                    generator.offeredPerWindow.get(index).get() / (double) WINDOW_SECONDS,
+                    generator.windows.getOrDefault(index, new LatencyRecorder()).snapshot())));
+        }
+
+        public double errorRate() {
+            return sent > 0 ? (rejected + failed + unanswered) / (double) sent : 0;
+        }
+    }
+
+    public static class Window {
+        public final int startSecond;
+        public final double offeredRate;
+        public final LatencyRecorder.Snapshot latency;
+
+        Window(int startSecond, double offeredRate, LatencyRecorder.Snapshot latency) {
+            this.startSecond = startSecond;
+            this.offeredRate = offeredRate;
+            this.latency = latency;
+        }
+    }
+}
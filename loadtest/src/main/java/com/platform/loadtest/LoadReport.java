@@ -0,0 +1,244 @@
+package com.platform.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Client-side results plus what the services recorded about themselves: per-stage timers, the
+ * AI tier counters, final notification states and delivered email. Printed as text and, with
+ * {@code report=path.json}, written as JSON so two runs can be compared.
+ */
+public class LoadReport {
+
+    private static final List<String> TIMERS = List.of(
+            "notification.stage.latency",
+            "notification.end_to_end.latency",
+            "notification.lane.queue.latency",
+            "notification.tenant.queue.latency",
+            "ai.enhancement.latency",
+            "ai.ollama.generate");
+
+    private static final List<String> COUNTERS = List.of(
+            "ai.enhancement.requests",
+            "ai.enhancement.llm.fallbacks",
+            "ai.enhancement.expired",
+            "ai.pre-enhancement.processed",
+            "notification.pre-enhancement.results",
+            "worker.enhancement.content",
+            "worker.digest.buffered",
+            "worker.delivery.duplicates.skipped",
+            "worker.notifications.expired",
+            "worker.ai.hedge.requests",
+            "worker.ai.hedge.wins",
+            "worker.ai.hedge.budget.exhausted",
+            "worker.tenant.processed",
+            "worker.tenant.partition.pauses");
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+    private final List<String> lines = new ArrayList<>();
+
+    public LoadReport(Map<String, String> args, LoadGenerator.Result client, Platform platform,
+                      double drainedAfterSeconds, Map<String, Double> peakGauges) {
+        report.put("args", args);
+        clientSection(client);
+        stageSection(platform.registries());
+        counterSection(platform.registries());
+        gaugeSection(peakGauges);
+        outcomeSection(platform, client, drainedAfterSeconds);
+    }
+
+    /**
+     * @param backlog         notifications still waiting when the worker came back
+     * @param recoverySeconds from the restart until none of them was waiting, or -1 if they never cleared
+     */
+    public void outage(int outageSeconds, long backlog, double recoverySeconds) {
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("outageSeconds", outageSeconds);
+        section.put("backlogAtRestart", backlog);
+        section.put("recoverySeconds", recoverySeconds);
+        report.put("outage", section);
+
+        lines.add(String.format("%nWorker outage"));
+        lines.add(String.format("  stopped for %ds, %d notifications waiting at restart", outageSeconds, backlog));
+        lines.add(recoverySeconds >= 0
+                ? String.format("  recovered %.1fs after the restart", recoverySeconds)
+                : "  backlog not cleared before the run ended");
+    }
+
+    public void print(PrintStream out) {
+        lines.forEach(out::println);
+    }
+
+    public void write(String path) throws IOException {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(path), report);
+    }
+
+    private void clientSection(LoadGenerator.Result client) {
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("sent", client.sent);
+        section.put("accepted", client.accepted);
+        section.put("rejected", client.rejected);
+        section.put("failed", client.failed);
+        section.put("unanswered", client.unanswered);
+        section.put("errorRate", client.errorRate());
+        section.put("throughputPerSecond", client.accepted / client.sendingSeconds);
+        section.put("peakInFlight", client.peakInFlight);
+        section.put("latencyMs", latency(client.latency));
+        report.put("client", section);
+
+        lines.add(String.format("%nClient (POST /notifications, latency from intended send time)"));
+        lines.add(String.format("  sent=%d accepted=%d rejected=%d failed=%d unanswered=%d error rate=%.2f%%",
+                client.sent, client.accepted, client.rejected, client.failed, client.unanswered,
+                client.errorRate() * 100));
+        lines.add(String.format("  throughput=%.1f/s peak in flight=%d",
+                client.accepted / client.sendingSeconds, client.peakInFlight));
+        lines.add("  " + formatLatency(client.latency.count, client.latency.meanMs, client.latency.p50Ms,
+                client.latency.p99Ms, client.latency.p999Ms, client.latency.maxMs));
+
+        List<Map<String, Object>> windows = new ArrayList<>();
+        lines.add(String.format("  %6s %10s %10s %10s %10s", "window", "offered/s", "p50 ms", "p99 ms", "max ms"));
+        for (LoadGenerator.Window window : client.windows) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("startSecond", window.startSecond);
+            entry.put("offeredPerSecond", window.offeredRate);
+            entry.put("latencyMs", latency(window.latency));
+            windows.add(entry);
+            lines.add(String.format("  %5ds %10.1f %10.1f %10.1f %10.1f", window.startSecond, window.offeredRate,
+                    window.latency.p50Ms, window.latency.p99Ms, window.latency.maxMs));
+        }
+        section.put("windows", windows);
+    }
+
+    private void stageSection(Map<String, MeterRegistry> registries) {
+        Map<String, Object> section = new LinkedHashMap<>();
+        lines.add(String.format("%nService timers"));
+        registries.forEach((service, registry) -> {
+            for (String name : TIMERS) {
+                for (Timer timer : registry.find(name).timers()) {
+                    HistogramSnapshot snapshot = timer.takeSnapshot();
+                    String key = service + " " + name + tags(timer.getId().getTags());
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("count", snapshot.count());
+                    entry.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+                    entry.put("p50Ms", percentile(snapshot, 0.5));
+                    entry.put("p99Ms", percentile(snapshot, 0.99));
+                    entry.put("p999Ms", percentile(snapshot, 0.999));
+                    entry.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+                    section.put(key, entry);
+                    lines.add(String.format("  %-72s %s", key, formatLatency(snapshot.count(),
+                            snapshot.mean(TimeUnit.MILLISECONDS), percentile(snapshot, 0.5),
+                            percentile(snapshot, 0.99), percentile(snapshot, 0.999),
+                            snapshot.max(TimeUnit.MILLISECONDS))));
+                }
+            }
+        });
+        report.put("timers", section);
+    }
+
+    private void counterSection(Map<String, MeterRegistry> registries) {
+        Map<String, Object> section = new LinkedHashMap<>();
+        lines.add(String.format("%nService counters"));
+        registries.forEach((service, registry) -> {
+            for (String name : COUNTERS) {
+                for (Counter counter : registry.find(name).counters()) {
+                    String key = service + " " + name + tags(counter.getId().getTags());
+                    section.put(key, counter.count());
+                    lines.add(String.format("  %-72s %.0f", key, counter.count()));
+                }
+            }
+        });
+        report.put("counters", section);
+    }
+
+    private void gaugeSection(Map<String, Double> peakGauges) {
+        report.put("peakGauges", peakGauges);
+        lines.add(String.format("%nWorker gauges (peak during the run)"));
+        peakGauges.forEach((name, value) -> lines.add(String.format("  %-72s %.0f", name, value)));
+    }
+
+    private void outcomeSection(Platform platform, LoadGenerator.Result client, double drainedAfterSeconds) {
+        Map<String, Object> section = new LinkedHashMap<>();
+        Map<String, Long> statuses = new TreeMap<>();
+        long sendFailures = 0;
+        for (Map<String, Object> row : platform.jdbc().queryForList(
+                "SELECT status, COUNT(*) AS total, COALESCE(SUM(retry_count), 0) AS retries FROM notifications GROUP BY status")) {
+            statuses.put((String) row.get("status"), ((Number) row.get("total")).longValue());
+            sendFailures += ((Number) row.get("retries")).longValue();
+        }
+        long stored = statuses.values().stream().mapToLong(Long::longValue).sum();
+        long sent = statuses.getOrDefault("SENT", 0L);
+        long sendAttempts = sent + sendFailures;
+
+        section.put("statuses", statuses);
+        section.put("stored", stored);
+        section.put("undelivered", stored - sent);
+        section.put("drainedAfterSeconds", drainedAfterSeconds);
+        section.put("sendFailures", sendFailures);
+        section.put("sendFailureRate", sendAttempts > 0 ? sendFailures / (double) sendAttempts : 0);
+        section.put("emailsDelivered", platform.deliveredEmails());
+        section.put("ollamaCalls", platform.ollamaCalls());
+        report.put("outcome", section);
+
+        lines.add(String.format("%nOutcome"));
+        lines.add("  statuses " + statuses.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(" ")));
+        lines.add(String.format("  stored=%d of %d accepted, undelivered=%d (%.2f%%)", stored, client.accepted,
+                stored - sent, stored > 0 ? (stored - sent) * 100.0 / stored : 0));
+        lines.add(String.format("  drained %.1fs after the last request", drainedAfterSeconds));
+        lines.add(String.format("  channel send failures=%d of %d attempts (%.2f%%)", sendFailures, sendAttempts,
+                sendAttempts > 0 ? sendFailures * 100.0 / sendAttempts : 0));
+        lines.add(String.format("  emails delivered=%d, stub Ollama calls=%d",
+                platform.deliveredEmails(), platform.ollamaCalls()));
+    }
+
+    private static Map<String, Object> latency(LatencyRecorder.Snapshot snapshot) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", snapshot.count);
+        latency.put("mean", snapshot.meanMs);
+        latency.put("p50", snapshot.p50Ms);
+        latency.put("p99", snapshot.p99Ms);
+        latency.put("p999", snapshot.p999Ms);
+        latency.put("max", snapshot.maxMs);
+        return latency;
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double quantile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == quantile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static String tags(List<Tag> tags) {
+        String joined = tags.stream()
+                .filter(tag -> !"application".equals(tag.getKey()))
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(","));
+        return joined.isEmpty() ? "" : "{" + joined + "}";
+    }
+
+    private static String formatLatency(long count, double mean, double p50, double p99, double p999, double max) {
+        return String.format("n=%-7d mean=%8.1f p50=%8.1f p99=%8.1f p999=%8.1f max=%8.1f ms",
+                count, mean, p50, p99, p999, max);
+    }
+}
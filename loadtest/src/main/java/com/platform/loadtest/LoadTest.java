@@ -0,0 +1,164 @@
+package com.platform.loadtest;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the platform against local stand-ins, drives {@code POST /notifications} with an
+ * {@link ArrivalProfile}, waits for the pipeline to drain and prints a {@link LoadReport}.
+ *
+ * <pre>
+ * mvn -B compile exec:exec -Dloadtest.args="profile=spike rate=20 peakRate=100 duration=60 report=run.json"
+ * </pre>
+ *
+ * Arguments (all {@code key=value}):
+ * <ul>
+ *     <li>{@code profile} constant, ramp or spike; {@code rate}, {@code peakRate}, {@code duration} (s),
+ *     {@code spikeAt} (s), {@code spikeSeconds}</li>
+ *     <li>{@code channels} weighted mix, default {@code EMAIL:0.5,SMS:0.3,PUSH:0.2}</li>
+ *     <li>{@code priorities} weighted lane mix such as {@code HIGH:0.05,LOW:0.95}; by default requests
+ *     carry no priority and use the NORMAL lane</li>
+ *     <li>{@code tenants} weighted tenant mix such as {@code noisy:0.9,quiet:0.1}; by default requests
+ *     carry no tenant</li>
+ *     <li>{@code preEnhanceShare} fraction of requests created with {@code preEnhance}, default 0</li>
+ *     <li>{@code digestShare} fraction of requests created with {@code digest}, default 0;
+ *     {@code recipients} size of the recipient pool, by default every request has its own</li>
+ *     <li>{@code ollamaLatencyMs}, {@code ollamaJitterMs} stub model timing; {@code ollamaTailShare} of
+ *     generations take {@code ollamaTailMs} longer; loading the model takes {@code ollamaLoadMs},
+ *     default 0</li>
+ *     <li>{@code aiInstances} ai-service instances on the stub model, default 1; the worker hedges to
+ *     the extra ones</li>
+ *     <li>{@code sendLatencyMs}, {@code sendFailureRate} worker's simulated non-email channel</li>
+ *     <li>{@code partitions} of each {@code notification.requested} lane topic; {@code drainSeconds} to
+ *     wait for in-flight notifications after the last request</li>
+ *     <li>{@code ai:}, {@code notification:} or {@code worker:} prefixed properties for one service,
+ *     e.g. {@code ai:ai.tiering.llm-budget-per-second=0}</li>
+ *     <li>{@code expiresIn} seconds; requests carry an {@code expiresAt} that far ahead, by default none</li>
+ *     <li>{@code outageAt}, {@code outageSeconds}: stops the worker's listeners {@code outageAt} seconds
+ *     into the load for {@code outageSeconds}, then reports how long after the restart the backlog took
+ *     to clear</li>
+ *     <li>{@code report} path of a JSON copy of the report</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    private static final String IN_PROGRESS =
+            "SELECT COUNT(*) FROM notifications WHERE status IN ('PENDING', 'ENHANCING', 'PROCESSING')";
+
+    public static void main(String[] rawArgs) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(rawArgs);
+        ArrivalProfile profile = ArrivalProfile.from(args);
+        int duration = args.intArg("duration", 60);
+
+        int exitCode = 0;
+        try (Platform platform = new Platform(args)) {
+            System.out.printf("Platform up; running %s for %ds%n", profile.describe(), duration);
+            LoadGenerator generator = new LoadGenerator(platform.notificationServiceUrl(), profile, duration,
+                    args.stringArg("channels", "EMAIL:0.5,SMS:0.3,PUSH:0.2"), args.stringArg("priorities", ""),
+                    args.stringArg("tenants", ""),
+                    args.doubleArg("preEnhanceShare", 0), args.doubleArg("digestShare", 0),
+                    args.intArg("recipients", 0), args.intArg("expiresIn", 0));
+            PeakGauges peaks = new PeakGauges(platform.workerRegistry());
+            int outageSeconds = args.intArg("outageSeconds", 0);
+            Outage outage = outageSeconds > 0
+                    ? new Outage(platform, args.intArg("outageAt", duration / 3), outageSeconds,
+                    Duration.ofSeconds(duration + args.intArg("drainSeconds", 120)))
+                    : null;
+            LoadGenerator.Result result = generator.run(Duration.ofSeconds(30));
+
+            long drainStart = System.nanoTime();
+            if (!drain(platform, Duration.ofSeconds(args.intArg("drainSeconds", 120)))) {
+                System.out.println("Pipeline did not drain in time; in-progress notifications are reported as undelivered");
+                exitCode = 2;
+            }
+            double drainedAfterSeconds = (System.nanoTime() - drainStart) / 1e9;
+            peaks.close();
+
+            LoadReport report = new LoadReport(args.asMap(), result, platform, drainedAfterSeconds, peaks.peaks());
+            if (outage != null) {
+                outage.join();
+                report.outage(outageSeconds, outage.backlog, outage.recoverySeconds);
+            }
+            report.print(System.out);
+            String reportPath = args.stringArg("report", null);
+            if (reportPath != null) {
+                report.write(reportPath);
+                System.out.println("\nReport written to " + reportPath);
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static boolean drain(Platform platform, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Long inProgress = platform.jdbc().queryForObject(IN_PROGRESS, Long.class);
+            if (inProgress == null || inProgress == 0) {
+                return true;
+            }
+            Thread.sleep(500);
+        }
+        return false;
+    }
+
+    /**
+     * Stops the worker's listeners, starts them again and times how long the notifications created
+     * before the restart keep waiting: the ones already past their deadline are shed rather than
+     * sent, so the backlog clears sooner.
+     */
+    private static final class Outage extends Thread {
+        private final Platform platform;
+        private final int atSeconds;
+        private final int seconds;
+        private final Duration timeout;
+        private volatile long backlog;
+        private volatile double recoverySeconds = -1;
+
+        Outage(Platform platform, int atSeconds, int seconds, Duration timeout) {
+            super("worker-outage");
+            this.platform = platform;
+            this.atSeconds = atSeconds;
+            this.seconds = seconds;
+            this.timeout = timeout;
+            setDaemon(true);
+            start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(atSeconds * 1000L);
+                System.out.printf("Stopping the worker's listeners for %ds%n", seconds);
+                long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+                while (System.nanoTime() < end) {
+                    // A consumer resize in progress when they were stopped starts them again
+                    platform.stopWorkerListeners();
+                    Thread.sleep(500);
+                }
+                Timestamp restartedAt = Timestamp.valueOf(LocalDateTime.now());
+                backlog = waiting(restartedAt);
+                long restartNanos = System.nanoTime();
+                platform.startWorkerListeners();
+                System.out.printf("Worker listeners restarted with %d notifications waiting%n", backlog);
+                long deadline = restartNanos + timeout.toNanos();
+                while (System.nanoTime() < deadline) {
+                    if (waiting(restartedAt) == 0) {
+                        recoverySeconds = (System.nanoTime() - restartNanos) / 1e9;
+                        return;
+                    }
+                    Thread.sleep(250);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private long waiting(Timestamp createdBefore) {
+            Long waiting = platform.jdbc().queryForObject(IN_PROGRESS + " AND created_at < ?", Long.class,
+                    createdBefore);
+            return waiting != null ? waiting : 0;
+        }
+    }
+}
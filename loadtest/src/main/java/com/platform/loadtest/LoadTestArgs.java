@@ -0,0 +1,42 @@
+package com.platform.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code key=value} arguments. Maven passes {@code -Dloadtest.args} as a single argument, so each
+ * argument is also split on whitespace.
+ */
+public class LoadTestArgs {
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    public LoadTestArgs(String[] args) {
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                int separator = token.indexOf('=');
+                if (separator > 0) {
+                    values.put(token.substring(0, separator), token.substring(separator + 1));
+                }
+            }
+        }
+    }
+
+    public String stringArg(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int intArg(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public double doubleArg(String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public Map<String, String> asMap() {
+        return values;
+    }
+}
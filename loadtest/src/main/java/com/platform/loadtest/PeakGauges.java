@@ -0,0 +1,55 @@
+package com.platform.loadtest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls a few gauges once a second for the whole run and keeps their peaks; a gauge read at
+ * report time only shows the drained, scaled-down state.
+ */
+public class PeakGauges implements AutoCloseable {
+
+    static final List<String> GAUGES = List.of(
+            "worker.lane.slots",
+            "worker.consumer.lag.total",
+            "worker.autoscale.recommended.replicas");
+
+    private final MeterRegistry registry;
+    private final Map<String, Double> peaks = new LinkedHashMap<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "peak-gauges");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PeakGauges(MeterRegistry registry) {
+        this.registry = registry;
+        poller.scheduleAtFixedRate(this::poll, 0, 1, TimeUnit.SECONDS);
+    }
+
+    public synchronized Map<String, Double> peaks() {
+        return new LinkedHashMap<>(peaks);
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        poll();
+    }
+
+    private synchronized void poll() {
+        for (String name : GAUGES) {
+            Gauge gauge = registry.find(name).gauge();
+            if (gauge != null && Double.isFinite(gauge.value())) {
+                peaks.merge(name, gauge.value(), Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.platform.loadtest;
+
+import com.ai.AiServiceApplication;
+import com.ai.lifecycle.ModelLifecycleManager;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.notification.NotificationServiceApplication;
+import com.worker.WorkerServiceApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The three services in one JVM, each in its own Spring context and loading its own
+ * {@code application.yml}, with every external dependency replaced by an in-process stand-in:
+ * a KRaft Kafka broker, H2 in PostgreSQL mode, {@link StubOllama} and a GreenMail SMTP server.
+ * {@code aiInstances} above one starts further ai-service contexts on the same stub model; the
+ * worker calls the first and hedges to the others.
+ * Arguments of the form {@code ai:key=value}, {@code notification:key=value} and
+ * {@code worker:key=value} are passed to that service as extra properties. Like a readiness
+ * probe, the worker is only started once every ai-service instance has its model warm.
+ */
+public class Platform implements AutoCloseable {
+
+    static final String DATASOURCE_URL = "jdbc:h2:mem:notification_db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final String[] TOPICS = {
+            "notification.requested.high",
+            "notification.requested",
+            "notification.requested.low",
+            "notification.enhancement.requested",
+            "notification.enhancement.completed",
+            "notification.status"
+    };
+
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final GreenMail smtp;
+    private final StubOllama ollama;
+    private final ConfigurableApplicationContext aiService;
+    private final List<ConfigurableApplicationContext> extraAiServices = new ArrayList<>();
+    private final ConfigurableApplicationContext notificationService;
+    private final ConfigurableApplicationContext workerService;
+
+    public Platform(LoadTestArgs args) throws Exception {
+        boolean preEnhance = args.doubleArg("preEnhanceShare", 0) > 0;
+
+        kafka = new EmbeddedKafkaKraftBroker(1, args.intArg("partitions", 6), TOPICS);
+        // Single broker: the transaction log cannot use the default replication of 3
+        kafka.brokerProperties(Map.of(
+                "transaction.state.log.replication.factor", "1",
+                "transaction.state.log.min.isr", "1"));
+        kafka.afterPropertiesSet();
+        smtp = new GreenMail(ServerSetup.SMTP.dynamicPort());
+        smtp.start();
+        ollama = new StubOllama(args.intArg("ollamaLatencyMs", 500), args.intArg("ollamaJitterMs", 200),
+                args.doubleArg("ollamaTailShare", 0), args.intArg("ollamaTailMs", 0), args.intArg("ollamaLoadMs", 0));
+
+        aiService = startAiService(args, preEnhance);
+        List<String> hedgeTargets = new ArrayList<>();
+        for (int i = 1; i < args.intArg("aiInstances", 1); i++) {
+            ConfigurableApplicationContext instance = startAiService(args, preEnhance);
+            extraAiServices.add(instance);
+            hedgeTargets.add("http://127.0.0.1:" + port(instance));
+        }
+        String aiServiceUrl = "http://127.0.0.1:" + port(aiService);
+        awaitModelsWarm(aiService);
+        for (ConfigurableApplicationContext instance : extraAiServices) {
+            awaitModelsWarm(instance);
+        }
+
+        notificationService = start(NotificationServiceApplication.class, "notification-service", args, "notification",
+                datasource(
+                        "notification.pre-enhancement.enabled=" + preEnhance));
+
+        workerService = start(WorkerServiceApplication.class, "worker-service", args, "worker",
+                datasource(
+                        "ai-service.url=" + aiServiceUrl,
+                        "worker.ai.hedging.targets=" + String.join(",", hedgeTargets),
+                        "spring.mail.host=127.0.0.1",
+                        "spring.mail.port=" + smtp.getSmtp().getPort(),
+                        "spring.mail.username=",
+                        "spring.mail.password=",
+                        "spring.mail.properties.mail.smtp.auth=false",
+                        "spring.mail.properties.mail.smtp.starttls.enable=false",
+                        "spring.mail.properties.mail.smtp.starttls.required=false",
+                        // The service defaults of 2000ms and 20% would dominate every other stage
+                        "worker.simulation.send-latency-ms=" + args.intArg("sendLatencyMs", 100),
+                        "worker.simulation.failure-rate=" + args.doubleArg("sendFailureRate", 0.05)));
+    }
+
+    public String notificationServiceUrl() {
+        return "http://127.0.0.1:" + port(notificationService);
+    }
+
+    public Map<String, MeterRegistry> registries() {
+        Map<String, MeterRegistry> registries = new LinkedHashMap<>();
+        registries.put("notification-service", notificationService.getBean(MeterRegistry.class));
+        registries.put("worker-service", workerService.getBean(MeterRegistry.class));
+        registries.put("ai-service", aiService.getBean(MeterRegistry.class));
+        for (int i = 0; i < extraAiServices.size(); i++) {
+            registries.put("ai-service-" + (i + 2), extraAiServices.get(i).getBean(MeterRegistry.class));
+        }
+        return registries;
+    }
+
+    public MeterRegistry workerRegistry() {
+        return workerService.getBean(MeterRegistry.class);
+    }
+
+    // Leaves the published notifications on Kafka, e.g. to measure ingestion on its own
+    public void stopWorkerListeners() {
+        workerService.getBean(KafkaListenerEndpointRegistry.class).stop();
+    }
+
+    public void startWorkerListeners() {
+        workerService.getBean(KafkaListenerEndpointRegistry.class).start();
+    }
+
+    public JdbcTemplate jdbc() {
+        return notificationService.getBean(JdbcTemplate.class);
+    }
+
+    public int deliveredEmails() {
+        return smtp.getReceivedMessages().length;
+    }
+
+    public long ollamaCalls() {
+        return ollama.generateCalls();
+    }
+
+    @Override
+    public void close() {
+        workerService.close();
+        notificationService.close();
+        extraAiServices.forEach(ConfigurableApplicationContext::close);
+        aiService.close();
+        ollama.close();
+        smtp.stop();
+        kafka.destroy();
+    }
+
+    private ConfigurableApplicationContext startAiService(LoadTestArgs args, boolean preEnhance) {
+        return start(AiServiceApplication.class, "ai-service", args, "ai",
+                // JPA is on the classpath for the other two services
+                "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+                "ollama.base-url=" + ollama.baseUrl(),
+                "ai.pre-enhancement.enabled=" + preEnhance);
+    }
+
+    private ConfigurableApplicationContext start(Class<?> application, String name, LoadTestArgs args,
+                                                 String overridePrefix, String... properties) {
+        // Keyed by property so a per-service override replaces the harness default instead of
+        // being joined to it as a second command-line value
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("spring.config.location", "classpath:services/" + name + "/application.yml");
+        settings.put("server.port", "0");
+        settings.put("spring.kafka.bootstrap-servers", kafka.getBrokersAsString());
+        // One registry per service, as in production, instead of all three sharing the global one
+        settings.put("management.metrics.use-global-registry", "false");
+        for (String prefix : new String[]{"notification", "ai", "http.server.requests"}) {
+            settings.put("management.metrics.distribution.percentiles." + prefix, "0.5,0.99,0.999");
+            settings.put("management.metrics.distribution.expiry." + prefix, "1h");
+            settings.put("management.metrics.distribution.buffer-length." + prefix, "1");
+        }
+        for (String logger : new String[]{"root", "com.ai", "com.notification", "com.worker", "org.springframework",
+                "org.springframework.kafka", "org.springframework.cloud.openfeign", "org.hibernate", "org.apache.kafka"}) {
+            settings.put("logging.level." + logger, "WARN");
+        }
+        // Simulated send failures are logged with a stack trace each; the report counts them instead
+        settings.put("logging.level.com.worker.service.NotificationProcessingService", "OFF");
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            settings.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+        args.asMap().forEach((key, value) -> {
+            if (key.startsWith(overridePrefix + ":")) {
+                settings.put(key.substring(overridePrefix.length() + 1), value);
+            }
+        });
+        List<String> commandLine = new ArrayList<>();
+        settings.forEach((key, value) -> commandLine.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(application).run(commandLine.toArray(new String[0]));
+    }
+
+    private static void awaitModelsWarm(ConfigurableApplicationContext aiContext) throws InterruptedException {
+        ModelLifecycleManager lifecycle = aiContext.getBean(ModelLifecycleManager.class);
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + Duration.ofMinutes(5).toNanos();
+        while (!lifecycle.isReady()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("ai-service models were not warm after 5 minutes");
+            }
+            Thread.sleep(50);
+        }
+        System.out.printf("ai-service ready after %d ms%n", Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+    }
+
+    private static String[] datasource(String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=" + DATASOURCE_URL,
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false"));
+        all.addAll(List.of(properties));
+        return all.toArray(new String[0]);
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+}
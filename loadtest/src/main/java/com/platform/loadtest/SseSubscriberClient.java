@@ -0,0 +1,162 @@
+package com.platform.loadtest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client side of {@link StatusStreamLoadTest}, run in its own JVM so its sockets do not count
+ * against the platform's file descriptor limit. Opens {@code subscribers} status streams spread
+ * over the given notification ids, prints {@code READY} once every stream has its first event,
+ * then waits for each to end with SENT or FAILED. Fan-out latency is the time from the worker's
+ * status change ({@code occurredAt}) to the event arriving here.
+ *
+ * <p>All streams are read by one selector thread over plain sockets: with thousands of streams
+ * {@code java.net.http.HttpClient} queued events for seconds and measured itself rather than
+ * the server. Requests are HTTP/1.0 so the response is not chunked.
+ *
+ * <p>Arguments: {@code url}, {@code ids} (comma separated), {@code subscribers},
+ * {@code connectConcurrency} and {@code timeoutSeconds}.
+ */
+public class SseSubscriberClient {
+
+    private static final Pattern OCCURRED_AT = Pattern.compile("\"occurredAt\":(\\d+)");
+
+    public static void main(String[] rawArgs) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(rawArgs);
+        URI url = URI.create(args.stringArg("url", "http://127.0.0.1:8081"));
+        InetSocketAddress address = new InetSocketAddress(url.getHost(), url.getPort());
+        long[] ids = Arrays.stream(args.stringArg("ids", "").split(",")).mapToLong(Long::parseLong).toArray();
+        int subscribers = args.intArg("subscribers", 10_000);
+        int connectConcurrency = args.intArg("connectConcurrency", 500);
+        long deadline = System.nanoTime() + args.intArg("timeoutSeconds", 300) * 1_000_000_000L;
+
+        Selector selector = Selector.open();
+        ByteBuffer readBuffer = ByteBuffer.allocate(16 * 1024);
+        List<Long> latencies = new ArrayList<>(subscribers);
+        int opened = 0;
+        int pending = 0;
+        int connected = 0;
+        int finished = 0;
+        int failed = 0;
+        long events = 0;
+        boolean ready = false;
+        long start = System.nanoTime();
+
+        while (finished < subscribers && System.nanoTime() < deadline) {
+            while (opened < subscribers && pending < connectConcurrency) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.connect(address);
+                Stream stream = new Stream(ids[opened % ids.length]);
+                channel.register(selector, SelectionKey.OP_CONNECT, stream);
+                opened++;
+                pending++;
+            }
+            if (!ready && connected + failed == subscribers) {
+                ready = true;
+                System.out.printf("subscribers=%d connected in %.1fs, failed=%d%n", subscribers,
+                        (System.nanoTime() - start) / 1e9, failed);
+                System.out.println("READY");
+                System.out.flush();
+            }
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Stream stream = (Stream) key.attachment();
+                SocketChannel channel = (SocketChannel) key.channel();
+                int read;
+                try {
+                    if (key.isConnectable()) {
+                        channel.finishConnect();
+                        channel.write(ByteBuffer.wrap(("GET " + url.getPath() + "/notifications/" + stream.id
+                                + "/events HTTP/1.0\r\nHost: " + url.getHost() + "\r\nAccept: text/event-stream\r\n\r\n")
+                                .getBytes(StandardCharsets.US_ASCII)));
+                        key.interestOps(SelectionKey.OP_READ);
+                        continue;
+                    }
+                    readBuffer.clear();
+                    read = channel.read(readBuffer);
+                } catch (IOException ex) {
+                    read = -1;
+                    stream.broken = true;
+                }
+                if (read > 0) {
+                    long now = System.currentTimeMillis();
+                    stream.pending.append(new String(readBuffer.array(), 0, read, StandardCharsets.UTF_8));
+                    int newline;
+                    while ((newline = stream.pending.indexOf("\n")) >= 0) {
+                        String line = stream.pending.substring(0, newline);
+                        stream.pending.delete(0, newline + 1);
+                        if (!line.startsWith("data:")) {
+                            continue;
+                        }
+                        events++;
+                        if (!stream.connected) {
+                            // The current status, sent on subscribe
+                            stream.connected = true;
+                            connected++;
+                            pending--;
+                            continue;
+                        }
+                        Matcher occurredAt = OCCURRED_AT.matcher(line);
+                        if (occurredAt.find()) {
+                            latencies.add(Math.max(0, now - Long.parseLong(occurredAt.group(1))));
+                        }
+                    }
+                } else if (read < 0) {
+                    // The stream ends after SENT or FAILED, or when it breaks
+                    key.cancel();
+                    channel.close();
+                    finished++;
+                    if (!stream.connected) {
+                        failed++;
+                        pending--;
+                    } else if (stream.broken) {
+                        failed++;
+                    }
+                }
+            }
+        }
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        boolean done = finished == subscribers;
+        System.out.printf("streams ended=%d of %d%s, status events received=%d, failed=%d%n",
+                finished, subscribers, done ? "" : " (timed out)", events, failed);
+        System.out.printf("fan-out latency ms n=%d p50=%d p99=%d p999=%d max=%d%n", sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length > 0 ? sorted[sorted.length - 1] : 0);
+        System.exit(done && failed == 0 ? 0 : 2);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static final class Stream {
+        private final long id;
+        private final StringBuilder pending = new StringBuilder();
+        private boolean connected;
+        private boolean broken;
+
+        Stream(long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.platform.loadtest;
+
+import com.notification.core.codec.NotificationEventCodec;
+import com.notification.core.event.NotificationEvent;
+import com.notification.core.model.NotificationPriority;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.h2.tools.Server;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Launches worker-service as a child process in each startup mode and measures the time from
+ * launch until it has processed a notification published before it started, and its resident
+ * memory at that point. Kafka is an in-process KRaft broker; the database is H2 served over TCP,
+ * or {@code datasource} ({@code datasourceUser}, {@code datasourcePassword}) when given.
+ * <ul>
+ *     <li>{@code jvm}: the jar as built.</li>
+ *     <li>{@code cds}: the jar unpacked onto a plain class path with a class data sharing archive,
+ *     dumped by a training run that stops once the context is refreshed.</li>
+ *     <li>{@code aot}: the jar with {@code -Dspring.aot.enabled=true}; needs a
+ *     {@code -Pfast-startup} build.</li>
+ *     <li>{@code aot-cds}: both.</li>
+ *     <li>{@code native}: the executable of a {@code -Pnative} build. Its image only has the
+ *     PostgreSQL driver, so it needs {@code datasource}.</li>
+ * </ul>
+ * Modes whose artifact is missing are skipped. AOT and native artifacts fix the beans at build
+ * time, so {@code worker:} properties that switch beans on or off only take effect in the
+ * other modes.
+ *
+ * <pre>
+ * mvn -B -Pperf,fast-startup install -DskipTests
+ * cd loadtest
+ * mvn -B exec:exec -Dloadtest.main=com.platform.loadtest.StartupBenchmark -Dloadtest.args="runs=5"
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final String[] TOPICS = {
+            "notification.requested.high",
+            "notification.requested",
+            "notification.requested.low",
+            "notification.status"
+    };
+    private static final String H2_OPTIONS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;"
+            + "DB_CLOSE_DELAY=-1";
+    private static final String JAR_LAUNCHER = "org.springframework.boot.loader.launch.JarLauncher";
+
+    public static void main(String[] rawArgs) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(rawArgs);
+        Path jar = Path.of(args.stringArg("jar", "../worker-service/target/worker-service-1.0.0.jar"))
+                .toAbsolutePath().normalize();
+        Path nativeImage = Path.of(args.stringArg("nativeImage", "../worker-service/target/worker-service"))
+                .toAbsolutePath().normalize();
+        Path workDir = Path.of(args.stringArg("workDir", "target/startup-benchmark")).toAbsolutePath().normalize();
+        List<String> modes = List.of(args.stringArg("modes", "jvm,cds,aot,aot-cds,native").split(","));
+        List<String> jvmOptions = List.of(args.stringArg("jvmOptions", "-Xmx512m,-Xms256m").split(","));
+        int runs = args.intArg("runs", 3);
+        int timeoutSeconds = args.intArg("timeoutSeconds", 120);
+        Files.createDirectories(workDir);
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, TOPICS);
+        // A new consumer group member is otherwise held back for 3 s waiting for others to join
+        kafka.brokerProperties(Map.of("group.initial.rebalance.delay.ms", "0"));
+        kafka.afterPropertiesSet();
+
+        String datasource = args.stringArg("datasource", null);
+        Server h2 = null;
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("server.port", "0");
+        settings.put("spring.kafka.bootstrap-servers", kafka.getBrokersAsString());
+        // Nothing listens there, so enhancement falls back at once
+        settings.put("ai-service.url", "http://127.0.0.1:" + freePort());
+        settings.put("worker.simulation.send-latency-ms", "0");
+        settings.put("worker.simulation.failure-rate", "0");
+        if (datasource == null) {
+            h2 = Server.createTcpServer("-tcpPort", String.valueOf(freePort()), "-ifNotExists").start();
+            datasource = "jdbc:h2:tcp://127.0.0.1:" + h2.getPort() + "/mem:notification_db" + H2_OPTIONS;
+            settings.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            settings.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        String user = args.stringArg("datasourceUser", datasource.startsWith("jdbc:h2:") ? "sa" : "postgres");
+        String password = args.stringArg("datasourcePassword", datasource.startsWith("jdbc:h2:") ? "" : "postgres");
+        settings.put("spring.datasource.url", datasource);
+        settings.put("spring.datasource.username", user);
+        settings.put("spring.datasource.password", password);
+        args.asMap().forEach((key, value) -> {
+            if (key.startsWith("worker:")) {
+                settings.put(key.substring("worker:".length()), value);
+            }
+        });
+        List<String> applicationArgs = new ArrayList<>();
+        settings.forEach((key, value) -> applicationArgs.add("--" + key + "=" + value));
+        // The H2 driver is not in the service jar
+        String driverJar = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .toString();
+        String java = new File(System.getProperty("java.home"), "bin/java").getPath();
+
+        Map<String, long[][]> results = new LinkedHashMap<>();
+        try (KafkaProducer<String, NotificationEvent> producer = producer(kafka.getBrokersAsString());
+             Connection connection = DriverManager.getConnection(datasource, user, password)) {
+            if (Files.exists(jar)) {
+                // Creates the schema and warms the page cache for the first measured mode
+                List<String> command = new ArrayList<>(List.of(java));
+                command.addAll(jvmOptions);
+                command.addAll(List.of("-cp", jar + File.pathSeparator + driverJar, JAR_LAUNCHER));
+                warmUp(command, applicationArgs, workDir.resolve("warm-up.log"), timeoutSeconds);
+            }
+            for (String mode : modes) {
+                List<String> command = prepare(mode, jar, nativeImage, workDir, java, jvmOptions, driverJar,
+                        applicationArgs, datasource, timeoutSeconds);
+                if (command == null) {
+                    continue;
+                }
+                long[][] samples = new long[runs][];
+                for (int run = 0; run < runs; run++) {
+                    samples[run] = measure(command, applicationArgs, workDir.resolve(mode + "-" + run + ".log"),
+                            connection, producer, timeoutSeconds);
+                    System.out.printf("%-8s run %d: first record %d ms, RSS %d MB%n",
+                            mode, run + 1, samples[run][0], samples[run][1]);
+                }
+                results.put(mode, samples);
+            }
+        } finally {
+            if (h2 != null) {
+                h2.stop();
+            }
+            kafka.destroy();
+        }
+
+        System.out.println();
+        System.out.printf("%-8s %10s %10s %10s %10s%n", "mode", "p50 ms", "min ms", "max ms", "RSS MB");
+        results.forEach((mode, samples) -> {
+            long[] millis = Arrays.stream(samples).mapToLong(sample -> sample[0]).sorted().toArray();
+            long[] rss = Arrays.stream(samples).mapToLong(sample -> sample[1]).sorted().toArray();
+            System.out.printf("%-8s %10d %10d %10d %10d%n", mode, millis[(millis.length - 1) / 2], millis[0],
+                    millis[millis.length - 1], rss[(rss.length - 1) / 2]);
+        });
+        System.out.println("Logs in " + workDir);
+        System.exit(0);
+    }
+
+    // The command line for a mode, after any preparation it needs; null when it cannot run here
+    private static List<String> prepare(String mode, Path jar, Path nativeImage, Path workDir, String java,
+                                        List<String> jvmOptions, String driverJar, List<String> applicationArgs,
+                                        String datasource, int timeoutSeconds) throws Exception {
+        if (mode.equals("native")) {
+            if (!Files.isExecutable(nativeImage)) {
+                System.out.printf("%-8s skipped: no %s; build with -Pnative on a GraalVM JDK%n", mode, nativeImage);
+                return null;
+            }
+            if (datasource.startsWith("jdbc:h2:")) {
+                System.out.printf("%-8s skipped: the image has no H2 driver; pass datasource=jdbc:postgresql://...%n",
+                        mode);
+                return null;
+            }
+            return new ArrayList<>(List.of(nativeImage.toString()));
+        }
+        if (!Files.exists(jar)) {
+            System.out.printf("%-8s skipped: no %s%n", mode, jar);
+            return null;
+        }
+        boolean aot = mode.startsWith("aot");
+        if (aot && !hasAotCode(jar)) {
+            System.out.printf("%-8s skipped: %s was built without -Pfast-startup%n", mode, jar.getFileName());
+            return null;
+        }
+        List<String> command = new ArrayList<>(List.of(java));
+        command.addAll(jvmOptions);
+        if (aot) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (!mode.endsWith("cds")) {
+            command.addAll(List.of("-cp", jar + File.pathSeparator + driverJar, JAR_LAUNCHER));
+            return command;
+        }
+
+        Unpacked unpacked = unpack(jar, workDir.resolve(mode));
+        String classPath = unpacked.classPath + File.pathSeparator + driverJar;
+        Path archive = workDir.resolve(mode).resolve("application.jsa");
+        List<String> training = new ArrayList<>(command);
+        training.add(1, "-XX:ArchiveClassesAtExit=" + archive);
+        training.add(2, "-Dspring.context.exit=onRefresh");
+        training.addAll(List.of("-cp", classPath, unpacked.mainClass));
+        training.addAll(applicationArgs);
+        Process process = new ProcessBuilder(training).redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(mode + "-training.log").toFile()).start();
+        if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS) || !Files.exists(archive)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("CDS training run failed, see " + workDir.resolve(mode + "-training.log"));
+        }
+        command.add(1, "-XX:SharedArchiveFile=" + archive);
+        command.addAll(List.of("-cp", classPath, unpacked.mainClass));
+        return command;
+    }
+
+    private static long[] measure(List<String> command, List<String> applicationArgs, Path log, Connection connection,
+                                  KafkaProducer<String, NotificationEvent> producer, int timeoutSeconds)
+            throws Exception {
+        long id = publish(connection, producer);
+        List<String> full = new ArrayList<>(command);
+        full.addAll(applicationArgs);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(full).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try (PreparedStatement query = connection.prepareStatement("SELECT status FROM notifications WHERE id = ?")) {
+            query.setLong(1, id);
+            long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                try (ResultSet row = query.executeQuery()) {
+                    if (row.next() && row.getString(1).equals("SENT")) {
+                        long millis = (System.nanoTime() - start) / 1_000_000;
+                        return new long[]{millis, rssMegabytes(process.pid())};
+                    }
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            stop(process);
+        }
+        throw new IllegalStateException("Notification " + id + " was not sent within " + timeoutSeconds + "s, see "
+                + log);
+    }
+
+    private static void warmUp(List<String> command, List<String> applicationArgs, Path log, int timeoutSeconds)
+            throws Exception {
+        List<String> full = new ArrayList<>(command);
+        full.addAll(applicationArgs);
+        Process process = new ProcessBuilder(full).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                if (Files.readString(log, StandardCharsets.ISO_8859_1).contains("Started WorkerServiceApplication")) {
+                    return;
+                }
+                Thread.sleep(100);
+            }
+        } finally {
+            stop(process);
+        }
+        throw new IllegalStateException("Worker did not start, see " + log);
+    }
+
+    // Inserts a PENDING notification and publishes its event, as notification-service does
+    private static long publish(Connection connection, KafkaProducer<String, NotificationEvent> producer)
+            throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        long id;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO notifications (recipient, subject, message, channel, status, priority, created_at, "
+                        + "retry_count) VALUES (?, ?, ?, ?, 'PENDING', 'NORMAL', ?, 0)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, "+15550100");
+            insert.setString(2, "Order update");
+            insert.setString(3, "Your order has shipped.");
+            insert.setString(4, "SMS");
+            insert.setTimestamp(5, Timestamp.valueOf(now));
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                id = keys.getLong(1);
+            }
+        }
+        NotificationEvent event = NotificationEvent.builder()
+                .notificationId(id)
+                .recipient("+15550100")
+                .subject("Order update")
+                .message("Your order has shipped.")
+                .channel("SMS")
+                .timestamp(now)
+                .priority(NotificationPriority.NORMAL)
+                .build();
+        producer.send(new ProducerRecord<>(NotificationPriority.NORMAL.topic(), String.valueOf(id), event)).get();
+        return id;
+    }
+
+    // Application classes go into a jar of their own: CDS does not archive classes from directories
+    private static Unpacked unpack(Path jar, Path target) throws IOException {
+        if (Files.exists(target)) {
+            try (Stream<Path> paths = Files.walk(target)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+        Path lib = Files.createDirectories(target.resolve("lib"));
+        Path application = target.resolve("application.jar");
+        List<String> classPath = new ArrayList<>(List.of(application.toString()));
+        try (JarFile source = new JarFile(jar.toFile());
+             JarOutputStream classes = new JarOutputStream(Files.newOutputStream(application))) {
+            Enumeration<JarEntry> entries = source.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.startsWith("BOOT-INF/classes/") && name.length() > "BOOT-INF/classes/".length()) {
+                    // Directory entries too, or component scanning finds no packages
+                    classes.putNextEntry(new JarEntry(name.substring("BOOT-INF/classes/".length())));
+                    try (InputStream in = source.getInputStream(entry)) {
+                        in.transferTo(classes);
+                    }
+                    classes.closeEntry();
+                } else if (name.startsWith("BOOT-INF/lib/") && !entry.isDirectory()) {
+                    try (InputStream in = source.getInputStream(entry)) {
+                        Files.copy(in, lib.resolve(name.substring("BOOT-INF/lib/".length())));
+                    }
+                }
+            }
+            // Same order as in the jar
+            String index = new String(source.getInputStream(source.getEntry("BOOT-INF/classpath.idx")).readAllBytes(),
+                    StandardCharsets.UTF_8);
+            for (String line : index.split("\n")) {
+                if (line.startsWith("- \"BOOT-INF/lib/")) {
+                    classPath.add(lib.resolve(line.substring("- \"BOOT-INF/lib/".length(), line.length() - 1))
+                            .toString());
+                }
+            }
+            return new Unpacked(source.getManifest().getMainAttributes().getValue("Start-Class"),
+                    String.join(File.pathSeparator, classPath));
+        }
+    }
+
+    private static boolean hasAotCode(Path jar) throws IOException {
+        try (JarFile source = new JarFile(jar.toFile())) {
+            return source.stream().anyMatch(entry -> entry.getName().endsWith("__ApplicationContextInitializer.class"));
+        }
+    }
+
+    private static KafkaProducer<String, NotificationEvent> producer(String bootstrapServers) {
+        return new KafkaProducer<>(Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers),
+                new StringSerializer(), new NotificationEventCodec.EventSerializer());
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    // Resident set size from /proc; -1 where there is none
+    private static long rssMegabytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/" + pid + "/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            // Not Linux
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static class Unpacked {
+        final String mainClass;
+        final String classPath;
+
+        Unpacked(String mainClass, String classPath) {
+            this.mainClass = mainClass;
+            this.classPath = classPath;
+        }
+    }
+}
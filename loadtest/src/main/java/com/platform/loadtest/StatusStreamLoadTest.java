@@ -0,0 +1,112 @@
+package com.platform.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Holds {@code subscribers} status streams open on {@code notifications} notifications while
+ * the worker is stopped, then lets the worker send them and measures how fast the SENT events
+ * fan out. The clients run in a separate {@link SseSubscriberClient} JVM. Also reports the
+ * database connections notification-service took while the clients were waiting, which should
+ * be none.
+ *
+ * <pre>
+ * mvn -B compile exec:exec -Dloadtest.main=com.platform.loadtest.StatusStreamLoadTest \
+ *     -Dloadtest.args="subscribers=10000 notifications=100 sendFailureRate=0"
+ * </pre>
+ *
+ * Takes {@code subscribers}, {@code notifications}, {@code holdSeconds} and
+ * {@code timeoutSeconds}, plus every {@link Platform} argument.
+ */
+public class StatusStreamLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    public static void main(String[] rawArgs) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(rawArgs);
+        int subscribers = args.intArg("subscribers", 10_000);
+        int notifications = args.intArg("notifications", 100);
+        int holdSeconds = args.intArg("holdSeconds", 10);
+        int timeoutSeconds = args.intArg("timeoutSeconds", 300);
+
+        int exitCode;
+        try (Platform platform = new Platform(args)) {
+            platform.stopWorkerListeners();
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            StringJoiner ids = new StringJoiner(",");
+            for (int i = 0; i < notifications; i++) {
+                String body = "{\"recipient\":\"user" + i + "@loadtest.local\",\"subject\":\"Order update\","
+                        + "\"message\":\"Your order has shipped.\",\"channel\":\"" + (i % 2 == 0 ? "EMAIL" : "PUSH") + "\"}";
+                HttpResponse<String> created = client.send(
+                        HttpRequest.newBuilder(URI.create(platform.notificationServiceUrl() + "/notifications"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                Matcher id = ID.matcher(created.body());
+                if (created.statusCode() != 201 || !id.find()) {
+                    throw new IllegalStateException("Create failed: " + created.statusCode() + " " + created.body());
+                }
+                ids.add(id.group(1));
+            }
+            System.out.printf("Created %d notifications with the worker stopped%n", notifications);
+
+            List<String> command = new ArrayList<>(List.of(
+                    new File(System.getProperty("java.home"), "bin/java").getPath(),
+                    "-Xmx1g", "-cp", System.getProperty("java.class.path"), SseSubscriberClient.class.getName(),
+                    "url=" + platform.notificationServiceUrl(), "ids=" + ids, "subscribers=" + subscribers,
+                    "timeoutSeconds=" + timeoutSeconds));
+            Process subscriberProcess = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+            MeterRegistry registry = platform.registries().get("notification-service");
+            long acquiredBeforeHold = 0;
+            long acquiredAfterHold = 0;
+            try (BufferedReader output = new BufferedReader(
+                    new InputStreamReader(subscriberProcess.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    if (!"READY".equals(line)) {
+                        System.out.println("  " + line);
+                        continue;
+                    }
+                    acquiredBeforeHold = connectionsAcquired(registry);
+                    System.out.printf("  all streams open; holding %ds with the worker stopped%n", holdSeconds);
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(holdSeconds));
+                    acquiredAfterHold = connectionsAcquired(registry);
+                    System.out.println("  starting the worker");
+                    platform.startWorkerListeners();
+                }
+            }
+            exitCode = subscriberProcess.waitFor();
+
+            System.out.printf("%nnotification-service database connections taken while %d clients waited %ds: %d%n",
+                    subscribers, holdSeconds, acquiredAfterHold - acquiredBeforeHold);
+            Timer fanOut = registry.find("notification.status.fanout.latency").timer();
+            if (fanOut != null) {
+                System.out.printf("server fan-out latency (status change to write) n=%d mean=%.1fms max=%.1fms%n",
+                        fanOut.count(), fanOut.mean(TimeUnit.MILLISECONDS), fanOut.max(TimeUnit.MILLISECONDS));
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static long connectionsAcquired(MeterRegistry registry) {
+        return registry.find("hikaricp.connections.acquire").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
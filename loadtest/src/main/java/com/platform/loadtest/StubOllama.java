@@ -0,0 +1,140 @@
+package com.platform.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for Ollama's {@code /api/generate} that answers after {@code latencyMs} plus up to
+ * {@code jitterMs} of uniform jitter, and a further {@code tailMs} for a {@code tailShare} of
+ * calls to give the latency a heavy tail (a GC pause, a model swap). Responses are delayed on a scheduler rather than by
+ * sleeping, so a slow model does not cost a thread per in-flight request.
+ *
+ * <p>Like Ollama, the model is loaded by the first request and unloaded once idle for the
+ * request's {@code keep_alive} (5 minutes by default). Loading adds {@code loadMs} to every
+ * request that arrives before it completes; {@code /api/ps} lists the model while it is loaded.
+ */
+public class StubOllama implements AutoCloseable {
+
+    private static final byte[] GENERATE_RESPONSE = ("{\"model\":\"stub\",\"response\":\"Enhanced by the stub model.\","
+            + "\"done\":true,\"context\":[1,2,3]}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TAGS_RESPONSE = "{\"models\":[{\"name\":\"stub\"}]}".getBytes(StandardCharsets.UTF_8);
+    private static final Pattern MODEL = Pattern.compile("\"model\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern KEEP_ALIVE = Pattern.compile("\"keep_alive\"\\s*:\\s*\"(-?\\d+)([smh])\"");
+    private static final long DEFAULT_KEEP_ALIVE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final HttpServer server;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final AtomicLong generateCalls = new AtomicLong();
+    private final long loadNanos;
+    private String loadedModel = "stub";
+    private long loadedAtNanos;
+    private long unloadAtNanos = System.nanoTime();
+
+    public StubOllama(int latencyMs, int jitterMs) throws IOException {
+        this(latencyMs, jitterMs, 0, 0, 0);
+    }
+
+    public StubOllama(int latencyMs, int jitterMs, double tailShare, int tailMs, int loadMs) throws IOException {
+        this.loadNanos = TimeUnit.MILLISECONDS.toNanos(loadMs);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.createContext("/api/generate", exchange -> {
+            String request = drain(exchange);
+            generateCalls.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = TimeUnit.NANOSECONDS.toMillis(loadDelay(request))
+                    + latencyMs + (jitterMs > 0 ? random.nextInt(jitterMs + 1) : 0)
+                    + (random.nextDouble() < tailShare ? tailMs : 0);
+            scheduler.schedule(() -> respond(exchange, GENERATE_RESPONSE), delay, TimeUnit.MILLISECONDS);
+        });
+        server.createContext("/api/tags", exchange -> {
+            drain(exchange);
+            respond(exchange, TAGS_RESPONSE);
+        });
+        server.createContext("/api/ps", exchange -> {
+            drain(exchange);
+            respond(exchange, psResponse());
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long generateCalls() {
+        return generateCalls.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        scheduler.shutdownNow();
+    }
+
+    // Time until the model is loaded, starting a load if it is not; also renews keep_alive
+    private synchronized long loadDelay(String request) {
+        long now = System.nanoTime();
+        if (now - unloadAtNanos >= 0) {
+            Matcher model = MODEL.matcher(request);
+            loadedModel = model.find() ? model.group(1) : "stub";
+            loadedAtNanos = now + loadNanos;
+        }
+        long keepAlive = keepAliveNanos(request);
+        unloadAtNanos = Math.max(now, loadedAtNanos) + (keepAlive < 0 ? TimeUnit.DAYS.toNanos(365) : keepAlive);
+        return Math.max(0, loadedAtNanos - now);
+    }
+
+    private synchronized byte[] psResponse() {
+        long now = System.nanoTime();
+        if (now - loadedAtNanos < 0 || now - unloadAtNanos >= 0) {
+            return "{\"models\":[]}".getBytes(StandardCharsets.UTF_8);
+        }
+        String name = loadedModel.indexOf(':') >= 0 ? loadedModel : loadedModel + ":latest";
+        return ("{\"models\":[{\"name\":\"" + name + "\",\"model\":\"" + name + "\"}]}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long keepAliveNanos(String request) {
+        Matcher keepAlive = KEEP_ALIVE.matcher(request);
+        if (!keepAlive.find()) {
+            return DEFAULT_KEEP_ALIVE_NANOS;
+        }
+        long amount = Long.parseLong(keepAlive.group(1));
+        TimeUnit unit = switch (keepAlive.group(2)) {
+            case "h" -> TimeUnit.HOURS;
+            case "m" -> TimeUnit.MINUTES;
+            default -> TimeUnit.SECONDS;
+        };
+        return amount < 0 ? -1 : unit.toNanos(amount);
+    }
+
+    private static String drain(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) {
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            out.write(body);
+        } catch (IOException ex) {
+            exchange.close();
+        }
+    }
+}
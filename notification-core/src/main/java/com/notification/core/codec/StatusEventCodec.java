@@ -0,0 +1,132 @@
+package com.notification.core.codec;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.notification.core.event.NotificationStatusEvent;
+import com.notification.core.model.NotificationStatus;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+
+/**
+ * Streaming JSON codec for {@link NotificationStatusEvent}, written the same way as
+ * {@link NotificationEventCodec}. Null fields are left out to keep the events small; unknown
+ * fields are ignored on read and an unknown status decodes as null.
+ */
+public final class StatusEventCodec {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final String NOTIFICATION_ID = "notificationId";
+    private static final String STATUS = "status";
+    private static final String RETRY_COUNT = "retryCount";
+    private static final String ERROR_MESSAGE = "errorMessage";
+    private static final String OCCURRED_AT = "occurredAt";
+
+    private static final SerializedString NOTIFICATION_ID_NAME = new SerializedString(NOTIFICATION_ID);
+    private static final SerializedString STATUS_NAME = new SerializedString(STATUS);
+    private static final SerializedString RETRY_COUNT_NAME = new SerializedString(RETRY_COUNT);
+    private static final SerializedString ERROR_MESSAGE_NAME = new SerializedString(ERROR_MESSAGE);
+    private static final SerializedString OCCURRED_AT_NAME = new SerializedString(OCCURRED_AT);
+
+    private StatusEventCodec() {
+    }
+
+    public static byte[] encode(NotificationStatusEvent event) {
+        ByteArrayBuilder buffer = new ByteArrayBuilder(JSON._getBufferRecycler());
+        try (JsonGenerator generator = JSON.createGenerator(buffer, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            if (event.getNotificationId() != null) {
+                generator.writeFieldName(NOTIFICATION_ID_NAME);
+                generator.writeNumber(event.getNotificationId());
+            }
+            if (event.getStatus() != null) {
+                generator.writeFieldName(STATUS_NAME);
+                generator.writeString(event.getStatus().name());
+            }
+            if (event.getRetryCount() != null) {
+                generator.writeFieldName(RETRY_COUNT_NAME);
+                generator.writeNumber(event.getRetryCount());
+            }
+            if (event.getErrorMessage() != null) {
+                generator.writeFieldName(ERROR_MESSAGE_NAME);
+                generator.writeString(event.getErrorMessage());
+            }
+            generator.writeFieldName(OCCURRED_AT_NAME);
+            generator.writeNumber(event.getOccurredAt());
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot encode status event " + event.getNotificationId(), ex);
+        }
+        byte[] payload = buffer.toByteArray();
+        buffer.release();
+        return payload;
+    }
+
+    public static NotificationStatusEvent decode(byte[] payload) {
+        try (JsonParser parser = JSON.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new SerializationException("Status event is not a JSON object");
+            }
+            NotificationStatusEvent event = new NotificationStatusEvent();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case NOTIFICATION_ID:
+                        event.setNotificationId(parser.getValueAsLong());
+                        break;
+                    case STATUS:
+                        event.setStatus(readStatus(parser.getText()));
+                        break;
+                    case RETRY_COUNT:
+                        event.setRetryCount(parser.getValueAsInt());
+                        break;
+                    case ERROR_MESSAGE:
+                        event.setErrorMessage(parser.getText());
+                        break;
+                    case OCCURRED_AT:
+                        event.setOccurredAt(parser.getValueAsLong());
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return event;
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot decode status event", ex);
+        }
+    }
+
+    private static NotificationStatus readStatus(String value) {
+        try {
+            return NotificationStatus.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    public static class StatusSerializer implements Serializer<NotificationStatusEvent> {
+        @Override
+        public byte[] serialize(String topic, NotificationStatusEvent event) {
+            return event != null ? encode(event) : null;
+        }
+    }
+
+    public static class StatusDeserializer implements Deserializer<NotificationStatusEvent> {
+        @Override
+        public NotificationStatusEvent deserialize(String topic, byte[] payload) {
+            return payload != null ? decode(payload) : null;
+        }
+    }
+}
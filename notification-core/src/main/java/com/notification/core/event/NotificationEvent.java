@@ -0,0 +1,36 @@
+package com.notification.core.event;
+
+import com.notification.core.model.NotificationPriority;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEvent {
+
+    // Record header with expiresAt in epoch milliseconds, readable without decoding the payload
+    public static final String EXPIRES_AT_HEADER = "notification-expires-at";
+
+    private Long notificationId;
+    private String recipient;
+    private String subject;
+    private String message;
+    private String channel;
+    private LocalDateTime timestamp;
+    private NotificationPriority priority;
+    private String tenantId;
+    private String messageType;
+    // Set instead of subject and message for templated notifications
+    private Long templateId;
+    private Map<String, String> variables;
+    // Null never expires
+    private Instant expiresAt;
+}
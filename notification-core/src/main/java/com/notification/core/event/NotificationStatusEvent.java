@@ -0,0 +1,27 @@
+package com.notification.core.event;
+
+import com.notification.core.model.NotificationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published by the worker on {@link #TOPIC}, keyed by notification id, whenever it changes a
+ * notification's status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationStatusEvent {
+
+    public static final String TOPIC = "notification.status";
+
+    private Long notificationId;
+    private NotificationStatus status;
+    private Integer retryCount;
+    private String errorMessage;
+    // Epoch milliseconds
+    private long occurredAt;
+}
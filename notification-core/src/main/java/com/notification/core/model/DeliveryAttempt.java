@@ -0,0 +1,55 @@
+package com.notification.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * One outcome of a notification's delivery: SENT, RETRY or FAILED for a send attempt, SUPPRESSED
+ * or EXPIRED when it was not attempted. Rows are only ever inserted, in batches by the worker; the
+ * notification's own row gets the latest outcome later, when the worker compacts them, and this
+ * is the history it overwrites.
+ */
+@Entity
+@Table(name = "delivery_attempts", indexes = {
+        @Index(name = "idx_delivery_attempts_notification_id", columnList = "notification_id, id"),
+        // Backs the retention purge
+        @Index(name = "idx_delivery_attempts_occurred_at", columnList = "occurred_at")
+})
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryAttempt {
+
+    public static final int MAX_ERROR_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    // 1 for the first send; SUPPRESSED and EXPIRED record the attempts made before them, usually 0
+    @Column(nullable = false)
+    private Integer attempt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NotificationStatus status;
+
+    @Column(name = "error_message", length = MAX_ERROR_LENGTH)
+    private String errorMessage;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
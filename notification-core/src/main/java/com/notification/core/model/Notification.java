@@ -0,0 +1,134 @@
+package com.notification.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Entity
+@Table(name = "notifications", indexes = {
+        // Backs the status lookups: retry and pre-enhancement sweeps, backlog gauges
+        @Index(name = "idx_notifications_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_notifications_campaign_id", columnList = "campaign_id, id")
+})
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    // Empty for templated notifications, which are rendered by the worker
+    @Column(nullable = false)
+    private String subject;
+
+    @ToString.Exclude
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(nullable = false)
+    private String channel;
+
+    @Column(name = "enhanced_subject")
+    private String enhancedSubject;
+
+    @ToString.Exclude
+    @Column(name = "enhanced_message", columnDefinition = "TEXT")
+    private String enhancedMessage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status;
+
+    // Nullable so ddl-auto can add it to existing tables; rows without it are NORMAL
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private NotificationPriority priority;
+
+    // Opt-in to the worker's per-recipient digest; null means send on its own
+    private Boolean digest;
+
+    // API client the notification belongs to; null is the default tenant
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    // MARKETING, TRANSACTIONAL, ALERT, ...; weighs ai-service's choice between the LLM and rules
+    @Column(name = "message_type", length = 32)
+    private String messageType;
+
+    // NotificationTemplate rendered with templateVariables in place of subject and message
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @ToString.Exclude
+    @Convert(converter = TemplateVariablesConverter.class)
+    @Column(name = "template_variables", columnDefinition = "TEXT")
+    private Map<String, String> templateVariables;
+
+    // Campaign this notification was expanded from, if any
+    @Column(name = "campaign_id")
+    private Long campaignId;
+
+    // Not worth sending after this; null never expires
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    private Integer retryCount;
+
+    private String errorMessage;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (status == null) {
+            status = NotificationStatus.PENDING;
+        }
+        if (priority == null) {
+            priority = NotificationPriority.NORMAL;
+        }
+        if (retryCount == null) {
+            retryCount = 0;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Identity-based so equality is stable across persist and never reads the TEXT columns
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof Notification && id != null && id.equals(((Notification) other).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Notification.class.hashCode();
+    }
+}
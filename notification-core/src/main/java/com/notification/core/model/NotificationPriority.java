@@ -0,0 +1,33 @@
+package com.notification.core.model;
+
+/**
+ * Delivery lane of a notification. Each lane has its own Kafka topic so a marketing backlog
+ * never sits in front of a password reset; NORMAL keeps the original topic name so existing
+ * producers and consumers carry on unchanged.
+ */
+public enum NotificationPriority {
+    HIGH("notification.requested.high"),
+    NORMAL("notification.requested"),
+    LOW("notification.requested.low");
+
+    private final String topic;
+
+    NotificationPriority(String topic) {
+        this.topic = topic;
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Events written before lanes existed have no priority.
+     */
+    public static NotificationPriority orDefault(NotificationPriority priority) {
+        return priority != null ? priority : NORMAL;
+    }
+}
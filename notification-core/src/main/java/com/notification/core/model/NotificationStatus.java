@@ -0,0 +1,14 @@
+package com.notification.core.model;
+
+public enum NotificationStatus {
+    ENHANCING,
+    PENDING,
+    PROCESSING,
+    SENT,
+    FAILED,
+    RETRY,
+    // Not sent because the recipient is on the suppression list
+    SUPPRESSED,
+    // Not sent because its expiresAt passed first
+    EXPIRED
+}
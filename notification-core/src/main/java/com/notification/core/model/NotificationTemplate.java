@@ -0,0 +1,50 @@
+package com.notification.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Subject and message with {@code {{variable}}} placeholders, stored once and referenced by
+ * templated notifications, which carry only their variables. Never changed after it is created,
+ * so the worker can cache the compiled form without invalidation; a new version is a new
+ * template.
+ */
+@Entity
+@Table(name = "notification_templates")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 128)
+    private String name;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @ToString.Exclude
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,51 @@
+package com.notification.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * An address nothing may be sent to. notification-service writes the row and publishes it to
+ * the compacted {@link #TOPIC}, keyed by the normalized address with the reason as the value; a
+ * removal is a tombstone. Workers build their Bloom filter from the topic and confirm its hits
+ * against this table.
+ */
+@Entity
+@Table(name = "suppressed_recipients")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuppressedRecipient {
+
+    public static final String TOPIC = "notification.suppressions";
+
+    @Id
+    @Column(length = 320)
+    private String address;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SuppressionReason reason;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public static String normalize(String address) {
+        return address.trim().toLowerCase(Locale.ROOT);
+    }
+}
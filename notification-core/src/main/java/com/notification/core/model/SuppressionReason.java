@@ -0,0 +1,8 @@
+package com.notification.core.model;
+
+public enum SuppressionReason {
+    UNSUBSCRIBED,
+    BOUNCED,
+    COMPLAINED,
+    MANUAL
+}
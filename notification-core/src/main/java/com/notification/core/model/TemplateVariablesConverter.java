@@ -0,0 +1,62 @@
+package com.notification.core.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores a templated notification's variables as one flat JSON object of strings.
+ */
+@Converter
+public class TemplateVariablesConverter implements AttributeConverter<Map<String, String>, String> {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, String> variables) {
+        if (variables == null) {
+            return null;
+        }
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = JSON.createGenerator(json)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, String> variable : variables.entrySet()) {
+                generator.writeStringField(variable.getKey(), variable.getValue());
+            }
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return json.toString();
+    }
+
+    @Override
+    public Map<String, String> convertToEntityAttribute(String json) {
+        if (json == null) {
+            return null;
+        }
+        try (JsonParser parser = JSON.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Template variables are not a JSON object");
+            }
+            Map<String, String> variables = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                variables.put(name, parser.getValueAsString());
+            }
+            return variables;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
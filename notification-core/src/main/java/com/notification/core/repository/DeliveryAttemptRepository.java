@@ -0,0 +1,25 @@
+package com.notification.core.repository;
+
+import com.notification.core.model.DeliveryAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads of the delivery history. The worker appends with batched JDBC inserts rather than
+ * through this repository.
+ */
+@Repository
+public interface DeliveryAttemptRepository extends JpaRepository<DeliveryAttempt, Long> {
+
+    List<DeliveryAttempt> findByNotificationIdOrderByIdAsc(Long notificationId);
+
+    @Modifying
+    @Query(value = "delete from delivery_attempts where occurred_at < :before", nativeQuery = true)
+    int deleteOccurredBefore(@Param("before") LocalDateTime before);
+}
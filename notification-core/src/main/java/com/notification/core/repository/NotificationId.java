@@ -0,0 +1,8 @@
+package com.notification.core.repository;
+
+/**
+ * Projection for sweeps that only need to know which rows to act on.
+ */
+public interface NotificationId {
+    Long getId();
+}
@@ -0,0 +1,40 @@
+package com.notification.core.repository;
+
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Shared by notification-service and worker-service. Lookups that only need ids or counts use
+ * projections so they never load the message bodies. Delivery outcomes, digest buffering included,
+ * reach the rows through the worker's delivery log; the only status change made directly is the
+ * enhancement result, a single-statement update of the columns it touches.
+ */
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    long countByStatus(NotificationStatus status);
+
+    List<NotificationId> findTop500ByStatusAndCreatedAtBefore(NotificationStatus status, LocalDateTime createdBefore);
+
+    List<Notification> findTop500ByCampaignIdAndIdGreaterThanOrderByIdAsc(Long campaignId, Long id);
+
+    @Query("select n.id from Notification n where n.status = :status and n.retryCount < :maxAttempts")
+    List<Long> findIdsForRetry(@Param("status") NotificationStatus status, @Param("maxAttempts") int maxAttempts);
+
+    // Guarded on ENHANCING so a late result and the timeout sweep cannot both dispatch
+    @Modifying
+    @Query("update Notification n set n.enhancedSubject = :subject, n.enhancedMessage = :message, "
+            + "n.status = com.notification.core.model.NotificationStatus.PENDING, n.updatedAt = CURRENT_TIMESTAMP "
+            + "where n.id = :id and n.status = com.notification.core.model.NotificationStatus.ENHANCING")
+    int completeEnhancement(@Param("id") Long id,
+                            @Param("subject") String subject,
+                            @Param("message") String message);
+}
@@ -0,0 +1,9 @@
+package com.notification.core.repository;
+
+import com.notification.core.model.NotificationTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationTemplateRepository extends JpaRepository<NotificationTemplate, Long> {
+}
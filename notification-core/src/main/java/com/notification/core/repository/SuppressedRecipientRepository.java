@@ -0,0 +1,9 @@
+package com.notification.core.repository;
+
+import com.notification.core.model.SuppressedRecipient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SuppressedRecipientRepository extends JpaRepository<SuppressedRecipient, String> {
+}
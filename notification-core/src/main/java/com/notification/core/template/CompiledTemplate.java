@@ -0,0 +1,93 @@
+package com.notification.core.template;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A subject or message template compiled once into literal segments and variable slots.
+ * {@code {{name}}} is a variable; names are trimmed and case-insensitive, and a variable without
+ * a value renders empty. A {@code {{} without a closing {@code }}} is kept literally. Rendering
+ * sizes the output exactly from the values, so it allocates the buffer and the result and
+ * nothing else; a template without variables returns its source.
+ */
+public final class CompiledTemplate {
+
+    private final String source;
+    private final String[] literals;
+    private final String[] names;
+    private final int literalLength;
+
+    private CompiledTemplate(String source, String[] literals, String[] names) {
+        this.source = source;
+        this.literals = literals;
+        this.names = names;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int position = 0;
+        int open = source.indexOf("{{");
+        while (open >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                break;
+            }
+            literals.add(source.substring(position, open));
+            names.add(normalize(source.substring(open + 2, close)));
+            position = close + 2;
+            open = source.indexOf("{{", position);
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(source, literals.toArray(new String[0]), names.toArray(new String[0]));
+    }
+
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Renders with {@code values} keyed by normalized name.
+     */
+    public String render(Map<String, String> values) {
+        if (names.length == 0) {
+            return source;
+        }
+        int length = literalLength;
+        for (String name : names) {
+            String value = values.get(name);
+            if (value != null) {
+                length += value.length();
+            }
+        }
+        StringBuilder rendered = new StringBuilder(length);
+        for (int i = 0; i < names.length; i++) {
+            rendered.append(literals[i]);
+            String value = values.get(names[i]);
+            if (value != null) {
+                rendered.append(value);
+            }
+        }
+        return rendered.append(literals[names.length]).toString();
+    }
+
+    /**
+     * Distinct variable names in order of first use.
+     */
+    public Set<String> variableNames() {
+        return new LinkedHashSet<>(List.of(names));
+    }
+
+    public String source() {
+        return source;
+    }
+}
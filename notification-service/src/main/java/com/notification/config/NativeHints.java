@@ -0,0 +1,19 @@
+package com.notification.config;
+
+import com.notification.dto.EnhancementCompletedEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection a native image cannot derive from the AOT-processed bean definitions: the
+ * pre-enhancement result, which the Kafka JSON deserializer binds by class.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                EnhancementCompletedEvent.class);
+    }
+}
@@ -0,0 +1,29 @@
+package com.notification.consumer;
+
+import com.notification.dto.EnhancementCompletedEvent;
+import com.notification.service.PreEnhancementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "notification.pre-enhancement.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class EnhancementResultConsumer {
+
+    private final PreEnhancementService preEnhancementService;
+
+    @KafkaListener(
+            topics = "notification.enhancement.completed",
+            containerFactory = "enhancementResultListenerContainerFactory"
+    )
+    public void consume(@Payload EnhancementCompletedEvent event) {
+        log.info("Received enhancement result - NotificationId: {}, Successful: {}",
+                event.getNotificationId(), event.isSuccessful());
+        preEnhancementService.handleResult(event);
+    }
+}
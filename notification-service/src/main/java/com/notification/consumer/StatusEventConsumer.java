@@ -0,0 +1,23 @@
+package com.notification.consumer;
+
+import com.notification.core.event.NotificationStatusEvent;
+import com.notification.status.StatusStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class StatusEventConsumer {
+
+    private final StatusStreamService statusStreamService;
+
+    @KafkaListener(
+            topics = NotificationStatusEvent.TOPIC,
+            containerFactory = "statusListenerContainerFactory"
+    )
+    public void consume(@Payload NotificationStatusEvent event) {
+        statusStreamService.publish(event);
+    }
+}
@@ -0,0 +1,54 @@
+package com.notification.controller;
+
+import com.notification.dto.CampaignRequest;
+import com.notification.dto.CampaignResponse;
+import com.notification.service.CampaignService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/campaigns")
+@Slf4j
+public class CampaignController {
+
+    private final CampaignService campaignService;
+
+    public CampaignController(CampaignService campaignService) {
+        this.campaignService = campaignService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CampaignResponse> createCampaign(
+            @Valid @RequestPart("campaign") CampaignRequest request,
+            @RequestPart("recipients") MultipartFile recipients) throws IOException {
+        log.info("Received campaign '{}' with a {} byte recipient file", request.getName(), recipients.getSize());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(campaignService.createCampaign(request, recipients));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CampaignResponse> getCampaign(@PathVariable Long id) {
+        return ResponseEntity.of(campaignService.getCampaign(id));
+    }
+
+    @PostMapping("/{id}/pause")
+    public ResponseEntity<CampaignResponse> pause(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.pause(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<CampaignResponse> resume(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.resume(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<CampaignResponse> cancel(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.cancel(id));
+    }
+}
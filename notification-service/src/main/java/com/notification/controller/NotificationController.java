@@ -1,31 +1,66 @@
 package com.notification.controller;
 
+import com.notification.dto.DeliveryAttemptResponse;
 import com.notification.dto.NotificationRequest;
 import com.notification.dto.NotificationResponse;
+import com.notification.metrics.PipelineMetrics;
 import com.notification.service.NotificationService;
+import com.notification.status.StatusStreamService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/notifications")
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final StatusStreamService statusStreamService;
+    private final Timer ingestTimer;
+
+    public NotificationController(NotificationService notificationService,
+                                  StatusStreamService statusStreamService,
+                                  MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.statusStreamService = statusStreamService;
+        this.ingestTimer = PipelineMetrics.stageTimer(meterRegistry, "ingest");
+    }
 
     @PostMapping
     public ResponseEntity<NotificationResponse> createNotification(
             @Valid @RequestBody NotificationRequest request) {
         log.info("Received notification request for recipient: {}", request.getRecipient());
+        long start = System.nanoTime();
         NotificationResponse response = notificationService.createNotification(request);
+        // Includes the transaction commit, unlike the db_insert stage
+        ingestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Server-sent {@code status} events for one notification: the current status, then every
+     * change until it is SENT, FAILED, SUPPRESSED or EXPIRED.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@PathVariable Long id) {
+        return statusStreamService.subscribe(id);
+    }
+
+    @GetMapping("/{id}/attempts")
+    public List<DeliveryAttemptResponse> getAttempts(@PathVariable Long id) {
+        return notificationService.getAttempts(id);
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Notification Service is running");
@@ -0,0 +1,41 @@
+package com.notification.controller;
+
+import com.notification.dto.SuppressionRequest;
+import com.notification.dto.SuppressionResponse;
+import com.notification.service.SuppressionService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/suppressions")
+@Slf4j
+public class SuppressionController {
+
+    private final SuppressionService suppressionService;
+
+    public SuppressionController(SuppressionService suppressionService) {
+        this.suppressionService = suppressionService;
+    }
+
+    @PostMapping
+    public ResponseEntity<List<SuppressionResponse>> suppress(@Valid @RequestBody SuppressionRequest request) {
+        log.info("Received {} addresses to suppress as {}", request.getAddresses().size(), request.getReason());
+        return ResponseEntity.status(HttpStatus.CREATED).body(suppressionService.suppress(request));
+    }
+
+    @GetMapping("/{address}")
+    public ResponseEntity<SuppressionResponse> getSuppression(@PathVariable String address) {
+        return ResponseEntity.of(suppressionService.getSuppression(address));
+    }
+
+    @DeleteMapping("/{address}")
+    public ResponseEntity<Void> remove(@PathVariable String address) {
+        suppressionService.remove(address);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.notification.controller;
+
+import com.notification.dto.TemplateRequest;
+import com.notification.dto.TemplateResponse;
+import com.notification.service.TemplateService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/templates")
+@Slf4j
+public class TemplateController {
+
+    private final TemplateService templateService;
+
+    public TemplateController(TemplateService templateService) {
+        this.templateService = templateService;
+    }
+
+    @PostMapping
+    public ResponseEntity<TemplateResponse> createTemplate(@Valid @RequestBody TemplateRequest request) {
+        log.info("Received template '{}'", request.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(templateService.createTemplate(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TemplateResponse> getTemplate(@PathVariable Long id) {
+        return ResponseEntity.of(templateService.getTemplate(id));
+    }
+}
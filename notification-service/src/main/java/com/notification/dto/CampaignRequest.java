@@ -0,0 +1,46 @@
+package com.notification.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampaignRequest {
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    // Subject and message may use {{column}} placeholders filled from each recipient row
+    @NotBlank(message = "Subject is required")
+    private String subject;
+
+    @NotBlank(message = "Message is required")
+    private String message;
+
+    @NotBlank(message = "Channel is required")
+    @Pattern(regexp = "EMAIL|SMS|PUSH", message = "Channel must be EMAIL, SMS, or PUSH")
+    private String channel;
+
+    // Campaigns usually belong in the LOW lane; defaults to NORMAL like single notifications
+    @Pattern(regexp = "HIGH|NORMAL|LOW", message = "Priority must be HIGH, NORMAL, or LOW")
+    private String priority;
+
+    // Tenant the campaign's notifications belong to
+    @Pattern(regexp = "[A-Za-z0-9._-]{1,64}", message = "Tenant ID must be 1-64 letters, digits, '.', '_' or '-'")
+    private String tenantId;
+
+    // Notifications created per second; unset expands as fast as batches commit
+    @Positive(message = "Rate must be positive")
+    private Integer ratePerSecond;
+
+    // Recipient file format; inferred from the file name when unset
+    @Pattern(regexp = "CSV|NDJSON", message = "Format must be CSV or NDJSON")
+    private String format;
+}
@@ -0,0 +1,26 @@
+package com.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampaignResponse {
+    private Long id;
+    private String name;
+    private String status;
+    private long expanded;
+    private long rejected;
+    // Share of the recipient file read so far, 0-100
+    private double progressPercent;
+    private Integer ratePerSecond;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
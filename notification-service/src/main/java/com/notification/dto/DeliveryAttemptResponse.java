@@ -0,0 +1,19 @@
+package com.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryAttemptResponse {
+    private Integer attempt;
+    private String status;
+    private String errorMessage;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,25 @@
+package com.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EnhancementCompletedEvent {
+    private Long notificationId;
+    private boolean successful;
+    private String enhancedSubject;
+    private String enhancedMessage;
+    private String optimizationStrategy;
+    private Double confidenceScore;
+    private String errorMessage;
+    private LocalDateTime timestamp;
+}
@@ -1,13 +1,20 @@
 
 package com.notification.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.Map;
 
 @Data
 @Builder
@@ -19,13 +26,46 @@ public class NotificationRequest {
     @Email(message = "Recipient must be a valid email")
     private String recipient;
 
-    @NotBlank(message = "Subject is required")
+    // Literal content; required unless templateId is set
     private String subject;
 
-    @NotBlank(message = "Message is required")
     private String message;
 
+    // Stored template rendered by the worker with variables, in place of subject and message
+    private Long templateId;
+
+    // Values for the template's {{name}} placeholders; names are case-insensitive
+    private Map<String, String> variables;
+
     @NotBlank(message = "Channel is required")
     @Pattern(regexp = "EMAIL|SMS|PUSH", message = "Channel must be EMAIL, SMS, or PUSH")
     private String channel;
+
+    // Enhance in the background before dispatch instead of in the worker's send path
+    private Boolean preEnhance;
+
+    // Merge with other digest notifications to the same recipient and channel within the worker's window
+    private Boolean digest;
+
+    // Delivery lane; password resets and alerts should be HIGH, campaigns LOW. Defaults to NORMAL
+    @Pattern(regexp = "HIGH|NORMAL|LOW", message = "Priority must be HIGH, NORMAL, or LOW")
+    private String priority;
+
+    // API client sending the notification; the worker shares its capacity fairly between tenants
+    @Pattern(regexp = "[A-Za-z0-9._-]{1,64}", message = "Tenant ID must be 1-64 letters, digits, '.', '_' or '-'")
+    private String tenantId;
+
+    // Content type ai-service weighs when choosing between the LLM and its rules
+    @Pattern(regexp = "[A-Z_]{1,32}", message = "Message type must be 1-32 upper-case letters or '_'")
+    private String messageType;
+
+    // Not worth sending after this, e.g. a one-time code; the worker drops it instead. ISO-8601 with offset
+    @Future(message = "expiresAt must be in the future")
+    private Instant expiresAt;
+
+    @JsonIgnore
+    @AssertTrue(message = "Subject and message are required unless templateId is set")
+    public boolean isContentPresent() {
+        return templateId != null || (StringUtils.hasText(subject) && StringUtils.hasText(message));
+    }
 }
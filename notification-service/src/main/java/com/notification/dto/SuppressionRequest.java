@@ -0,0 +1,30 @@
+package com.notification.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuppressionRequest {
+
+    // Email addresses, phone numbers or device IDs; matched case-insensitively
+    @NotEmpty(message = "Addresses are required")
+    @Size(max = 1000, message = "At most 1000 addresses per request")
+    private List<@NotBlank(message = "Address must not be blank")
+            @Size(max = 320, message = "Address must be at most 320 characters") String> addresses;
+
+    @NotBlank(message = "Reason is required")
+    @Pattern(regexp = "UNSUBSCRIBED|BOUNCED|COMPLAINED|MANUAL",
+            message = "Reason must be UNSUBSCRIBED, BOUNCED, COMPLAINED, or MANUAL")
+    private String reason;
+}
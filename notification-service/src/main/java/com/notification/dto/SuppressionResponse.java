@@ -0,0 +1,18 @@
+package com.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuppressionResponse {
+    private String address;
+    private String reason;
+    private LocalDateTime createdAt;
+}
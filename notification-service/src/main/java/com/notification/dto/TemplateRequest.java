@@ -0,0 +1,25 @@
+package com.notification.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateRequest {
+
+    @Size(max = 128, message = "Name must be at most 128 characters")
+    private String name;
+
+    // Subject and message may use {{name}} placeholders filled from each notification's variables
+    @NotBlank(message = "Subject is required")
+    private String subject;
+
+    @NotBlank(message = "Message is required")
+    private String message;
+}
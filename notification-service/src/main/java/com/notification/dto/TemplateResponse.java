@@ -0,0 +1,23 @@
+package com.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateResponse {
+    private Long id;
+    private String name;
+    private String subject;
+    private String message;
+    // Placeholder names in subject and message, normalized to lower case
+    private List<String> variables;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.notification.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Stage timers shared with the worker service under one metric name, told apart by the
+ * {@code stage} and {@code application} tags. Histogram buckets are configured under
+ * {@code management.metrics.distribution} so they can be tuned without a rebuild.
+ */
+public final class PipelineMetrics {
+
+    public static final String STAGE_LATENCY = "notification.stage.latency";
+
+    private PipelineMetrics() {
+    }
+
+    public static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder(STAGE_LATENCY)
+                .description("Time spent in one stage of the notification pipeline")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,119 @@
+package com.notification.model;
+
+import com.notification.core.model.NotificationPriority;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * One templated send to an uploaded recipient file. {@code sourceOffset} is the byte position
+ * after the last recipient turned into a notification; it is committed together with that batch,
+ * so an expansion resumes from it after a pause or restart. Notifications up to
+ * {@code publishedUpToId} are known to be on Kafka.
+ */
+@Entity
+@Table(name = "campaigns")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Campaign {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @ToString.Exclude
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    // Stored copy of subject and message; null for campaigns created before templates existed
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @Column(nullable = false)
+    private String channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private NotificationPriority priority;
+
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Column(nullable = false, length = 16)
+    private String format;
+
+    @Column(name = "source_path", nullable = false)
+    private String sourcePath;
+
+    @Column(name = "source_bytes", nullable = false)
+    private long sourceBytes;
+
+    @Column(name = "source_offset", nullable = false)
+    private long sourceOffset;
+
+    @Column(nullable = false)
+    private long expanded;
+
+    @Column(nullable = false)
+    private long rejected;
+
+    @Column(name = "published_up_to_id")
+    private Long publishedUpToId;
+
+    // Notifications created per second; null for as fast as the batches go
+    @Column(name = "rate_per_second")
+    private Integer ratePerSecond;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CampaignStatus status;
+
+    private String errorMessage;
+
+    // Held by the instance expanding the campaign, renewed with every batch
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    // Token of the expansion holding the lease; its writes are fenced on it
+    @Column(name = "lease_owner", length = 36)
+    private String leaseOwner;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (status == null) {
+            status = CampaignStatus.RUNNING;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,9 @@
+package com.notification.model;
+
+public enum CampaignStatus {
+    RUNNING,
+    PAUSED,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
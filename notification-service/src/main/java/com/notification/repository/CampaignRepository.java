@@ -0,0 +1,79 @@
+package com.notification.repository;
+
+import com.notification.model.Campaign;
+import com.notification.model.CampaignStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The expansion lease and the status changes are guarded single-statement updates, and a pause
+ * is never lost to a batch commit. Each lease is taken under a fresh owner token, and checkpoints
+ * and the release only apply while that token still holds it: an expansion whose lease expired
+ * and was taken over cannot commit another batch or clear its successor's lease.
+ */
+@Repository
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+
+    @Query("select c.id from Campaign c where c.status = :status")
+    List<Long> findIdsByStatus(@Param("status") CampaignStatus status);
+
+    @Query("select c.status from Campaign c where c.id = :id")
+    CampaignStatus findStatusById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Campaign c set c.leaseUntil = :until, c.leaseOwner = :owner where c.id = :id "
+            + "and c.status = com.notification.model.CampaignStatus.RUNNING "
+            + "and (c.leaseUntil is null or c.leaseUntil < :now)")
+    int acquireLease(@Param("id") Long id,
+                     @Param("owner") String owner,
+                     @Param("now") LocalDateTime now,
+                     @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("update Campaign c set c.leaseUntil = null, c.leaseOwner = null where c.id = :id and c.leaseOwner = :owner")
+    int releaseLease(@Param("id") Long id, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("update Campaign c set c.sourceOffset = :offset, c.expanded = c.expanded + :expanded, "
+            + "c.rejected = c.rejected + :rejected, c.leaseUntil = :leaseUntil, c.updatedAt = CURRENT_TIMESTAMP "
+            + "where c.id = :id and c.leaseOwner = :owner")
+    int checkpoint(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("offset") long offset,
+                   @Param("expanded") long expanded,
+                   @Param("rejected") long rejected,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update Campaign c set c.publishedUpToId = :notificationId where c.id = :id")
+    int markPublished(@Param("id") Long id, @Param("notificationId") Long notificationId);
+
+    @Transactional
+    @Modifying
+    @Query("update Campaign c set c.status = :status, c.updatedAt = CURRENT_TIMESTAMP "
+            + "where c.id = :id and c.status = :expected")
+    int transition(@Param("id") Long id,
+                   @Param("expected") CampaignStatus expected,
+                   @Param("status") CampaignStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("update Campaign c set c.status = :status, c.errorMessage = :errorMessage, c.leaseUntil = null, "
+            + "c.leaseOwner = null, "
+            + "c.completedAt = CURRENT_TIMESTAMP, c.updatedAt = CURRENT_TIMESTAMP "
+            + "where c.id = :id and c.status = com.notification.model.CampaignStatus.RUNNING")
+    int finish(@Param("id") Long id,
+               @Param("status") CampaignStatus status,
+               @Param("errorMessage") String errorMessage);
+}
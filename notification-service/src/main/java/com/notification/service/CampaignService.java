@@ -0,0 +1,396 @@
+package com.notification.service;
+
+import com.notification.core.event.NotificationEvent;
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationPriority;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.model.NotificationTemplate;
+import com.notification.core.repository.NotificationRepository;
+import com.notification.dto.CampaignRequest;
+import com.notification.dto.CampaignResponse;
+import com.notification.model.Campaign;
+import com.notification.model.CampaignStatus;
+import com.notification.repository.CampaignRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Expands campaigns into notifications. The uploaded recipient file is written to
+ * {@code notification.campaign.storage-dir} and read back one line at a time, so memory stays
+ * the same for any audience size. Each batch of up to {@code batch-size} rows is inserted
+ * together with the campaign's byte-offset checkpoint in one transaction. It is then published,
+ * and the campaign records the last notification known to be on Kafka.
+ *
+ * <p>An instance expands a campaign only while it holds the campaign's lease. The lease is
+ * taken under a token of its own, and every batch is committed only if the checkpoint finds that
+ * token still holding it; otherwise the batch rolls back and the expansion stops. When an
+ * expansion restarts, it first republishes the PENDING notifications past the published
+ * checkpoint, so a crash between commit and publish can send a notification twice but never
+ * drops one.
+ */
+@Service
+@Slf4j
+public class CampaignService {
+
+    private final CampaignRepository campaignRepository;
+    private final NotificationRepository notificationRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TemplateService templateService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path storageDir;
+    private final int batchSize;
+    private final Duration lease;
+    private final ExecutorService expansionExecutor;
+    private final AtomicInteger activeExpansions = new AtomicInteger();
+    private final Counter expandedCounter;
+    private final Counter rejectedCounter;
+
+    public CampaignService(CampaignRepository campaignRepository,
+                           NotificationRepository notificationRepository,
+                           KafkaProducerService kafkaProducerService,
+                           TemplateService templateService,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${notification.campaign.storage-dir:/tmp/notification-campaigns}") Path storageDir,
+                           @Value("${notification.campaign.batch-size:500}") int batchSize,
+                           @Value("${notification.campaign.lease:2m}") Duration lease,
+                           @Value("${notification.campaign.expansion-threads:2}") int expansionThreads) {
+        this.campaignRepository = campaignRepository;
+        this.notificationRepository = notificationRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.templateService = templateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storageDir = storageDir;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.expansionExecutor = Executors.newFixedThreadPool(expansionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "campaign-expansion-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.expandedCounter = recipientCounter(meterRegistry, "expanded");
+        this.rejectedCounter = recipientCounter(meterRegistry, "rejected");
+        Gauge.builder("notification.campaign.active", activeExpansions, AtomicInteger::get)
+                .description("Campaigns this instance is expanding")
+                .register(meterRegistry);
+    }
+
+    public CampaignResponse createCampaign(CampaignRequest request, MultipartFile recipients) throws IOException {
+        Files.createDirectories(storageDir);
+        String format = request.getFormat() != null ? request.getFormat() : inferFormat(recipients.getOriginalFilename());
+        Path source = storageDir.resolve(UUID.randomUUID() + "." + format.toLowerCase(Locale.ROOT));
+        // Multipart uploads are spooled to disk, so this is a file move or copy, never a byte[]
+        recipients.transferTo(source);
+
+        // Notifications then carry only their row's variables and the worker renders them
+        NotificationTemplate template = templateService.save(request.getName(), request.getSubject(),
+                request.getMessage());
+        Campaign campaign = campaignRepository.save(Campaign.builder()
+                .name(request.getName())
+                .subject(request.getSubject())
+                .message(request.getMessage())
+                .templateId(template.getId())
+                .channel(request.getChannel())
+                .priority(request.getPriority() != null
+                        ? NotificationPriority.valueOf(request.getPriority())
+                        : NotificationPriority.NORMAL)
+                .tenantId(request.getTenantId())
+                .format(format)
+                .sourcePath(source.toString())
+                .sourceBytes(Files.size(source))
+                .ratePerSecond(request.getRatePerSecond())
+                .status(CampaignStatus.RUNNING)
+                .build());
+        log.info("Created campaign {} '{}' from {} bytes of {}", campaign.getId(), campaign.getName(),
+                campaign.getSourceBytes(), format);
+
+        startExpansion(campaign.getId());
+        return toResponse(campaign);
+    }
+
+    public Optional<CampaignResponse> getCampaign(Long id) {
+        return campaignRepository.findById(id).map(CampaignService::toResponse);
+    }
+
+    public CampaignResponse pause(Long id) {
+        return transition(id, CampaignStatus.RUNNING, CampaignStatus.PAUSED);
+    }
+
+    public CampaignResponse cancel(Long id) {
+        if (campaignRepository.transition(id, CampaignStatus.PAUSED, CampaignStatus.CANCELLED) == 1) {
+            return getCampaign(id).orElseThrow();
+        }
+        return transition(id, CampaignStatus.RUNNING, CampaignStatus.CANCELLED);
+    }
+
+    public CampaignResponse resume(Long id) {
+        CampaignResponse response = transition(id, CampaignStatus.PAUSED, CampaignStatus.RUNNING);
+        startExpansion(id);
+        return response;
+    }
+
+    /**
+     * Picks up RUNNING campaigns without a live lease: on startup, and when the instance that
+     * was expanding one has died.
+     */
+    @Scheduled(fixedDelayString = "${notification.campaign.orphan-check-ms:60000}")
+    public void resumeOrphaned() {
+        for (Long id : campaignRepository.findIdsByStatus(CampaignStatus.RUNNING)) {
+            startExpansion(id);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expansionExecutor.shutdownNow();
+    }
+
+    private void startExpansion(Long id) {
+        expansionExecutor.execute(() -> expand(id));
+    }
+
+    private void expand(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        String owner = UUID.randomUUID().toString();
+        if (campaignRepository.acquireLease(id, owner, now, now.plus(lease)) == 0) {
+            return;
+        }
+        activeExpansions.incrementAndGet();
+        try {
+            Campaign campaign = campaignRepository.findById(id).orElseThrow();
+            republishUnconfirmed(campaign);
+            expandFromCheckpoint(campaign, owner);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (LeaseLostException ex) {
+            log.warn("Campaign {}: lease expired and was taken over; stopping this expansion", id);
+        } catch (Exception ex) {
+            log.error("Campaign {} failed", id, ex);
+            campaignRepository.finish(id, CampaignStatus.FAILED, ex.getMessage());
+        } finally {
+            campaignRepository.releaseLease(id, owner);
+            activeExpansions.decrementAndGet();
+        }
+    }
+
+    private void expandFromCheckpoint(Campaign campaign, String owner) throws Exception {
+        Long id = campaign.getId();
+        Integer rate = campaign.getRatePerSecond();
+        // Keep batches to about a second's worth so a rate limit paces evenly
+        int limit = rate != null ? Math.max(1, Math.min(batchSize, rate)) : batchSize;
+        long startNanos = System.nanoTime();
+        long created = 0;
+        Set<String> variableNames = campaign.getTemplateId() != null
+                ? TemplateService.variableNames(campaign.getSubject(), campaign.getMessage())
+                : Set.of();
+
+        try (RecipientReader reader = new RecipientReader(Path.of(campaign.getSourcePath()), campaign.getFormat(),
+                campaign.getSourceOffset())) {
+            while (true) {
+                if (campaignRepository.findStatusById(id) != CampaignStatus.RUNNING) {
+                    log.info("Campaign {} stopped after {} notifications", id, campaign.getExpanded() + created);
+                    return;
+                }
+                List<Map<String, String>> rows = new ArrayList<>(limit);
+                long rejected = 0;
+                boolean exhausted = false;
+                while (rows.size() < limit) {
+                    Map<String, String> row = reader.next();
+                    if (row == null) {
+                        exhausted = true;
+                        break;
+                    }
+                    if (row.isEmpty()) {
+                        rejected++;
+                    } else {
+                        rows.add(row);
+                    }
+                }
+
+                List<Notification> batch = new ArrayList<>(rows.size());
+                for (Map<String, String> row : rows) {
+                    batch.add(toNotification(campaign, variableNames, row));
+                }
+                long offset = reader.offset();
+                long batchRejected = rejected;
+                List<Notification> saved = transactionTemplate.execute(status -> {
+                    List<Notification> inserted = notificationRepository.saveAll(batch);
+                    if (campaignRepository.checkpoint(id, owner, offset, inserted.size(), batchRejected,
+                            LocalDateTime.now().plus(lease)) == 0) {
+                        // Rolls the batch back: the new holder expands these rows from the last checkpoint
+                        throw new LeaseLostException();
+                    }
+                    return inserted;
+                });
+                publish(id, saved);
+                created += saved.size();
+                expandedCounter.increment(saved.size());
+                rejectedCounter.increment(rejected);
+
+                if (exhausted) {
+                    campaignRepository.finish(id, CampaignStatus.COMPLETED, null);
+                    log.info("Campaign {} completed: {} notifications", id, campaign.getExpanded() + created);
+                    return;
+                }
+                if (rate != null) {
+                    long dueNanos = startNanos + (long) (created * 1e9 / rate);
+                    long waitNanos = dueNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                }
+            }
+        }
+    }
+
+    private void republishUnconfirmed(Campaign campaign) throws Exception {
+        Long after = campaign.getPublishedUpToId() != null ? campaign.getPublishedUpToId() : 0L;
+        List<Notification> batch;
+        while (!(batch = notificationRepository.findTop500ByCampaignIdAndIdGreaterThanOrderByIdAsc(
+                campaign.getId(), after)).isEmpty()) {
+            List<Notification> pending = batch.stream()
+                    .filter(notification -> notification.getStatus() == NotificationStatus.PENDING)
+                    .toList();
+            log.warn("Campaign {}: republishing {} notifications after ID {}", campaign.getId(), pending.size(), after);
+            publish(campaign.getId(), pending);
+            after = batch.get(batch.size() - 1).getId();
+            campaignRepository.markPublished(campaign.getId(), after);
+        }
+    }
+
+    private void publish(Long campaignId, List<Notification> notifications) throws Exception {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<?>> sends = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            NotificationEvent event = NotificationService.toEvent(notification);
+            sends.add(kafkaProducerService.sendNotificationEvent(event));
+        }
+        // Waiting for the acks also keeps the expansion from outrunning the producer buffer
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(1, TimeUnit.MINUTES);
+        campaignRepository.markPublished(campaignId, notifications.get(notifications.size() - 1).getId());
+    }
+
+    private static Notification toNotification(Campaign campaign, Set<String> variableNames,
+                                               Map<String, String> row) {
+        Notification.NotificationBuilder notification = Notification.builder();
+        if (campaign.getTemplateId() != null) {
+            Map<String, String> variables = new LinkedHashMap<>();
+            for (String name : variableNames) {
+                String value = row.get(name);
+                if (value != null) {
+                    variables.put(name, value);
+                }
+            }
+            notification.subject("").message("").templateId(campaign.getTemplateId()).templateVariables(variables);
+        } else {
+            notification.subject(render(campaign.getSubject(), row)).message(render(campaign.getMessage(), row));
+        }
+        return notification
+                .recipient(row.get("recipient"))
+                .channel(campaign.getChannel())
+                .priority(campaign.getPriority())
+                .tenantId(campaign.getTenantId())
+                .status(NotificationStatus.PENDING)
+                .retryCount(0)
+                .campaignId(campaign.getId())
+                .build();
+    }
+
+    // {{column}} placeholders for campaigns without a stored template; unknown columns render empty
+    static String render(String template, Map<String, String> values) {
+        int open = template.indexOf("{{");
+        if (open < 0) {
+            return template;
+        }
+        StringBuilder rendered = new StringBuilder(template.length() + 32);
+        int position = 0;
+        while (open >= 0) {
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0) {
+                break;
+            }
+            rendered.append(template, position, open);
+            String key = template.substring(open + 2, close).trim().toLowerCase(Locale.ROOT);
+            rendered.append(values.getOrDefault(key, ""));
+            position = close + 2;
+            open = template.indexOf("{{", position);
+        }
+        return rendered.append(template, position, template.length()).toString();
+    }
+
+    private CampaignResponse transition(Long id, CampaignStatus expected, CampaignStatus status) {
+        Campaign campaign = campaignRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Campaign not found: " + id));
+        if (campaignRepository.transition(id, expected, status) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Campaign " + id + " is " + campaign.getStatus() + ", not " + expected);
+        }
+        log.info("Campaign {} {} -> {}", id, expected, status);
+        return getCampaign(id).orElseThrow();
+    }
+
+    private static String inferFormat(String filename) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? RecipientReader.NDJSON : RecipientReader.CSV;
+    }
+
+    private static CampaignResponse toResponse(Campaign campaign) {
+        return CampaignResponse.builder()
+                .id(campaign.getId())
+                .name(campaign.getName())
+                .status(campaign.getStatus().name())
+                .expanded(campaign.getExpanded())
+                .rejected(campaign.getRejected())
+                .progressPercent(campaign.getSourceBytes() > 0
+                        ? Math.round(campaign.getSourceOffset() * 10000.0 / campaign.getSourceBytes()) / 100.0
+                        : 100.0)
+                .ratePerSecond(campaign.getRatePerSecond())
+                .errorMessage(campaign.getErrorMessage())
+                .createdAt(campaign.getCreatedAt())
+                .completedAt(campaign.getCompletedAt())
+                .build();
+    }
+
+    private static Counter recipientCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notification.campaign.recipients")
+                .description("Campaign recipient rows turned into notifications or rejected")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+}
@@ -1,25 +1,49 @@
 package com.notification.service;
 
-import com.notification.dto.NotificationEvent;
-import lombok.RequiredArgsConstructor;
+import com.notification.core.event.NotificationEvent;
+import com.notification.core.model.NotificationPriority;
+import com.notification.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class KafkaProducerService {
 
     private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
-    private static final String TOPIC = "notification.requested";
+    private final Timer publishTimer;
+    private final int tenantPartitions;
+    private static final String ENHANCEMENT_TOPIC = "notification.enhancement.requested";
+
+    public KafkaProducerService(KafkaTemplate<String, NotificationEvent> kafkaTemplate, MeterRegistry meterRegistry,
+                                @Value("${notification.tenant-partitions:1}") int tenantPartitions) {
+        if (tenantPartitions < 1) {
+            throw new IllegalArgumentException("notification.tenant-partitions must be positive");
+        }
+        this.kafkaTemplate = kafkaTemplate;
+        this.publishTimer = PipelineMetrics.stageTimer(meterRegistry, "kafka_publish");
+        this.tenantPartitions = tenantPartitions;
+    }
 
-    public void sendNotificationEvent(NotificationEvent event) {
+    public CompletableFuture<SendResult<String, NotificationEvent>> sendNotificationEvent(NotificationEvent event) {
+        String topic = NotificationPriority.orDefault(event.getPriority()).topic();
         log.info("Sending notification event to Kafka topic: {} for notificationId: {}",
-                TOPIC, event.getNotificationId());
+                topic, event.getNotificationId());
 
-        kafkaTemplate.send(TOPIC, event.getNotificationId().toString(), event)
+        long start = System.nanoTime();
+        return kafkaTemplate.send(record(topic, event))
                 .whenComplete((result, ex) -> {
+                    publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                     if (ex == null) {
                         log.info("Successfully sent notification event to Kafka. NotificationId: {}",
                                 event.getNotificationId());
@@ -29,4 +53,40 @@ public class KafkaProducerService {
                     }
                 });
     }
+
+    public void sendEnhancementRequest(NotificationEvent event) {
+        log.info("Sending pre-enhancement request to Kafka topic: {} for notificationId: {}",
+                ENHANCEMENT_TOPIC, event.getNotificationId());
+
+        long start = System.nanoTime();
+        kafkaTemplate.send(record(ENHANCEMENT_TOPIC, event))
+                .whenComplete((result, ex) -> {
+                    publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (ex != null) {
+                        log.error("Failed to send pre-enhancement request to Kafka. NotificationId: {}",
+                                event.getNotificationId(), ex);
+                    }
+                });
+    }
+
+    private ProducerRecord<String, NotificationEvent> record(String topic, NotificationEvent event) {
+        ProducerRecord<String, NotificationEvent> record = new ProducerRecord<>(topic, partitionKey(event), event);
+        if (event.getExpiresAt() != null) {
+            record.headers().add(NotificationEvent.EXPIRES_AT_HEADER,
+                    Long.toString(event.getExpiresAt().toEpochMilli()).getBytes(StandardCharsets.US_ASCII));
+        }
+        return record;
+    }
+
+    // A tenant's notifications share tenant-partitions partitions, so when the worker pauses them to
+    // hold back a tenant over its queue limit, only the tenants hashed to the same ones wait with it.
+    // With one, a hot tenant is read by a single consumer; more spread it at the cost of pausing more.
+    private String partitionKey(NotificationEvent event) {
+        String tenantId = event.getTenantId();
+        if (tenantId == null) {
+            return event.getNotificationId().toString();
+        }
+        return tenantPartitions == 1 ? tenantId
+                : tenantId + "#" + Math.floorMod(event.getNotificationId(), tenantPartitions);
+    }
 }
@@ -1,52 +1,104 @@
 package com.notification.service;
 
-import com.notification.dto.NotificationEvent;
+import com.notification.core.event.NotificationEvent;
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationPriority;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.DeliveryAttemptRepository;
+import com.notification.core.repository.NotificationRepository;
+import com.notification.core.template.CompiledTemplate;
+import com.notification.dto.DeliveryAttemptResponse;
 import com.notification.dto.NotificationRequest;
 import com.notification.dto.NotificationResponse;
-import com.notification.model.Notification;
-import com.notification.model.NotificationStatus;
-import com.notification.repository.NotificationRepository;
-import lombok.RequiredArgsConstructor;
+import com.notification.metrics.PipelineMetrics;
+import com.notification.status.StatusView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final DeliveryAttemptRepository attemptRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final PreEnhancementService preEnhancementService;
+    private final TemplateService templateService;
+    private final StatusView statusView;
+    private final Timer dbInsertTimer;
+
+    public NotificationService(NotificationRepository notificationRepository,
+                               DeliveryAttemptRepository attemptRepository,
+                               KafkaProducerService kafkaProducerService,
+                               PreEnhancementService preEnhancementService,
+                               TemplateService templateService,
+                               StatusView statusView,
+                               MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.attemptRepository = attemptRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.preEnhancementService = preEnhancementService;
+        this.templateService = templateService;
+        this.statusView = statusView;
+        this.dbInsertTimer = PipelineMetrics.stageTimer(meterRegistry, "db_insert");
+    }
 
     @Transactional
     public NotificationResponse createNotification(NotificationRequest request) {
         log.info("Creating notification for recipient: {}", request.getRecipient());
 
+        Long templateId = request.getTemplateId();
+        if (templateId != null && !templateService.exists(templateId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Template not found: " + templateId);
+        }
+        // Templated content only exists once the worker renders it, so it cannot be pre-enhanced
+        boolean preEnhance = templateId == null && Boolean.TRUE.equals(request.getPreEnhance())
+                && preEnhancementService.isEnabled();
+
         Notification notification = Notification.builder()
                 .recipient(request.getRecipient())
-                .subject(request.getSubject())
-                .message(request.getMessage())
+                .subject(templateId == null ? request.getSubject() : "")
+                .message(templateId == null ? request.getMessage() : "")
+                .templateId(templateId)
+                .templateVariables(templateId == null ? null : normalizeVariables(request.getVariables()))
                 .channel(request.getChannel())
-                .status(NotificationStatus.PENDING)
+                .priority(request.getPriority() != null
+                        ? NotificationPriority.valueOf(request.getPriority())
+                        : NotificationPriority.NORMAL)
+                .tenantId(request.getTenantId())
+                .messageType(request.getMessageType())
+                .digest(Boolean.TRUE.equals(request.getDigest()) ? Boolean.TRUE : null)
+                .expiresAt(request.getExpiresAt())
+                .status(preEnhance ? NotificationStatus.ENHANCING : NotificationStatus.PENDING)
                 .retryCount(0)
                 .build();
 
+        long insertStart = System.nanoTime();
         Notification savedNotification = notificationRepository.save(notification);
+        dbInsertTimer.record(System.nanoTime() - insertStart, TimeUnit.NANOSECONDS);
         log.info("Notification saved with ID: {}", savedNotification.getId());
+        // A client subscribing right after the create finds it here instead of in the database
+        statusView.update(savedNotification.getId(), new StatusView.Entry(savedNotification.getStatus(), 0, null,
+                System.currentTimeMillis()));
 
-        NotificationEvent event = NotificationEvent.builder()
-                .notificationId(savedNotification.getId())
-                .recipient(savedNotification.getRecipient())
-                .subject(savedNotification.getSubject())
-                .message(savedNotification.getMessage())
-                .channel(savedNotification.getChannel())
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        kafkaProducerService.sendNotificationEvent(event);
+        NotificationEvent event = toEvent(savedNotification);
+        if (preEnhance) {
+            kafkaProducerService.sendEnhancementRequest(event);
+        } else {
+            kafkaProducerService.sendNotificationEvent(event);
+        }
 
         return NotificationResponse.builder()
                 .id(savedNotification.getId())
@@ -54,4 +106,48 @@ public class NotificationService {
                 .message("Notification created successfully")
                 .build();
     }
+
+    /**
+     * The notification's delivery history, oldest first, as long as it is retained.
+     */
+    @Transactional(readOnly = true)
+    public List<DeliveryAttemptResponse> getAttempts(Long id) {
+        if (!notificationRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Notification not found: " + id);
+        }
+        return attemptRepository.findByNotificationIdOrderByIdAsc(id).stream()
+                .map(attempt -> DeliveryAttemptResponse.builder()
+                        .attempt(attempt.getAttempt())
+                        .status(attempt.getStatus().name())
+                        .errorMessage(attempt.getErrorMessage())
+                        .occurredAt(attempt.getOccurredAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    static NotificationEvent toEvent(Notification notification) {
+        boolean templated = notification.getTemplateId() != null;
+        return NotificationEvent.builder()
+                .notificationId(notification.getId())
+                .recipient(notification.getRecipient())
+                .subject(templated ? null : notification.getSubject())
+                .message(templated ? null : notification.getMessage())
+                .channel(notification.getChannel())
+                .timestamp(LocalDateTime.now())
+                .priority(NotificationPriority.orDefault(notification.getPriority()))
+                .tenantId(notification.getTenantId())
+                .messageType(notification.getMessageType())
+                .templateId(notification.getTemplateId())
+                .variables(notification.getTemplateVariables())
+                .expiresAt(notification.getExpiresAt())
+                .build();
+    }
+
+    private static Map<String, String> normalizeVariables(Map<String, String> variables) {
+        Map<String, String> normalized = new LinkedHashMap<>();
+        if (variables != null) {
+            variables.forEach((name, value) -> normalized.put(CompiledTemplate.normalize(name), value));
+        }
+        return normalized;
+    }
 }
@@ -0,0 +1,121 @@
+package com.notification.service;
+
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.NotificationId;
+import com.notification.core.repository.NotificationRepository;
+import com.notification.dto.EnhancementCompletedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tracks notifications waiting for background enhancement. A notification stays in
+ * {@link NotificationStatus#ENHANCING} until ai-service publishes its result, or until
+ * {@code notification.pre-enhancement.max-wait} passes, and is then dispatched to the worker
+ * exactly once with whatever enhanced content is available.
+ */
+@Service
+@Slf4j
+public class PreEnhancementService {
+
+    private final NotificationRepository notificationRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final Counter enhancedCounter;
+    private final Counter failedCounter;
+    private final Counter timedOutCounter;
+    private final Counter lateCounter;
+
+    public PreEnhancementService(
+            NotificationRepository notificationRepository,
+            KafkaProducerService kafkaProducerService,
+            @Value("${notification.pre-enhancement.enabled:false}") boolean enabled,
+            @Value("${notification.pre-enhancement.max-wait:10m}") Duration maxWait,
+            MeterRegistry meterRegistry
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+        this.enhancedCounter = resultCounter(meterRegistry, "enhanced");
+        this.failedCounter = resultCounter(meterRegistry, "failed");
+        this.timedOutCounter = resultCounter(meterRegistry, "timed_out");
+        this.lateCounter = resultCounter(meterRegistry, "late");
+        Gauge.builder("notification.pre-enhancement.backlog", notificationRepository,
+                        repository -> repository.countByStatus(NotificationStatus.ENHANCING))
+                .description("Notifications waiting for background enhancement")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Transactional
+    public void handleResult(EnhancementCompletedEvent event) {
+        Long notificationId = event.getNotificationId();
+        int updated = event.isSuccessful()
+                ? notificationRepository.completeEnhancement(notificationId, event.getEnhancedSubject(), event.getEnhancedMessage())
+                : notificationRepository.completeEnhancement(notificationId, null, null);
+
+        if (updated == 0) {
+            // The creating transaction may not have committed yet; let the container retry.
+            Notification notification = notificationRepository.findById(notificationId)
+                    .orElseThrow(() -> new IllegalStateException("Notification not found: " + notificationId));
+            log.debug("Ignoring enhancement result for notification ID: {} in status {}",
+                    notificationId, notification.getStatus());
+            lateCounter.increment();
+            return;
+        }
+
+        if (event.isSuccessful()) {
+            enhancedCounter.increment();
+        } else {
+            log.warn("Pre-enhancement failed for notification ID: {}: {}", notificationId, event.getErrorMessage());
+            failedCounter.increment();
+        }
+        dispatch(notificationId);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.pre-enhancement.sweep-interval-ms:30000}")
+    @Transactional
+    public void releaseStale() {
+        if (!enabled) {
+            return;
+        }
+        List<NotificationId> stale = notificationRepository.findTop500ByStatusAndCreatedAtBefore(
+                NotificationStatus.ENHANCING, LocalDateTime.now().minus(maxWait));
+        for (NotificationId notification : stale) {
+            if (notificationRepository.completeEnhancement(notification.getId(), null, null) == 1) {
+                log.warn("Pre-enhancement for notification ID: {} exceeded {}, sending without it",
+                        notification.getId(), maxWait);
+                timedOutCounter.increment();
+                dispatch(notification.getId());
+            }
+        }
+    }
+
+    private void dispatch(Long notificationId) {
+        notificationRepository.findById(notificationId)
+                .map(NotificationService::toEvent)
+                .ifPresent(kafkaProducerService::sendNotificationEvent);
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notification.pre-enhancement.results")
+                .description("Pre-enhancement outcomes as seen by the notification service")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
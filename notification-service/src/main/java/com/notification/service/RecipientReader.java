@@ -0,0 +1,168 @@
+package com.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams recipients from a campaign file one line at a time and tracks the byte offset after
+ * each one, so an expansion can stop anywhere and reopen the file at that offset. Only the
+ * current line is held in memory.
+ *
+ * <p>CSV files need a header row with a {@code recipient} (or {@code email}) column; NDJSON
+ * lines are objects with a {@code recipient} field. Every other column or field is available to
+ * the template under its lower-cased name. A row without a usable recipient is returned with an
+ * empty map so the caller can count it as rejected.
+ */
+class RecipientReader implements Closeable {
+
+    static final String CSV = "CSV";
+    static final String NDJSON = "NDJSON";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String format;
+    private final FileChannel channel;
+    private InputStream in;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+    private List<String> header;
+    private long offset;
+
+    RecipientReader(Path path, String format, long offset) throws IOException {
+        this.format = format;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.in = buffered(channel);
+        if (CSV.equals(format)) {
+            String headerLine = readLine();
+            header = headerLine == null ? List.of() : parseCsv(headerLine).stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                    .map(column -> column.equals("email") ? "recipient" : column)
+                    .toList();
+        }
+        if (offset > this.offset) {
+            // The buffer has read ahead of the header, so start a new one at the offset
+            channel.position(offset);
+            this.in = buffered(channel);
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Next recipient's template variables, an empty map for an unusable row, or null at the end
+     * of the file.
+     */
+    Map<String, String> next() throws IOException {
+        String text;
+        do {
+            text = readLine();
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        Map<String, String> row = CSV.equals(format) ? csvRow(text) : jsonRow(text);
+        String recipient = row.get("recipient");
+        return recipient != null && recipient.indexOf('@') > 0 ? row : Map.of();
+    }
+
+    // Byte position after the last line returned by next()
+    long offset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Map<String, String> csvRow(String text) {
+        List<String> values = parseCsv(text);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < Math.min(header.size(), values.size()); i++) {
+            row.put(header.get(i), values.get(i).trim());
+        }
+        return row;
+    }
+
+    private static Map<String, String> jsonRow(String text) {
+        Map<String, String> row = new HashMap<>();
+        try {
+            JsonNode node = JSON.readTree(text);
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getValue().isValueNode()) {
+                    row.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue().asText());
+                }
+            }
+        } catch (IOException ex) {
+            return Map.of();
+        }
+        return row;
+    }
+
+    // RFC 4180 fields: commas inside double quotes, "" for a literal quote
+    static List<String> parseCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static InputStream buffered(FileChannel channel) {
+        return new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+    }
+
+    private String readLine() throws IOException {
+        line.reset();
+        int b;
+        while ((b = in.read()) != -1) {
+            offset++;
+            if (b == '\n') {
+                break;
+            }
+            line.write(b);
+        }
+        if (b == -1 && line.size() == 0) {
+            return null;
+        }
+        String text = line.toString(StandardCharsets.UTF_8);
+        return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+    }
+}
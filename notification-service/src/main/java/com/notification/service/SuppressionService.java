@@ -0,0 +1,110 @@
+package com.notification.service;
+
+import com.notification.core.model.SuppressedRecipient;
+import com.notification.core.model.SuppressionReason;
+import com.notification.core.repository.SuppressedRecipientRepository;
+import com.notification.dto.SuppressionRequest;
+import com.notification.dto.SuppressionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Maintains the suppression list. Every change is written to {@code suppressed_recipients} and
+ * published to the compacted {@link SuppressedRecipient#TOPIC} before the transaction commits:
+ * if the publish fails the change rolls back, so there is never a row the workers' Bloom filters
+ * do not know about. A commit failing after the publish leaves a filter entry without a row,
+ * which costs the worker one extra lookup and nothing else.
+ */
+@Service
+@Slf4j
+public class SuppressionService {
+
+    private final SuppressedRecipientRepository suppressionRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Duration publishTimeout;
+
+    public SuppressionService(SuppressedRecipientRepository suppressionRepository,
+                              KafkaTemplate<String, String> kafkaTemplate,
+                              @Value("${notification.suppression.publish-timeout:10s}") Duration publishTimeout) {
+        this.suppressionRepository = suppressionRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.publishTimeout = publishTimeout;
+    }
+
+    @Transactional
+    public List<SuppressionResponse> suppress(SuppressionRequest request) {
+        SuppressionReason reason = SuppressionReason.valueOf(request.getReason());
+        Map<String, SuppressedRecipient> recipients = new LinkedHashMap<>();
+        for (String address : request.getAddresses()) {
+            String normalized = SuppressedRecipient.normalize(address);
+            recipients.put(normalized, SuppressedRecipient.builder().address(normalized).reason(reason).build());
+        }
+        // Already suppressed addresses keep their createdAt and take the new reason
+        for (SuppressedRecipient existing : suppressionRepository.findAllById(recipients.keySet())) {
+            existing.setReason(reason);
+            recipients.put(existing.getAddress(), existing);
+        }
+        List<SuppressedRecipient> saved = suppressionRepository.saveAll(recipients.values());
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(saved.size());
+        for (SuppressedRecipient recipient : saved) {
+            sends.add(kafkaTemplate.send(SuppressedRecipient.TOPIC, recipient.getAddress(), reason.name()));
+        }
+        awaitPublished(sends);
+        log.info("Suppressed {} addresses as {}", saved.size(), reason);
+        return saved.stream().map(SuppressionService::toResponse).toList();
+    }
+
+    public Optional<SuppressionResponse> getSuppression(String address) {
+        return suppressionRepository.findById(SuppressedRecipient.normalize(address))
+                .map(SuppressionService::toResponse);
+    }
+
+    @Transactional
+    public void remove(String address) {
+        String normalized = SuppressedRecipient.normalize(address);
+        if (!suppressionRepository.existsById(normalized)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Address is not suppressed: " + address);
+        }
+        suppressionRepository.deleteById(normalized);
+        // A tombstone; compaction eventually drops the address from the topic
+        awaitPublished(List.of(kafkaTemplate.send(SuppressedRecipient.TOPIC, normalized, null)));
+        log.info("Removed suppression of {}", normalized);
+    }
+
+    private void awaitPublished(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                    .get(publishTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted publishing suppressions", ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cannot publish suppressions", ex);
+        }
+    }
+
+    private static SuppressionResponse toResponse(SuppressedRecipient recipient) {
+        return SuppressionResponse.builder()
+                .address(recipient.getAddress())
+                .reason(recipient.getReason().name())
+                .createdAt(recipient.getCreatedAt())
+                .build();
+    }
+}
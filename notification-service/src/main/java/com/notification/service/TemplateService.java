@@ -0,0 +1,68 @@
+package com.notification.service;
+
+import com.notification.core.model.NotificationTemplate;
+import com.notification.core.repository.NotificationTemplateRepository;
+import com.notification.core.template.CompiledTemplate;
+import com.notification.dto.TemplateRequest;
+import com.notification.dto.TemplateResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Stores notification templates. A template is never updated, so the workers' compiled copies
+ * cannot go stale; changing the content means creating a new template.
+ */
+@Service
+@Slf4j
+public class TemplateService {
+
+    private final NotificationTemplateRepository templateRepository;
+
+    public TemplateService(NotificationTemplateRepository templateRepository) {
+        this.templateRepository = templateRepository;
+    }
+
+    public TemplateResponse createTemplate(TemplateRequest request) {
+        NotificationTemplate template = save(request.getName(), request.getSubject(), request.getMessage());
+        log.info("Created template {} '{}'", template.getId(), template.getName());
+        return toResponse(template);
+    }
+
+    public Optional<TemplateResponse> getTemplate(Long id) {
+        return templateRepository.findById(id).map(TemplateService::toResponse);
+    }
+
+    public boolean exists(Long id) {
+        return templateRepository.existsById(id);
+    }
+
+    NotificationTemplate save(String name, String subject, String message) {
+        return templateRepository.save(NotificationTemplate.builder()
+                .name(name)
+                .subject(subject)
+                .message(message)
+                .build());
+    }
+
+    static Set<String> variableNames(String subject, String message) {
+        Set<String> names = new LinkedHashSet<>(CompiledTemplate.compile(subject).variableNames());
+        names.addAll(CompiledTemplate.compile(message).variableNames());
+        return names;
+    }
+
+    private static TemplateResponse toResponse(NotificationTemplate template) {
+        return TemplateResponse.builder()
+                .id(template.getId())
+                .name(template.getName())
+                .subject(template.getSubject())
+                .message(template.getMessage())
+                .variables(new ArrayList<>(variableNames(template.getSubject(), template.getMessage())))
+                .createdAt(template.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,187 @@
+package com.notification.status;
+
+import com.notification.core.codec.StatusEventCodec;
+import com.notification.core.event.NotificationStatusEvent;
+import com.notification.core.model.Notification;
+import com.notification.core.repository.NotificationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes status changes to clients over server-sent events. Subscribers are indexed by
+ * notification id, so an event reaches only the clients waiting for that notification and a
+ * waiting client costs no database query: the current status is read once, from the
+ * {@link StatusView} or on a miss from the database, and everything after that comes from the
+ * {@code notification.status} topic. The stream ends after SENT, FAILED, SUPPRESSED or EXPIRED.
+ *
+ * <p>Each event is encoded once and written to its subscribers on the fan-out pool, off the
+ * Kafka listener thread, so a slow client holds up a pool thread rather than the topic.
+ */
+@Service
+@Slf4j
+public class StatusStreamService {
+
+    private final StatusView statusView;
+    private final NotificationRepository notificationRepository;
+    private final long timeoutMillis;
+    private final ExecutorService fanOutExecutor;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Timer fanOutTimer;
+
+    public StatusStreamService(StatusView statusView,
+                               NotificationRepository notificationRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${notification.status-stream.timeout:10m}") Duration timeout,
+                               @Value("${notification.status-stream.fan-out-threads:4}") int fanOutThreads) {
+        this.statusView = statusView;
+        this.notificationRepository = notificationRepository;
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanOutExecutor = Executors.newFixedThreadPool(fanOutThreads, runnable -> {
+            Thread thread = new Thread(runnable, "status-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("notification.status.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open status event streams")
+                .register(meterRegistry);
+        this.fanOutTimer = Timer.builder("notification.status.fanout.latency")
+                .description("Time from the worker's status change to the event being written to a subscriber")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long notificationId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(notificationId, emitter);
+        // Registered before the current status is read, so a change in between is not missed;
+        // the subscriber drops whichever of the two turns out older
+        subscribers.computeIfAbsent(notificationId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> unsubscribe(subscriber));
+
+        StatusView.Entry current = statusView.get(notificationId);
+        if (current == null) {
+            current = notificationRepository.findById(notificationId)
+                    .map(StatusStreamService::toEntry)
+                    .orElse(null);
+            if (current == null) {
+                unsubscribe(subscriber);
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Notification not found: " + notificationId);
+            }
+            current = statusView.update(notificationId, current);
+        }
+        subscriber.deliver(frame(notificationId, current), current);
+        return emitter;
+    }
+
+    /**
+     * Called for every event on the topic; cheap when nobody is waiting for the notification.
+     */
+    public void publish(NotificationStatusEvent event) {
+        StatusView.Entry entry = statusView.apply(event);
+        Set<Subscriber> waiting = subscribers.get(event.getNotificationId());
+        if (waiting == null || waiting.isEmpty() || entry.occurredAt != event.getOccurredAt()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = frame(event.getNotificationId(), entry);
+        fanOutExecutor.execute(() -> {
+            for (Subscriber subscriber : waiting) {
+                if (subscriber.deliver(frame, entry)) {
+                    fanOutTimer.record(Math.max(0, System.currentTimeMillis() - entry.occurredAt), TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        Set<Subscriber> set = subscribers.get(subscriber.notificationId);
+        if (set != null && set.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            if (set.isEmpty()) {
+                subscribers.remove(subscriber.notificationId, set);
+            }
+        }
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> frame(Long notificationId, StatusView.Entry entry) {
+        String json = new String(StatusEventCodec.encode(NotificationStatusEvent.builder()
+                .notificationId(notificationId)
+                .status(entry.status)
+                .retryCount(entry.retryCount)
+                .errorMessage(entry.errorMessage)
+                .occurredAt(entry.occurredAt)
+                .build()), StandardCharsets.UTF_8);
+        return SseEmitter.event().name("status").data(json, MediaType.APPLICATION_JSON).build();
+    }
+
+    private static StatusView.Entry toEntry(Notification notification) {
+        long updatedAt = notification.getUpdatedAt() != null
+                ? notification.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0;
+        return new StatusView.Entry(notification.getStatus(), notification.getRetryCount(),
+                notification.getErrorMessage(), updatedAt);
+    }
+
+    private static final class Subscriber {
+        private final Long notificationId;
+        private final SseEmitter emitter;
+        private long lastOccurredAt = Long.MIN_VALUE;
+        private boolean closed;
+
+        private Subscriber(Long notificationId, SseEmitter emitter) {
+            this.notificationId = notificationId;
+            this.emitter = emitter;
+        }
+
+        synchronized boolean deliver(Set<ResponseBodyEmitter.DataWithMediaType> frame, StatusView.Entry entry) {
+            if (closed || entry.occurredAt < lastOccurredAt) {
+                return false;
+            }
+            lastOccurredAt = entry.occurredAt;
+            try {
+                emitter.send(frame);
+            } catch (IOException | IllegalStateException ex) {
+                // Client gone; the emitter's error callback unsubscribes it
+                closed = true;
+                return false;
+            }
+            if (entry.isTerminal()) {
+                closed = true;
+                emitter.complete();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.notification.status;
+
+import com.notification.core.event.NotificationStatusEvent;
+import com.notification.core.model.NotificationStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest known status of recent notifications, kept from the {@code notification.status} topic
+ * and from this instance's own creates. Entries not updated for {@code view-retention} are
+ * dropped, and past {@code max-entries} new notifications are not added; a lookup that misses
+ * falls back to one database read.
+ */
+@Component
+@Slf4j
+public class StatusView {
+
+    public static class Entry {
+        public final NotificationStatus status;
+        public final Integer retryCount;
+        public final String errorMessage;
+        // Epoch milliseconds
+        public final long occurredAt;
+
+        public Entry(NotificationStatus status, Integer retryCount, String errorMessage, long occurredAt) {
+            this.status = status;
+            this.retryCount = retryCount;
+            this.errorMessage = errorMessage;
+            this.occurredAt = occurredAt;
+        }
+
+        public boolean isTerminal() {
+            return status == NotificationStatus.SENT || status == NotificationStatus.FAILED
+                    || status == NotificationStatus.SUPPRESSED || status == NotificationStatus.EXPIRED;
+        }
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration retention;
+    private final int maxEntries;
+
+    public StatusView(MeterRegistry meterRegistry,
+                      @Value("${notification.status-stream.view-retention:10m}") Duration retention,
+                      @Value("${notification.status-stream.max-entries:200000}") int maxEntries) {
+        this.retention = retention;
+        this.maxEntries = maxEntries;
+        Gauge.builder("notification.status.view.entries", entries, Map::size)
+                .description("Notifications held in the in-memory status view")
+                .register(meterRegistry);
+    }
+
+    public Entry get(Long notificationId) {
+        return entries.get(notificationId);
+    }
+
+    /**
+     * Records the status unless a newer one is already known, and returns whichever is current.
+     */
+    public Entry update(Long notificationId, Entry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(notificationId)) {
+            return entry;
+        }
+        return entries.merge(notificationId, entry,
+                (current, next) -> next.occurredAt >= current.occurredAt ? next : current);
+    }
+
+    public Entry apply(NotificationStatusEvent event) {
+        return update(event.getNotificationId(), new Entry(event.getStatus(), event.getRetryCount(),
+                event.getErrorMessage(), event.getOccurredAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.status-stream.sweep-interval-ms:30000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.occurredAt < cutoff);
+        log.debug("Status view evicted {} entries, {} left", before - entries.size(), entries.size());
+    }
+}
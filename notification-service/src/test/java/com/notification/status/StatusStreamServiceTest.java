@@ -0,0 +1,194 @@
+package com.notification.status;
+
+import com.notification.controller.NotificationController;
+import com.notification.core.codec.StatusEventCodec;
+import com.notification.core.event.NotificationStatusEvent;
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.NotificationRepository;
+import com.notification.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class StatusStreamServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatusView statusView;
+    private NotificationRepository notificationRepository;
+    private StatusStreamService streamService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statusView = new StatusView(meterRegistry, Duration.ofMinutes(10), 1000);
+        notificationRepository = mock(NotificationRepository.class);
+        streamService = new StatusStreamService(statusView, notificationRepository, meterRegistry,
+                Duration.ofMinutes(1), 2);
+        mockMvc = MockMvcBuilders.standaloneSetup(new NotificationController(mock(NotificationService.class),
+                streamService, meterRegistry)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void sendsTheCurrentStatusThenEveryChangeUntilTerminal() throws Exception {
+        statusView.update(1L, new StatusView.Entry(NotificationStatus.PENDING, 0, null, 100));
+
+        MvcResult result = subscribe(1L);
+        streamService.publish(event(1L, NotificationStatus.PROCESSING, 200));
+        streamService.publish(event(1L, NotificationStatus.SENT, 300));
+
+        List<NotificationStatusEvent> events = awaitEvents(result, 3);
+        assertThat(events).extracting(NotificationStatusEvent::getStatus)
+                .containsExactly(NotificationStatus.PENDING, NotificationStatus.PROCESSING, NotificationStatus.SENT);
+        assertThat(events).extracting(NotificationStatusEvent::getOccurredAt).containsExactly(100L, 200L, 300L);
+        assertThat(events).extracting(NotificationStatusEvent::getNotificationId).containsOnly(1L);
+        verify(notificationRepository, never()).findById(1L);
+    }
+
+    @Test
+    void skipsEventsOlderThanTheKnownStatus() throws Exception {
+        statusView.update(1L, new StatusView.Entry(NotificationStatus.PROCESSING, 0, null, 200));
+
+        MvcResult result = subscribe(1L);
+        streamService.publish(event(1L, NotificationStatus.PENDING, 100));
+        streamService.publish(event(1L, NotificationStatus.FAILED, 300));
+
+        assertThat(awaitEvents(result, 2)).extracting(NotificationStatusEvent::getStatus)
+                .containsExactly(NotificationStatus.PROCESSING, NotificationStatus.FAILED);
+        assertThat(statusView.get(1L).status).isEqualTo(NotificationStatus.FAILED);
+    }
+
+    @Test
+    void deliversOnlyToSubscribersOfTheNotification() throws Exception {
+        statusView.update(1L, new StatusView.Entry(NotificationStatus.PENDING, 0, null, 100));
+        statusView.update(2L, new StatusView.Entry(NotificationStatus.PENDING, 0, null, 100));
+
+        MvcResult first = subscribe(1L);
+        MvcResult second = subscribe(2L);
+        streamService.publish(event(2L, NotificationStatus.RETRY, 200));
+        streamService.publish(event(1L, NotificationStatus.SENT, 300));
+
+        assertThat(awaitEvents(first, 2)).extracting(NotificationStatusEvent::getStatus)
+                .containsExactly(NotificationStatus.PENDING, NotificationStatus.SENT);
+        assertThat(awaitEvents(second, 2)).extracting(NotificationStatusEvent::getStatus)
+                .containsExactly(NotificationStatus.PENDING, NotificationStatus.RETRY);
+    }
+
+    @Test
+    void readsTheDatabaseOnceOnAViewMiss() throws Exception {
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(Notification.builder()
+                .id(1L)
+                .status(NotificationStatus.RETRY)
+                .retryCount(2)
+                .errorMessage("timeout")
+                .updatedAt(LocalDateTime.now())
+                .build()));
+
+        MvcResult result = subscribe(1L);
+
+        NotificationStatusEvent current = awaitEvents(result, 1).get(0);
+        assertThat(current.getStatus()).isEqualTo(NotificationStatus.RETRY);
+        assertThat(current.getRetryCount()).isEqualTo(2);
+        assertThat(current.getErrorMessage()).isEqualTo("timeout");
+        assertThat(statusView.get(1L).status).isEqualTo(NotificationStatus.RETRY);
+        verify(notificationRepository).findById(1L);
+    }
+
+    @Test
+    void rejectsUnknownNotificationsWithoutKeepingTheSubscriber() {
+        when(notificationRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> streamService.subscribe(1L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Notification not found: 1");
+        assertThat(meterRegistry.get("notification.status.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void viewKeepsTheNewestStatusAndStopsAddingAtCapacity() {
+        StatusView view = new StatusView(new SimpleMeterRegistry(), Duration.ofMinutes(10), 2);
+        view.update(1L, new StatusView.Entry(NotificationStatus.SENT, 0, null, 300));
+        view.update(1L, new StatusView.Entry(NotificationStatus.PROCESSING, 0, null, 200));
+        view.update(2L, new StatusView.Entry(NotificationStatus.PENDING, 0, null, 100));
+        view.update(3L, new StatusView.Entry(NotificationStatus.PENDING, 0, null, 100));
+
+        assertThat(view.get(1L).status).isEqualTo(NotificationStatus.SENT);
+        assertThat(view.get(2L)).isNotNull();
+        assertThat(view.get(3L)).isNull();
+    }
+
+    @Test
+    void viewEvictsEntriesPastRetention() {
+        StatusView view = new StatusView(new SimpleMeterRegistry(), Duration.ofMinutes(10), 10);
+        long now = System.currentTimeMillis();
+        view.update(1L, new StatusView.Entry(NotificationStatus.SENT, 0, null, now - Duration.ofMinutes(11).toMillis()));
+        view.update(2L, new StatusView.Entry(NotificationStatus.PENDING, 0, null, now));
+
+        view.evictExpired();
+
+        assertThat(view.get(1L)).isNull();
+        assertThat(view.get(2L)).isNotNull();
+    }
+
+    private MvcResult subscribe(Long id) throws Exception {
+        return mockMvc.perform(get("/notifications/{id}/events", id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static NotificationStatusEvent event(Long id, NotificationStatus status, long occurredAt) {
+        return NotificationStatusEvent.builder()
+                .notificationId(id)
+                .status(status)
+                .retryCount(0)
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    // Fan-out runs on the pool, so the frames arrive shortly after publish returns
+    private static List<NotificationStatusEvent> awaitEvents(MvcResult result, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<NotificationStatusEvent> events = parse(result.getResponse());
+        while (events.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            events = parse(result.getResponse());
+        }
+        // Give a frame that should not be there the chance to show up
+        Thread.sleep(50);
+        return parse(result.getResponse());
+    }
+
+    private static List<NotificationStatusEvent> parse(MockHttpServletResponse response) throws Exception {
+        return response.getContentAsString(StandardCharsets.UTF_8).lines()
+                .filter(line -> line.startsWith("data:"))
+                .map(line -> StatusEventCodec.decode(line.substring("data:".length()).getBytes(StandardCharsets.UTF_8)))
+                .toList();
+    }
+}
@@ -1,13 +1,27 @@
 package com.worker;
 
+import com.notification.core.model.Notification;
+import com.notification.core.repository.NotificationRepository;
+import com.worker.config.NativeHints;
+import com.worker.delivery.DeliveryRecord;
+import com.worker.delivery.DeliveryRecordRepository;
+import com.worker.digest.DigestWindow;
+import com.worker.digest.DigestWindowRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
 @EnableFeignClients
+@ImportRuntimeHints(NativeHints.class)
+@EntityScan(basePackageClasses = {Notification.class, DigestWindow.class, DeliveryRecord.class})
+@EnableJpaRepositories(basePackageClasses = {NotificationRepository.class, DigestWindowRepository.class,
+        DeliveryRecordRepository.class})
 public class WorkerServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,229 @@
+package com.worker.client;
+
+import com.worker.dto.AiEnhancementRequest;
+import com.worker.dto.AiEnhancementResponse;
+import feign.Request;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Hedges AI enhancement calls. When the first request has not answered within the
+ * {@code quantile} (p95) of recent attempt latencies, a second one goes to the next of
+ * {@code targets}; the first successful answer wins and the other request is cancelled.
+ * A hedge to the instance already running the first request would queue behind it, so
+ * {@code ai-service.url} is never a target, and with no other instance nothing is hedged.
+ * <ul>
+ *     <li>No hedging until {@code min-samples} attempts have been seen, and never sooner than
+ *     {@code min-delay}.</li>
+ *     <li>Every call earns {@code budget-percent}/100 of a hedge, up to {@code max-burst}
+ *     saved; a hedge spends one. Extra load on ai-service therefore stays near the budget even
+ *     when it is slow across the board, which is when hedging cannot help anyway.</li>
+ *     <li>Cancelled attempts count in the latency window at the time they had run, so the
+ *     threshold is not pulled down by the tails hedging hides.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "worker.ai.hedging.enabled", havingValue = "true")
+@Slf4j
+public class AiRequestHedger {
+
+    private final AiServiceClient primaryClient;
+    private final AiServiceHedgeClient hedgeClient;
+    // Other ai-service instances than the primary's; empty disables hedging
+    private final List<URI> targets;
+    private final AtomicInteger nextTarget = new AtomicInteger();
+    private final double quantile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final double budgetPerCall;
+    private final double maxBurst;
+    private final ExecutorService executor;
+    private final Counter hedgesSent;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    // Guarded by this
+    private final long[] window;
+    private int samples;
+    private int nextSample;
+    private int sinceRefresh;
+    private double budget;
+    private volatile long thresholdNanos = Long.MAX_VALUE;
+
+    public AiRequestHedger(AiServiceClient primaryClient,
+                           AiServiceHedgeClient hedgeClient,
+                           MeterRegistry meterRegistry,
+                           @Value("${ai-service.url:http://localhost:8083}") String primaryUrl,
+                           @Value("${worker.ai.hedging.targets:}") String targets,
+                           @Value("${worker.ai.hedging.quantile:0.95}") double quantile,
+                           @Value("${worker.ai.hedging.min-delay:50ms}") Duration minDelay,
+                           @Value("${worker.ai.hedging.window:1000}") int window,
+                           @Value("${worker.ai.hedging.min-samples:100}") int minSamples,
+                           @Value("${worker.ai.hedging.budget-percent:5}") double budgetPercent,
+                           @Value("${worker.ai.hedging.max-burst:10}") double maxBurst) {
+        this.primaryClient = primaryClient;
+        this.hedgeClient = hedgeClient;
+        URI primary = normalize(primaryUrl);
+        this.targets = Arrays.stream(targets.split(","))
+                .map(String::trim)
+                .filter(target -> !target.isEmpty())
+                .map(AiRequestHedger::normalize)
+                .filter(target -> !target.equals(primary))
+                .distinct()
+                .collect(Collectors.toList());
+        if (this.targets.isEmpty()) {
+            log.warn("Hedging disabled: worker.ai.hedging.targets has no ai-service instance besides {}", primary);
+        }
+        this.quantile = quantile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.window = new long[window];
+        this.minSamples = Math.min(minSamples, window);
+        this.budgetPerCall = budgetPercent / 100.0;
+        this.maxBurst = maxBurst;
+        this.budget = maxBurst;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ai-hedge-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hedgesSent = Counter.builder("worker.ai.hedge.requests")
+                .description("Hedge requests sent to a second ai-service instance")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("worker.ai.hedge.wins")
+                .description("Hedge requests that answered before the first request")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("worker.ai.hedge.budget.exhausted")
+                .description("Slow calls not hedged because the hedge budget was spent")
+                .register(meterRegistry);
+        Gauge.builder("worker.ai.hedge.threshold", this,
+                        hedger -> hedger.thresholdNanos == Long.MAX_VALUE ? Double.NaN : hedger.thresholdNanos / 1e6)
+                .description("Current hedge delay in milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param options timeouts for both attempts, or null for the client's
+     */
+    public AiEnhancementResponse enhanceMessage(AiEnhancementRequest request, Request.Options options)
+            throws Exception {
+        if (targets.isEmpty()) {
+            return primaryClient.enhanceMessage(request, options);
+        }
+        earnBudget();
+        CompletionService<AiEnhancementResponse> attempts = new ExecutorCompletionService<>(executor);
+        long primaryStart = System.nanoTime();
+        Future<AiEnhancementResponse> primary = attempts.submit(() -> primaryClient.enhanceMessage(request, options));
+        Future<AiEnhancementResponse> hedge = null;
+        try {
+            long delay = thresholdNanos;
+            Future<AiEnhancementResponse> first = delay == Long.MAX_VALUE
+                    ? attempts.take()
+                    : attempts.poll(delay, TimeUnit.NANOSECONDS);
+            if (first != null) {
+                record(System.nanoTime() - primaryStart);
+                return result(first);
+            }
+            if (!spendBudget()) {
+                budgetExhausted.increment();
+                AiEnhancementResponse response = result(attempts.take());
+                record(System.nanoTime() - primaryStart);
+                return response;
+            }
+
+            URI target = targets.get(Math.floorMod(nextTarget.getAndIncrement(), targets.size()));
+            long hedgeStart = System.nanoTime();
+            hedge = attempts.submit(() -> hedgeClient.enhanceMessage(target, request, options));
+            hedgesSent.increment();
+            log.debug("AI call slower than {} ms, hedging to {}", TimeUnit.NANOSECONDS.toMillis(delay), target);
+
+            Future<AiEnhancementResponse> winner = attempts.take();
+            AiEnhancementResponse response;
+            try {
+                response = winner.get();
+            } catch (ExecutionException ex) {
+                // The other attempt may still succeed
+                log.debug("AI attempt failed while hedging: {}", ex.getCause().getMessage());
+                winner = attempts.take();
+                response = result(winner);
+            }
+            long now = System.nanoTime();
+            record(now - primaryStart);
+            record(now - hedgeStart);
+            if (winner == hedge) {
+                hedgeWins.increment();
+            }
+            return response;
+        } finally {
+            // Whichever attempt lost is still running; interrupting it aborts its HTTP exchange
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static URI normalize(String url) {
+        return URI.create(url.endsWith("/") ? url.substring(0, url.length() - 1) : url).normalize();
+    }
+
+    private static AiEnhancementResponse result(Future<AiEnhancementResponse> attempt) throws Exception {
+        try {
+            return attempt.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof Exception cause ? cause : ex;
+        }
+    }
+
+    private synchronized void earnBudget() {
+        budget = Math.min(maxBurst, budget + budgetPerCall);
+    }
+
+    private synchronized boolean spendBudget() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    private synchronized void record(long latencyNanos) {
+        window[nextSample] = latencyNanos;
+        nextSample = (nextSample + 1) % window.length;
+        samples = Math.min(samples + 1, window.length);
+        // Re-sorting a thousand samples on every call would cost more than it saves
+        if (samples < minSamples || ++sinceRefresh < Math.max(1, window.length / 20)) {
+            return;
+        }
+        sinceRefresh = 0;
+        long[] sorted = Arrays.copyOf(window, samples);
+        Arrays.sort(sorted);
+        long quantileNanos = sorted[Math.min(samples - 1, (int) Math.ceil(quantile * samples) - 1)];
+        thresholdNanos = Math.max(minDelayNanos, quantileNanos);
+    }
+}
@@ -2,6 +2,7 @@ package com.worker.client;
 
 import com.worker.dto.AiEnhancementRequest;
 import com.worker.dto.AiEnhancementResponse;
+import feign.Request;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,9 +18,13 @@ public interface AiServiceClient {
             name = "aiServiceCircuitBreaker",
             fallbackMethod = "enhanceMessageFallback"
     )
-    AiEnhancementResponse enhanceMessage(@RequestBody AiEnhancementRequest request);
+    AiEnhancementResponse enhanceMessage(@RequestBody AiEnhancementRequest request, Request.Options options);
 
-    default AiEnhancementResponse enhanceMessageFallback(AiEnhancementRequest request, Exception ex) {
+    /**
+     * {@code options} overrides the client's timeouts for this call; null keeps them.
+     */
+    default AiEnhancementResponse enhanceMessageFallback(AiEnhancementRequest request, Request.Options options,
+                                                         Exception ex) {
         return new AiEnhancementResponse(
                 request.getSubject(),
                 request.getSubject(),
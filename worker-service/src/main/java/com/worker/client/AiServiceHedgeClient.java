@@ -0,0 +1,25 @@
+package com.worker.client;
+
+import com.worker.dto.AiEnhancementRequest;
+import com.worker.dto.AiEnhancementResponse;
+import feign.Request;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.net.URI;
+
+/**
+ * The same call as {@link AiServiceClient}, sent to the ai-service instance given as
+ * {@code baseUrl}. Used for hedge requests, which must not land on the instance that is
+ * already slow.
+ */
+@FeignClient(
+        name = "ai-service-hedge",
+        url = "${ai-service.url:http://localhost:8083}"
+)
+public interface AiServiceHedgeClient {
+    @PostMapping("/ai/optimize")
+    AiEnhancementResponse enhanceMessage(URI baseUrl, @RequestBody AiEnhancementRequest request,
+                                         Request.Options options);
+}
@@ -0,0 +1,74 @@
+package com.worker.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Feign transport on {@link HttpClient}. Feign's default {@code HttpURLConnection} ignores
+ * interrupts, so a cancelled hedge would keep its connection and the ai-service request running
+ * until it finished; interrupting a thread blocked in {@link HttpClient#send} aborts the
+ * exchange and closes the connection.
+ */
+public class InterruptibleFeignClient implements Client {
+
+    // Set by HttpClient itself; it rejects requests that carry them
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        RESTRICTED_HEADERS.addAll(List.of("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+    }
+
+    private final HttpClient httpClient;
+
+    public InterruptibleFeignClient(Duration connectTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+                .timeout(Duration.ofMillis(options.readTimeoutMillis()))
+                .method(request.httpMethod().name(), request.body() != null
+                        ? HttpRequest.BodyPublishers.ofByteArray(request.body())
+                        : HttpRequest.BodyPublishers.noBody());
+        request.headers().forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name)) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request to " + request.url() + " cancelled");
+        }
+        Map<String, Collection<String>> headers = new HashMap<>();
+        response.headers().map().forEach(headers::put);
+        return Response.builder()
+                .status(response.statusCode())
+                .reason("")
+                .headers(headers)
+                .request(request)
+                .body(response.body())
+                .build();
+    }
+}
@@ -1,10 +1,15 @@
 package com.worker.config;
 
+import com.worker.client.InterruptibleFeignClient;
+import feign.Client;
 import feign.Logger;
 import feign.codec.ErrorDecoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class FeignConfig {
 
@@ -28,4 +33,11 @@ public class FeignConfig {
             return new Exception("AI Service error: " + response.status());
         };
     }
+
+    // Hedging cancels the losing call; HttpURLConnection would ignore that and run it to the end
+    @Bean
+    @ConditionalOnProperty(name = "worker.ai.hedging.enabled", havingValue = "true")
+    public Client interruptibleFeignClient() {
+        return new InterruptibleFeignClient(Duration.ofSeconds(10));
+    }
 }
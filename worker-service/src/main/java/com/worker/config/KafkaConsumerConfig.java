@@ -1,7 +1,12 @@
 package com.worker.config;
 
-import com.worker.dto.NotificationEvent;
+import com.notification.core.codec.NotificationEventCodec;
+import com.notification.core.event.NotificationEvent;
+import com.notification.core.event.NotificationStatusEvent;
+import com.worker.tenancy.TenantFairScheduler;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,8 +15,15 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,30 +37,77 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.kafka.consumer.max-poll-records:50}")
+    private int maxPollRecords;
+
+    @Value("${worker.delivery.exactly-once:false}")
+    private boolean exactlyOnce;
+
+    @Value("${worker.delivery.redelivery-backoff:1s}")
+    private Duration redeliveryBackoff;
+
+    @Value("${worker.delivery.max-redeliveries:9}")
+    private long maxRedeliveries;
+
     @Bean
     public ConsumerFactory<String, NotificationEvent> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, NotificationEvent.class.getName());
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Records are processed one by one and may wait for a lane slot; a small poll keeps the
+        // batch well inside max.poll.interval.ms and commits (which the lag metrics read) frequent
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        if (exactlyOnce) {
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        }
 
         return new DefaultKafkaConsumerFactory<>(
                 props,
                 new StringDeserializer(),
-                new JsonDeserializer<>(NotificationEvent.class, false)
+                new NotificationEventCodec.EventDeserializer()
         );
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> kafkaListenerContainerFactory(
+            KafkaTemplate<String, NotificationStatusEvent> statusKafkaTemplate,
+            TenantFairScheduler tenantScheduler) {
         ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        // Default only; each lane listener sets its own and the autoscaler resizes them
         factory.setConcurrency(3);
+        // Continues the producer's trace from the record headers
+        factory.getContainerProperties().setObservationEnabled(true);
+        if (exactlyOnce) {
+            // Not a bean: a second PlatformTransactionManager would switch off the JPA one.
+            // Offsets are sent to the producer's transaction, so the status events and the
+            // consumed position commit or abort together.
+            factory.getContainerProperties().setTransactionManager(
+                    new KafkaTransactionManager<>(statusKafkaTemplate.getProducerFactory()));
+            // A failed record is redelivered after a rollback; once it runs out of attempts it
+            // is logged and its offset committed so the partition moves on
+            factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(null,
+                    new FixedBackOff(redeliveryBackoff.toMillis(), maxRedeliveries), statusKafkaTemplate, true));
+        }
+        if (tenantScheduler.isEnabled()) {
+            // Records are processed after the listener returns; the tenant scheduler acknowledges
+            // each partition up to its first unfinished record
+            factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+            factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+                @Override
+                public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer,
+                                                            Collection<TopicPartition> partitions) {
+                    tenantScheduler.discard(partitions);
+                }
+
+                @Override
+                public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                    tenantScheduler.discard(partitions);
+                }
+            });
+        }
         return factory;
     }
 }
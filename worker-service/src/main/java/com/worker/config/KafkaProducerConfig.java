@@ -0,0 +1,48 @@
+package com.worker.config;
+
+import com.notification.core.codec.StatusEventCodec;
+import com.notification.core.event.NotificationStatusEvent;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${worker.delivery.exactly-once:false}")
+    private boolean exactlyOnce;
+
+    @Value("${spring.application.name:worker-service}")
+    private String applicationName;
+
+    @Bean
+    public ProducerFactory<String, NotificationStatusEvent> statusProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StatusEventCodec.StatusSerializer.class);
+        DefaultKafkaProducerFactory<String, NotificationStatusEvent> factory =
+                new DefaultKafkaProducerFactory<>(configProps);
+        if (exactlyOnce) {
+            // Each consumer thread gets its own transactional producer, fenced by the group metadata
+            factory.setTransactionIdPrefix(applicationName + "-tx-");
+        }
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, NotificationStatusEvent> statusKafkaTemplate() {
+        return new KafkaTemplate<>(statusProducerFactory());
+    }
+}
@@ -0,0 +1,30 @@
+package com.worker.config;
+
+import com.worker.client.AiServiceClient;
+import com.worker.client.AiServiceHedgeClient;
+import com.worker.dto.AiEnhancementRequest;
+import com.worker.dto.AiEnhancementResponse;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection a native image cannot derive from the AOT-processed bean definitions: the Feign
+ * client proxies (also wrapped by the circuit breaker aspect, which looks up the fallback method
+ * reflectively) and the JSON bodies they exchange with ai-service.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                AiEnhancementRequest.class, AiEnhancementResponse.class);
+        for (Class<?> client : new Class<?>[]{AiServiceClient.class, AiServiceHedgeClient.class}) {
+            hints.reflection().registerType(client, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.proxies().registerJdkProxy(client);
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(client));
+        }
+    }
+}
@@ -1,40 +1,131 @@
 package com.worker.consumer;
 
-import com.worker.dto.NotificationEvent;
+import com.notification.core.event.NotificationEvent;
+import com.notification.core.model.NotificationPriority;
+import com.worker.metrics.PipelineMetrics;
+import com.worker.scheduler.PriorityLaneScheduler;
 import com.worker.service.NotificationProcessingService;
-import lombok.RequiredArgsConstructor;
+import com.worker.tenancy.TenantFairScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One listener per priority lane, each with its own consumer threads so a LOW backlog can never
+ * hold a HIGH partition. Records go through the {@link TenantFairScheduler}, which shares each
+ * lane between tenants, and processing slots are shared through the {@link PriorityLaneScheduler}.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationConsumer {
 
     private final NotificationProcessingService processingService;
+    private final TenantFairScheduler tenantScheduler;
+    private final boolean exactlyOnce;
+    private final Timer consumerLagTimer;
+    private final Map<NotificationPriority, Timer> laneQueueTimers = new EnumMap<>(NotificationPriority.class);
+
+    public NotificationConsumer(NotificationProcessingService processingService,
+                                TenantFairScheduler tenantScheduler,
+                                MeterRegistry meterRegistry,
+                                @Value("${worker.delivery.exactly-once:false}") boolean exactlyOnce) {
+        this.processingService = processingService;
+        this.tenantScheduler = tenantScheduler;
+        this.exactlyOnce = exactlyOnce;
+        this.consumerLagTimer = PipelineMetrics.stageTimer(meterRegistry, "consumer_lag");
+        for (NotificationPriority lane : NotificationPriority.values()) {
+            laneQueueTimers.put(lane, PipelineMetrics.laneQueueTimer(meterRegistry, lane.tag()));
+        }
+    }
+
+    public static String listenerId(NotificationPriority lane) {
+        return "worker-lane-" + lane.tag();
+    }
 
     @KafkaListener(
+            id = "worker-lane-high",
+            topics = "notification.requested.high",
+            groupId = "worker-service-group",
+            containerFactory = "kafkaListenerContainerFactory",
+            concurrency = "${worker.lanes.consumers.high:3}"
+    )
+    public void consumeHigh(
+            @Payload NotificationEvent event,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long recordTimestamp,
+            @Header(name = KafkaHeaders.ACKNOWLEDGMENT, required = false) Acknowledgment acknowledgment)
+            throws InterruptedException {
+        consume(NotificationPriority.HIGH, event, partition, offset, recordTimestamp, acknowledgment);
+    }
+
+    @KafkaListener(
+            id = "worker-lane-normal",
             topics = "notification.requested",
             groupId = "worker-service-group",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            concurrency = "${worker.lanes.consumers.normal:3}"
     )
     public void consume(
             @Payload NotificationEvent event,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long recordTimestamp,
+            @Header(name = KafkaHeaders.ACKNOWLEDGMENT, required = false) Acknowledgment acknowledgment)
+            throws InterruptedException {
+        consume(NotificationPriority.NORMAL, event, partition, offset, recordTimestamp, acknowledgment);
+    }
 
-        log.info("Received notification event from Kafka - NotificationId: {}, Partition: {}, Offset: {}",
-                event.getNotificationId(), partition, offset);
-        log.info("Event details - Recipient: {}, Channel: {}", event.getRecipient(), event.getChannel());
+    @KafkaListener(
+            id = "worker-lane-low",
+            topics = "notification.requested.low",
+            groupId = "worker-service-group",
+            containerFactory = "kafkaListenerContainerFactory",
+            concurrency = "${worker.lanes.consumers.low:2}"
+    )
+    public void consumeLow(
+            @Payload NotificationEvent event,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long recordTimestamp,
+            @Header(name = KafkaHeaders.ACKNOWLEDGMENT, required = false) Acknowledgment acknowledgment)
+            throws InterruptedException {
+        consume(NotificationPriority.LOW, event, partition, offset, recordTimestamp, acknowledgment);
+    }
 
-        try {
-            processingService.processNotification(event.getNotificationId());
-        } catch (Exception e) {
-            log.error("Error processing notification ID: {}", event.getNotificationId(), e);
-        }
+    private void consume(NotificationPriority lane, NotificationEvent event, int partition, long offset,
+                         long recordTimestamp, Acknowledgment acknowledgment) throws InterruptedException {
+        // Producer CreateTime is epoch-based, so unlike event.timestamp it is zone independent
+        consumerLagTimer.record(Math.max(0, System.currentTimeMillis() - recordTimestamp), TimeUnit.MILLISECONDS);
+
+        log.info("Received {} notification event from Kafka - NotificationId: {}, Partition: {}, Offset: {}",
+                lane, event.getNotificationId(), partition, offset);
+        log.info("Event details - Recipient: {}, Channel: {}, Tenant: {}", event.getRecipient(), event.getChannel(),
+                event.getTenantId());
+
+        tenantScheduler.submit(lane, event.getTenantId(), partition, offset, recordTimestamp, acknowledgment, () -> {
+            laneQueueTimers.get(lane).record(
+                    Math.max(0, System.currentTimeMillis() - recordTimestamp), TimeUnit.MILLISECONDS);
+            try {
+                processingService.processNotification(event.getNotificationId(), event.getExpiresAt());
+            } catch (RuntimeException e) {
+                if (exactlyOnce) {
+                    // Aborts the transaction; the record is redelivered by the after-rollback processor
+                    throw e;
+                }
+                log.error("Error processing notification ID: {}", event.getNotificationId(), e);
+            }
+        });
     }
 }
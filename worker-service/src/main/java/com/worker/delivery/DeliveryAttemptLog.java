@@ -0,0 +1,399 @@
+package com.worker.delivery;
+
+import com.notification.core.model.DeliveryAttempt;
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.DeliveryAttemptRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Records delivery outcomes in the insert-only {@code delivery_attempts} table. Callers from every
+ * processing thread are group-committed: one writer thread takes whatever has queued while it was
+ * busy and writes it in a single transaction of two batched inserts, the attempts and, latest per
+ * notification, the {@link PendingOutcome}s. {@link #record} returns once its transaction has
+ * committed, so nothing is acknowledged to Kafka before its outcome is durable.
+ *
+ * <p>The notifications' rows are not touched on that path. {@link #compact} folds the pending
+ * outcomes into them every {@code compaction-interval-ms}, one update per notification however
+ * many outcomes it had since, so the row's status lags the log by about that long.
+ */
+@Component
+@Slf4j
+public class DeliveryAttemptLog {
+
+    private static final String INSERT_ATTEMPT = "insert into delivery_attempts "
+            + "(notification_id, attempt, status, error_message, occurred_at) values (?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {Types.BIGINT, Types.INTEGER, Types.VARCHAR, Types.VARCHAR,
+            Types.TIMESTAMP};
+    private static final String INSERT_OUTCOME = "insert into pending_outcomes (notification_id, status, "
+            + "retry_count, error_message, enhanced_subject, enhanced_message, occurred_at) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_OUTCOME_TYPES = {Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP};
+    // Locked so two workers' compactions take turns instead of applying the same outcomes out of order
+    private static final String SELECT_OUTCOMES = "select id, notification_id, status, retry_count, error_message, "
+            + "enhanced_subject, enhanced_message, occurred_at from pending_outcomes order by id limit ? for update";
+    // Only the outcome columns; the enhanced content is kept when the attempt brought none. A SENT
+    // row stays SENT: an expired record redelivered after its send must not overwrite it
+    private static final String APPLY_OUTCOME = "update notifications set status = ?, "
+            + "retry_count = coalesce(?, retry_count), error_message = ?, "
+            + "enhanced_subject = coalesce(?, enhanced_subject), enhanced_message = coalesce(?, enhanced_message), "
+            + "updated_at = ? where id = ? and status <> 'SENT'";
+    private static final int[] APPLY_TYPES = {Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT};
+    private static final String DELETE_OUTCOME = "delete from pending_outcomes where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DeliveryAttemptRepository attemptRepository;
+    private final int maxBatch;
+    private final Duration flushTimeout;
+    private final Duration retention;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final DistributionSummary batchSize;
+    private final Counter attemptsWritten;
+    private final Counter outcomesCompacted;
+    private volatile boolean running = true;
+
+    public DeliveryAttemptLog(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              DeliveryAttemptRepository attemptRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${worker.delivery.attempt-log.max-batch:500}") int maxBatch,
+                              @Value("${worker.delivery.attempt-log.flush-timeout:30s}") Duration flushTimeout,
+                              @Value("${worker.delivery.attempt-log.retention:30d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.attemptRepository = attemptRepository;
+        this.maxBatch = maxBatch;
+        this.flushTimeout = flushTimeout;
+        this.retention = retention;
+        this.batchSize = DistributionSummary.builder("worker.delivery.attempts.batch.size")
+                .description("Delivery attempts written per group commit")
+                .register(meterRegistry);
+        this.attemptsWritten = Counter.builder("worker.delivery.attempts.written")
+                .description("Delivery attempts appended to the log")
+                .register(meterRegistry);
+        this.outcomesCompacted = Counter.builder("worker.delivery.outcomes.compacted")
+                .description("Pending outcomes folded into their notifications' rows")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeLoop, "delivery-attempt-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void record(Attempt attempt) {
+        recordAll(List.of(attempt));
+    }
+
+    /**
+     * Blocks until the attempts are committed.
+     *
+     * @throws IllegalStateException if the write failed or did not finish within {@code flush-timeout}
+     */
+    public void recordAll(List<Attempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        Pending pending = new Pending(attempts, false);
+        queue.add(pending);
+        try {
+            pending.committed.get(flushTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recording delivery attempts", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to record delivery attempts", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Delivery attempts not recorded within " + flushTimeout, ex);
+        }
+    }
+
+    /**
+     * For the outcomes of sends already made, which must not turn into a RETRY and a second send
+     * when the database is unavailable: if the write fails they stay queued, and are written
+     * once it succeeds. Returns once they are committed or {@code flush-timeout} has passed; a
+     * worker that stops before they are written loses them.
+     */
+    public void recordSent(List<Attempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        Pending pending = new Pending(attempts, true);
+        queue.add(pending);
+        try {
+            pending.written.get(flushTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while recording {} sent notifications; they stay queued", attempts.size());
+        } catch (ExecutionException | TimeoutException ex) {
+            log.error("{} sent notifications not recorded within {}; they stay queued", attempts.size(),
+                    flushTimeout, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(flushTimeout.toMillis());
+        compact();
+    }
+
+    /**
+     * Applies the pending outcomes to the notifications' rows, oldest first, in transactions of
+     * up to {@code max-batch}.
+     */
+    @Scheduled(fixedDelayString = "${worker.delivery.attempt-log.compaction-interval-ms:1000}")
+    public synchronized void compact() {
+        Integer compacted;
+        do {
+            compacted = transactionTemplate.execute(status -> compactBatch());
+        } while (compacted != null && compacted == maxBatch);
+    }
+
+    @Scheduled(fixedDelay = 3600000, initialDelay = 60000)
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                attemptRepository.deleteOccurredBefore(LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} delivery attempts older than {}", purged, retention);
+        }
+    }
+
+    // Drains what is left after shutdown starts, so callers already waiting still get their commit
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                int attempts = first.attempts.size();
+                Pending next;
+                while (attempts < maxBatch && (next = queue.poll()) != null) {
+                    batch.add(next);
+                    attempts += next.attempts.size();
+                }
+                write(batch);
+                batch.forEach(pending -> pending.committed.complete(null));
+                batch.forEach(pending -> pending.written.complete(null));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Failed to write {} delivery attempt batches", batch.size(), ex);
+                batch.forEach(pending -> pending.committed.completeExceptionally(ex));
+                if (requeueSent(batch)) {
+                    return;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    // Puts outcomes of sends already made back in the queue; true if interrupted while backing off
+    private boolean requeueSent(List<Pending> batch) {
+        boolean requeued = false;
+        for (Pending pending : batch) {
+            if (pending.retained && running) {
+                queue.add(pending);
+                requeued = true;
+            } else if (pending.retained) {
+                log.error("Dropping {} sent notifications' outcomes on shutdown; their rows keep their old status",
+                        pending.attempts.size());
+                pending.written.completeExceptionally(new IllegalStateException("Shut down before written"));
+            }
+        }
+        if (!requeued) {
+            return false;
+        }
+        try {
+            // The database is likely down; do not spin on it
+            Thread.sleep(1000);
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Object[]> inserts = new ArrayList<>();
+        // Sorted so two workers' batches lock shared rows in the same order
+        Map<Long, Attempt> latest = new TreeMap<>();
+        for (Pending pending : batch) {
+            for (Attempt attempt : pending.attempts) {
+                inserts.add(new Object[]{attempt.notificationId, attempt.attempt, attempt.status.name(),
+                        attempt.errorMessage, Timestamp.valueOf(attempt.occurredAt)});
+                latest.merge(attempt.notificationId, attempt, Attempt::then);
+            }
+        }
+        List<Object[]> outcomes = new ArrayList<>(latest.size());
+        for (Attempt attempt : latest.values()) {
+            outcomes.add(new Object[]{attempt.notificationId, attempt.status.name(), attempt.retryCount,
+                    attempt.errorMessage, attempt.enhancedSubject, attempt.enhancedMessage,
+                    Timestamp.valueOf(attempt.occurredAt)});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ATTEMPT, inserts, INSERT_TYPES);
+            jdbcTemplate.batchUpdate(INSERT_OUTCOME, outcomes, INSERT_OUTCOME_TYPES);
+        });
+        batchSize.record(inserts.size());
+        attemptsWritten.increment(inserts.size());
+    }
+
+    // Called in a transaction; returns the outcomes read
+    private int compactBatch() {
+        List<Long> ids = new ArrayList<>();
+        // Sorted so the updates lock rows in the same order as the group commits' inserts reference them
+        Map<Long, Attempt> latest = new TreeMap<>();
+        jdbcTemplate.query(SELECT_OUTCOMES, row -> {
+            ids.add(row.getLong("id"));
+            // Read on its own: wasNull reports the column read last
+            int retryCount = row.getInt("retry_count");
+            Integer keptRetryCount = row.wasNull() ? null : retryCount;
+            Attempt outcome = new Attempt(row.getLong("notification_id"), 0,
+                    NotificationStatus.valueOf(row.getString("status")), keptRetryCount,
+                    row.getString("error_message"), row.getString("enhanced_subject"),
+                    row.getString("enhanced_message"), row.getTimestamp("occurred_at").toLocalDateTime());
+            latest.merge(outcome.notificationId, outcome, Attempt::then);
+        }, maxBatch);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> updates = new ArrayList<>(latest.size());
+        for (Attempt outcome : latest.values()) {
+            updates.add(new Object[]{outcome.status.name(), outcome.retryCount, outcome.errorMessage,
+                    outcome.enhancedSubject, outcome.enhancedMessage, Timestamp.valueOf(outcome.occurredAt),
+                    outcome.notificationId});
+        }
+        jdbcTemplate.batchUpdate(APPLY_OUTCOME, updates, APPLY_TYPES);
+        jdbcTemplate.batchUpdate(DELETE_OUTCOME, ids, ids.size(), (statement, id) -> statement.setLong(1, id));
+        outcomesCompacted.increment(ids.size());
+        return ids.size();
+    }
+
+    private static final class Pending {
+        private final List<Attempt> attempts;
+        // Kept and retried when the write fails
+        private final boolean retained;
+        // Fails with the first write that failed
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+        // Completes once a write succeeded
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        Pending(List<Attempt> attempts, boolean retained) {
+            this.attempts = attempts;
+            this.retained = retained;
+        }
+    }
+
+    /**
+     * One outcome, and what it changes on the notification's row once compacted.
+     */
+    public static final class Attempt {
+        private final Long notificationId;
+        private final int attempt;
+        private final NotificationStatus status;
+        // Null leaves the row's value
+        private final Integer retryCount;
+        private final String errorMessage;
+        private final String enhancedSubject;
+        private final String enhancedMessage;
+        private final LocalDateTime occurredAt;
+
+        private Attempt(Long notificationId, int attempt, NotificationStatus status, Integer retryCount,
+                        String errorMessage, String enhancedSubject, String enhancedMessage, LocalDateTime occurredAt) {
+            this.notificationId = notificationId;
+            this.attempt = attempt;
+            this.status = status;
+            this.retryCount = retryCount;
+            this.errorMessage = errorMessage != null && errorMessage.length() > DeliveryAttempt.MAX_ERROR_LENGTH
+                    ? errorMessage.substring(0, DeliveryAttempt.MAX_ERROR_LENGTH)
+                    : errorMessage;
+            this.enhancedSubject = enhancedSubject;
+            this.enhancedMessage = enhancedMessage;
+            this.occurredAt = occurredAt;
+        }
+
+        /**
+         * @param storeEnhancement also write the notification's enhanced content, produced by this attempt
+         */
+        public static Attempt sent(Notification notification, boolean storeEnhancement) {
+            return new Attempt(notification.getId(), retries(notification) + 1, NotificationStatus.SENT, null, null,
+                    storeEnhancement ? notification.getEnhancedSubject() : null,
+                    storeEnhancement ? notification.getEnhancedMessage() : null, LocalDateTime.now());
+        }
+
+        /**
+         * @param status     RETRY or FAILED
+         * @param retryCount failed attempts including this one
+         */
+        public static Attempt failed(Notification notification, NotificationStatus status, int retryCount,
+                                     String errorMessage, boolean storeEnhancement) {
+            return new Attempt(notification.getId(), retryCount, status, retryCount, errorMessage,
+                    storeEnhancement ? notification.getEnhancedSubject() : null,
+                    storeEnhancement ? notification.getEnhancedMessage() : null, LocalDateTime.now());
+        }
+
+        /**
+         * Waiting in a digest window; the digest's send records the notification's next outcome.
+         */
+        public static Attempt buffered(Notification notification) {
+            return new Attempt(notification.getId(), retries(notification), NotificationStatus.PROCESSING, null,
+                    null, null, null, LocalDateTime.now());
+        }
+
+        public static Attempt suppressed(Notification notification, String reason) {
+            return new Attempt(notification.getId(), retries(notification), NotificationStatus.SUPPRESSED, null,
+                    reason, null, null, LocalDateTime.now());
+        }
+
+        /**
+         * @param attemptsMade send attempts before it expired; 0 when dropped before it was read
+         */
+        public static Attempt expired(Long notificationId, int attemptsMade, String reason) {
+            return new Attempt(notificationId, attemptsMade, NotificationStatus.EXPIRED, null, reason, null, null,
+                    LocalDateTime.now());
+        }
+
+        // The later outcome, keeping what the earlier one wrote and the later one leaves alone
+        private Attempt then(Attempt later) {
+            return new Attempt(notificationId, later.attempt, later.status,
+                    later.retryCount != null ? later.retryCount : retryCount, later.errorMessage,
+                    later.enhancedSubject != null ? later.enhancedSubject : enhancedSubject,
+                    later.enhancedMessage != null ? later.enhancedMessage : enhancedMessage, later.occurredAt);
+        }
+
+        private static int retries(Notification notification) {
+            return notification.getRetryCount() != null ? notification.getRetryCount() : 0;
+        }
+    }
+}
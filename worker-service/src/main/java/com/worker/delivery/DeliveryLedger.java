@@ -0,0 +1,117 @@
+package com.worker.delivery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Makes the channel send idempotent across Kafka redeliveries in exactly-once mode. The Kafka
+ * transaction covers the offset and the status event, but not the mail server, so a record
+ * redelivered after an aborted transaction checks here before sending again.
+ *
+ * <p>A worker that dies between the send and {@link #markSent} leaves its claim in SENDING;
+ * after {@code claim-timeout} another worker takes it over and sends again. That gap is the
+ * only remaining source of duplicates.
+ */
+@Component
+@Slf4j
+public class DeliveryLedger {
+
+    public enum Claim {
+        ACQUIRED,
+        ALREADY_SENT,
+        IN_PROGRESS
+    }
+
+    private final DeliveryRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration claimTimeout;
+    private final Duration retention;
+    private final Counter duplicatesSkipped;
+
+    public DeliveryLedger(DeliveryRecordRepository repository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${worker.delivery.claim-timeout:5m}") Duration claimTimeout,
+                          @Value("${worker.delivery.ledger-retention:7d}") Duration retention) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+        this.duplicatesSkipped = Counter.builder("worker.delivery.duplicates.skipped")
+                .description("Redelivered notifications whose send was skipped because the ledger had it as sent")
+                .register(meterRegistry);
+    }
+
+    public Claim claim(Long notificationId) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.insert(notificationId, DeliveryRecord.State.SENDING.name(), now));
+            return Claim.ACQUIRED;
+        } catch (DataIntegrityViolationException ex) {
+            // Delivered before; decide from the existing entry below
+        }
+        Claim claim = transactionTemplate.execute(status -> repository.findLockedById(notificationId)
+                .map(record -> {
+                    if (record.getState() == DeliveryRecord.State.SENT) {
+                        return Claim.ALREADY_SENT;
+                    }
+                    if (record.getClaimedAt().isAfter(now.minus(claimTimeout))) {
+                        return Claim.IN_PROGRESS;
+                    }
+                    log.warn("Taking over delivery of notification {} claimed at {}", notificationId,
+                            record.getClaimedAt());
+                    record.setClaimedAt(now);
+                    return Claim.ACQUIRED;
+                })
+                // Released between the insert and the read; the redelivery will claim it
+                .orElse(Claim.IN_PROGRESS));
+        if (claim == Claim.ALREADY_SENT) {
+            duplicatesSkipped.increment();
+        }
+        return claim;
+    }
+
+    public void markSent(Long notificationId) {
+        transactionTemplate.executeWithoutResult(status ->
+                repository.markState(List.of(notificationId), DeliveryRecord.State.SENT, LocalDateTime.now()));
+    }
+
+    /**
+     * Marks a digest's claimed notifications as sent in one statement.
+     */
+    public void markSent(Collection<Long> notificationIds) {
+        transactionTemplate.executeWithoutResult(status ->
+                repository.markState(notificationIds, DeliveryRecord.State.SENT, LocalDateTime.now()));
+    }
+
+    /**
+     * Drops the claim after a failed send, so the retry can claim it again.
+     */
+    public void release(Long notificationId) {
+        transactionTemplate.executeWithoutResult(status ->
+                repository.deleteInState(notificationId, DeliveryRecord.State.SENDING));
+    }
+
+    @Scheduled(fixedDelay = 3600000, initialDelay = 60000)
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                repository.deleteInStateBefore(DeliveryRecord.State.SENT,
+                        LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} delivery ledger entries older than {}", purged, retention);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.worker.delivery;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Send-dedup ledger entry, one per notification: SENDING while a worker holds the send, SENT
+ * once the channel has accepted it. Only written in exactly-once mode.
+ */
+@Entity
+@Table(name = "notification_deliveries")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryRecord {
+
+    public enum State {
+        SENDING,
+        SENT
+    }
+
+    @Id
+    @Column(name = "notification_id")
+    private Long notificationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
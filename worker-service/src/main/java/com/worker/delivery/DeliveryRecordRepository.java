@@ -0,0 +1,44 @@
+package com.worker.delivery;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeliveryRecordRepository extends JpaRepository<DeliveryRecord, Long> {
+
+    /**
+     * A plain insert rather than {@code save}, which would merge into an existing row; a
+     * duplicate key means another delivery of the notification got there first.
+     */
+    @Modifying
+    @Query(value = "insert into notification_deliveries (notification_id, state, claimed_at) "
+            + "values (:id, :state, :claimedAt)", nativeQuery = true)
+    void insert(@Param("id") Long id, @Param("state") String state, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from DeliveryRecord d where d.notificationId = :id")
+    Optional<DeliveryRecord> findLockedById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update DeliveryRecord d set d.state = :state, d.sentAt = :sentAt where d.notificationId in :ids")
+    int markState(@Param("ids") Collection<Long> ids, @Param("state") DeliveryRecord.State state,
+                  @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("delete from DeliveryRecord d where d.notificationId = :id and d.state = :state")
+    int deleteInState(@Param("id") Long id, @Param("state") DeliveryRecord.State state);
+
+    @Modifying
+    @Query("delete from DeliveryRecord d where d.state = :state and d.sentAt < :sentBefore")
+    int deleteInStateBefore(@Param("state") DeliveryRecord.State state, @Param("sentBefore") LocalDateTime sentBefore);
+}
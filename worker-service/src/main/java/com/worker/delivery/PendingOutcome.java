@@ -0,0 +1,58 @@
+package com.worker.delivery;
+
+import com.notification.core.model.DeliveryAttempt;
+import com.notification.core.model.NotificationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A delivery outcome not yet applied to its notification's row. Inserted by
+ * {@link DeliveryAttemptLog} next to the {@code delivery_attempts} row, and deleted once
+ * compaction has folded it into the notification.
+ */
+@Entity
+@Table(name = "pending_outcomes")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingOutcome {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NotificationStatus status;
+
+    // Null leaves the notification's value
+    @Column(name = "retry_count")
+    private Integer retryCount;
+
+    @Column(name = "error_message", length = DeliveryAttempt.MAX_ERROR_LENGTH)
+    private String errorMessage;
+
+    // Content enhanced during the attempt, so a retry sends it without another AI call
+    @Column(name = "enhanced_subject")
+    private String enhancedSubject;
+
+    @ToString.Exclude
+    @Column(name = "enhanced_message", columnDefinition = "TEXT")
+    private String enhancedMessage;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
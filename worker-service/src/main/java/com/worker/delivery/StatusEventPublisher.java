@@ -0,0 +1,47 @@
+package com.worker.delivery;
+
+import com.notification.core.event.NotificationStatusEvent;
+import com.notification.core.model.NotificationStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes status changes to {@link NotificationStatusEvent#TOPIC}. In exactly-once mode the
+ * template is transactional: on a listener thread the event joins the container's transaction
+ * and commits with the record's offset; elsewhere (retries, digest flushes) it gets a
+ * transaction of its own.
+ */
+@Component
+@Slf4j
+public class StatusEventPublisher {
+
+    private final KafkaTemplate<String, NotificationStatusEvent> kafkaTemplate;
+
+    public StatusEventPublisher(@Qualifier("statusKafkaTemplate") KafkaTemplate<String, NotificationStatusEvent> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void publish(Long notificationId, NotificationStatus status, Integer retryCount, String errorMessage) {
+        NotificationStatusEvent event = NotificationStatusEvent.builder()
+                .notificationId(notificationId)
+                .status(status)
+                .retryCount(retryCount)
+                .errorMessage(errorMessage)
+                .occurredAt(System.currentTimeMillis())
+                .build();
+        String key = String.valueOf(notificationId);
+        if (kafkaTemplate.isTransactional() && !kafkaTemplate.inTransaction()) {
+            kafkaTemplate.executeInTransaction(operations -> operations.send(NotificationStatusEvent.TOPIC, key, event));
+            return;
+        }
+        kafkaTemplate.send(NotificationStatusEvent.TOPIC, key, event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to publish {} status for notification {}: {}", status, notificationId,
+                                ex.getMessage());
+                    }
+                });
+    }
+}
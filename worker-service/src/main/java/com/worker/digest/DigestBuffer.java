@@ -0,0 +1,199 @@
+package com.worker.digest;
+
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.NotificationRepository;
+import com.worker.delivery.DeliveryAttemptLog;
+import com.worker.delivery.StatusEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Buffers opt-in notifications per recipient and channel so a burst goes out as one digest.
+ * A window opens with its first notification and closes {@code worker.digest.window} later, or
+ * as soon as it holds {@code max-items}. Windows live in {@code notification_digest_windows}
+ * and their notifications in {@code notification_digest_members}, so the Kafka offset can be
+ * committed once a notification has joined and a restart loses nothing. Like every other
+ * outcome, joining (PROCESSING) and a stale release (RETRY) reach the notifications' rows
+ * through the {@link DeliveryAttemptLog} and are published as status events.
+ *
+ * <p>A claimed window is deleted once its digest has been sent or failed. A window still
+ * claimed after {@code stale-after} belongs to a worker that died mid-send; its notifications
+ * go to RETRY and are then sent one by one.
+ */
+@Component
+@Slf4j
+public class DigestBuffer {
+
+    private final DigestWindowRepository windowRepository;
+    private final DigestMemberRepository memberRepository;
+    private final NotificationRepository notificationRepository;
+    private final DeliveryAttemptLog attemptLog;
+    private final StatusEventPublisher statusPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxItems;
+    private final Duration staleAfter;
+    private final Counter bufferedCounter;
+
+    public DigestBuffer(DigestWindowRepository windowRepository,
+                        DigestMemberRepository memberRepository,
+                        NotificationRepository notificationRepository,
+                        DeliveryAttemptLog attemptLog,
+                        StatusEventPublisher statusPublisher,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${worker.digest.enabled:true}") boolean enabled,
+                        @Value("${worker.digest.window:60s}") Duration window,
+                        @Value("${worker.digest.max-items:50}") int maxItems,
+                        @Value("${worker.digest.stale-after:5m}") Duration staleAfter) {
+        this.windowRepository = windowRepository;
+        this.memberRepository = memberRepository;
+        this.notificationRepository = notificationRepository;
+        this.attemptLog = attemptLog;
+        this.statusPublisher = statusPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.window = window;
+        this.maxItems = maxItems;
+        this.staleAfter = staleAfter;
+        this.bufferedCounter = Counter.builder("worker.digest.buffered")
+                .description("Notifications added to a digest window instead of being sent on their own")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the notification goes into a digest. Retries are always sent on their own, so a
+     * failed digest is not buffered again.
+     */
+    public boolean accepts(Notification notification) {
+        return enabled && Boolean.TRUE.equals(notification.getDigest())
+                && (notification.getRetryCount() == null || notification.getRetryCount() == 0);
+    }
+
+    public void add(Notification notification) {
+        Long windowId;
+        try {
+            windowId = transactionTemplate.execute(status -> join(notification));
+        } catch (DataIntegrityViolationException ex) {
+            // Another consumer opened the window for this recipient first; join that one
+            windowId = transactionTemplate.execute(status -> join(notification));
+        }
+        bufferedCounter.increment();
+        attemptLog.record(DeliveryAttemptLog.Attempt.buffered(notification));
+        statusPublisher.publish(notification.getId(), NotificationStatus.PROCESSING, notification.getRetryCount(), null);
+        log.debug("Notification {} is waiting in digest window {}", notification.getId(), windowId);
+    }
+
+    /**
+     * @return the window the notification is waiting in, or null
+     */
+    public Long windowOf(Long notificationId) {
+        List<Long> windowIds = memberRepository.findWindowIds(notificationId);
+        return windowIds.isEmpty() ? null : windowIds.get(0);
+    }
+
+    private Long join(Notification notification) {
+        String key = DigestWindow.key(notification.getRecipient(), notification.getChannel());
+        LocalDateTime now = LocalDateTime.now();
+        DigestWindow digestWindow = windowRepository.findByWindowKey(key)
+                .orElseGet(() -> windowRepository.saveAndFlush(DigestWindow.builder()
+                        .windowKey(key)
+                        .recipient(notification.getRecipient())
+                        .channel(notification.getChannel())
+                        .openedAt(now)
+                        .closesAt(now.plus(window))
+                        .build()));
+        digestWindow.setItemCount(digestWindow.getItemCount() + 1);
+        if (digestWindow.getItemCount() >= maxItems) {
+            digestWindow.setClosesAt(now);
+        }
+        memberRepository.save(DigestMember.builder()
+                .windowId(digestWindow.getId())
+                .notificationId(notification.getId())
+                .build());
+        return digestWindow.getId();
+    }
+
+    public List<Long> dueWindowIds() {
+        return windowRepository.findDueIds(LocalDateTime.now());
+    }
+
+    /**
+     * Takes the window out of circulation and returns its notifications, or an empty list when
+     * another worker claimed it first.
+     */
+    public List<Notification> claim(Long windowId) {
+        return transactionTemplate.execute(status -> windowRepository.findLockedById(windowId)
+                .filter(digestWindow -> digestWindow.getClaimedAt() == null)
+                .map(digestWindow -> {
+                    digestWindow.setClaimedAt(LocalDateTime.now());
+                    digestWindow.setWindowKey(null);
+                    return members(windowId);
+                })
+                .orElse(List.of()));
+    }
+
+    public void complete(Long windowId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.deleteByWindowId(windowId);
+            windowRepository.deleteById(windowId);
+        });
+    }
+
+    public void releaseStale() {
+        for (Long windowId : windowRepository.findIdsClaimedBefore(LocalDateTime.now().minus(staleAfter))) {
+            List<Notification> members = members(windowId);
+            if (!members.isEmpty()) {
+                String reason = "Digest send interrupted";
+                log.warn("Digest window {} was never completed; sending its {} notifications on their own",
+                        windowId, members.size());
+                List<DeliveryAttemptLog.Attempt> attempts = new ArrayList<>(members.size());
+                for (Notification member : members) {
+                    attempts.add(DeliveryAttemptLog.Attempt.failed(member, NotificationStatus.RETRY,
+                            retries(member) + 1, reason, false));
+                }
+                attemptLog.recordAll(attempts);
+                members.forEach(member -> statusPublisher.publish(member.getId(), NotificationStatus.RETRY,
+                        retries(member) + 1, reason));
+            }
+            complete(windowId);
+        }
+    }
+
+    // Members still to be sent; a row may lag its outcome by a compaction interval, so it is
+    // only left out once it has reached a final status
+    private List<Notification> members(Long windowId) {
+        List<Long> ids = memberRepository.findNotificationIds(windowId);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return notificationRepository.findAllById(ids).stream()
+                .filter(notification -> !isFinal(notification.getStatus()))
+                .sorted(Comparator.comparing(Notification::getId))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isFinal(NotificationStatus status) {
+        return status == NotificationStatus.SENT || status == NotificationStatus.FAILED
+                || status == NotificationStatus.SUPPRESSED || status == NotificationStatus.EXPIRED;
+    }
+
+    private static int retries(Notification notification) {
+        return notification.getRetryCount() != null ? notification.getRetryCount() : 0;
+    }
+}
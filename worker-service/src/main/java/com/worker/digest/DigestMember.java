@@ -0,0 +1,38 @@
+package com.worker.digest;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A notification waiting in a digest window. Inserted under the window's lock, so a claim sees
+ * every member added before it, and deleted with the window; the notification's own row is not
+ * written until the digest's outcome is.
+ */
+@Entity
+@Table(name = "notification_digest_members", indexes = {
+        @Index(name = "idx_digest_members_window_id", columnList = "window_id"),
+        @Index(name = "idx_digest_members_notification_id", columnList = "notification_id")
+})
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DigestMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "window_id", nullable = false)
+    private Long windowId;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+}
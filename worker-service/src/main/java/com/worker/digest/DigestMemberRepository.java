@@ -0,0 +1,25 @@
+package com.worker.digest;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface DigestMemberRepository extends JpaRepository<DigestMember, Long> {
+
+    @Query("select m.notificationId from DigestMember m where m.windowId = :windowId order by m.id")
+    List<Long> findNotificationIds(@Param("windowId") Long windowId);
+
+    @Query("select m.windowId from DigestMember m where m.notificationId = :notificationId")
+    List<Long> findWindowIds(@Param("notificationId") Long notificationId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from DigestMember m where m.windowId = :windowId")
+    int deleteByWindowId(@Param("windowId") Long windowId);
+}
@@ -0,0 +1,57 @@
+package com.worker.digest;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * An open digest window for one recipient and channel, its notifications listed as
+ * {@link DigestMember}s. The unique {@code window_key} keeps one open window per recipient
+ * and channel; it is cleared when the window is claimed for sending so the next notification
+ * opens a new one.
+ */
+@Entity
+@Table(name = "notification_digest_windows")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DigestWindow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "window_key", unique = true)
+    private String windowKey;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String channel;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Column(name = "opened_at", nullable = false)
+    private LocalDateTime openedAt;
+
+    @Column(name = "closes_at", nullable = false)
+    private LocalDateTime closesAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    static String key(String recipient, String channel) {
+        return channel.toUpperCase() + ":" + recipient.toLowerCase();
+    }
+}
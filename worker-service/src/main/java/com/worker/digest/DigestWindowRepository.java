@@ -0,0 +1,33 @@
+package com.worker.digest;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Window rows are locked while a notification joins or the window is claimed, so a claim
+ * always sees every notification added before it.
+ */
+@Repository
+public interface DigestWindowRepository extends JpaRepository<DigestWindow, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DigestWindow> findByWindowKey(String windowKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from DigestWindow w where w.id = :id")
+    Optional<DigestWindow> findLockedById(@Param("id") Long id);
+
+    @Query("select w.id from DigestWindow w where w.claimedAt is null and w.closesAt <= :now order by w.closesAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now);
+
+    @Query("select w.id from DigestWindow w where w.claimedAt < :claimedBefore")
+    List<Long> findIdsClaimedBefore(@Param("claimedBefore") LocalDateTime claimedBefore);
+}
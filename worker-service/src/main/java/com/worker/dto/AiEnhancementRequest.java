@@ -11,4 +11,9 @@ public class AiEnhancementRequest {
     private String subject;
     private String message;
     private String channel;
+    // Weigh ai-service's tier routing; null for the defaults
+    private String messageType;
+    private String tenantId;
+    // How long the worker will still wait; ai-service bounds its model call by it. Null for no deadline
+    private Long timeoutMs;
 }
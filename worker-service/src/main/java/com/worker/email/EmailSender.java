@@ -0,0 +1,138 @@
+package com.worker.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.internet.MimeUtility;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Sends HTML email. The multipart body is encoded once per distinct content and kept, least
+ * recently used evicted beyond {@code worker.email.body-cache-size}; each send then only writes
+ * its own To, Subject, Date and Message-ID headers ahead of the cached bytes. Campaigns and
+ * shared AI-enhanced content send the same body to many recipients. The cache is keyed by the
+ * content itself rather than a digest of it, so a collision can never send one recipient's
+ * content to another.
+ */
+@Component
+@Slf4j
+public class EmailSender {
+
+    private final JavaMailSender mailSender;
+    private final Session session;
+    private final long maxCachedBytes;
+    private final Map<String, EncodedBody> bodies = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter encodedBytesCounter;
+
+    public EmailSender(JavaMailSender mailSender,
+                       MeterRegistry meterRegistry,
+                       @Value("${worker.email.body-cache-size:64MB}") DataSize maxCachedBytes) {
+        this.mailSender = mailSender;
+        // Only carries the mail.mime.* settings; the sender uses its own session to connect
+        this.session = mailSender instanceof JavaMailSenderImpl impl
+                ? impl.getSession()
+                : Session.getInstance(new Properties());
+        this.maxCachedBytes = maxCachedBytes.toBytes();
+        this.hitCounter = meterRegistry.counter("worker.email.body.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("worker.email.body.cache", "result", "miss");
+        this.encodedBytesCounter = Counter.builder("worker.email.body.encoded.bytes")
+                .description("Bytes of MIME body encoded on body cache misses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("worker.email.body.cached.bytes", this, sender -> sender.cachedBytes())
+                .description("Encoded email bodies held for reuse")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public void send(String recipient, String subject, String html) throws MessagingException {
+        MimeMessage message = new PreEncodedMimeMessage(session, body(html));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(recipient));
+        message.setSubject(subject);
+        mailSender.send(message);
+    }
+
+    private EncodedBody body(String html) throws MessagingException {
+        synchronized (bodies) {
+            EncodedBody body = bodies.get(html);
+            if (body != null) {
+                hitCounter.increment();
+                return body;
+            }
+        }
+        missCounter.increment();
+        EncodedBody body = encode(html);
+        encodedBytesCounter.increment(body.bytes.length);
+        long weight = weight(html, body);
+        if (weight <= maxCachedBytes) {
+            synchronized (bodies) {
+                EncodedBody previous = bodies.put(html, body);
+                cachedBytes += weight - (previous != null ? weight(html, previous) : 0);
+                Iterator<Map.Entry<String, EncodedBody>> eldest = bodies.entrySet().iterator();
+                while (cachedBytes > maxCachedBytes) {
+                    Map.Entry<String, EncodedBody> entry = eldest.next();
+                    cachedBytes -= weight(entry.getKey(), entry.getValue());
+                    eldest.remove();
+                }
+            }
+        }
+        return body;
+    }
+
+    // The same multipart/mixed tree MimeMessageHelper builds in multipart mode, written out once
+    private EncodedBody encode(String html) throws MessagingException {
+        MimeMessage scratch = mailSender.createMimeMessage();
+        new MimeMessageHelper(scratch, true).setText(html, true);
+        scratch.saveChanges();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(html.length() + 1024);
+        try {
+            ((MimeMultipart) scratch.getContent()).writeTo(bytes);
+        } catch (IOException ex) {
+            throw new MessagingException("Cannot encode email body", ex);
+        }
+        return new EncodedBody(MimeUtility.unfold(scratch.getContentType()), bytes.toByteArray());
+    }
+
+    private long cachedBytes() {
+        synchronized (bodies) {
+            return cachedBytes;
+        }
+    }
+
+    private static long weight(String html, EncodedBody body) {
+        return (long) html.length() * 2 + body.bytes.length;
+    }
+
+    static final class EncodedBody {
+        // Top-level Content-Type, including the boundary the bytes use
+        final String contentType;
+        final byte[] bytes;
+
+        EncodedBody(String contentType, byte[] bytes) {
+            this.contentType = contentType;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.worker.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+/**
+ * A message whose body is already MIME-encoded. Only its own headers are written per send;
+ * the body bytes are copied to the transport as they are, so the multipart tree is never
+ * rebuilt, re-walked or re-encoded.
+ */
+final class PreEncodedMimeMessage extends MimeMessage {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final EmailSender.EncodedBody body;
+
+    PreEncodedMimeMessage(Session session, EmailSender.EncodedBody body) {
+        super(session);
+        this.body = body;
+    }
+
+    // MimeMessage would walk the content to fix up the part headers, already done in the body
+    @Override
+    protected void updateHeaders() throws MessagingException {
+        setHeader("MIME-Version", "1.0");
+        setHeader("Content-Type", body.contentType);
+        updateMessageID();
+    }
+
+    @Override
+    public void writeTo(OutputStream out, String[] ignoreList) throws IOException, MessagingException {
+        if (!saved) {
+            saveChanges();
+        }
+        Enumeration<String> lines = getNonMatchingHeaderLines(ignoreList);
+        while (lines.hasMoreElements()) {
+            out.write(lines.nextElement().getBytes(StandardCharsets.UTF_8));
+            out.write(CRLF);
+        }
+        out.write(CRLF);
+        out.write(body.bytes);
+        out.flush();
+    }
+}
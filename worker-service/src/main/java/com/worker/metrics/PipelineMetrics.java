@@ -0,0 +1,48 @@
+package com.worker.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Stage timers shared with the notification service under one metric name, told apart by the
+ * {@code stage} and {@code application} tags. Histogram buckets are configured under
+ * {@code management.metrics.distribution} so they can be tuned without a rebuild.
+ */
+public final class PipelineMetrics {
+
+    public static final String STAGE_LATENCY = "notification.stage.latency";
+    public static final String END_TO_END_LATENCY = "notification.end_to_end.latency";
+    public static final String LANE_QUEUE_LATENCY = "notification.lane.queue.latency";
+    public static final String TENANT_QUEUE_LATENCY = "notification.tenant.queue.latency";
+
+    private PipelineMetrics() {
+    }
+
+    public static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder(STAGE_LATENCY)
+                .description("Time spent in one stage of the notification pipeline")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    public static Timer endToEndTimer(MeterRegistry meterRegistry, String channel) {
+        return Timer.builder(END_TO_END_LATENCY)
+                .description("Time from notification creation to SENT, including retries")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+
+    public static Timer laneQueueTimer(MeterRegistry meterRegistry, String lane) {
+        return Timer.builder(LANE_QUEUE_LATENCY)
+                .description("Time from publish to the start of processing, per priority lane")
+                .tag("lane", lane)
+                .register(meterRegistry);
+    }
+
+    public static Timer tenantQueueTimer(MeterRegistry meterRegistry, String tenant) {
+        return Timer.builder(TENANT_QUEUE_LATENCY)
+                .description("Time from publish to the start of processing, per tenant")
+                .tag("tenant", tenant)
+                .register(meterRegistry);
+    }
+}
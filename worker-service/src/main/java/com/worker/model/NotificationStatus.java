@@ -1,9 +0,0 @@
-package com.worker.model;
-
-public enum NotificationStatus {
-    PENDING,
-    PROCESSING,
-    SENT,
-    FAILED,
-    RETRY
-}
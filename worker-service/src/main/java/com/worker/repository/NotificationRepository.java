@@ -1,13 +0,0 @@
-package com.worker.repository;
-
-import com.worker.model.Notification;
-import com.worker.model.NotificationStatus;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-
-@Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByStatus(NotificationStatus status);
-}
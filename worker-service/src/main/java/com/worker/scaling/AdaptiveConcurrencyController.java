@@ -0,0 +1,152 @@
+package com.worker.scaling;
+
+import com.notification.core.model.NotificationPriority;
+import com.worker.consumer.NotificationConsumer;
+import com.worker.scheduler.PriorityLaneScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sizes the worker to its backlog on every {@link ConsumerLagMonitor} sample, within
+ * {@code min-concurrency}..{@code max-concurrency}:
+ * <ul>
+ *     <li>Processing slots grow by half while there is a backlog that will not drain within the
+ *     target time and the slots are the constraint (records queue for them, or they are nearly
+ *     all in use), and shrink by one after {@code scale-down-after} quiet samples.</li>
+ *     <li>A lane with a backlog gets one consumer per slot, up to its partition count, so it can
+ *     fill the slots and show contention when they run out; a lane without one goes back to its
+ *     configured consumers. Resizing a listener restarts its consumers and rebalances the group,
+ *     so each lane is resized at most once per {@code container-cooldown}.</li>
+ * </ul>
+ * With {@code adaptive-concurrency} off the samples still feed the lag metrics.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyController {
+
+    private final ConsumerLagMonitor lagMonitor;
+    private final PriorityLaneScheduler laneScheduler;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final boolean enabled;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final double targetDrainSeconds;
+    private final int scaleDownAfter;
+    private final long containerCooldownNanos;
+    private final Map<NotificationPriority, Integer> configuredConsumers = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Long> lastResizeNanos = new EnumMap<>(NotificationPriority.class);
+    private int quietSamples;
+
+    public AdaptiveConcurrencyController(ConsumerLagMonitor lagMonitor,
+                                         PriorityLaneScheduler laneScheduler,
+                                         KafkaListenerEndpointRegistry listenerRegistry,
+                                         @Value("${worker.autoscale.adaptive-concurrency:true}") boolean enabled,
+                                         @Value("${worker.autoscale.min-concurrency:3}") int minConcurrency,
+                                         @Value("${worker.autoscale.max-concurrency:16}") int maxConcurrency,
+                                         @Value("${worker.autoscale.target-drain-seconds:60}") double targetDrainSeconds,
+                                         @Value("${worker.autoscale.scale-down-after:6}") int scaleDownAfter,
+                                         @Value("${worker.autoscale.container-cooldown:60s}") Duration containerCooldown) {
+        if (minConcurrency <= laneScheduler.reservedHighSlots() || maxConcurrency < minConcurrency) {
+            throw new IllegalArgumentException("worker.autoscale concurrency bounds must be above the reserved HIGH slots "
+                    + "and min <= max");
+        }
+        this.lagMonitor = lagMonitor;
+        this.laneScheduler = laneScheduler;
+        this.listenerRegistry = listenerRegistry;
+        this.enabled = enabled;
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.targetDrainSeconds = targetDrainSeconds;
+        this.scaleDownAfter = scaleDownAfter;
+        this.containerCooldownNanos = containerCooldown.toNanos();
+    }
+
+    @Scheduled(fixedDelayString = "${worker.autoscale.interval-ms:10000}",
+            initialDelayString = "${worker.autoscale.interval-ms:10000}")
+    public void adjust() {
+        ConsumerLagMonitor.Snapshot snapshot;
+        try {
+            snapshot = lagMonitor.sample();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception ex) {
+            log.warn("Consumer lag sample failed: {}", ex.getMessage());
+            return;
+        }
+        log.debug("Lag {} arrival {}/s processing {}/s drain {}s utilization {} contention {} replicas {}",
+                snapshot.lag, round(snapshot.arrivalRate), round(snapshot.processingRate), round(snapshot.drainSeconds),
+                round(snapshot.load.utilization), round(snapshot.load.contention), snapshot.recommendedReplicas);
+        if (!enabled) {
+            return;
+        }
+
+        int current = laneScheduler.slots();
+        int next = nextConcurrency(current, snapshot);
+        if (next != current) {
+            log.info("Adjusting worker concurrency {} -> {} (lag {}, drain {}s, utilization {}, contention {})",
+                    current, next, snapshot.lag, round(snapshot.drainSeconds),
+                    round(snapshot.load.utilization), round(snapshot.load.contention));
+            laneScheduler.resize(next);
+        }
+        for (NotificationPriority lane : NotificationPriority.values()) {
+            resizeListener(lane, snapshot.lanes.get(lane), next);
+        }
+    }
+
+    int nextConcurrency(int current, ConsumerLagMonitor.Snapshot snapshot) {
+        boolean behind = snapshot.lag > 0 && snapshot.drainSeconds > targetDrainSeconds;
+        if (behind && (snapshot.load.contention > 0.5 || snapshot.load.utilization > 0.9)) {
+            quietSamples = 0;
+            return Math.min(maxConcurrency, current + Math.max(1, current / 2));
+        }
+        boolean idle = snapshot.drainSeconds < targetDrainSeconds / 4 && snapshot.load.contention == 0
+                && snapshot.load.utilization < 0.5;
+        if (!idle) {
+            quietSamples = 0;
+            return current;
+        }
+        if (++quietSamples < scaleDownAfter) {
+            return current;
+        }
+        quietSamples = 0;
+        return Math.max(minConcurrency, current - 1);
+    }
+
+    private void resizeListener(NotificationPriority lane, ConsumerLagMonitor.LaneLag laneLag, int concurrency) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(NotificationConsumer.listenerId(lane));
+        if (!(container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) || laneLag == null
+                || laneLag.partitions == 0) {
+            return;
+        }
+        int configured = configuredConsumers.computeIfAbsent(lane, key -> concurrent.getConcurrency());
+        int desired = laneLag.lag > 0
+                ? Math.min(laneLag.partitions, Math.max(configured, concurrency))
+                : configured;
+        int current = concurrent.getConcurrency();
+        long now = System.nanoTime();
+        Long last = lastResizeNanos.get(lane);
+        if (desired == current || !concurrent.isRunning() || (last != null && now - last < containerCooldownNanos)) {
+            return;
+        }
+        lastResizeNanos.put(lane, now);
+        log.info("Resizing {} lane consumers {} -> {} (lag {})", lane, current, desired, laneLag.lag);
+        concurrent.stop(() -> {
+            concurrent.setConcurrency(desired);
+            concurrent.start();
+        });
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
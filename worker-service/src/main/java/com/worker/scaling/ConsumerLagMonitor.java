@@ -0,0 +1,326 @@
+package com.worker.scaling;
+
+import com.notification.core.model.NotificationPriority;
+import com.worker.scheduler.PriorityLaneScheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the worker group's backlog on the lane topics from the broker's point of view: log
+ * end offsets against the group's committed offsets, per partition. Successive samples give
+ * the arrival rate and the group-wide processing rate, and from those the time to drain.
+ *
+ * <p>The recommended replica count is what an external autoscaler (a KEDA or HPA external
+ * metric) should run to absorb the arrival rate and clear the backlog within
+ * {@code target-drain-seconds}, sized by what this instance manages per second while it is
+ * saturated. It only changes when the backlog or arrival rate moves, never from this
+ * instance's own concurrency alone.
+ */
+@Component
+@Slf4j
+public class ConsumerLagMonitor {
+
+    private static final double SMOOTHING = 0.3;
+    private static final long ADMIN_TIMEOUT_SECONDS = 5;
+
+    private final KafkaAdmin kafkaAdmin;
+    private final PriorityLaneScheduler laneScheduler;
+    private final MeterRegistry meterRegistry;
+    private final String groupId;
+    private final double targetDrainSeconds;
+    private final int minReplicas;
+    private final int maxReplicas;
+    private final Map<NotificationPriority, LaneState> lanes = new EnumMap<>(NotificationPriority.class);
+    private final Map<TopicPartition, AtomicLong> partitionLag = new ConcurrentHashMap<>();
+
+    private AdminClient adminClient;
+    private long lastSampleNanos;
+    private double replicaCapacity;
+    private double localRate;
+    private volatile double totalLag;
+    private volatile double drainSeconds;
+    private volatile int recommendedReplicas;
+
+    public ConsumerLagMonitor(KafkaAdmin kafkaAdmin,
+                              PriorityLaneScheduler laneScheduler,
+                              MeterRegistry meterRegistry,
+                              @Value("${spring.kafka.consumer.group-id}") String groupId,
+                              @Value("${worker.autoscale.target-drain-seconds:60}") double targetDrainSeconds,
+                              @Value("${worker.autoscale.min-replicas:1}") int minReplicas,
+                              @Value("${worker.autoscale.max-replicas:10}") int maxReplicas) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.laneScheduler = laneScheduler;
+        this.meterRegistry = meterRegistry;
+        this.groupId = groupId;
+        this.targetDrainSeconds = targetDrainSeconds;
+        this.minReplicas = minReplicas;
+        this.maxReplicas = maxReplicas;
+        this.recommendedReplicas = minReplicas;
+
+        for (NotificationPriority lane : NotificationPriority.values()) {
+            LaneState state = new LaneState();
+            lanes.put(lane, state);
+            Gauge.builder("worker.consumer.lag", state, s -> s.lag)
+                    .description("Records published to the lane topic but not yet committed by the group")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            Gauge.builder("worker.consumer.arrival.rate", state, s -> s.arrivalRate)
+                    .description("Records per second published to the lane topic")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            Gauge.builder("worker.consumer.processing.rate", state, s -> s.processingRate)
+                    .description("Records per second committed by the whole consumer group")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            Gauge.builder("worker.consumer.drain.seconds", state, s -> s.drainSeconds)
+                    .description("Time to clear the lane backlog at current rates; +Inf while it grows")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("worker.consumer.lag.total", this, monitor -> monitor.totalLag)
+                .description("Backlog across all lanes")
+                .register(meterRegistry);
+        Gauge.builder("worker.consumer.drain.total.seconds", this, monitor -> monitor.drainSeconds)
+                .description("Time to clear the backlog across all lanes at current rates")
+                .register(meterRegistry);
+        Gauge.builder("worker.autoscale.recommended.replicas", this, monitor -> monitor.recommendedReplicas)
+                .description("Worker instances needed to clear the backlog within the target drain time")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Samples offsets and updates every gauge. Called on the controller's schedule; rates are
+     * taken over the time since the previous call.
+     */
+    public synchronized Snapshot sample() throws InterruptedException, ExecutionException, TimeoutException {
+        if (adminClient == null) {
+            adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        }
+        long now = System.nanoTime();
+        double elapsedSeconds = lastSampleNanos == 0 ? 0 : (now - lastSampleNanos) / 1e9;
+        lastSampleNanos = now;
+
+        Map<String, List<TopicPartition>> partitionsByTopic = describeLaneTopics();
+        List<TopicPartition> partitions = partitionsByTopic.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<TopicPartition, Long> endOffsets = offsets(partitions, OffsetSpec.latest());
+        // Partitions the group has never committed on start from the earliest retained record
+        List<TopicPartition> uncommitted = partitions.stream()
+                .filter(partition -> committed.get(partition) == null)
+                .collect(Collectors.toList());
+        Map<TopicPartition, Long> startOffsets = offsets(uncommitted, OffsetSpec.earliest());
+
+        PriorityLaneScheduler.Load load = laneScheduler.sampleLoad();
+        Map<NotificationPriority, LaneLag> laneLags = new EnumMap<>(NotificationPriority.class);
+        long lagSum = 0;
+        double arrivalSum = 0;
+        double processingSum = 0;
+        for (NotificationPriority lane : NotificationPriority.values()) {
+            LaneState state = lanes.get(lane);
+            List<TopicPartition> lanePartitions = partitionsByTopic.getOrDefault(lane.topic(), List.of());
+            long end = 0;
+            long position = 0;
+            long lag = 0;
+            long maxPartitionLag = 0;
+            for (TopicPartition partition : lanePartitions) {
+                long partitionEnd = endOffsets.getOrDefault(partition, 0L);
+                OffsetAndMetadata offset = committed.get(partition);
+                long partitionPosition = offset != null ? offset.offset() : startOffsets.getOrDefault(partition, 0L);
+                long behind = Math.max(0, partitionEnd - partitionPosition);
+                partitionLagGauge(partition).set(behind);
+                end += partitionEnd;
+                position += partitionPosition;
+                lag += behind;
+                maxPartitionLag = Math.max(maxPartitionLag, behind);
+            }
+            state.update(end, position, lag, elapsedSeconds);
+            laneLags.put(lane, new LaneLag(lag, maxPartitionLag, lanePartitions.size(),
+                    state.arrivalRate, state.processingRate, state.drainSeconds));
+            lagSum += lag;
+            arrivalSum += state.arrivalRate;
+            processingSum += state.processingRate;
+        }
+
+        totalLag = lagSum;
+        drainSeconds = drainSeconds(lagSum, arrivalSum, processingSum);
+        if (elapsedSeconds > 0) {
+            localRate = smooth(localRate, load.completed / elapsedSeconds);
+            // Only a saturated interval shows what one instance can do at its current concurrency:
+            // either the slots are the limit, or the consumers never run out of records
+            boolean backlogged = lagSum > 0 && drainSeconds > targetDrainSeconds;
+            if (backlogged || load.contention > 0.5 || load.utilization > 0.9) {
+                replicaCapacity = smooth(replicaCapacity, load.completed / elapsedSeconds);
+            }
+        }
+        recommendedReplicas = recommendReplicas(lagSum, arrivalSum);
+
+        return new Snapshot(laneLags, lagSum, arrivalSum, processingSum, drainSeconds, localRate,
+                recommendedReplicas, load);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+
+    private Map<String, List<TopicPartition>> describeLaneTopics() throws InterruptedException, TimeoutException {
+        List<String> topics = new ArrayList<>();
+        for (NotificationPriority lane : NotificationPriority.values()) {
+            topics.add(lane.topic());
+        }
+        Map<String, List<TopicPartition>> partitionsByTopic = new HashMap<>();
+        for (Map.Entry<String, KafkaFuture<TopicDescription>> entry
+                : adminClient.describeTopics(topics).topicNameValues().entrySet()) {
+            try {
+                TopicDescription description = entry.getValue().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                partitionsByTopic.put(entry.getKey(), description.partitions().stream()
+                        .map(info -> new TopicPartition(entry.getKey(), info.partition()))
+                        .collect(Collectors.toList()));
+            } catch (ExecutionException ex) {
+                // Lane topics are created on first publish; an unused lane has no backlog
+                log.debug("Lane topic {} not available: {}", entry.getKey(), ex.getCause().getMessage());
+            }
+        }
+        return partitionsByTopic;
+    }
+
+    private Map<TopicPartition, Long> offsets(List<TopicPartition> partitions, OffsetSpec spec)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (partitions.isEmpty()) {
+            return Map.of();
+        }
+        Map<TopicPartition, OffsetSpec> request = partitions.stream()
+                .collect(Collectors.toMap(Function.identity(), partition -> spec));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> result = adminClient.listOffsets(request)
+                .all().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        result.forEach((partition, info) -> offsets.put(partition, info.offset()));
+        return offsets;
+    }
+
+    private AtomicLong partitionLagGauge(TopicPartition partition) {
+        return partitionLag.computeIfAbsent(partition, key -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("worker.consumer.partition.lag", value, AtomicLong::get)
+                    .description("Records behind the log end on one partition")
+                    .tag("topic", key.topic())
+                    .tag("partition", Integer.toString(key.partition()))
+                    .register(meterRegistry);
+            return value;
+        });
+    }
+
+    private int recommendReplicas(long lag, double arrivalRate) {
+        if (replicaCapacity <= 0) {
+            // Never saturated yet, so one instance has kept up with everything so far
+            return minReplicas;
+        }
+        double requiredRate = arrivalRate + lag / targetDrainSeconds;
+        int replicas = (int) Math.ceil(requiredRate / replicaCapacity);
+        return Math.max(minReplicas, Math.min(maxReplicas, replicas));
+    }
+
+    private static double drainSeconds(long lag, double arrivalRate, double processingRate) {
+        if (lag == 0) {
+            return 0;
+        }
+        double netRate = processingRate - arrivalRate;
+        return netRate > 0 ? lag / netRate : Double.POSITIVE_INFINITY;
+    }
+
+    private static double smooth(double previous, double sample) {
+        return previous == 0 ? sample : previous + SMOOTHING * (sample - previous);
+    }
+
+    private static class LaneState {
+        long previousEnd = -1;
+        long previousPosition = -1;
+        volatile double lag;
+        volatile double arrivalRate;
+        volatile double processingRate;
+        volatile double drainSeconds;
+
+        void update(long end, long position, long lag, double elapsedSeconds) {
+            if (previousEnd >= 0 && elapsedSeconds > 0) {
+                arrivalRate = smooth(arrivalRate, Math.max(0, end - previousEnd) / elapsedSeconds);
+                processingRate = smooth(processingRate, Math.max(0, position - previousPosition) / elapsedSeconds);
+            }
+            previousEnd = end;
+            previousPosition = position;
+            this.lag = lag;
+            this.drainSeconds = ConsumerLagMonitor.drainSeconds(lag, arrivalRate, processingRate);
+        }
+    }
+
+    public static class LaneLag {
+        public final long lag;
+        public final long maxPartitionLag;
+        public final int partitions;
+        public final double arrivalRate;
+        public final double processingRate;
+        public final double drainSeconds;
+
+        LaneLag(long lag, long maxPartitionLag, int partitions, double arrivalRate, double processingRate,
+                double drainSeconds) {
+            this.lag = lag;
+            this.maxPartitionLag = maxPartitionLag;
+            this.partitions = partitions;
+            this.arrivalRate = arrivalRate;
+            this.processingRate = processingRate;
+            this.drainSeconds = drainSeconds;
+        }
+    }
+
+    public static class Snapshot {
+        public final Map<NotificationPriority, LaneLag> lanes;
+        public final long lag;
+        public final double arrivalRate;
+        public final double processingRate;
+        public final double drainSeconds;
+        public final double localRate;
+        public final int recommendedReplicas;
+        public final PriorityLaneScheduler.Load load;
+
+        Snapshot(Map<NotificationPriority, LaneLag> lanes, long lag, double arrivalRate, double processingRate,
+                 double drainSeconds, double localRate, int recommendedReplicas, PriorityLaneScheduler.Load load) {
+            this.lanes = lanes;
+            this.lag = lag;
+            this.arrivalRate = arrivalRate;
+            this.processingRate = processingRate;
+            this.drainSeconds = drainSeconds;
+            this.localRate = localRate;
+            this.recommendedReplicas = recommendedReplicas;
+            this.load = load;
+        }
+    }
+}
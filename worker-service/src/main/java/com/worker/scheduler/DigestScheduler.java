@@ -0,0 +1,42 @@
+package com.worker.scheduler;
+
+import com.notification.core.model.Notification;
+import com.worker.digest.DigestBuffer;
+import com.worker.service.NotificationProcessingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DigestScheduler {
+
+    private final DigestBuffer digestBuffer;
+    private final NotificationProcessingService processingService;
+
+    @Scheduled(fixedDelayString = "${worker.digest.flush-interval-ms:1000}")
+    public void flushDueWindows() {
+        for (Long windowId : digestBuffer.dueWindowIds()) {
+            try {
+                List<Notification> members = digestBuffer.claim(windowId);
+                if (members.isEmpty()) {
+                    // Claimed by another worker, which deletes it when done; releaseStale covers it if that worker dies
+                    continue;
+                }
+                processingService.sendDigest(members);
+                digestBuffer.complete(windowId);
+            } catch (Exception e) {
+                log.error("Error flushing digest window {}", windowId, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void releaseStaleWindows() {
+        digestBuffer.releaseStale();
+    }
+}
@@ -0,0 +1,270 @@
+package com.worker.scheduler;
+
+import com.notification.core.model.NotificationPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares the worker's processing slots between the priority lanes. Each lane's listener threads
+ * run their record through {@link #run}, which blocks until a slot is granted, so records are
+ * still processed on the consumer thread and offsets commit exactly as before.
+ *
+ * <p>Free slots go to waiting lanes by smooth weighted round robin, so LOW keeps a small share
+ * under sustained HIGH load instead of starving, and an idle lane's share is used by the others.
+ * {@code reserved-high-slots} are only ever granted to HIGH: however deep the campaign backlog,
+ * a password reset finds a slot free.
+ *
+ * <p>The slot count can be changed at runtime by the adaptive concurrency controller, which
+ * reads utilization and contention (time some record was waiting for a slot) from
+ * {@link #sampleLoad()}.
+ */
+@Component
+@Slf4j
+public class PriorityLaneScheduler {
+
+    private static final NotificationPriority[] LANES = NotificationPriority.values();
+
+    private final int reservedHighSlots;
+    private final int[] weights = new int[LANES.length];
+    private final int[] credits = new int[LANES.length];
+    private final Map<NotificationPriority, Deque<Waiter>> waiting = new EnumMap<>(NotificationPriority.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private int slots;
+    private int busy;
+    private int waiters;
+    private long completed;
+    private long lastChangeNanos = System.nanoTime();
+    private long sampleStartNanos = lastChangeNanos;
+    private long busySlotNanos;
+    private long contendedNanos;
+
+    public PriorityLaneScheduler(@Value("${worker.lanes.slots:6}") int slots,
+                                 @Value("${worker.lanes.reserved-high-slots:2}") int reservedHighSlots,
+                                 @Value("${worker.lanes.weights.high:6}") int highWeight,
+                                 @Value("${worker.lanes.weights.normal:3}") int normalWeight,
+                                 @Value("${worker.lanes.weights.low:1}") int lowWeight,
+                                 MeterRegistry meterRegistry) {
+        if (reservedHighSlots >= slots) {
+            throw new IllegalArgumentException("worker.lanes.reserved-high-slots must be below worker.lanes.slots");
+        }
+        this.slots = slots;
+        this.reservedHighSlots = reservedHighSlots;
+        weights[NotificationPriority.HIGH.ordinal()] = highWeight;
+        weights[NotificationPriority.NORMAL.ordinal()] = normalWeight;
+        weights[NotificationPriority.LOW.ordinal()] = lowWeight;
+
+        for (NotificationPriority lane : LANES) {
+            waiting.put(lane, new ArrayDeque<>());
+            Gauge.builder("worker.lane.waiting", this, scheduler -> scheduler.waitingIn(lane))
+                    .description("Records holding a consumer thread while they wait for a processing slot")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("worker.lane.busy", this, PriorityLaneScheduler::busySlots)
+                .description("Processing slots in use across all lanes")
+                .register(meterRegistry);
+        Gauge.builder("worker.lane.slots", this, PriorityLaneScheduler::slots)
+                .description("Processing slots shared by the lanes")
+                .register(meterRegistry);
+        log.info("Priority lanes: {} slots, {} reserved for HIGH, weights high={} normal={} low={}",
+                slots, reservedHighSlots, highWeight, normalWeight, lowWeight);
+    }
+
+    public void run(NotificationPriority lane, Runnable task) throws InterruptedException {
+        acquire(lane);
+        try {
+            task.run();
+        } finally {
+            release();
+        }
+    }
+
+    public int slots() {
+        lock.lock();
+        try {
+            return slots;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int reservedHighSlots() {
+        return reservedHighSlots;
+    }
+
+    /**
+     * Takes effect immediately for waiting records; when shrinking, slots in use are given back
+     * as their records finish.
+     */
+    public void resize(int newSlots) {
+        if (newSlots <= reservedHighSlots) {
+            throw new IllegalArgumentException("Slots must stay above the " + reservedHighSlots + " reserved for HIGH");
+        }
+        lock.lock();
+        try {
+            accrue();
+            slots = newSlots;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Load since the previous call: average share of slots in use, share of time at least one
+     * record was waiting for a slot, and records completed.
+     */
+    public Load sampleLoad() {
+        lock.lock();
+        try {
+            accrue();
+            long elapsed = Math.max(1, lastChangeNanos - sampleStartNanos);
+            Load load = new Load(busySlotNanos / ((double) elapsed * slots), contendedNanos / (double) elapsed, completed);
+            sampleStartNanos = lastChangeNanos;
+            busySlotNanos = 0;
+            contendedNanos = 0;
+            completed = 0;
+            return load;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(NotificationPriority lane) throws InterruptedException {
+        lock.lock();
+        try {
+            accrue();
+            Waiter waiter = new Waiter(lock.newCondition());
+            waiting.get(lane).addLast(waiter);
+            waiters++;
+            dispatch();
+            while (!waiter.granted) {
+                try {
+                    waiter.condition.await();
+                } catch (InterruptedException ex) {
+                    accrue();
+                    if (waiter.granted) {
+                        busy--;
+                        dispatch();
+                    } else {
+                        waiting.get(lane).remove(waiter);
+                        waiters--;
+                    }
+                    throw ex;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            accrue();
+            busy--;
+            completed++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        while (busy < slots) {
+            NotificationPriority lane = nextLane();
+            if (lane == null) {
+                return;
+            }
+            Waiter waiter = waiting.get(lane).pollFirst();
+            waiter.granted = true;
+            waiters--;
+            busy++;
+            waiter.condition.signal();
+        }
+    }
+
+    // Smooth weighted round robin over the lanes that have a waiter and may take a free slot
+    private NotificationPriority nextLane() {
+        NotificationPriority best = null;
+        int totalWeight = 0;
+        for (NotificationPriority lane : LANES) {
+            if (waiting.get(lane).isEmpty() || !hasSlotFor(lane)) {
+                continue;
+            }
+            credits[lane.ordinal()] += weights[lane.ordinal()];
+            totalWeight += weights[lane.ordinal()];
+            if (best == null || credits[lane.ordinal()] > credits[best.ordinal()]) {
+                best = lane;
+            }
+        }
+        if (best != null) {
+            credits[best.ordinal()] -= totalWeight;
+        }
+        return best;
+    }
+
+    // Integrates slot use and contention up to now; called under the lock before any change
+    private void accrue() {
+        long now = System.nanoTime();
+        long elapsed = now - lastChangeNanos;
+        busySlotNanos += busy * elapsed;
+        if (waiters > 0) {
+            contendedNanos += elapsed;
+        }
+        lastChangeNanos = now;
+    }
+
+    private boolean hasSlotFor(NotificationPriority lane) {
+        return lane == NotificationPriority.HIGH ? busy < slots : busy < slots - reservedHighSlots;
+    }
+
+    private int waitingIn(NotificationPriority lane) {
+        lock.lock();
+        try {
+            return waiting.get(lane).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int busySlots() {
+        lock.lock();
+        try {
+            return busy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static class Load {
+        public final double utilization;
+        public final double contention;
+        public final long completed;
+
+        Load(double utilization, double contention, long completed) {
+            this.utilization = utilization;
+            this.contention = contention;
+            this.completed = completed;
+        }
+    }
+
+    private static class Waiter {
+        final Condition condition;
+        boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -1,28 +1,64 @@
 package com.worker.service;
 
+import com.notification.core.model.NotificationStatus;
+import com.worker.client.AiRequestHedger;
 import com.worker.client.AiServiceClient;
 import com.worker.dto.AiEnhancementRequest;
 import com.worker.dto.AiEnhancementResponse;
-import com.worker.model.NotificationStatus;
+import feign.Request;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Service
 public class AiEnhancementService {
 
+    // Feign's own timeouts, which a deadline can only shorten
+    private static final Request.Options DEFAULT_OPTIONS = new Request.Options();
+
     private final AiServiceClient aiServiceClient;
+    private final AiRequestHedger hedger;
 
-    public AiEnhancementService(AiServiceClient aiServiceClient) {
+    public AiEnhancementService(AiServiceClient aiServiceClient, ObjectProvider<AiRequestHedger> hedger) {
         this.aiServiceClient = aiServiceClient;
+        this.hedger = hedger.getIfAvailable();
     }
 
     public EnhancementResult enhance(String subject, String message, String channel) {
+        return enhance(subject, message, channel, null, null, null);
+    }
+
+    /**
+     * @param messageType and {@code tenantId} are forwarded for ai-service's tier routing; either may be null
+     * @param deadline when the notification expires, or null; the time left is both the call's
+     *                 read timeout and the budget ai-service gives its model
+     */
+    public EnhancementResult enhance(String subject, String message, String channel, String messageType,
+                                     String tenantId, Instant deadline) {
         try {
             log.info("Requesting AI enhancement for channel: {}", channel);
 
-            AiEnhancementRequest request = new AiEnhancementRequest(subject, message, channel);
-            AiEnhancementResponse response = aiServiceClient.enhanceMessage(request);
+            Long timeoutMs = null;
+            Request.Options options = null;
+            if (deadline != null) {
+                timeoutMs = Math.min(Duration.between(Instant.now(), deadline).toMillis(),
+                        DEFAULT_OPTIONS.readTimeoutMillis());
+                if (timeoutMs <= 0) {
+                    throw new IllegalStateException("Deadline passed before the AI call");
+                }
+                options = new Request.Options(Math.min(timeoutMs, DEFAULT_OPTIONS.connectTimeoutMillis()),
+                        TimeUnit.MILLISECONDS, timeoutMs, TimeUnit.MILLISECONDS, DEFAULT_OPTIONS.isFollowRedirects());
+            }
+            AiEnhancementRequest request = new AiEnhancementRequest(subject, message, channel, messageType,
+                    tenantId, timeoutMs);
+            AiEnhancementResponse response = hedger != null
+                    ? hedger.enhanceMessage(request, options)
+                    : aiServiceClient.enhanceMessage(request, options);
 
             log.info("AI enhancement successful. Strategy: {}, Confidence: {}",
                     response.getOptimizationStrategy(),
@@ -1,84 +1,455 @@
 package com.worker.service;
 
-import com.worker.model.Notification;
-import com.worker.model.NotificationStatus;
-import com.worker.repository.NotificationRepository;
-import lombok.RequiredArgsConstructor;
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.model.SuppressionReason;
+import com.notification.core.repository.NotificationRepository;
+import com.worker.delivery.DeliveryAttemptLog;
+import com.worker.delivery.DeliveryLedger;
+import com.worker.delivery.StatusEventPublisher;
+import com.worker.digest.DigestBuffer;
+import com.worker.email.EmailSender;
+import com.worker.metrics.PipelineMetrics;
+import com.worker.suppression.SuppressionList;
+import com.worker.template.TemplateCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import jakarta.mail.internet.MimeMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationProcessingService {
 
     private final NotificationRepository notificationRepository;
     private final AiEnhancementService aiEnhancementService;
+    private final DigestBuffer digestBuffer;
+    private final DeliveryLedger deliveryLedger;
+    private final DeliveryAttemptLog attemptLog;
+    private final StatusEventPublisher statusPublisher;
+    private final TemplateCache templateCache;
+    private final SuppressionList suppressionList;
+    private final boolean exactlyOnce;
     private static final int MAX_RETRY_ATTEMPTS = 3;
     private final Random random = new Random();
-    private final JavaMailSender mailSender;
+    private final EmailSender emailSender;
+    private final MeterRegistry meterRegistry;
+    private final long simulatedSendLatencyMs;
+    private final double simulatedFailureRate;
+    private final Timer claimTimer;
+    private final Timer aiCallTimer;
+    private final Timer channelSendTimer;
+    private final Timer statusWriteTimer;
+    private final Counter storedContentCounter;
+    private final Counter liveEnhancementCounter;
+    private final DistributionSummary digestSize;
+    private final Counter expiredOnReceipt;
+    private final Counter expiredInProcessing;
+    private final Map<String, Timer> endToEndTimers = new ConcurrentHashMap<>();
+
+    public NotificationProcessingService(NotificationRepository notificationRepository,
+                                         AiEnhancementService aiEnhancementService,
+                                         DigestBuffer digestBuffer,
+                                         DeliveryLedger deliveryLedger,
+                                         DeliveryAttemptLog attemptLog,
+                                         StatusEventPublisher statusPublisher,
+                                         TemplateCache templateCache,
+                                         SuppressionList suppressionList,
+                                         EmailSender emailSender,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${worker.simulation.send-latency-ms:2000}") long simulatedSendLatencyMs,
+                                         @Value("${worker.simulation.failure-rate:0.2}") double simulatedFailureRate,
+                                         @Value("${worker.delivery.exactly-once:false}") boolean exactlyOnce) {
+        this.notificationRepository = notificationRepository;
+        this.aiEnhancementService = aiEnhancementService;
+        this.digestBuffer = digestBuffer;
+        this.deliveryLedger = deliveryLedger;
+        this.attemptLog = attemptLog;
+        this.statusPublisher = statusPublisher;
+        this.templateCache = templateCache;
+        this.suppressionList = suppressionList;
+        this.exactlyOnce = exactlyOnce;
+        this.emailSender = emailSender;
+        this.meterRegistry = meterRegistry;
+        this.simulatedSendLatencyMs = simulatedSendLatencyMs;
+        this.simulatedFailureRate = simulatedFailureRate;
+        this.claimTimer = PipelineMetrics.stageTimer(meterRegistry, "claim");
+        this.aiCallTimer = PipelineMetrics.stageTimer(meterRegistry, "ai_call");
+        this.channelSendTimer = PipelineMetrics.stageTimer(meterRegistry, "channel_send");
+        this.statusWriteTimer = PipelineMetrics.stageTimer(meterRegistry, "status_write");
+        this.storedContentCounter = meterRegistry.counter("worker.enhancement.content", "source", "stored");
+        this.liveEnhancementCounter = meterRegistry.counter("worker.enhancement.content", "source", "live");
+        this.digestSize = DistributionSummary.builder("worker.digest.size")
+                .description("Notifications merged into each digest sent")
+                .register(meterRegistry);
+        this.expiredOnReceipt = expiredCounter(meterRegistry, "received");
+        this.expiredInProcessing = expiredCounter(meterRegistry, "processing");
+    }
 
-    @Transactional
+    private static Counter expiredCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("worker.notifications.expired")
+                .description("Notifications dropped as EXPIRED instead of sent")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs without a surrounding transaction: the notification is read once and its outcome is
+     * appended to the {@link DeliveryAttemptLog}, which later applies it to the notification's row,
+     * so no connection is held during the AI call or send. PROCESSING is not written; under the old
+     * transaction it was always overwritten before commit anyway. Content enhanced during this
+     * attempt is written with the outcome rather than on its own. Once the send has succeeded,
+     * failing to write its outcome never puts the notification back to RETRY.
+     *
+     * <p>In exactly-once mode the send is guarded by the {@link DeliveryLedger}: a redelivered
+     * notification that was already sent only has its status written and published again, and
+     * one still being sent elsewhere throws so the record is redelivered later.
+     *
+     * <p>A recipient on the {@link SuppressionList} is marked SUPPRESSED before any AI call,
+     * digest buffering or send.
+     *
+     * <p>A notification past its {@code expiresAt} is marked EXPIRED instead of sent: straight from
+     * the event's deadline before the notification is read, or once the read or the AI call finds
+     * it has passed. The AI call's timeout is the time left.
+     */
     public void processNotification(Long notificationId) {
+        processNotification(notificationId, null);
+    }
+
+    /**
+     * @param expiresAt the deadline carried in the event, or null
+     */
+    public void processNotification(Long notificationId, Instant expiresAt) {
+        if (isExpired(expiresAt)) {
+            log.info("Notification ID {} expired at {}, dropping it unread", notificationId, expiresAt);
+            expire(notificationId, 0, expiresAt, expiredOnReceipt);
+            return;
+        }
         log.info("Starting processing for notification ID: {}", notificationId);
 
+        long claimStart = System.nanoTime();
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found: " + notificationId));
 
-        try {
-            notification.setStatus(NotificationStatus.PROCESSING);
-            notificationRepository.save(notification);
+        claimTimer.record(System.nanoTime() - claimStart, TimeUnit.NANOSECONDS);
+
+        Long digestWindowId = Boolean.TRUE.equals(notification.getDigest()) ? digestBuffer.windowOf(notificationId) : null;
+        if (digestWindowId != null) {
+            log.info("Notification ID {} is already waiting in digest window {}", notificationId, digestWindowId);
+            return;
+        }
+        if (exactlyOnce && notification.getStatus() == NotificationStatus.SENT) {
+            statusPublisher.publish(notificationId, NotificationStatus.SENT, notification.getRetryCount(), null);
+            return;
+        }
+        if (isExpired(notification.getExpiresAt())) {
+            log.info("Notification ID {} expired at {}, not sending it", notificationId, notification.getExpiresAt());
+            expire(notificationId, retries(notification), notification.getExpiresAt(), expiredInProcessing);
+            return;
+        }
+        SuppressionReason suppressed = suppressionList.check(notification.getRecipient());
+        if (suppressed != null) {
+            String reason = "Recipient suppressed: " + suppressed;
+            log.info("Notification ID {} not sent: {}", notificationId, reason);
+            attemptLog.record(DeliveryAttemptLog.Attempt.suppressed(notification, reason));
+            statusPublisher.publish(notificationId, NotificationStatus.SUPPRESSED, notification.getRetryCount(), reason);
+            return;
+        }
+        if (digestBuffer.accepts(notification)) {
+            digestBuffer.add(notification);
+            return;
+        }
 
+        if (exactlyOnce) {
+            DeliveryLedger.Claim claim = deliveryLedger.claim(notificationId);
+            if (claim == DeliveryLedger.Claim.ALREADY_SENT) {
+                log.info("Notification ID {} was already sent, skipping the resend", notificationId);
+                attemptLog.record(DeliveryAttemptLog.Attempt.sent(notification, false));
+                statusPublisher.publish(notificationId, NotificationStatus.SENT, notification.getRetryCount(), null);
+                return;
+            }
+            if (claim == DeliveryLedger.Claim.IN_PROGRESS) {
+                throw new IllegalStateException("Notification " + notificationId + " is being sent by another worker");
+            }
+        }
+
+        boolean hadEnhancement = notification.getEnhancedMessage() != null;
+        try {
+            templateCache.render(notification);
             enhanceAndSendNotification(notification);
+        } catch (ExpiredException e) {
+            log.info("Notification ID {} expired at {} before it was sent", notificationId, e.expiresAt);
+            if (exactlyOnce) {
+                deliveryLedger.release(notificationId);
+            }
+            expire(notificationId, retries(notification), e.expiresAt, expiredInProcessing);
+            return;
+        } catch (Exception e) {
+            log.error("Failed to process notification ID: {}", notificationId, e);
+            if (exactlyOnce) {
+                deliveryLedger.release(notificationId);
+            }
+            handleFailure(notification, e, enhancedLive(notification, hadEnhancement));
+            return;
+        }
 
-            notification.setStatus(NotificationStatus.SENT);
-            notification.setErrorMessage(null);
-            notificationRepository.save(notification);
+        // Sent: failures from here on propagate instead of sending again. A ledger write that
+        // fails leaves the claim to time out, as if this worker had died after the send
+        if (exactlyOnce) {
+            deliveryLedger.markSent(notificationId);
+        }
+        long writeStart = System.nanoTime();
+        attemptLog.recordSent(List.of(DeliveryAttemptLog.Attempt.sent(notification,
+                enhancedLive(notification, hadEnhancement))));
+        statusWriteTimer.record(System.nanoTime() - writeStart, TimeUnit.NANOSECONDS);
+        recordEndToEnd(notification);
+        statusPublisher.publish(notificationId, NotificationStatus.SENT, notification.getRetryCount(), null);
 
-            log.info("Successfully processed notification ID: {}", notificationId);
+        log.info("Successfully processed notification ID: {}", notificationId);
+    }
 
+    /**
+     * Sends a claimed digest window's notifications as one message: one AI call, one send and one
+     * status update for all of them. On failure they all go to RETRY and are sent one by one.
+     * Members already past their {@code expiresAt} are marked EXPIRED and left out. In
+     * exactly-once mode every member is claimed in the {@link DeliveryLedger} before the send,
+     * like a single notification, and members it cannot claim are left out.
+     */
+    public void sendDigest(List<Notification> window) {
+        List<Notification> members = new ArrayList<>(window.size());
+        for (Notification member : window) {
+            if (isExpired(member.getExpiresAt())) {
+                expire(member.getId(), retries(member), member.getExpiresAt(), expiredInProcessing);
+            } else if (!exactlyOnce || claimDigestMember(member)) {
+                members.add(member);
+            }
+        }
+        if (members.isEmpty()) {
+            return;
+        }
+        List<Long> ids = members.stream().map(Notification::getId).collect(Collectors.toList());
+        Notification digest = members.get(members.size() - 1);
+        Notification single = members.size() == 1 ? digest : null;
+        boolean hadEnhancement = digest.getEnhancedMessage() != null;
+        try {
+            members.forEach(templateCache::render);
+            digest = members.size() == 1 ? digest : mergeDigest(members);
+            enhanceAndSendNotification(digest);
+        } catch (ExpiredException e) {
+            log.info("Digest of {} notifications to {} expired before it was sent", members.size(),
+                    digest.getRecipient());
+            if (exactlyOnce) {
+                ids.forEach(deliveryLedger::release);
+            }
+            members.forEach(member -> expire(member.getId(), retries(member), member.getExpiresAt(),
+                    expiredInProcessing));
+            return;
         } catch (Exception e) {
-            log.error("Failed to process notification ID: {}", notificationId, e);
-            handleFailure(notification, e);
+            log.error("Failed to send digest of {} notifications to {}", members.size(), digest.getRecipient(), e);
+            if (exactlyOnce) {
+                ids.forEach(deliveryLedger::release);
+            }
+            List<DeliveryAttemptLog.Attempt> attempts = new ArrayList<>(members.size());
+            for (Notification member : members) {
+                attempts.add(DeliveryAttemptLog.Attempt.failed(member, NotificationStatus.RETRY,
+                        retries(member) + 1, e.getMessage(), member == single && enhancedLive(member, hadEnhancement)));
+            }
+            attemptLog.recordAll(attempts);
+            members.forEach(member -> statusPublisher.publish(member.getId(), NotificationStatus.RETRY,
+                    retries(member) + 1, e.getMessage()));
+            return;
+        }
+
+        if (exactlyOnce) {
+            deliveryLedger.markSent(ids);
+        }
+        long writeStart = System.nanoTime();
+        List<DeliveryAttemptLog.Attempt> attempts = new ArrayList<>(members.size());
+        for (Notification member : members) {
+            attempts.add(DeliveryAttemptLog.Attempt.sent(member,
+                    member == single && enhancedLive(member, hadEnhancement)));
+        }
+        attemptLog.recordSent(attempts);
+        statusWriteTimer.record(System.nanoTime() - writeStart, TimeUnit.NANOSECONDS);
+        members.forEach(this::recordEndToEnd);
+        digestSize.record(members.size());
+        members.forEach(member -> statusPublisher.publish(member.getId(), NotificationStatus.SENT,
+                member.getRetryCount(), null));
+
+        log.info("Sent digest of {} notifications to {}", members.size(), digest.getRecipient());
+    }
+
+    /**
+     * @return whether this worker may send the member; one sent before is recorded as SENT again,
+     * one another worker is sending goes to RETRY without using up an attempt
+     */
+    private boolean claimDigestMember(Notification member) {
+        DeliveryLedger.Claim claim = deliveryLedger.claim(member.getId());
+        if (claim == DeliveryLedger.Claim.ACQUIRED) {
+            return true;
+        }
+        if (claim == DeliveryLedger.Claim.ALREADY_SENT) {
+            log.info("Notification ID {} was already sent, leaving it out of the digest", member.getId());
+            attemptLog.record(DeliveryAttemptLog.Attempt.sent(member, false));
+            statusPublisher.publish(member.getId(), NotificationStatus.SENT, member.getRetryCount(), null);
+        } else {
+            String reason = "Being sent by another worker";
+            log.info("Notification ID {} left out of the digest: {}", member.getId(), reason);
+            attemptLog.record(DeliveryAttemptLog.Attempt.failed(member, NotificationStatus.RETRY, retries(member),
+                    reason, false));
+            statusPublisher.publish(member.getId(), NotificationStatus.RETRY, retries(member), reason);
+        }
+        return false;
+    }
+
+    private static Notification mergeDigest(List<Notification> members) {
+        Notification latest = members.get(members.size() - 1);
+        boolean email = "EMAIL".equalsIgnoreCase(latest.getChannel());
+        StringBuilder message = new StringBuilder(email ? "<ul>" : "");
+        for (Notification member : members) {
+            if (email) {
+                // Members' content is text; only the list around it is markup
+                message.append("<li><strong>").append(HtmlUtils.htmlEscape(outgoingSubject(member)))
+                        .append("</strong><br>").append(HtmlUtils.htmlEscape(outgoingMessage(member))).append("</li>");
+            } else {
+                message.append("- ").append(outgoingSubject(member)).append(": ")
+                        .append(outgoingMessage(member)).append('\n');
+            }
+        }
+        if (email) {
+            message.append("</ul>");
+        }
+        // Transient: never saved, its outcome is written to the members
+        return Notification.builder()
+                .recipient(latest.getRecipient())
+                .channel(latest.getChannel())
+                .tenantId(latest.getTenantId())
+                .messageType(latest.getMessageType())
+                .subject(members.size() + " updates: " + outgoingSubject(latest))
+                .message(message.toString())
+                .retryCount(0)
+                .expiresAt(latestDeadline(members))
+                .build();
+    }
+
+    // Worth sending while any member is; null if one of them never expires
+    private static Instant latestDeadline(List<Notification> members) {
+        Instant latest = null;
+        for (Notification member : members) {
+            if (member.getExpiresAt() == null) {
+                return null;
+            }
+            if (latest == null || member.getExpiresAt().isAfter(latest)) {
+                latest = member.getExpiresAt();
+            }
         }
+        return latest;
     }
 
     private void enhanceAndSendNotification(Notification notification) throws InterruptedException {
-        String originalSubject = notification.getSubject();
-        String originalMessage = notification.getMessage();
-
-        AiEnhancementService.EnhancementResult result = aiEnhancementService.enhance(
-                originalSubject,
-                originalMessage,
-                notification.getChannel()
-        );
-
-        if (result.successful) {
-            log.info("Using AI-enhanced content. Confidence: {}", result.confidenceScore);
-            notification.setSubject(result.enhancedSubject);
-            notification.setMessage(result.enhancedMessage);
-            if ("EMAIL".equalsIgnoreCase(notification.getChannel())) {
+        // Content enhanced at ingestion time, or kept from an earlier attempt, is sent as-is
+        if (notification.getEnhancedMessage() != null) {
+            log.info("Using stored enhanced content for notification ID: {}", notification.getId());
+            storedContentCounter.increment();
+        } else {
+            liveEnhancementCounter.increment();
+
+            long aiStart = System.nanoTime();
+            AiEnhancementService.EnhancementResult result = aiEnhancementService.enhance(
+                    notification.getSubject(),
+                    notification.getMessage(),
+                    notification.getChannel(),
+                    notification.getMessageType(),
+                    notification.getTenantId(),
+                    notification.getExpiresAt()
+            );
+            aiCallTimer.record(System.nanoTime() - aiStart, TimeUnit.NANOSECONDS);
+
+            if (result.successful) {
+                log.info("Using AI-enhanced content. Confidence: {}", result.confidenceScore);
+                notification.setEnhancedSubject(result.enhancedSubject);
+                notification.setEnhancedMessage(result.enhancedMessage);
+            } else {
+                log.info("Using original content due to AI enhancement failure: {}", result.errorMessage);
+            }
+        }
+
+        if (isExpired(notification.getExpiresAt())) {
+            throw new ExpiredException(notification.getExpiresAt());
+        }
+
+        long sendStart = System.nanoTime();
+        try {
+            if (notification.getEnhancedMessage() != null && "EMAIL".equalsIgnoreCase(notification.getChannel())) {
                 sendEmail(notification); // real email sending
             }
-        } else {
-            log.info("Using original content due to AI enhancement failure: {}", result.errorMessage);
+
+            simulateNotificationSending(notification);
+        } finally {
+            channelSendTimer.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
         }
+    }
+
+    // Whether this attempt produced enhanced content the row does not have yet
+    private static boolean enhancedLive(Notification notification, boolean hadEnhancement) {
+        return !hadEnhancement && notification.getEnhancedMessage() != null;
+    }
 
-        simulateNotificationSending(notification);
+    private static int retries(Notification notification) {
+        return notification.getRetryCount() != null ? notification.getRetryCount() : 0;
+    }
+
+    private static boolean isExpired(Instant expiresAt) {
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+
+    private void expire(Long notificationId, int attemptsMade, Instant expiresAt, Counter counter) {
+        String reason = "Expired at " + expiresAt;
+        attemptLog.record(DeliveryAttemptLog.Attempt.expired(notificationId, attemptsMade, reason));
+        statusPublisher.publish(notificationId, NotificationStatus.EXPIRED, attemptsMade, reason);
+        counter.increment();
+    }
+
+    private void recordEndToEnd(Notification notification) {
+        if (notification.getCreatedAt() == null) {
+            return;
+        }
+        Duration elapsed = Duration.between(notification.getCreatedAt(), LocalDateTime.now());
+        endToEndTimers.computeIfAbsent(notification.getChannel().toUpperCase(),
+                        channel -> PipelineMetrics.endToEndTimer(meterRegistry, channel))
+                .record(elapsed.isNegative() ? Duration.ZERO : elapsed);
+    }
+
+    private static String outgoingSubject(Notification notification) {
+        return notification.getEnhancedSubject() != null ? notification.getEnhancedSubject() : notification.getSubject();
+    }
+
+    private static String outgoingMessage(Notification notification) {
+        return notification.getEnhancedMessage() != null ? notification.getEnhancedMessage() : notification.getMessage();
     }
 
     private void simulateNotificationSending(Notification notification) throws InterruptedException {
         log.info("Sending {} notification to: {}", notification.getChannel(), notification.getRecipient());
-        log.info("Subject: {}", notification.getSubject());
+        log.info("Subject: {}", outgoingSubject(notification));
 
-        Thread.sleep(2000);
+        Thread.sleep(simulatedSendLatencyMs);
 
-        boolean shouldFail = random.nextInt(10) < 2;
+        boolean shouldFail = random.nextDouble() < simulatedFailureRate;
 
         if (shouldFail && notification.getRetryCount() < MAX_RETRY_ATTEMPTS) {
             throw new RuntimeException("Simulated sending failure");
@@ -87,49 +458,52 @@ public class NotificationProcessingService {
         log.info("Notification sent successfully via {}", notification.getChannel());
     }
 
-    @Transactional
-    protected void handleFailure(Notification notification, Exception e) {
-        int retryCount = notification.getRetryCount() != null ? notification.getRetryCount() : 0;
-        notification.setRetryCount(retryCount + 1);
-        notification.setErrorMessage(e.getMessage());
+    private void handleFailure(Notification notification, Exception e, boolean storeEnhancement) {
+        int retryCount = retries(notification) + 1;
+        NotificationStatus status;
 
-        if (notification.getRetryCount() >= MAX_RETRY_ATTEMPTS) {
-            notification.setStatus(NotificationStatus.FAILED);
+        if (retryCount >= MAX_RETRY_ATTEMPTS) {
+            status = NotificationStatus.FAILED;
             log.error("Notification ID {} failed after {} attempts", notification.getId(), MAX_RETRY_ATTEMPTS);
         } else {
-            notification.setStatus(NotificationStatus.RETRY);
-            log.warn("Notification ID {} marked for retry. Attempt: {}",
-                    notification.getId(), notification.getRetryCount());
+            status = NotificationStatus.RETRY;
+            log.warn("Notification ID {} marked for retry. Attempt: {}", notification.getId(), retryCount);
         }
 
-        notificationRepository.save(notification);
+        attemptLog.record(DeliveryAttemptLog.Attempt.failed(notification, status, retryCount, e.getMessage(),
+                storeEnhancement));
+        statusPublisher.publish(notification.getId(), status, retryCount, e.getMessage());
     }
 
-    @Transactional
     public void retryFailedNotifications() {
         log.info("Checking for notifications to retry...");
-        var retryNotifications = notificationRepository.findByStatus(NotificationStatus.RETRY);
-
-        for (Notification notification : retryNotifications) {
-            if (notification.getRetryCount() < MAX_RETRY_ATTEMPTS) {
-                log.info("Retrying notification ID: {} (attempt {})",
-                        notification.getId(), notification.getRetryCount() + 1);
-                processNotification(notification.getId());
+        for (Long notificationId : notificationRepository.findIdsForRetry(NotificationStatus.RETRY, MAX_RETRY_ATTEMPTS)) {
+            log.info("Retrying notification ID: {}", notificationId);
+            try {
+                processNotification(notificationId);
+            } catch (Exception e) {
+                // Still being sent elsewhere in exactly-once mode; picked up again next run
+                log.warn("Retry of notification ID {} deferred: {}", notificationId, e.getMessage());
             }
         }
     }
+
     private void sendEmail(Notification notification) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setTo(notification.getRecipient());
-            helper.setSubject(notification.getSubject());
-            helper.setText(notification.getMessage(), true); // true = HTML
-
-            mailSender.send(message);
+            emailSender.send(notification.getRecipient(), outgoingSubject(notification), outgoingMessage(notification));
             log.info("Email sent to {}", notification.getRecipient());
         } catch (Exception e) {
             throw new RuntimeException("Failed to send email", e);
         }
     }
+
+    // The deadline passed during the AI call; nothing was sent
+    private static class ExpiredException extends RuntimeException {
+        private final Instant expiresAt;
+
+        ExpiredException(Instant expiresAt) {
+            super("Expired at " + expiresAt);
+            this.expiresAt = expiresAt;
+        }
+    }
 }
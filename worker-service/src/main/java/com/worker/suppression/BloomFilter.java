@@ -0,0 +1,154 @@
+package com.worker.suppression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bloom filter over 64-bit words in a {@link ByteBuffer}, which can live on the heap, off-heap
+ * or in a memory-mapped file. Sized for an expected number of entries and false-positive rate.
+ * Keys are hashed straight from their chars, so a lookup allocates nothing; the k probe
+ * positions are derived from two 64-bit hashes (Kirsch-Mitzenmacher).
+ *
+ * <p>Not thread-safe for writers. One thread may add while others look up; a lookup racing the
+ * addition of its key may miss it.
+ */
+public final class BloomFilter {
+
+    public enum Storage {
+        HEAP,
+        DIRECT,
+        MAPPED
+    }
+
+    // One ByteBuffer holds at most 2^31 - 1 bytes
+    private static final long MAX_BITS = (long) (Integer.MAX_VALUE / Long.BYTES) * Long.SIZE;
+
+    private final ByteBuffer words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(ByteBuffer words, long bitCount, int hashCount) {
+        this.words = words.order(ByteOrder.nativeOrder());
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * @param mappedFile backing file for {@link Storage#MAPPED}; overwritten, since the filter is
+     *                   rebuilt on every start
+     */
+    public static BloomFilter create(long expectedEntries, double falsePositiveRate, Storage storage,
+                                     Path mappedFile) throws IOException {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException(
+                    "Expected entries must be positive and the false-positive rate in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+        if (bits > MAX_BITS) {
+            throw new IllegalArgumentException("A filter for " + expectedEntries + " entries at "
+                    + falsePositiveRate + " needs " + bits / 8 + " bytes, more than one buffer holds");
+        }
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedEntries * Math.log(2)));
+        int bytes = (int) (bits / 8);
+        ByteBuffer words = switch (storage) {
+            case HEAP -> ByteBuffer.allocate(bytes);
+            case DIRECT -> ByteBuffer.allocateDirect(bytes);
+            case MAPPED -> map(mappedFile, bytes);
+        };
+        return new BloomFilter(words, bits, hashes);
+    }
+
+    /**
+     * @return whether any bit changed, false if the key was (probably) already present
+     */
+    public boolean put(CharSequence key) {
+        long hash1 = hash(key);
+        long hash2 = mix(hash1 + 0x9E3779B97F4A7C15L);
+        boolean changed = false;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = position(combined);
+            int index = (int) (bit >>> 6) * Long.BYTES;
+            long word = words.getLong(index);
+            long mask = 1L << bit;
+            if ((word & mask) == 0) {
+                words.putLong(index, word | mask);
+                changed = true;
+            }
+            combined += hash2;
+        }
+        return changed;
+    }
+
+    public boolean mightContain(CharSequence key) {
+        long hash1 = hash(key);
+        long hash2 = mix(hash1 + 0x9E3779B97F4A7C15L);
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = position(combined);
+            if ((words.getLong((int) (bit >>> 6) * Long.BYTES) & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long sizeBytes() {
+        return bitCount / 8;
+    }
+
+    /**
+     * False-positive rate once {@code entries} distinct keys have been added.
+     */
+    public double falsePositiveRate(long entries) {
+        return Math.pow(1 - Math.exp(-(double) hashCount * entries / bitCount), hashCount);
+    }
+
+    // Maps the hash onto [0, bitCount) with a multiply instead of a division
+    private long position(long hash) {
+        return Math.multiplyHigh(hash >>> 1, bitCount << 1);
+    }
+
+    // FNV-1a over the UTF-16 chars, then the MurmurHash3 finalizer to spread the low bits
+    private static long hash(CharSequence key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static ByteBuffer map(Path file, int bytes) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("A mapped filter needs a file");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+}
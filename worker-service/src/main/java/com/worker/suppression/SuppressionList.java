@@ -0,0 +1,210 @@
+package com.worker.suppression;
+
+import com.notification.core.model.SuppressedRecipient;
+import com.notification.core.model.SuppressionReason;
+import com.notification.core.repository.SuppressedRecipientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Addresses the worker must not send to. Every instance replays the compacted
+ * {@link SuppressedRecipient#TOPIC} from the beginning into a {@link BloomFilter} and then keeps
+ * following it, without a consumer group. A recipient the filter has never seen is sent to with
+ * no further cost; a hit is confirmed against {@code suppressed_recipients}, which is
+ * authoritative, so false positives and removed addresses are only an extra lookup. Until the
+ * replay has caught up every check goes to the table.
+ *
+ * <p>Bloom filters cannot remove keys, so a removal leaves its bits set until the next restart
+ * rebuilds the filter.
+ */
+@Component
+@Slf4j
+public class SuppressionList {
+
+    private final SuppressedRecipientRepository suppressionRepository;
+    private final boolean enabled;
+    private final long expectedEntries;
+    private final BloomFilter filter;
+    private final Map<String, Object> consumerProps = new HashMap<>();
+    private final ExecutorService loader;
+    private final AtomicLong entries = new AtomicLong();
+    private final Counter filteredCounter;
+    private final Counter suppressedCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter loadingCounter;
+    private volatile KafkaConsumer<String, String> consumer;
+    private volatile boolean loaded;
+    private volatile boolean running = true;
+
+    public SuppressionList(SuppressedRecipientRepository suppressionRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                           @Value("${worker.suppression.enabled:true}") boolean enabled,
+                           @Value("${worker.suppression.expected-entries:10000000}") long expectedEntries,
+                           @Value("${worker.suppression.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${worker.suppression.storage:HEAP}") BloomFilter.Storage storage,
+                           @Value("${worker.suppression.mapped-file:/tmp/worker-suppressions.bloom}") Path mappedFile)
+            throws IOException {
+        this.suppressionRepository = suppressionRepository;
+        this.enabled = enabled;
+        this.expectedEntries = expectedEntries;
+        this.filter = enabled ? BloomFilter.create(expectedEntries, falsePositiveRate, storage, mappedFile) : null;
+        this.filteredCounter = checkCounter(meterRegistry, "filtered");
+        this.suppressedCounter = checkCounter(meterRegistry, "suppressed");
+        this.falsePositiveCounter = checkCounter(meterRegistry, "false_positive");
+        this.loadingCounter = checkCounter(meterRegistry, "loading");
+        Gauge.builder("worker.suppression.entries", entries, AtomicLong::get)
+                .description("Suppressed addresses added to the Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("worker.suppression.loaded", this, list -> list.loaded ? 1 : 0)
+                .description("1 once the suppression topic has been replayed into the filter")
+                .register(meterRegistry);
+
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // notification-service creates the topic compacted; an auto-created one would not be
+        consumerProps.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10_000);
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "suppression-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            log.info("Suppression filter: {} bytes {}, {} hashes, for {} entries at {} false positives",
+                    filter.sizeBytes(), storage, filter.hashCount(), expectedEntries, falsePositiveRate);
+            loader.execute(this::load);
+        }
+    }
+
+    /**
+     * @return why the recipient is suppressed, or null if it may be sent to
+     */
+    public SuppressionReason check(String recipient) {
+        if (!enabled || recipient == null) {
+            return null;
+        }
+        String address = SuppressedRecipient.normalize(recipient);
+        boolean loadedAtCheck = loaded;
+        if (loadedAtCheck && !filter.mightContain(address)) {
+            filteredCounter.increment();
+            return null;
+        }
+        SuppressionReason reason = suppressionRepository.findById(address)
+                .map(SuppressedRecipient::getReason)
+                .orElse(null);
+        if (reason != null) {
+            suppressedCounter.increment();
+        } else if (loadedAtCheck) {
+            falsePositiveCounter.increment();
+        } else {
+            loadingCounter.increment();
+        }
+        return reason;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        KafkaConsumer<String, String> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        loader.shutdownNow();
+    }
+
+    private void load() {
+        long startNanos = System.nanoTime();
+        try (KafkaConsumer<String, String> kafkaConsumer = new KafkaConsumer<>(consumerProps,
+                new StringDeserializer(), new StringDeserializer())) {
+            consumer = kafkaConsumer;
+            List<TopicPartition> partitions = awaitPartitions(kafkaConsumer);
+            kafkaConsumer.assign(partitions);
+            kafkaConsumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = kafkaConsumer.endOffsets(partitions);
+
+            while (running) {
+                for (ConsumerRecord<String, String> record : kafkaConsumer.poll(Duration.ofSeconds(1))) {
+                    apply(record);
+                }
+                if (!loaded && caughtUp(kafkaConsumer, endOffsets)) {
+                    loaded = true;
+                    log.info("Loaded {} suppressed addresses in {} ms", entries.get(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                }
+            }
+        } catch (WakeupException | InterruptedException ex) {
+            // Shutting down
+        } catch (Exception ex) {
+            // Checks keep going to the table, so this costs latency but never sends to a suppressed address
+            log.error("Suppression loader stopped; checking every recipient against the table", ex);
+            loaded = false;
+        }
+    }
+
+    private List<TopicPartition> awaitPartitions(KafkaConsumer<String, String> kafkaConsumer)
+            throws InterruptedException {
+        while (true) {
+            List<PartitionInfo> partitions = kafkaConsumer.partitionsFor(SuppressedRecipient.TOPIC);
+            if (partitions != null && !partitions.isEmpty()) {
+                return partitions.stream()
+                        .map(partition -> new TopicPartition(partition.topic(), partition.partition()))
+                        .toList();
+            }
+            log.debug("Topic {} does not exist yet", SuppressedRecipient.TOPIC);
+            TimeUnit.SECONDS.sleep(10);
+        }
+    }
+
+    private void apply(ConsumerRecord<String, String> record) {
+        // Tombstones are left to the table check; their bits stay set until the next rebuild
+        if (record.key() == null || record.value() == null) {
+            return;
+        }
+        if (filter.put(SuppressedRecipient.normalize(record.key()))
+                && entries.incrementAndGet() == expectedEntries + 1) {
+            log.warn("More than {} suppressed addresses; raise worker.suppression.expected-entries to keep "
+                    + "the false-positive rate", expectedEntries);
+        }
+    }
+
+    private static boolean caughtUp(KafkaConsumer<String, String> kafkaConsumer,
+                                    Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (kafkaConsumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("worker.suppression.checks")
+                .description("Recipient suppression checks by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
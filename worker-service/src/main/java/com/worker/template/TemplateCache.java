@@ -0,0 +1,100 @@
+package com.worker.template;
+
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationTemplate;
+import com.notification.core.repository.NotificationTemplateRepository;
+import com.notification.core.template.CompiledTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compiled notification templates, least recently used evicted beyond
+ * {@code worker.templates.cache-size}. Templates never change once stored, so entries are never
+ * stale. A miss reads the template outside the lock; two threads missing on the same template
+ * both compile it and one copy wins.
+ */
+@Component
+@Slf4j
+public class TemplateCache {
+
+    private final NotificationTemplateRepository templateRepository;
+    private final Map<Long, Compiled> templates;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public TemplateCache(NotificationTemplateRepository templateRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${worker.templates.cache-size:1000}") int cacheSize) {
+        this.templateRepository = templateRepository;
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Compiled> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.hitCounter = meterRegistry.counter("worker.templates.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("worker.templates.cache", "result", "miss");
+        Gauge.builder("worker.templates.cached", this, cache -> cache.size())
+                .description("Compiled templates held by the worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces a templated notification's subject and message with the template rendered with its
+     * variables. Only the in-memory entity changes; the stored row keeps just the variables.
+     */
+    public void render(Notification notification) {
+        if (notification.getTemplateId() == null) {
+            return;
+        }
+        Compiled template = get(notification.getTemplateId());
+        Map<String, String> variables = notification.getTemplateVariables() != null
+                ? notification.getTemplateVariables()
+                : Map.of();
+        notification.setSubject(template.subject.render(variables));
+        notification.setMessage(template.message.render(variables));
+    }
+
+    private Compiled get(Long templateId) {
+        synchronized (templates) {
+            Compiled template = templates.get(templateId);
+            if (template != null) {
+                hitCounter.increment();
+                return template;
+            }
+        }
+        missCounter.increment();
+        NotificationTemplate stored = templateRepository.findById(templateId)
+                .orElseThrow(() -> new IllegalStateException("Template not found: " + templateId));
+        Compiled template = new Compiled(CompiledTemplate.compile(stored.getSubject()),
+                CompiledTemplate.compile(stored.getMessage()));
+        log.debug("Compiled template {} '{}'", templateId, stored.getName());
+        synchronized (templates) {
+            templates.put(templateId, template);
+        }
+        return template;
+    }
+
+    private int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    private static final class Compiled {
+        final CompiledTemplate subject;
+        final CompiledTemplate message;
+
+        Compiled(CompiledTemplate subject, CompiledTemplate message) {
+            this.subject = subject;
+            this.message = message;
+        }
+    }
+}
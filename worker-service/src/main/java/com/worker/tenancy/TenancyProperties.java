@@ -0,0 +1,40 @@
+package com.worker.tenancy;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "worker.tenancy")
+public class TenancyProperties {
+
+    private boolean fairScheduling = true;
+
+    private int dispatchersPerLane = 16;
+
+    private int maxQueued = 500;
+
+    private int maxQueuedTotal = 5000;
+
+    private int maxTaggedTenants = 100;
+
+    private Quota defaultQuota = new Quota();
+
+    private Map<String, Quota> quotas = new HashMap<>();
+
+    public Quota quotaFor(String tenantId) {
+        return quotas.getOrDefault(tenantId, defaultQuota);
+    }
+
+    @Data
+    public static class Quota {
+        // Records served per round relative to other tenants
+        private double weight = 1;
+        // Records processed at once; 0 is unlimited
+        private int maxConcurrent;
+        // Records started per second; 0 is unlimited
+        private double ratePerSecond;
+    }
+}
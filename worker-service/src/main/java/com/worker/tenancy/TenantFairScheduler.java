@@ -0,0 +1,582 @@
+package com.worker.tenancy;
+
+import com.notification.core.model.NotificationPriority;
+import com.worker.consumer.NotificationConsumer;
+import com.worker.metrics.PipelineMetrics;
+import com.worker.scheduler.PriorityLaneScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps one tenant's burst from taking the whole worker. Consumer threads hand each record to
+ * its tenant's queue and return; per lane, {@code dispatchers-per-lane} threads wait for a
+ * {@link PriorityLaneScheduler} slot, so lanes still share slots as before, and only then pick the
+ * record by deficit round robin across the tenants with something queued (each tenant gets its
+ * {@code weight} records per round). Records finish out of order, so per partition only the
+ * offset below the first record still queued or running is acknowledged; after a crash the
+ * records past it are consumed again.
+ * <ul>
+ *     <li>A tenant at its {@code max-concurrent} or out of {@code rate-per-second} tokens is
+ *     skipped until it has room; its records stay queued.</li>
+ *     <li>A tenant with more than {@code max-queued} records waiting has the partitions those
+ *     records came from paused, until it is back under half. Notifications are keyed by tenant,
+ *     so only tenants on the same partitions wait with it.</li>
+ *     <li>With more than {@code max-queued-total} records waiting across tenants, the partitions
+ *     of further records are paused as well, until the total is back under half.</li>
+ * </ul>
+ * With {@code fair-scheduling} off, or in exactly-once mode where the offset commits in the
+ * record's transaction, records are processed on the consumer thread as before and only the
+ * per-tenant metrics are recorded.
+ */
+@Component
+@EnableConfigurationProperties(TenancyProperties.class)
+@Slf4j
+public class TenantFairScheduler {
+
+    private static final String DEFAULT_TENANT = "default";
+    private static final String OTHER_TENANTS = "other";
+    private static final NotificationPriority[] LANES = NotificationPriority.values();
+
+    private final PriorityLaneScheduler laneScheduler;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final TenancyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Tenant> tenants = new HashMap<>();
+    private final Map<NotificationPriority, Lane> lanes = new EnumMap<>(NotificationPriority.class);
+    private final Map<TopicPartition, PartitionOffsets> offsets = new HashMap<>();
+    // Tenants, and the total bound, holding each partition paused
+    private final Map<TopicPartition, Integer> pauses = new HashMap<>();
+    // Partitions paused for max-queued-total
+    private final Set<TopicPartition> pausedForTotal = new HashSet<>();
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private final Counter pauseCounter;
+    private int taggedTenants;
+    private int totalQueued;
+
+    public TenantFairScheduler(PriorityLaneScheduler laneScheduler,
+                               KafkaListenerEndpointRegistry listenerRegistry,
+                               TenancyProperties properties,
+                               MeterRegistry meterRegistry,
+                               @Value("${worker.delivery.exactly-once:false}") boolean exactlyOnce) {
+        if (properties.getMaxQueued() < 1 || properties.getMaxQueuedTotal() < 1
+                || properties.getDispatchersPerLane() < 1) {
+            throw new IllegalArgumentException(
+                    "worker.tenancy.max-queued, max-queued-total and dispatchers-per-lane must be positive");
+        }
+        if (properties.getDefaultQuota().getWeight() <= 0
+                || properties.getQuotas().values().stream().anyMatch(quota -> quota.getWeight() <= 0)) {
+            throw new IllegalArgumentException("worker.tenancy quota weights must be positive");
+        }
+        this.laneScheduler = laneScheduler;
+        this.listenerRegistry = listenerRegistry;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.enabled = properties.isFairScheduling() && !exactlyOnce;
+        this.pauseCounter = Counter.builder("worker.tenant.partition.pauses")
+                .description("Partitions paused because a tenant had more than max-queued records waiting, "
+                        + "or all tenants more than max-queued-total")
+                .register(meterRegistry);
+        if (!enabled) {
+            if (properties.isFairScheduling()) {
+                log.info("Tenant fair scheduling is off in exactly-once mode; records are processed in order");
+            }
+            return;
+        }
+        for (NotificationPriority priority : LANES) {
+            Lane lane = new Lane(priority, lock.newCondition());
+            lanes.put(priority, lane);
+            for (int i = 0; i < properties.getDispatchersPerLane(); i++) {
+                Thread thread = new Thread(() -> dispatch(lane), "tenant-" + priority.tag() + "-" + i);
+                thread.setDaemon(true);
+                dispatchers.add(thread);
+            }
+        }
+        Gauge.builder("worker.tenant.queued", this, TenantFairScheduler::queued)
+                .description("Records waiting in tenant queues across all tenants")
+                .register(meterRegistry);
+        dispatchers.forEach(Thread::start);
+        log.info("Tenant fair scheduling: {} dispatchers per lane, max {} queued per tenant and {} in total",
+                properties.getDispatchersPerLane(), properties.getMaxQueued(), properties.getMaxQueuedTotal());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues {@code work} for its tenant and returns; {@code acknowledgment} is called once it has
+     * run. When fair scheduling is off, runs it on the calling thread and lets its exceptions
+     * through.
+     */
+    public void submit(NotificationPriority lane, String tenantId, int partition, long offset, long publishedAt,
+                       Acknowledgment acknowledgment, Runnable work) throws InterruptedException {
+        String id = tenantId != null ? tenantId : DEFAULT_TENANT;
+        if (!enabled) {
+            Tenant tenant = tenant(id);
+            laneScheduler.run(lane, () -> {
+                tenant.queueTimer.record(Math.max(0, System.currentTimeMillis() - publishedAt), TimeUnit.MILLISECONDS);
+                try {
+                    work.run();
+                } finally {
+                    tenant.processed.increment();
+                }
+            });
+            if (acknowledgment != null) {
+                acknowledgment.acknowledge();
+            }
+            return;
+        }
+
+        TopicPartition topicPartition = new TopicPartition(lane.topic(), partition);
+        boolean overLimit;
+        lock.lock();
+        try {
+            PartitionOffsets partitionOffsets = offsets.computeIfAbsent(topicPartition, key -> new PartitionOffsets());
+            Task task = new Task(topicPartition, publishedAt, acknowledgment, work, partitionOffsets);
+            partitionOffsets.pending.put(offset, task);
+            Tenant tenant = tenant(id);
+            Lane target = lanes.get(lane);
+            Deque<Task> queue = tenant.queues.get(lane);
+            if (queue.isEmpty()) {
+                target.active.addLast(tenant);
+            }
+            queue.addLast(task);
+            tenant.queued++;
+            totalQueued++;
+            boolean tenantOverLimit = tenant.queued > properties.getMaxQueued();
+            if (tenantOverLimit && tenant.paused.add(topicPartition)) {
+                pauses.merge(topicPartition, 1, Integer::sum);
+                pauseCounter.increment();
+                log.info("Tenant {} has {} records queued, pausing {}", id, tenant.queued, topicPartition);
+            }
+            boolean totalOverLimit = totalQueued > properties.getMaxQueuedTotal();
+            if (totalOverLimit && pausedForTotal.add(topicPartition)) {
+                pauses.merge(topicPartition, 1, Integer::sum);
+                pauseCounter.increment();
+                log.info("{} records queued across tenants, pausing {}", totalQueued, topicPartition);
+            }
+            overLimit = tenantOverLimit || totalOverLimit;
+            target.ready.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (overLimit) {
+            // Repeated while over the limit: a container restart or rebalance forgets its pauses
+            pause(topicPartition);
+        }
+    }
+
+    /**
+     * Drops queued records of partitions this worker no longer owns; their offsets were not
+     * committed, so the new owner processes them. Records of those partitions still running are
+     * not acknowledged when they finish.
+     */
+    public void discard(Collection<TopicPartition> revoked) {
+        if (!enabled || revoked.isEmpty()) {
+            return;
+        }
+        Set<TopicPartition> partitions = new HashSet<>(revoked);
+        lock.lock();
+        try {
+            int dropped = 0;
+            for (Tenant tenant : tenants.values()) {
+                for (NotificationPriority priority : LANES) {
+                    Deque<Task> queue = tenant.queues.get(priority);
+                    int before = queue.size();
+                    if (before == 0 || !queue.removeIf(task -> partitions.contains(task.partition))) {
+                        continue;
+                    }
+                    dropped += before - queue.size();
+                    tenant.queued -= before - queue.size();
+                    totalQueued -= before - queue.size();
+                    if (queue.isEmpty()) {
+                        lanes.get(priority).active.remove(tenant);
+                        tenant.deficit[priority.ordinal()] = 0;
+                    }
+                }
+                tenant.paused.removeAll(partitions);
+            }
+            pausedForTotal.removeAll(partitions);
+            pauses.keySet().removeAll(partitions);
+            for (TopicPartition partition : partitions) {
+                PartitionOffsets partitionOffsets = offsets.remove(partition);
+                if (partitionOffsets != null) {
+                    partitionOffsets.revoked = true;
+                }
+            }
+            if (dropped > 0) {
+                log.info("Dropped {} queued records of revoked partitions {}", dropped, partitions);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Records still queued or running are not acknowledged and will be consumed again
+        dispatchers.forEach(Thread::interrupt);
+    }
+
+    private void dispatch(Lane lane) {
+        List<TopicPartition> resumed = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            lock.lock();
+            try {
+                awaitRecord(lane);
+            } catch (InterruptedException ex) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            Claim claim = new Claim();
+            try {
+                // The tenant is picked once the slot is ours: records picked earlier would wait
+                // for slots in arrival order and undo the round robin
+                laneScheduler.run(lane.priority, () -> runNext(lane, claim, resumed));
+            } catch (InterruptedException ex) {
+                if (!claim.taken) {
+                    lock.lock();
+                    try {
+                        lane.claims--;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private void runNext(Lane lane, Claim claim, List<TopicPartition> resumed) {
+        Task task = null;
+        Tenant tenant;
+        lock.lock();
+        try {
+            claim.taken = true;
+            lane.claims--;
+            tenant = next(lane, resumed);
+            if (tenant != null) {
+                task = tenant.queues.get(lane.priority).pollFirst();
+            } else {
+                // Someone else's quota ran out in between; let another dispatcher re-check
+                lane.ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Outside the lock: the container's lifecycle lock may be held by a stop waiting for a
+        // consumer thread that is submitting to us
+        resumed.forEach(this::resume);
+        resumed.clear();
+        if (task == null) {
+            return;
+        }
+
+        tenant.queueTimer.record(Math.max(0, System.currentTimeMillis() - task.publishedAt), TimeUnit.MILLISECONDS);
+        try {
+            task.work.run();
+        } catch (RuntimeException ex) {
+            // Failures are handled by the work itself; an unacknowledged record would hold back
+            // every later commit on its partition
+            log.error("Record from {} failed", task.partition, ex);
+        }
+        Acknowledgment committable = finished(tenant, task);
+        if (committable != null) {
+            committable.acknowledge();
+        }
+    }
+
+    // Waits until the lane has a record some tenant may start that no other dispatcher has
+    // claimed a slot for, and claims it; called under the lock, which is released while waiting
+    private void awaitRecord(Lane lane) throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            long waitNanos = Long.MAX_VALUE;
+            int startable = 0;
+            for (Tenant tenant : lane.active) {
+                long blockedNanos = tenant.blockedNanos(now);
+                if (blockedNanos == 0) {
+                    startable += tenant.startable(lane.priority);
+                }
+                waitNanos = Math.min(waitNanos, blockedNanos);
+            }
+            if (startable > lane.claims) {
+                lane.claims++;
+                return;
+            }
+            if (waitNanos == 0 || waitNanos == Long.MAX_VALUE) {
+                lane.ready.await();
+            } else {
+                lane.ready.awaitNanos(waitNanos);
+            }
+        }
+    }
+
+    // Deficit round robin over the lane's tenants that have room under their quotas; null when
+    // none has. Called under the lock.
+    private Tenant next(Lane lane, List<TopicPartition> resumed) {
+        int index = lane.priority.ordinal();
+        long now = System.nanoTime();
+        boolean eligible = true;
+        while (eligible) {
+            // Another round when a tenant with room is still short of a whole record
+            eligible = false;
+            for (int i = lane.active.size(); i > 0; i--) {
+                Tenant tenant = lane.active.peekFirst();
+                if (tenant.blockedNanos(now) == 0) {
+                    eligible = true;
+                    if (tenant.deficit[index] < 1) {
+                        tenant.deficit[index] += tenant.quota.getWeight();
+                    }
+                    if (tenant.deficit[index] >= 1) {
+                        tenant.deficit[index] -= 1;
+                        started(lane, tenant, resumed);
+                        return tenant;
+                    }
+                }
+                lane.active.addLast(lane.active.pollFirst());
+            }
+        }
+        return null;
+    }
+
+    private void started(Lane lane, Tenant tenant, List<TopicPartition> resumed) {
+        int index = lane.priority.ordinal();
+        tenant.inFlight++;
+        tenant.queued--;
+        totalQueued--;
+        if (tenant.quota.getRatePerSecond() > 0) {
+            tenant.tokens -= 1;
+        }
+        if (tenant.queues.get(lane.priority).size() == 1) {
+            // Its last record in this lane is about to be taken
+            lane.active.pollFirst();
+            tenant.deficit[index] = 0;
+        } else if (tenant.deficit[index] < 1) {
+            lane.active.addLast(lane.active.pollFirst());
+        }
+        if (!tenant.paused.isEmpty() && tenant.queued <= properties.getMaxQueued() / 2) {
+            for (TopicPartition partition : tenant.paused) {
+                if (pauses.merge(partition, -1, Integer::sum) <= 0) {
+                    pauses.remove(partition);
+                    resumed.add(partition);
+                }
+            }
+            log.info("Tenant {} is down to {} queued records, resumed its partitions", tenant.id, tenant.queued);
+            tenant.paused.clear();
+        }
+        if (!pausedForTotal.isEmpty() && totalQueued <= properties.getMaxQueuedTotal() / 2) {
+            for (TopicPartition partition : pausedForTotal) {
+                if (pauses.merge(partition, -1, Integer::sum) <= 0) {
+                    pauses.remove(partition);
+                    resumed.add(partition);
+                }
+            }
+            log.info("Down to {} queued records across tenants, resumed their partitions", totalQueued);
+            pausedForTotal.clear();
+        }
+    }
+
+    // Returns the acknowledgment that moves the partition's committed offset, if this record did
+    private Acknowledgment finished(Tenant tenant, Task task) {
+        lock.lock();
+        try {
+            tenant.inFlight--;
+            tenant.processed.increment();
+            if (tenant.quota.getMaxConcurrent() > 0 && tenant.queued > 0) {
+                // It may have been skipped for being at its limit
+                for (NotificationPriority priority : LANES) {
+                    if (!tenant.queues.get(priority).isEmpty()) {
+                        lanes.get(priority).ready.signal();
+                    }
+                }
+            }
+            task.done = true;
+            PartitionOffsets partitionOffsets = task.offsets;
+            Task last = null;
+            while (!partitionOffsets.pending.isEmpty() && partitionOffsets.pending.firstEntry().getValue().done) {
+                last = partitionOffsets.pending.pollFirstEntry().getValue();
+            }
+            return last != null && !partitionOffsets.revoked ? last.acknowledgment : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Tenant tenant(String id) {
+        lock.lock();
+        try {
+            return tenants.computeIfAbsent(id, key -> {
+                // Tenant IDs come from API clients, so the tag values are capped
+                String tag = taggedTenants < properties.getMaxTaggedTenants() ? key : OTHER_TENANTS;
+                if (!tag.equals(OTHER_TENANTS)) {
+                    taggedTenants++;
+                }
+                return new Tenant(key, properties.quotaFor(key),
+                        PipelineMetrics.tenantQueueTimer(meterRegistry, tag),
+                        Counter.builder("worker.tenant.processed")
+                                .description("Records processed per tenant")
+                                .tag("tenant", tag)
+                                .register(meterRegistry));
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pause(TopicPartition partition) {
+        MessageListenerContainer container = container(partition);
+        if (container != null) {
+            container.pausePartition(partition);
+        }
+    }
+
+    private void resume(TopicPartition partition) {
+        MessageListenerContainer container = container(partition);
+        if (container != null) {
+            container.resumePartition(partition);
+        }
+    }
+
+    private MessageListenerContainer container(TopicPartition partition) {
+        for (NotificationPriority lane : LANES) {
+            if (lane.topic().equals(partition.topic())) {
+                return listenerRegistry.getListenerContainer(NotificationConsumer.listenerId(lane));
+            }
+        }
+        return null;
+    }
+
+    private int queued() {
+        lock.lock();
+        try {
+            return totalQueued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Lane {
+        final NotificationPriority priority;
+        final Condition ready;
+        // Tenants with records queued in this lane, in round-robin order
+        final Deque<Tenant> active = new ArrayDeque<>();
+        // Dispatchers waiting for a slot for one of the lane's records
+        int claims;
+
+        Lane(NotificationPriority priority, Condition ready) {
+            this.priority = priority;
+            this.ready = ready;
+        }
+    }
+
+    private static class Tenant {
+        final String id;
+        final TenancyProperties.Quota quota;
+        final Timer queueTimer;
+        final Counter processed;
+        final Map<NotificationPriority, Deque<Task>> queues = new EnumMap<>(NotificationPriority.class);
+        final double[] deficit = new double[LANES.length];
+        final Set<TopicPartition> paused = new HashSet<>();
+        int queued;
+        int inFlight;
+        double tokens;
+        long refilledAt = System.nanoTime();
+
+        Tenant(String id, TenancyProperties.Quota quota, Timer queueTimer, Counter processed) {
+            this.id = id;
+            this.quota = quota;
+            this.queueTimer = queueTimer;
+            this.processed = processed;
+            this.tokens = Math.max(1, quota.getRatePerSecond());
+            for (NotificationPriority lane : LANES) {
+                queues.put(lane, new ArrayDeque<>());
+            }
+        }
+
+        // 0 when the tenant may start a record now, else how long until it may; MAX_VALUE when
+        // only a record of its own finishing frees it
+        long blockedNanos(long now) {
+            if (quota.getMaxConcurrent() > 0 && inFlight >= quota.getMaxConcurrent()) {
+                return Long.MAX_VALUE;
+            }
+            double rate = quota.getRatePerSecond();
+            if (rate <= 0) {
+                return 0;
+            }
+            // Up to one second of unused rate is kept as burst
+            tokens = Math.min(Math.max(1, rate), tokens + (now - refilledAt) / 1e9 * rate);
+            refilledAt = now;
+            return tokens >= 1 ? 0 : Math.max(1, (long) ((1 - tokens) / rate * 1e9));
+        }
+
+        // Records of the lane it may start now, when not blocked
+        int startable(NotificationPriority lane) {
+            int startable = queues.get(lane).size();
+            if (quota.getMaxConcurrent() > 0) {
+                startable = Math.min(startable, quota.getMaxConcurrent() - inFlight);
+            }
+            if (quota.getRatePerSecond() > 0) {
+                startable = Math.min(startable, (int) tokens);
+            }
+            return startable;
+        }
+    }
+
+    private static class Claim {
+        boolean taken;
+    }
+
+    private static class PartitionOffsets {
+        // Records received and not yet acknowledged, by offset
+        final TreeMap<Long, Task> pending = new TreeMap<>();
+        boolean revoked;
+    }
+
+    private static class Task {
+        final TopicPartition partition;
+        final long publishedAt;
+        final Acknowledgment acknowledgment;
+        final Runnable work;
+        final PartitionOffsets offsets;
+        boolean done;
+
+        Task(TopicPartition partition, long publishedAt, Acknowledgment acknowledgment, Runnable work,
+             PartitionOffsets offsets) {
+            this.partition = partition;
+            this.publishedAt = publishedAt;
+            this.acknowledgment = acknowledgment;
+            this.work = work;
+            this.offsets = offsets;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.worker.client;
+
+import com.worker.dto.AiEnhancementRequest;
+import com.worker.dto.AiEnhancementResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AiRequestHedgerTest {
+
+    private static final String PRIMARY_URL = "http://localhost:8083";
+    private static final URI SECOND = URI.create("http://ai-2:8083");
+    private static final URI THIRD = URI.create("http://ai-3:8083");
+    private static final int MIN_SAMPLES = 10;
+
+    private static final AiEnhancementRequest REQUEST = new AiEnhancementRequest();
+    private static final AiEnhancementResponse FROM_PRIMARY = response("primary");
+    private static final AiEnhancementResponse FROM_HEDGE = response("hedge");
+
+    private AiServiceClient primaryClient;
+    private AiServiceHedgeClient hedgeClient;
+    private SimpleMeterRegistry meterRegistry;
+    private AiRequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        primaryClient = mock(AiServiceClient.class);
+        hedgeClient = mock(AiServiceHedgeClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hedger != null) {
+            hedger.shutdown();
+        }
+    }
+
+    @Test
+    void doesNotHedgeBeforeTheThresholdIsKnown() throws Exception {
+        hedger = hedger(SECOND + "," + THIRD, 10);
+        when(primaryClient.enhanceMessage(any(), any())).thenAnswer(after(100, FROM_PRIMARY, new CountDownLatch(1)));
+
+        assertThat(hedger.enhanceMessage(REQUEST, null)).isSameAs(FROM_PRIMARY);
+
+        assertThat(count("worker.ai.hedge.requests")).isZero();
+        verifyNoInteractions(hedgeClient);
+    }
+
+    @Test
+    void aSlowCallIsHedgedAndTheLosingPrimaryCancelled() throws Exception {
+        hedger = hedger(SECOND + "," + PRIMARY_URL + "/," + THIRD + "/", 10);
+        warmUp();
+        CountDownLatch primaryInterrupted = new CountDownLatch(2);
+        when(primaryClient.enhanceMessage(any(), any())).thenAnswer(after(5000, FROM_PRIMARY, primaryInterrupted));
+        when(hedgeClient.enhanceMessage(any(), any(), any())).thenReturn(FROM_HEDGE);
+
+        assertThat(hedger.enhanceMessage(REQUEST, null)).isSameAs(FROM_HEDGE);
+        assertThat(hedger.enhanceMessage(REQUEST, null)).isSameAs(FROM_HEDGE);
+
+        assertThat(primaryInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(count("worker.ai.hedge.requests")).isEqualTo(2);
+        assertThat(count("worker.ai.hedge.wins")).isEqualTo(2);
+        assertThat(count("worker.ai.hedge.budget.exhausted")).isZero();
+        // Round robin over the other instances; the primary's own url is dropped
+        verify(hedgeClient).enhanceMessage(eq(SECOND), any(), any());
+        verify(hedgeClient).enhanceMessage(eq(THIRD), any(), any());
+    }
+
+    @Test
+    void aPrimaryThatAnswersFirstCancelsTheHedge() throws Exception {
+        hedger = hedger(SECOND.toString(), 10);
+        warmUp();
+        CountDownLatch hedgeInterrupted = new CountDownLatch(1);
+        when(primaryClient.enhanceMessage(any(), any())).thenAnswer(after(150, FROM_PRIMARY, new CountDownLatch(1)));
+        when(hedgeClient.enhanceMessage(any(), any(), any())).thenAnswer(after(5000, FROM_HEDGE, hedgeInterrupted));
+
+        assertThat(hedger.enhanceMessage(REQUEST, null)).isSameAs(FROM_PRIMARY);
+
+        assertThat(hedgeInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(count("worker.ai.hedge.requests")).isEqualTo(1);
+        assertThat(count("worker.ai.hedge.wins")).isZero();
+    }
+
+    @Test
+    void aFailedPrimaryLeavesTheHedgeToAnswer() throws Exception {
+        hedger = hedger(SECOND.toString(), 10);
+        warmUp();
+        when(primaryClient.enhanceMessage(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            throw new IllegalStateException("primary failed");
+        });
+        when(hedgeClient.enhanceMessage(any(), any(), any())).thenAnswer(after(200, FROM_HEDGE, new CountDownLatch(1)));
+
+        assertThat(hedger.enhanceMessage(REQUEST, null)).isSameAs(FROM_HEDGE);
+
+        assertThat(count("worker.ai.hedge.requests")).isEqualTo(1);
+        assertThat(count("worker.ai.hedge.wins")).isEqualTo(1);
+    }
+
+    @Test
+    void slowCallsPastTheBudgetWaitForThePrimary() throws Exception {
+        // One hedge saved and none earned: the first slow call hedges, the second cannot
+        hedger = hedger(SECOND.toString(), 1);
+        warmUp();
+        when(primaryClient.enhanceMessage(any(), any())).thenAnswer(after(150, FROM_PRIMARY, new CountDownLatch(1)));
+        when(hedgeClient.enhanceMessage(any(), any(), any())).thenReturn(FROM_HEDGE);
+
+        assertThat(hedger.enhanceMessage(REQUEST, null)).isSameAs(FROM_HEDGE);
+        assertThat(hedger.enhanceMessage(REQUEST, null)).isSameAs(FROM_PRIMARY);
+
+        assertThat(count("worker.ai.hedge.requests")).isEqualTo(1);
+        assertThat(count("worker.ai.hedge.wins")).isEqualTo(1);
+        assertThat(count("worker.ai.hedge.budget.exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void withOnlyThePrimaryAsTargetCallsGoStraightToIt() throws Exception {
+        hedger = hedger(PRIMARY_URL + "/", 10);
+        when(primaryClient.enhanceMessage(any(), any())).thenAnswer(after(100, FROM_PRIMARY, new CountDownLatch(1)));
+
+        for (int i = 0; i < MIN_SAMPLES + 2; i++) {
+            assertThat(hedger.enhanceMessage(REQUEST, null)).isSameAs(FROM_PRIMARY);
+        }
+
+        assertThat(count("worker.ai.hedge.requests")).isZero();
+        verifyNoInteractions(hedgeClient);
+    }
+
+    private AiRequestHedger hedger(String targets, double maxBurst) {
+        return new AiRequestHedger(primaryClient, hedgeClient, meterRegistry, PRIMARY_URL, targets,
+                0.95, Duration.ofMillis(30), 20, MIN_SAMPLES, 0, maxBurst);
+    }
+
+    // Fast answers until the threshold settles at the minimum delay
+    private void warmUp() throws Exception {
+        when(primaryClient.enhanceMessage(any(), any())).thenReturn(FROM_PRIMARY);
+        for (int i = 0; i < MIN_SAMPLES; i++) {
+            hedger.enhanceMessage(REQUEST, null);
+        }
+        assertThat(meterRegistry.get("worker.ai.hedge.threshold").gauge().value()).isEqualTo(30.0);
+        verifyNoInteractions(hedgeClient);
+    }
+
+    private double count(String counter) {
+        return meterRegistry.get(counter).counter().count();
+    }
+
+    private static Answer<AiEnhancementResponse> after(long millis, AiEnhancementResponse response,
+                                                       CountDownLatch interrupted) {
+        return invocation -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw ex;
+            }
+            return response;
+        };
+    }
+
+    private static AiEnhancementResponse response(String strategy) {
+        AiEnhancementResponse response = new AiEnhancementResponse();
+        response.setOptimizationStrategy(strategy);
+        return response;
+    }
+}
@@ -0,0 +1,175 @@
+package com.worker.delivery;
+
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.DeliveryAttemptRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class DeliveryAttemptLogTest {
+
+    private static final String PENDING_OUTCOMES = "create table pending_outcomes (id bigint generated by default "
+            + "as identity primary key, notification_id bigint not null, status varchar(16) not null, "
+            + "retry_count integer, error_message varchar(255), enhanced_subject varchar(255), "
+            + "enhanced_message varchar(4000), occurred_at timestamp not null)";
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DeliveryAttemptLog attemptLog;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table notifications (id bigint primary key, status varchar(16), "
+                + "retry_count integer, error_message varchar(255), enhanced_subject varchar(255), "
+                + "enhanced_message varchar(4000), updated_at timestamp)");
+        jdbcTemplate.execute("create table delivery_attempts (id bigint generated by default as identity "
+                + "primary key, notification_id bigint not null, attempt integer not null, "
+                + "status varchar(16) not null, error_message varchar(255), occurred_at timestamp not null)");
+        jdbcTemplate.execute(PENDING_OUTCOMES);
+        meterRegistry = new SimpleMeterRegistry();
+        attemptLog = new DeliveryAttemptLog(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                mock(DeliveryAttemptRepository.class), meterRegistry, 2, Duration.ofMillis(500), Duration.ofDays(30));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        attemptLog.shutdown();
+        jdbcTemplate.execute("shutdown");
+    }
+
+    @Test
+    void recordingLeavesTheRowsUntilCompactionAppliesTheLatestOutcome() {
+        insertNotification(1L, NotificationStatus.PENDING);
+        Notification notification = notification(1L, 0);
+        notification.setEnhancedSubject("Enhanced");
+        notification.setEnhancedMessage("Enhanced message");
+
+        attemptLog.record(DeliveryAttemptLog.Attempt.failed(notification, NotificationStatus.RETRY, 1,
+                "SMTP timeout", true));
+        attemptLog.record(DeliveryAttemptLog.Attempt.sent(notification(1L, 1), false));
+
+        assertThat(row(1L)).containsEntry("status", "PENDING");
+        assertThat(jdbcTemplate.queryForList("select attempt, status from delivery_attempts "
+                + "where notification_id = 1 order by id"))
+                .containsExactly(Map.of("attempt", 1, "status", "RETRY"), Map.of("attempt", 2, "status", "SENT"));
+
+        attemptLog.compact();
+
+        // The send keeps the retry count and the content the failed attempt stored
+        assertThat(row(1L)).containsEntry("status", "SENT")
+                .containsEntry("retry_count", 1)
+                .containsEntry("error_message", null)
+                .containsEntry("enhanced_subject", "Enhanced")
+                .containsEntry("enhanced_message", "Enhanced message");
+        assertThat(count("pending_outcomes")).isZero();
+        assertThat(meterRegistry.get("worker.delivery.outcomes.compacted").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void compactsMoreOutcomesThanOneBatchInOrder() {
+        for (long id = 1; id <= 5; id++) {
+            insertNotification(id, NotificationStatus.PENDING);
+        }
+        for (long id = 1; id <= 5; id++) {
+            attemptLog.record(DeliveryAttemptLog.Attempt.buffered(notification(id, 0)));
+        }
+        attemptLog.record(DeliveryAttemptLog.Attempt.failed(notification(5L, 0), NotificationStatus.RETRY, 1,
+                "Digest send interrupted", false));
+
+        attemptLog.compact();
+
+        for (long id = 1; id <= 4; id++) {
+            assertThat(row(id)).containsEntry("status", "PROCESSING");
+        }
+        assertThat(row(5L)).containsEntry("status", "RETRY").containsEntry("retry_count", 1)
+                .containsEntry("error_message", "Digest send interrupted");
+        assertThat(count("pending_outcomes")).isZero();
+    }
+
+    @Test
+    void aSentRowIsNeverOverwritten() {
+        insertNotification(1L, NotificationStatus.SENT);
+
+        attemptLog.record(DeliveryAttemptLog.Attempt.expired(1L, 1, "Expired after its send"));
+        attemptLog.compact();
+
+        assertThat(row(1L)).containsEntry("status", "SENT");
+        assertThat(count("delivery_attempts")).isEqualTo(1);
+    }
+
+    @Test
+    void aFailedWriteIsThrownToTheCaller() {
+        jdbcTemplate.execute("drop table pending_outcomes");
+
+        assertThatThrownBy(() -> attemptLog.record(DeliveryAttemptLog.Attempt.suppressed(notification(1L, 0),
+                "Recipient suppressed: BOUNCE")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Failed to record delivery attempts");
+        // The attempts were inserted in the same transaction
+        assertThat(count("delivery_attempts")).isZero();
+        jdbcTemplate.execute(PENDING_OUTCOMES);
+    }
+
+    @Test
+    void sentOutcomesStayQueuedUntilTheWriteSucceeds() throws InterruptedException {
+        insertNotification(1L, NotificationStatus.PENDING);
+        jdbcTemplate.execute("drop table pending_outcomes");
+
+        // Returns after the flush timeout without throwing
+        attemptLog.recordSent(List.of(DeliveryAttemptLog.Attempt.sent(notification(1L, 0), false)));
+        assertThat(count("delivery_attempts")).isZero();
+
+        jdbcTemplate.execute(PENDING_OUTCOMES);
+        await(() -> count("delivery_attempts") == 1);
+        attemptLog.compact();
+
+        assertThat(row(1L)).containsEntry("status", "SENT");
+    }
+
+    private void insertNotification(Long id, NotificationStatus status) {
+        jdbcTemplate.update("insert into notifications (id, status, retry_count) values (?, ?, 0)", id, status.name());
+    }
+
+    private Map<String, Object> row(Long id) {
+        return jdbcTemplate.queryForMap("select status, retry_count, error_message, enhanced_subject, "
+                + "enhanced_message from notifications where id = ?", id);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private static Notification notification(Long id, int retryCount) {
+        return Notification.builder()
+                .id(id)
+                .retryCount(retryCount)
+                .build();
+    }
+
+    private static void await(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.get()) {
+            assertThat(System.nanoTime()).as("condition not met within 10 s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
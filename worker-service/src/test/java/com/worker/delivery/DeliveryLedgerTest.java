@@ -0,0 +1,113 @@
+package com.worker.delivery;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeliveryLedgerTest {
+
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+
+    private DeliveryRecordRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private DeliveryLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DeliveryRecordRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ledger = new DeliveryLedger(repository, mock(PlatformTransactionManager.class), meterRegistry,
+                CLAIM_TIMEOUT, Duration.ofDays(7));
+    }
+
+    @Test
+    void theFirstDeliveryAcquiresTheClaim() {
+        assertThat(ledger.claim(1L)).isEqualTo(DeliveryLedger.Claim.ACQUIRED);
+
+        verify(repository).insert(eq(1L), eq(DeliveryRecord.State.SENDING.name()), any());
+        verify(repository, never()).findLockedById(1L);
+    }
+
+    @Test
+    void aRedeliveryOfASentNotificationIsSkippedAndCounted() {
+        existing(DeliveryRecord.State.SENT, LocalDateTime.now().minusHours(1));
+
+        assertThat(ledger.claim(1L)).isEqualTo(DeliveryLedger.Claim.ALREADY_SENT);
+
+        assertThat(meterRegistry.get("worker.delivery.duplicates.skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void aClaimHeldElsewhereWithinTheTimeoutIsInProgress() {
+        LocalDateTime claimedAt = LocalDateTime.now().minusMinutes(1);
+        DeliveryRecord record = existing(DeliveryRecord.State.SENDING, claimedAt);
+
+        assertThat(ledger.claim(1L)).isEqualTo(DeliveryLedger.Claim.IN_PROGRESS);
+
+        assertThat(record.getClaimedAt()).isEqualTo(claimedAt);
+        assertThat(meterRegistry.get("worker.delivery.duplicates.skipped").counter().count()).isZero();
+    }
+
+    @Test
+    void aClaimPastTheTimeoutIsTakenOver() {
+        LocalDateTime before = LocalDateTime.now();
+        DeliveryRecord record = existing(DeliveryRecord.State.SENDING, before.minus(CLAIM_TIMEOUT).minusSeconds(1));
+
+        assertThat(ledger.claim(1L)).isEqualTo(DeliveryLedger.Claim.ACQUIRED);
+
+        assertThat(record.getState()).isEqualTo(DeliveryRecord.State.SENDING);
+        assertThat(record.getClaimedAt()).isAfterOrEqualTo(before);
+    }
+
+    @Test
+    void aClaimReleasedBetweenTheInsertAndTheReadIsInProgress() {
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(repository).insert(eq(1L), anyString(), any());
+        when(repository.findLockedById(1L)).thenReturn(Optional.empty());
+
+        assertThat(ledger.claim(1L)).isEqualTo(DeliveryLedger.Claim.IN_PROGRESS);
+    }
+
+    @Test
+    void releaseDropsOnlyAClaimStillSending() {
+        ledger.release(1L);
+
+        verify(repository).deleteInState(1L, DeliveryRecord.State.SENDING);
+    }
+
+    @Test
+    void aDigestIsMarkedSentInOneStatement() {
+        ledger.markSent(List.of(1L, 2L, 3L));
+
+        verify(repository).markState(eq(List.of(1L, 2L, 3L)), eq(DeliveryRecord.State.SENT), any());
+    }
+
+    private DeliveryRecord existing(DeliveryRecord.State state, LocalDateTime claimedAt) {
+        DeliveryRecord record = DeliveryRecord.builder()
+                .notificationId(1L)
+                .state(state)
+                .claimedAt(claimedAt)
+                .build();
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(repository).insert(eq(1L), anyString(), any());
+        when(repository.findLockedById(1L)).thenReturn(Optional.of(record));
+        return record;
+    }
+}
@@ -0,0 +1,170 @@
+package com.worker.scaling;
+
+import com.notification.core.model.NotificationPriority;
+import com.worker.scheduler.PriorityLaneScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdaptiveConcurrencyControllerTest {
+
+    private static final int MIN = 3;
+    private static final int MAX = 16;
+    private static final int SCALE_DOWN_AFTER = 3;
+
+    private static PriorityLaneScheduler.Load saturated;
+    private static PriorityLaneScheduler.Load idle;
+
+    private ConsumerLagMonitor lagMonitor;
+    private PriorityLaneScheduler laneScheduler;
+    private AdaptiveConcurrencyController controller;
+
+    @BeforeAll
+    static void sampleLoads() throws Exception {
+        idle = newScheduler(3).sampleLoad();
+        saturated = saturatedLoad();
+    }
+
+    @BeforeEach
+    void setUp() {
+        lagMonitor = mock(ConsumerLagMonitor.class);
+        laneScheduler = newScheduler(4);
+        controller = new AdaptiveConcurrencyController(lagMonitor, laneScheduler,
+                mock(KafkaListenerEndpointRegistry.class), true, MIN, MAX, 60, SCALE_DOWN_AFTER, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void growsByHalfWhileBehindAndSlotsAreTheConstraint() throws Exception {
+        when(lagMonitor.sample()).thenReturn(snapshot(10_000, 600, saturated));
+
+        List<Integer> sizes = adjust(5);
+
+        assertThat(sizes).containsExactly(6, 9, 13, 16, 16);
+    }
+
+    @Test
+    void holdsWhenBehindButSlotsAreNotTheConstraint() throws Exception {
+        when(lagMonitor.sample()).thenReturn(snapshot(10_000, 600, idle));
+
+        assertThat(adjust(4)).containsOnly(4);
+    }
+
+    @Test
+    void holdsWhenTheBacklogDrainsWithinTheTarget() throws Exception {
+        when(lagMonitor.sample()).thenReturn(snapshot(100, 30, saturated));
+
+        assertThat(adjust(4)).containsOnly(4);
+    }
+
+    @Test
+    void shrinksByOneAfterQuietSamplesDownToTheMinimum() throws Exception {
+        laneScheduler.resize(5);
+        when(lagMonitor.sample()).thenReturn(snapshot(0, 0, idle));
+
+        List<Integer> sizes = adjust(3 * SCALE_DOWN_AFTER);
+
+        assertThat(sizes).containsExactly(5, 5, 4, 4, 4, 3, 3, 3, 3);
+    }
+
+    @Test
+    void aBusySampleRestartsTheQuietCount() throws Exception {
+        when(lagMonitor.sample()).thenReturn(
+                snapshot(0, 0, idle), snapshot(0, 0, idle),
+                snapshot(100, 30, saturated),
+                snapshot(0, 0, idle), snapshot(0, 0, idle), snapshot(0, 0, idle));
+
+        List<Integer> sizes = adjust(6);
+
+        assertThat(sizes).containsExactly(4, 4, 4, 4, 4, 3);
+    }
+
+    @Test
+    void leavesSlotsAloneWhenDisabled() throws Exception {
+        controller = new AdaptiveConcurrencyController(lagMonitor, laneScheduler,
+                mock(KafkaListenerEndpointRegistry.class), false, MIN, MAX, 60, SCALE_DOWN_AFTER, Duration.ofSeconds(60));
+        when(lagMonitor.sample()).thenReturn(snapshot(10_000, 600, saturated));
+
+        assertThat(adjust(3)).containsOnly(4);
+    }
+
+    @Test
+    void rejectsBoundsAtOrBelowTheReservedHighSlots() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyController(lagMonitor, laneScheduler,
+                mock(KafkaListenerEndpointRegistry.class), true, 2, MAX, 60, SCALE_DOWN_AFTER, Duration.ofSeconds(60)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Integer> adjust(int samples) {
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < samples; i++) {
+            controller.adjust();
+            sizes.add(laneScheduler.slots());
+        }
+        return sizes;
+    }
+
+    private static ConsumerLagMonitor.Snapshot snapshot(long lag, double drainSeconds, PriorityLaneScheduler.Load load) {
+        return new ConsumerLagMonitor.Snapshot(Map.of(), lag, 0, 0, drainSeconds, 0, 1, load);
+    }
+
+    private static PriorityLaneScheduler newScheduler(int slots) {
+        return new PriorityLaneScheduler(slots, 2, 6, 3, 1, new SimpleMeterRegistry());
+    }
+
+    // Every slot busy and a record waiting for the whole sample
+    private static PriorityLaneScheduler.Load saturatedLoad() throws Exception {
+        PriorityLaneScheduler scheduler = newScheduler(3);
+        CountDownLatch running = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    scheduler.run(NotificationPriority.HIGH, () -> {
+                        running.countDown();
+                        awaitQuietly(release);
+                    });
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        // The fourth record has to be queued before the sample starts
+        Thread.sleep(50);
+        scheduler.sampleLoad();
+        Thread.sleep(20);
+        PriorityLaneScheduler.Load load = scheduler.sampleLoad();
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+        assertThat(load.utilization).isEqualTo(1.0);
+        assertThat(load.contention).isEqualTo(1.0);
+        return load;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
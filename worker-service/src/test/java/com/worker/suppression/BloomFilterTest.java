@@ -0,0 +1,121 @@
+package com.worker.suppression;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class BloomFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sizedForTheExpectedEntriesAndRate() throws IOException {
+        BloomFilter filter = BloomFilter.create(1_000_000, 0.01, BloomFilter.Storage.HEAP, null);
+
+        // m = -n ln p / (ln 2)^2 is 9,585,059 bits, rounded up to whole words; k = m / n ln 2
+        assertThat(filter.bitCount()).isEqualTo(9_585_088);
+        assertThat(filter.bitCount() % Long.SIZE).isZero();
+        assertThat(filter.sizeBytes()).isEqualTo(filter.bitCount() / 8);
+        assertThat(filter.hashCount()).isEqualTo(7);
+        assertThat(filter.falsePositiveRate(1_000_000)).isCloseTo(0.01, within(0.0005));
+        assertThat(filter.falsePositiveRate(2_000_000)).isGreaterThan(0.1);
+    }
+
+    @Test
+    void aTinyFilterStillHasAWordAndAHash() throws IOException {
+        BloomFilter filter = BloomFilter.create(1, 0.5, BloomFilter.Storage.HEAP, null);
+
+        assertThat(filter.bitCount()).isEqualTo(Long.SIZE);
+        assertThat(filter.hashCount()).isGreaterThanOrEqualTo(1);
+        assertThat(filter.put("a@example.com")).isTrue();
+        assertThat(filter.mightContain("a@example.com")).isTrue();
+    }
+
+    @Test
+    void neverMissesAnAddedKey() throws IOException {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01, BloomFilter.Storage.HEAP, null);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(address(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(address(i))).as(address(i)).isTrue();
+        }
+    }
+
+    @Test
+    void putReportsWhetherTheKeyWasNew() throws IOException {
+        BloomFilter filter = BloomFilter.create(1000, 0.01, BloomFilter.Storage.HEAP, null);
+
+        assertThat(filter.mightContain("user@example.com")).isFalse();
+        assertThat(filter.put("user@example.com")).isTrue();
+        assertThat(filter.put("user@example.com")).isFalse();
+        // Lookups take any CharSequence with the same chars
+        assertThat(filter.mightContain(new StringBuilder("user@example.com"))).isTrue();
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRateAtCapacity() throws IOException {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01, BloomFilter.Storage.HEAP, null);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(address(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 100_000; i < 300_000; i++) {
+            if (filter.mightContain(address(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 200_000.0).isLessThan(0.013);
+    }
+
+    @Test
+    void directAndMappedStorageAnswerLikeTheHeap() throws IOException {
+        Path file = tempDir.resolve("suppression.bloom");
+        Files.writeString(file, "left over from the last start");
+        BloomFilter heap = BloomFilter.create(5000, 0.01, BloomFilter.Storage.HEAP, null);
+        BloomFilter direct = BloomFilter.create(5000, 0.01, BloomFilter.Storage.DIRECT, null);
+        BloomFilter mapped = BloomFilter.create(5000, 0.01, BloomFilter.Storage.MAPPED, file);
+        for (int i = 0; i < 5000; i++) {
+            heap.put(address(i));
+            direct.put(address(i));
+            mapped.put(address(i));
+        }
+
+        assertThat(Files.size(file)).isEqualTo(mapped.sizeBytes());
+        for (int i = 0; i < 20_000; i++) {
+            boolean expected = heap.mightContain(address(i));
+            assertThat(direct.mightContain(address(i))).isEqualTo(expected);
+            assertThat(mapped.mightContain(address(i))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void rejectsSizesItCannotHold() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01, BloomFilter.Storage.HEAP, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(1000, 1, BloomFilter.Storage.HEAP, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(10_000_000_000L, 0.01, BloomFilter.Storage.HEAP, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than one buffer holds");
+        assertThatThrownBy(() -> BloomFilter.create(1000, 0.01, BloomFilter.Storage.MAPPED, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("A mapped filter needs a file");
+    }
+
+    private static String address(int i) {
+        return "recipient-" + i + "@example.com";
+    }
+}
@@ -0,0 +1,216 @@
+package com.worker.tenancy;
+
+import com.notification.core.model.NotificationPriority;
+import com.worker.consumer.NotificationConsumer;
+import com.worker.scheduler.PriorityLaneScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TenantFairSchedulerTest {
+
+    // NORMAL gets one slot, so records run one at a time in the order the round robin picks them
+    private static final NotificationPriority LANE = NotificationPriority.NORMAL;
+    private static final TopicPartition PARTITION = new TopicPartition(LANE.topic(), 0);
+
+    private final List<String> order = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private MessageListenerContainer container;
+    private TenancyProperties properties;
+    private TenantFairScheduler scheduler;
+    private long nextOffset;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        container = mock(MessageListenerContainer.class);
+        properties = new TenancyProperties();
+        properties.setDispatchersPerLane(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void servesTenantsInProportionToTheirWeights() throws Exception {
+        properties.setQuotas(Map.of("heavy", quota(2), "light", quota(1)));
+        start();
+        CountDownLatch done = new CountDownLatch(120);
+
+        holdTheSlot();
+        submit("heavy", 60, done);
+        submit("light", 60, done);
+        gate.countDown();
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        // While both have records queued the heavy tenant gets two of every three
+        assertThat(counts(order.subList(0, 90))).containsEntry("heavy", 60L).containsEntry("light", 30L);
+        assertThat(order.subList(0, 6)).containsExactly("heavy", "heavy", "light", "heavy", "heavy", "light");
+        assertThat(order.subList(90, 120)).containsOnly("light");
+    }
+
+    @Test
+    void fractionalWeightsShareOverSeveralRounds() throws Exception {
+        properties.setQuotas(Map.of("a", quota(1.5), "b", quota(0.5)));
+        start();
+        CountDownLatch done = new CountDownLatch(120);
+
+        holdTheSlot();
+        submit("a", 40, done);
+        submit("b", 40, done);
+        submit("c", 40, done);
+        gate.countDown();
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        // c has the default weight of 1: 1.5 : 0.5 : 1 is 3 : 1 : 2
+        assertThat(counts(order.subList(0, 60))).containsEntry("a", 30L).containsEntry("b", 10L).containsEntry("c", 20L);
+    }
+
+    @Test
+    void aQuietTenantIsServedNextDespiteAnotherTenantsBacklog() throws Exception {
+        start();
+        CountDownLatch done = new CountDownLatch(101);
+
+        holdTheSlot();
+        for (int i = 0; i < 100; i++) {
+            scheduler.submit(LANE, "bulk", 0, nextOffset++, System.currentTimeMillis(), null, () -> {
+                sleepQuietly(2);
+                order.add("bulk");
+                done.countDown();
+            });
+        }
+        gate.countDown();
+        while (order.size() < 10) {
+            Thread.sleep(1);
+        }
+        int arrivedAfter = order.size();
+        submit("interactive", 1, done);
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        // Behind most of the bulk backlog in arrival order, yet started within a round
+        assertThat(arrivedAfter).isLessThan(50);
+        assertThat(order.indexOf("interactive")).isBetween(arrivedAfter, arrivedAfter + 2);
+    }
+
+    @Test
+    void pausesThePartitionPastTheTotalBoundAndResumesBelowHalf() throws Exception {
+        properties.setMaxQueuedTotal(10);
+        start();
+        CountDownLatch done = new CountDownLatch(11);
+
+        holdTheSlot();
+        submit("a", 5, done);
+        submit("b", 5, done);
+        verify(container, never()).pausePartition(PARTITION);
+        submit("c", 1, done);
+        verify(container).pausePartition(PARTITION);
+        gate.countDown();
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        verify(container, timeout(5000)).resumePartition(PARTITION);
+        assertThat(meterRegistry.get("worker.tenant.partition.pauses").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("worker.tenant.queued").gauge().value()).isZero();
+    }
+
+    @Test
+    void acknowledgesOnlyOnceEveryEarlierRecordHasRun() throws Exception {
+        start();
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        scheduler.submit(NotificationPriority.HIGH, "a", 0, 0, System.currentTimeMillis(), first,
+                () -> awaitQuietly(releaseFirst));
+        scheduler.submit(NotificationPriority.HIGH, "b", 0, 1, System.currentTimeMillis(), second,
+                secondRan::countDown);
+
+        assertThat(secondRan.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+        verify(second, never()).acknowledge();
+        releaseFirst.countDown();
+        verify(second, timeout(5000)).acknowledge();
+        verify(first, never()).acknowledge();
+    }
+
+    private void start() {
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(NotificationConsumer.listenerId(LANE))).thenReturn(container);
+        scheduler = new TenantFairScheduler(new PriorityLaneScheduler(2, 1, 6, 3, 1, meterRegistry),
+                registry, properties, meterRegistry, false);
+    }
+
+    // Keeps the lane's slot busy until the gate opens, so the records after it all queue first
+    private void holdTheSlot() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        scheduler.submit(LANE, "gate", 0, nextOffset++, System.currentTimeMillis(), null, () -> {
+            running.countDown();
+            awaitQuietly(gate);
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void submit(String tenant, int records, CountDownLatch done) throws Exception {
+        for (int i = 0; i < records; i++) {
+            scheduler.submit(LANE, tenant, 0, nextOffset++, System.currentTimeMillis(), null, () -> {
+                order.add(tenant);
+                done.countDown();
+            });
+        }
+    }
+
+    private static Map<String, Long> counts(List<String> tenants) {
+        synchronized (tenants) {
+            return tenants.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        }
+    }
+
+    private static TenancyProperties.Quota quota(double weight) {
+        TenancyProperties.Quota quota = new TenancyProperties.Quota();
+        quota.setWeight(weight);
+        return quota;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}